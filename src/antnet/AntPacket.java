@@ -57,11 +57,7 @@ public class AntPacket extends Packet{
 	 * False, otherwise.
 	 */
 	public boolean isTabu(String id) {
-		for (String node : path.nodes()) {
-			if (node.equals(id))
-				return true;
-		}
-		return false; //Not found in the tabu list (nodes already visited).
+		return path.containNode(id);
 	}
 	
 	/**
@@ -81,11 +77,8 @@ public class AntPacket extends Packet{
 	public int destroyLoop(String id) {
 		int size = path.size();
 		int index = path.getNodePosition(id);
-		if (index != -1) { //Loop detected
-			for (int i=1; i <= (size-index); i++) { //starts from the last till the specified node
-				path.removeNodeAt(size - i);
-			}
-		}
+		if (index != -1) //Loop detected
+			path.truncate(index); //from the specified node till the last one
 		return (size - index);
 	}	
 	
@@ -175,14 +168,10 @@ public class AntPacket extends Packet{
 	 * is the source node.
 	 */
 	public String getBackwardNode() {
-		int counter = 0;
-		for (String node : path.nodes()) {
-			if (node.equals(procNode) && !procNode.equals(source)) {
-				return path.getNode(counter - 1);
-			}
-			counter ++; //Increment the counter
-		}
-		return null; // In case of an error!
+		int index = path.getNodePosition(procNode);
+		if ((index == -1) || procNode.equals(source))
+			return null; // In case of an error!
+		return path.getNode(index - 1);
 	}
 	
 	/**
@@ -191,14 +180,10 @@ public class AntPacket extends Packet{
 	 * is the target node.
 	 */
 	public String getForwardNode() {
-		int counter = 0;
-		for (String node : path.nodes()) {
-			if (node.equals(procNode) && !procNode.equals(target)) {
-				return path.getNode(counter + 1);
-			}
-			counter ++; //Increment the counter
-		}
-		return null; // In case of an error!
+		int index = path.getNodePosition(procNode);
+		if ((index == -1) || procNode.equals(target))
+			return null; // In case of an error!
+		return path.getNode(index + 1);
 	}
 	
 	/**
@@ -11,6 +11,8 @@ import java.io.Serializable;
  * In this sense, it is a local parametric view of the global network traffic.
  * The estimation is done using a exponential model. 
  * <p><b>Note:</b> Based on the work of Jacobson and Karels for TCP retransmission time-outs. 
+ * <p>The values are stored in the arrays of a {@link StatisticalParametricModel}, 
+ * and this object is the view of one of its destinations.
  * 
  * @author Gustavo S. Pavani
  * @version 1.0
@@ -19,29 +21,19 @@ import java.io.Serializable;
 public class LocalParametricView implements Serializable {
 	/** Serial version uid. */
 	private static final long serialVersionUID = 1L;
-	/** The sample mean traveling distance to reach destination from the actual node. */
-	private double average;
-	/** The standard deviation traveling distance to reach destination from the actual node. */	
-	private double deviation;
-	/** The best traveling distance over the window observation. */
-	private double best;
-	/** Number of samples for the non-sliding window. */
-	private long window;
-	/** The total number of samples. */
-	private long sample;	
-	/** The exponential model factor. */
-	private double exponential;
-	
+	/** The statistical parametric model that stores the values of this view. */
+	protected StatisticalParametricModel model;
+	/** The id of the destination of this view in the model. */
+	protected int index;
 	
 	/**
-	 * Creates a new LocalParametricView object.
-	 * @param exponentialFactor The exponential factor.
-	 * @param reductor The window reductor.
+	 * Creates a new LocalParametricView object for a destination of a model.
+	 * @param aModel The statistical parametric model that stores the values.
+	 * @param aIndex The id of the destination in the model.
 	 */
-	public LocalParametricView(double exponentialFactor, double reductor) {
-		this.exponential = exponentialFactor;
-		window = Math.round(5 * (reductor/exponential));
-		this.sample = 0;
+	public LocalParametricView(StatisticalParametricModel aModel, int aIndex) {
+		this.model = aModel;
+		this.index = aIndex;
 	}
 
 	/**
@@ -49,20 +41,7 @@ public class LocalParametricView implements Serializable {
 	 * @param value The value to be added.
 	 */
 	public void update(double value) {
-		if ((sample % window)==0) { //Starting of the non-sliding window
-			average = value;
-			deviation = 0;
-			best = value;
-			sample = 0;
-		} else { //Otherwise
-			if (value < best)
-				best = value;
-			double difference = (value - average);
-			average = average + exponential*difference;
-			deviation = deviation + exponential*(Math.abs(difference) - deviation);
-		}
-		//Increment the sample counter
-		sample ++;
+		model.update(value,index);
 	}
 	
 	/**
@@ -71,7 +50,7 @@ public class LocalParametricView implements Serializable {
 	 * @return The distance from the average in terms of stadard deviation units.
 	 */
 	public double evaluate(double value) {
-		return (value - average) / deviation;
+		return (value - model.getAverage(index)) / model.getDeviation(index);
 	}
 	
 	/**
@@ -79,28 +58,28 @@ public class LocalParametricView implements Serializable {
 	 * @return The best value.
 	 */
 	public double getBest() {
-		return this.best;
+		return model.getBest(index);
 	}
 
 	/**
 	 * @return Returns the average.
 	 */
 	public double getAverage() {
-		return average;
+		return model.getAverage(index);
 	}
 
 	/**
 	 * @return Returns the deviation.
 	 */
 	public double getDeviation() {
-		return deviation;
+		return model.getDeviation(index);
 	}
 
 	/**
 	 * @return Returns the window size.
 	 */
 	public long getWindow() {
-		return window;
+		return model.getWindow(index);
 	}
 	
 	/**
@@ -109,13 +88,13 @@ public class LocalParametricView implements Serializable {
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
 		builder.append("Best: ");
-		builder.append(this.best);
+		builder.append(this.getBest());
 		builder.append(", average: ");
-		builder.append(this.average);
+		builder.append(this.getAverage());
 		builder.append(", devitation: ");
-		builder.append(this.deviation);
+		builder.append(this.getDeviation());
 		builder.append(", sample: ");
-		builder.append(this.sample);		
+		builder.append(model.getSample(index));		
 		return builder.toString();		
 	}
 }
@@ -14,6 +14,11 @@ import java.util.*;
 
 /**
  * A pheromone routing table to be used with Ant Colony Optimization Algorithms.
+ * <p>Besides the entries of the routing table, the pheromone levels are kept in a
+ * dense array of destinations by neighbors, with int ids for the neighbors, so that
+ * the next hops are selected without allocating objects. The cumulative distribution
+ * of each destination, with or without a neighbor to be avoided, is cached and
+ * calculated again only after an update of the pheromone levels of the destination.
  *
  * @author Gustavo S. Pavani
  * @version 1.0
@@ -37,6 +42,25 @@ public class PheromoneRoutingTable extends LocalRoutingTable {
 	/** It weights the relative importance of the heuristic correction 
 	 * with respect to the pheromone values stored in the routing table.*/
 	protected static double alpha;
+	/** The ids of the neighbors, indexed by their int ids. */
+	protected String[] neighbors;
+	/** The mapping between the ids of the neighbors and their int ids. */
+	protected HashMap<String,Integer> neighborMap;
+	/** The pheromone levels, indexed by destination * (number of neighbors) + neighbor. */
+	protected double[] pheromone;
+	/** The neighbor objects of the routing table entries, with the same indexes of the pheromone levels. */
+	protected NeighborAttr[] attributes;
+	/** The number of updates of the pheromone levels of each destination. */
+	protected int[] updates;
+	/** The cumulative distributions, indexed by destination * (number of neighbors + 1) + avoided neighbor,
+	 * where the last one means that no neighbor is avoided. */
+	protected transient double[][] cumulative;
+	/** The number of updates of the destination when each cumulative distribution was calculated. */
+	protected transient int[] calculated;
+	/** The working probability distribution of the selections. */
+	protected transient double[] distribution;
+	/** The working int ids of the neighbors of the selections. */
+	protected transient int[] candidates;
 	
 	/**
 	 * Creates a new PheromoneRoutingTable object.
@@ -152,6 +176,233 @@ public class PheromoneRoutingTable extends LocalRoutingTable {
 				}				
 			}
 		}		
+		this.index();
+	}
+
+	/**
+	 * Builds the dense pheromone levels from the entries of the routing table.
+	 * The neighbors are indexed in the order of the entries.
+	 */
+	protected void index() {
+		int rows = destination.length;
+		neighborMap = new HashMap<String,Integer>();
+		if (rows == 0) {
+			neighbors = new String[0];
+		} else {
+			neighbors = destination[0].neighborhood().toArray(new String[0]);
+		}
+		for (int n = 0; n < neighbors.length; n++)
+			neighborMap.put(neighbors[n], n);
+		int degree = neighbors.length;
+		pheromone = new double[rows * degree];
+		attributes = new NeighborAttr[rows * degree];
+		updates = new int[rows];
+		for (int d = 0; d < rows; d++) {
+			for (int n = 0; n < degree; n++) {
+				NeighborAttr attr = (NeighborAttr) destination[d].getEntry(neighbors[n]);
+				attributes[d * degree + n] = attr;
+				pheromone[d * degree + n] = attr.getPheromoneLevel();
+			}
+		}
+		cumulative = null;
+		calculated = null;
+		distribution = null;
+		candidates = null;
+	}
+
+	/**
+	 * Returns the index of the specified destination in the routing table.
+	 * @param target The id of the destination node.
+	 * @return The index of the destination, or -1 if it is not in the routing table.
+	 */
+	public int getDestination(String target) {
+		Integer index = destinationMap.get(target);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Returns the number of neighbors of this node.
+	 * @return The number of neighbors of this node.
+	 */
+	public int getNumberNeighbors() {
+		return neighbors.length;
+	}
+
+	/**
+	 * Returns the int id of the specified neighbor.
+	 * @param neighId The id of the neighbor.
+	 * @return The int id of the neighbor, or -1 if it is not a neighbor of this node.
+	 */
+	public int getNeighborId(String neighId) {
+		if (neighId == null)
+			return -1;
+		Integer neighbor = neighborMap.get(neighId);
+		return (neighbor == null) ? -1 : neighbor;
+	}
+
+	/**
+	 * Returns the id of the specified neighbor.
+	 * @param neighbor The int id of the neighbor.
+	 * @return The id of the neighbor.
+	 */
+	public String getNeighbor(int neighbor) {
+		return neighbors[neighbor];
+	}
+
+	/**
+	 * Returns the pheromone level of a neighbor, given a destination.
+	 * @param destination The index of the destination.
+	 * @param neighbor The int id of the neighbor.
+	 * @return The pheromone level of the neighbor.
+	 */
+	public double getPheromoneLevel(int destination, int neighbor) {
+		return pheromone[destination * neighbors.length + neighbor];
+	}
+
+	/**
+	 * Sets the pheromone level of a neighbor, given a destination, invalidating
+	 * the cached distributions of the destination.
+	 * @param destination The index of the destination.
+	 * @param neighbor The int id of the neighbor.
+	 * @param level The new pheromone level.
+	 */
+	public void setPheromoneLevel(int destination, int neighbor, double level) {
+		int index = destination * neighbors.length + neighbor;
+		pheromone[index] = level;
+		attributes[index].setPheromoneLevel(level);
+		updates[destination]++;
+	}
+
+	/**
+	 * Returns the neighbor with the highest pheromone level, given a destination.
+	 * Ties are broken by the order of the neighbors.
+	 * @param destination The index of the destination.
+	 * @param avoided The int id of the neighbor to be avoided, or -1 if none.
+	 * @return The int id of the neighbor, or -1 if there is no other neighbor.
+	 */
+	public int best(int destination, int avoided) {
+		int degree = neighbors.length;
+		int base = destination * degree;
+		int max = -1; //The neighbor with the highest level
+		double maxLevel = Double.NEGATIVE_INFINITY;
+		for (int n = 0; n < degree; n++) {
+			if ((n != avoided) && (maxLevel < pheromone[base + n])) {
+				maxLevel = pheromone[base + n];
+				max = n;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Selects a neighbor at random with probabilities proportional to the pheromone
+	 * levels, given a destination. The random number is drawn only if there is a
+	 * neighbor to be selected.
+	 * @param destination The index of the destination.
+	 * @param avoided The int id of the neighbor to be avoided, or -1 if none.
+	 * @param random The random number generator.
+	 * @return The int id of the neighbor, or -1 if there is no other neighbor.
+	 */
+	public int sample(int destination, int avoided, Random random) {
+		int degree = neighbors.length;
+		if (degree == ((avoided == -1) ? 0 : 1))
+			return -1;
+		double[] cdf = this.getCumulative(destination, avoided);
+		double sample = random.nextDouble();
+		if (Double.isNaN(cdf[degree - 1])) //Without pheromone, the first neighbor
+			return (avoided == 0) ? 1 : 0;
+		//The first neighbor whose cumulative probability reaches the sample
+		int low = 0;
+		int high = degree - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (cdf[middle] < sample)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		if ((low == degree - 1) && (low == avoided)) //Rounding of the last probability
+			low--;
+		else if (low == avoided) //Avoided first neighbor and null sample
+			low++;
+		return low;
+	}
+
+	/**
+	 * Returns the cumulative distribution of the pheromone levels of a destination,
+	 * calculating it if the levels were updated since the last calculation. The
+	 * cumulative probability of the avoided neighbor is equal to the previous one.
+	 * @param destination The index of the destination.
+	 * @param avoided The int id of the neighbor to be avoided, or -1 if none.
+	 * @return The cumulative distribution of the pheromone levels.
+	 */
+	protected double[] getCumulative(int destination, int avoided) {
+		int degree = neighbors.length;
+		if (cumulative == null) {
+			cumulative = new double[updates.length * (degree + 1)][];
+			calculated = new int[updates.length * (degree + 1)];
+		}
+		int slot = destination * (degree + 1) + ((avoided == -1) ? degree : avoided);
+		double[] cdf = cumulative[slot];
+		if ((cdf != null) && (calculated[slot] == updates[destination]))
+			return cdf;
+		if (cdf == null) {
+			cdf = new double[degree];
+			cumulative[slot] = cdf;
+		}
+		int base = destination * degree;
+		double total = 0.0; //Sum of the levels
+		for (int n = 0; n < degree; n++) {
+			if (n != avoided)
+				total = total + pheromone[base + n];
+		}
+		double sum = 0.0;
+		for (int n = 0; n < degree; n++) {
+			if (n != avoided)
+				sum = sum + (pheromone[base + n] / total);
+			cdf[n] = sum;
+		}
+		calculated[slot] = updates[destination];
+		return cdf;
+	}
+
+	/**
+	 * Returns the working probability distribution of the selections, with one
+	 * position for each neighbor.
+	 * @return The working probability distribution of the selections.
+	 */
+	public double[] getDistribution() {
+		if (distribution == null)
+			distribution = new double[neighbors.length];
+		return distribution;
+	}
+
+	/**
+	 * Returns the working int ids of the neighbors of the selections, with one
+	 * position for each neighbor.
+	 * @return The working int ids of the neighbors of the selections.
+	 */
+	public int[] getCandidates() {
+		if (candidates == null)
+			candidates = new int[neighbors.length];
+		return candidates;
+	}
+
+	/**
+	 * Spins the roulette wheel over a probability distribution.
+	 * @param probabilities The probability distribution.
+	 * @param size The number of probabilities of the distribution.
+	 * @param sample The sample uniformly distributed in [0,1).
+	 * @return The position of the selected probability.
+	 */
+	public static int spin(double[] probabilities, int size, double sample) {
+		double sum = probabilities[0];
+		int n = 0;
+		while ((sum < sample) && (n < size - 1)) {
+			n = n + 1;
+			sum = sum + probabilities[n];
+		}
+		return n;
 	}
 
 	/**
@@ -165,12 +416,7 @@ public class PheromoneRoutingTable extends LocalRoutingTable {
 		String target = packet.getTarget();
 		//Get the appropriate destination routing table
 		int index = destinationMap.get(target);
-		RoutingTableEntry neighborhood = destination[index];
-//		System.out.println("Packet: "+packet);
-//		System.out.println("Neighborhood: "+neighborhood);
-//		try {
-		return AntNetControlPlane.select(neighborhood,packet);
-//		} catch(Exception e){System.out.println("*** "+packet.toString() +" \n"+neighborhood.toString());return null;}
+		return AntNetControlPlane.select(this,index,packet);
 	}
 	
 
@@ -178,24 +424,22 @@ public class PheromoneRoutingTable extends LocalRoutingTable {
 	/**
 	 * Returns the adaptive reinforcement given by the backward ant in respect
 	 * to the local parametric model of the node.
-	 * @param ant The backward ant;
-	 * @param view The local parametric view associated with the target of the backward ant.
+	 * @param subPath The traveling value of the sub-path of the backward ant to the destination.
+	 * @param model The local parametric model of the node.
+	 * @param view The id of the destination in the local parametric model.
 	 * @param size The size of the neighborhood.
-	 * @param destId The identification of the destination node
 	 * @return The adaptive reinforcement value.
 	 */
-	protected double getReinforcement(AntPacket ant, LocalParametricView view, int size, String destId) {
+	protected double getReinforcement(double subPath, StatisticalParametricModel model, int view, int size) {
 		//The reinforcement given by the specified ant.
 		double reinforcement;
-		String procId = ant.getNode();
-		double subPath = (double) ant.getSubPathLength(procId,destId); 
+		double best = model.getBest(view);
 //		System.out.println("SubPath: "+subPath);
-//		System.out.println("View: "+view.toString());
-		double firstTerm = (view.getBest() / subPath);
-		double upperInterval = view.getAverage() + zFactor * (view.getDeviation() / Math.sqrt((double)view.getWindow()));
+		double firstTerm = (best / subPath);
+		double upperInterval = model.getUpperInterval(view,zFactor);
 //		System.out.println("upperInterval: "+upperInterval);
-		double denominator = ((upperInterval - view.getBest()) + (subPath - view.getBest()));
-		double secondTerm = (upperInterval - view.getBest()) / denominator;
+		double denominator = ((upperInterval - best) + (subPath - best));
+		double secondTerm = (upperInterval - best) / denominator;
 //		System.out.println("SecondTerm: "+secondTerm);
 		if (denominator == 0.0) { //Singularity problems!
 			reinforcement = firstTerm;
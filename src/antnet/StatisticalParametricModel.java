@@ -4,15 +4,22 @@
 package antnet;
 
 import graph.Graph;
+import graph.Path;
 
 import java.io.Serializable;
 import java.util.HashMap;
-import java.util.Vector;
+import java.util.List;
 
 
 /**
  * It is a vector of (N - 1) data structures, containing
  * statistics concerning all destinations of an optical node.
+ * <p>The statistics are stored as parallel arrays indexed by the id of the
+ * destination, i.e., its position in the list of nodes given at the creation,
+ * so that a backward ant updates all destinations of its sub-path without
+ * allocating or dereferencing one object per destination. The estimation is
+ * the one described in {@link LocalParametricView}, which is a view of a
+ * single destination of this model.
  *
  * @author Gustavo S. Pavani
  * @version 1.0
@@ -23,12 +30,26 @@ public class StatisticalParametricModel implements Serializable{
 	private static final long serialVersionUID = 1L;	
 	/** Mapping between nodes and values. */
 	protected HashMap<String,Integer> map;
-	/** Statistical parametric model values. */
-	protected LocalParametricView[] parametricModel;
-	/** The physical topology. */
-	protected Graph graph;
+	/** The identification of the destinations, indexed by their ids. */
+	protected String[] nodes;
 	/** The identification of this node. */
 	protected String id;
+	/** The exponential model factor. */
+	protected double exponential;
+	/** The sample mean traveling distance to reach each destination from this node. */
+	protected double[] average;
+	/** The standard deviation traveling distance to reach each destination from this node. */
+	protected double[] deviation;
+	/** The best traveling distance to each destination over the window observation. */
+	protected double[] best;
+	/** Number of samples for the non-sliding window of each destination. */
+	protected long[] window;
+	/** The number of samples of each destination in the current window. */
+	protected long[] sample;
+	/** The ids of the destinations updated by the last backward ant. */
+	protected transient int[] updated;
+	/** The traveling values of the destinations updated by the last backward ant. */
+	protected transient double[] values;
 	
 	/**
 	 * Creates a new StatisticalParametricModel object
@@ -38,30 +59,73 @@ public class StatisticalParametricModel implements Serializable{
 	 * @param reductor The window reduction.
 	 */
 	public StatisticalParametricModel(String aId, Graph aGraph, double exponentialFactor, double reductor) {
+		this(aId, aGraph.nodes(), exponentialFactor, reductor);
+	}
+	
+	/**
+	 * Creates a new StatisticalParametricModel object
+	 * @param aId The id of the node that belongs this model.
+	 * @param aNodes The identification of the destinations, which may include this node.
+	 * @param exponentialFactor The exponential factor.
+	 * @param reductor The window reduction.
+	 */
+	public StatisticalParametricModel(String aId, List<String> aNodes, double exponentialFactor, double reductor) {
 		this.id = aId;
-		this.graph = aGraph;
+		this.exponential = exponentialFactor;
+		int size = aNodes.size();
 		map = new HashMap<String,Integer>();
-		parametricModel = new LocalParametricView[graph.size()];
-		Vector<String> nodes = graph.nodes();
-		for (int index=0; index < graph.size();index++) {
-			String nodeId = nodes.get(index); 
+		nodes = new String[size];
+		average = new double[size];
+		deviation = new double[size];
+		best = new double[size];
+		window = new long[size];
+		sample = new long[size];
+		for (int index=0; index < size;index++) {
+			String nodeId = aNodes.get(index); 
 			map.put(nodeId.toString(),index);
-			if (!nodeId.equals(id)) {
-				parametricModel[index]= new LocalParametricView(exponentialFactor,reductor);
-			} else {
-				parametricModel[index] = null;
-			}
+			nodes[index] = nodeId;
+			window[index] = Math.round(5 * (reductor/exponential));
 		}
 	}
 	
+	/**
+	 * Returns the id of the specified destination.
+	 * @param destination The identification of the destination.
+	 * @return The id of the destination, or -1 if it is not in this model.
+	 */
+	public int getIndex(String destination) {
+		Integer index = map.get(destination);
+		return (index == null) ? -1 : index.intValue();
+	}
+	
+	/**
+	 * Returns the number of destinations of this model, including this node.
+	 * @return The number of destinations of this model.
+	 */
+	public int size() {
+		return nodes.length;
+	}
+	
+	/**
+	 * Returns the identification of the specified destination.
+	 * @param index The id of the destination.
+	 * @return The identification of the destination.
+	 */
+	public String getNode(int index) {
+		return nodes[index];
+	}
+	
 	/**
 	 * Gets the local parametric view associated to the specified destination.
 	 * @param destination The id of the destination of the node.
-	 * @return The local parametric view associated to the specified destination.
+	 * @return The local parametric view associated to the specified destination,
+	 * or null if it is this node.
 	 */
 	public LocalParametricView get(String destination) {
 		int index = map.get(destination);
-		return parametricModel[index];
+		if (nodes[index].equals(id))
+			return null;
+		return new LocalParametricView(this,index);
 	}
 	
 	/**
@@ -71,23 +135,141 @@ public class StatisticalParametricModel implements Serializable{
 	 */
 	public void update(double metric, String nodeId) {
 		int index = map.get(nodeId);
-		LocalParametricView view = parametricModel[index];
-		view.update(metric);
+		this.update(metric,index);
 	}
 	
 	/**
-	 * Update the local model associated with the destination of this
-	 * backward ant.
+	 * Updates the local model of the specified destination with the specified value.
+	 * @param value The value to be added.
+	 * @param index The id of the destination.
+	 */
+	public void update(double value, int index) {
+		if ((sample[index] % window[index])==0) { //Starting of the non-sliding window
+			average[index] = value;
+			deviation[index] = 0;
+			best[index] = value;
+			sample[index] = 0;
+		} else { //Otherwise
+			if (value < best[index])
+				best[index] = value;
+			double difference = (value - average[index]);
+			average[index] = average[index] + exponential*difference;
+			deviation[index] = deviation[index] + exponential*(Math.abs(difference) - deviation[index]);
+		}
+		//Increment the sample counter
+		sample[index] ++;
+	}
+	
+	/**
+	 * Updates the local models of the destinations of the sub-path of a backward
+	 * ant, i.e., the nodes between the processing node (exclusive) and the target
+	 * node (inclusive). A destination is updated if its traveling value is below
+	 * the upper confidence interval or if it is the target of the ant. The ids
+	 * and the traveling values of the updated destinations are given, in the order
+	 * of the sub-path, by {@link #getUpdated()} and {@link #getValues()}.
 	 * @param ant The backward ant.
+	 * @param zFactor The factor of the upper confidence interval.
+	 * @return The number of updated destinations.
 	 */
-/*	public void update(AntPacket ant) {
+	public int update(AntPacket ant, double zFactor) {
+		Path path = ant.getPath();
 		String target = ant.getTarget();
-		int index = map.get(target);
-		LocalParametricView view = parametricModel[index];
-		double numberHops = (double) ant.getSubPathLength(id);
-		view.update(numberHops);
+		int size = path.size();
+		int start = path.getNodePosition(ant.getNode());
+		if ((updated == null) || (updated.length < size)) {
+			updated = new int[size];
+			values = new double[size];
+		}
+		int count = 0;
+		for (int i = start + 1; i < size; i++) {
+			String nodeId = path.getNode(i);
+			int index = map.get(nodeId);
+			//Get the traveling value of the subpath
+			double pathValue = (double)(path.getNodePosition(nodeId) - start);
+			//If it is a good sub-path or it is the "true" target node do
+			if ((pathValue < this.getUpperInterval(index,zFactor)) || target.equals(nodeId)) {
+				this.update(pathValue,index);
+				updated[count] = index;
+				values[count] = pathValue;
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns the ids of the destinations updated by the last backward ant.
+	 * The array is reused by the next update.
+	 * @return The ids of the destinations updated by the last backward ant.
+	 */
+	public int[] getUpdated() {
+		return updated;
+	}
+	
+	/**
+	 * Returns the traveling values of the destinations updated by the last backward ant.
+	 * The array is reused by the next update.
+	 * @return The traveling values of the destinations updated by the last backward ant.
+	 */
+	public double[] getValues() {
+		return values;
+	}
+	
+	/**
+	 * Returns the upper confidence interval of the traveling distance to the specified destination.
+	 * @param index The id of the destination.
+	 * @param zFactor The factor of the confidence level.
+	 * @return The upper confidence interval.
+	 */
+	public double getUpperInterval(int index, double zFactor) {
+		return average[index] + zFactor * (deviation[index] / Math.sqrt((double)window[index]));
+	}
+	
+	/**
+	 * Returns the best traveling distance to the specified destination.
+	 * @param index The id of the destination.
+	 * @return The best traveling distance.
+	 */
+	public double getBest(int index) {
+		return best[index];
 	}
-*/	
+	
+	/**
+	 * Returns the average traveling distance to the specified destination.
+	 * @param index The id of the destination.
+	 * @return The average traveling distance.
+	 */
+	public double getAverage(int index) {
+		return average[index];
+	}
+	
+	/**
+	 * Returns the deviation of the traveling distance to the specified destination.
+	 * @param index The id of the destination.
+	 * @return The deviation of the traveling distance.
+	 */
+	public double getDeviation(int index) {
+		return deviation[index];
+	}
+	
+	/**
+	 * Returns the window size of the specified destination.
+	 * @param index The id of the destination.
+	 * @return The window size.
+	 */
+	public long getWindow(int index) {
+		return window[index];
+	}
+	
+	/**
+	 * Returns the number of samples of the specified destination in the current window.
+	 * @param index The id of the destination.
+	 * @return The number of samples.
+	 */
+	public long getSample(int index) {
+		return sample[index];
+	}
+	
 	/**
 	 * Returns a String representation of this object.
 	 */
@@ -96,13 +278,10 @@ public class StatisticalParametricModel implements Serializable{
 		builder.append("Id: ");
 		builder.append(id);
 		builder.append("\n");
-		Vector<String> nodes = graph.nodes();
-		for (int index=0; index < nodes.size(); index ++) {
-			String key = nodes.get(index);
-			builder.append(key);
+		for (int index=0; index < nodes.length; index ++) {
+			builder.append(nodes[index]);
 			builder.append(" - ");
-			LocalParametricView view = parametricModel[index];
-			builder.append(view.toString());
+			builder.append(this.get(nodes[index]));
 			builder.append("\n");
 		}
 		return builder.toString();
@@ -0,0 +1,291 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package event;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calendar queue implementation of the event queue. For further information,
+ * see R. Brown, <i>"Calendar queues: a fast O(1) priority queue implementation
+ * for the simulation event set problem"</i>, Communications of the ACM,
+ * Vol. 31, pp. 1220-1227, 1988.
+ * <p>The events are hashed by their time stamp into buckets of a fixed width,
+ * each one kept as a sorted linked list, so that enqueue and dequeue cost
+ * amortized O(1) for the mostly-monotone time stamps of the simulations.
+ * The number of buckets and their width are recalculated whenever the
+ * number of events doubles or halves.
+ * Events with the same time stamp are served in order of insertion.
+ *
+ * @version 1.0
+ */
+public class CalendarEventQueue implements EventQueue {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 2;
+	/** The maximum number of buckets. */
+	private static final int MAX_BUCKETS = 1 << 24;
+	/** The number of events sampled for estimating the width of the buckets. */
+	private static final int SAMPLE_SIZE = 25;
+	/** The first event of each bucket. */
+	transient Event[] head;
+	/** The last event of each bucket. */
+	transient Event[] tail;
+	/** The mask for calculating the bucket of a virtual bucket (number of buckets - 1). */
+	transient int mask;
+	/** The width (in time units) of each bucket. */
+	double width;
+	/** The virtual bucket (time stamp / width) of the last served event. */
+	transient long current;
+	/** The number of events stored in this queue. */
+	transient int size;
+	/** The counter of insertions, used for FIFO tie-breaking. */
+	long sequence;
+
+	/**
+	 * Creates a new CalendarEventQueue object.
+	 */
+	public CalendarEventQueue() {
+		this.width = 1.0;
+		this.allocate(MIN_BUCKETS);
+	}
+
+	/**
+	 * Allocates a new empty set of buckets.
+	 * @param buckets The number of buckets (power of two).
+	 */
+	private void allocate(int buckets) {
+		head = new Event[buckets];
+		tail = new Event[buckets];
+		mask = buckets - 1;
+		size = 0;
+	}
+
+	/**
+	 * Returns the virtual bucket of the specified time stamp.
+	 * @param time The time stamp.
+	 * @return The virtual bucket of the specified time stamp.
+	 */
+	private long virtual(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	/**
+	 * Returns true if the event a has to be served before the event b.
+	 */
+	private static boolean precedes(Event a, Event b) {
+		return (a.timeStamp < b.timeStamp) || ((a.timeStamp == b.timeStamp) && (a.sequence < b.sequence));
+	}
+
+	public void add(Event event) {
+		if (event.queued)
+			throw new IllegalStateException("Event already in the queue: "+event.toString());
+		event.sequence = sequence++;
+		this.insert(event);
+		if ((size > (2 * (mask + 1))) && ((mask + 1) < MAX_BUCKETS))
+			this.resize(2 * (mask + 1));
+	}
+
+	/**
+	 * Inserts the event in its bucket, keeping the bucket sorted.
+	 * @param event The event to be inserted.
+	 */
+	private void insert(Event event) {
+		long v = virtual(event.timeStamp);
+		int i = (int) (v & mask);
+		event.queued = true;
+		Event last = tail[i];
+		if (last == null) { //empty bucket
+			event.next = null;
+			head[i] = event;
+			tail[i] = event;
+		} else if (!precedes(event, last)) { //usual case: append to the end
+			event.next = null;
+			last.next = event;
+			tail[i] = event;
+		} else if (precedes(event, head[i])) { //new first element
+			event.next = head[i];
+			head[i] = event;
+		} else { //walk through the bucket
+			Event previous = head[i];
+			while (!precedes(event, previous.next))
+				previous = previous.next;
+			event.next = previous.next;
+			previous.next = event;
+		}
+		//Event in the past of the calendar
+		if ((size == 0) || (v < current))
+			current = v;
+		size++;
+	}
+
+	/**
+	 * Locates the first event of this queue, updating the current virtual bucket.
+	 * @return The first event of this queue, or null if the queue is empty.
+	 */
+	private Event locate() {
+		if (size == 0)
+			return null;
+		long v = current;
+		for (int k = 0; k <= mask; k++, v++) {
+			Event first = head[(int) (v & mask)];
+			if ((first != null) && (virtual(first.timeStamp) <= v)) {
+				current = v;
+				return first;
+			}
+		}
+		//No event in the current year: direct search
+		Event min = null;
+		for (int i = 0; i <= mask; i++) {
+			Event first = head[i];
+			if ((first != null) && ((min == null) || precedes(first, min)))
+				min = first;
+		}
+		current = virtual(min.timeStamp);
+		return min;
+	}
+
+	public Event peek() {
+		return this.locate();
+	}
+
+	public Event poll() {
+		Event first = this.locate();
+		if (first == null)
+			return null;
+		int i = (int) (current & mask);
+		head[i] = first.next;
+		if (first.next == null)
+			tail[i] = null;
+		first.next = null;
+		first.queued = false;
+		size--;
+		if ((size < ((mask + 1) / 2)) && ((mask + 1) > MIN_BUCKETS))
+			this.resize((mask + 1) / 2);
+		return first;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Changes the number of buckets and estimates the new width of the buckets
+	 * using the separation among the first events in the queue.
+	 * @param buckets The new number of buckets.
+	 */
+	private void resize(int buckets) {
+		Event[] events = this.drain();
+		double newWidth = estimateWidth(events);
+		if (newWidth > 0.0)
+			this.width = newWidth;
+		this.allocate(buckets);
+		for (Event event : events)
+			this.insert(event);
+	}
+
+	/**
+	 * Removes all events from the buckets, without any ordering.
+	 * @return The removed events.
+	 */
+	private Event[] drain() {
+		Event[] events = new Event[size];
+		int counter = 0;
+		for (int i = 0; i <= mask; i++) {
+			Event event = head[i];
+			while (event != null) {
+				Event next = event.next;
+				event.next = null;
+				event.queued = false;
+				events[counter++] = event;
+				event = next;
+			}
+			head[i] = null;
+			tail[i] = null;
+		}
+		return events;
+	}
+
+	/**
+	 * Estimates the width of the buckets as three times the average separation
+	 * of the first events, ignoring separations larger than twice the average.
+	 * @param events The events of the queue.
+	 * @return The estimated width, or zero if it cannot be estimated.
+	 */
+	private static double estimateWidth(Event[] events) {
+		int n = Math.min(SAMPLE_SIZE, events.length);
+		if (n < 2)
+			return 0.0;
+		//Selects the n smallest time stamps
+		double[] sample = new double[n];
+		Arrays.fill(sample, Double.POSITIVE_INFINITY);
+		for (Event event : events) {
+			double time = event.timeStamp;
+			if (time < sample[n - 1]) {
+				int j = n - 1;
+				while ((j > 0) && (sample[j - 1] > time)) {
+					sample[j] = sample[j - 1];
+					j--;
+				}
+				sample[j] = time;
+			}
+		}
+		double average = (sample[n - 1] - sample[0]) / (n - 1);
+		double sum = 0.0;
+		int counter = 0;
+		for (int i = 1; i < n; i++) {
+			double separation = sample[i] - sample[i - 1];
+			if (separation <= 2.0 * average) {
+				sum = sum + separation;
+				counter++;
+			}
+		}
+		if ((counter == 0) || (sum == 0.0) || Double.isInfinite(sum))
+			return 0.0;
+		return 3.0 * sum / counter;
+	}
+
+	public List<Event> asList() {
+		List<Event> list = new ArrayList<Event>(size);
+		for (int i = 0; i <= mask; i++) {
+			for (Event event = head[i]; event != null; event = event.next)
+				list.add(event);
+		}
+		return list;
+	}
+
+	/**
+	 * Writes this queue as a sequence of events.
+	 * @param s The output stream.
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		s.writeInt(size);
+		for (Event event : this.asList())
+			s.writeObject(event);
+	}
+
+	/**
+	 * Reads this queue from a sequence of events, keeping their original order of insertion.
+	 * @param s The input stream.
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		int n = s.readInt();
+		int buckets = MIN_BUCKETS;
+		while ((buckets < n) && (buckets < MAX_BUCKETS))
+			buckets = 2 * buckets;
+		this.allocate(buckets);
+		for (int i = 0; i < n; i++)
+			this.insert((Event) s.readObject());
+	}
+}
@@ -52,6 +52,14 @@ public class Event implements Comparable, Serializable {
 	Type type;
 	/** The content associated with this event, such as packet arrival or link failure.*/
 	Object content;
+	/** The order of insertion in the event queue, for breaking ties among equal time stamps. */
+	long sequence;
+	/** The next event in the same bucket of a calendar queue. */
+	transient Event next;
+	/** Flag indicating that this event is currently stored in an event queue. */
+	transient boolean queued;
+	/** Flag indicating that this event was released to the event pool. */
+	transient boolean released;
 	
 	/**
 	 * Creates a new Event object.
@@ -67,6 +75,27 @@ public class Event implements Comparable, Serializable {
 		this.content = aContent;		
 	}
 	
+	/**
+	 * Returns an event with the specified values, recycled from the event pool
+	 * of the current thread whenever possible.
+	 * 
+	 * @param time The time when the event takes place.
+	 * @param aType The type of this event.
+	 * @param aContent The content associated with this event.
+	 * @return An event with the specified values.
+	 */
+	public static Event obtain(double time, Type aType, Object aContent) {
+		return EventPool.getCurrent().acquire(time, aType, aContent);
+	}
+	
+	/**
+	 * Verifies that this event is not used after being released to the event pool.
+	 */
+	void checkReleased() {
+		if (released)
+			throw new IllegalStateException("Event used after being released: "+this.toString());
+	}
+	
 	/**
 	 * Compares this Event object to another one and returns a number indicating the natural order
 	 * for scheduling these events.
@@ -91,6 +120,7 @@ public class Event implements Comparable, Serializable {
 	 * @return The type of this event.
 	 */
 	public Type getType() {
+		checkReleased();
 		return this.type;
 	}
 	
@@ -99,6 +129,7 @@ public class Event implements Comparable, Serializable {
 	 * @return The time stamp of this event.
 	 */
 	public double getTimeStamp() {
+		checkReleased();
 		return this.timeStamp;
 	}	
 	
@@ -107,6 +138,7 @@ public class Event implements Comparable, Serializable {
 	 * @return The time stamp when the event was generated.
 	 */
 	public double getInitialTimeStamp() {
+		checkReleased();
 		return this.initialTimeStamp;
 	}
 	
@@ -115,6 +147,7 @@ public class Event implements Comparable, Serializable {
 	 * @param stamp The new time stamp for this event.
 	 */
 	public void setTimeStamp(double stamp) {
+		checkReleased();
 		this.timeStamp = stamp;
 	}
 	
@@ -123,6 +156,7 @@ public class Event implements Comparable, Serializable {
 	 * @param aType The new type of this event.
 	 */
 	public void setType(Type aType) {
+		checkReleased();
 		this.type = aType;
 	}
 	
@@ -131,11 +165,14 @@ public class Event implements Comparable, Serializable {
 	 * @return The content associated with this event.
 	 */
 	public Object getContent() {
+		checkReleased();
 		return this.content;
 	}
 	
 	public String toString() {
 		StringBuilder buf = new StringBuilder();
+		if (released)
+			buf.append("[released] ");
 		buf.append("Type: ");
 		buf.append(type);
 		buf.append(", time stamp: ");
@@ -80,7 +80,7 @@ public class EventGenerator implements Serializable {
 		if (subscriber == null) {
 			throw new Exception("No subscriber associated to this generator with "+distribution.getClass().getCanonicalName());
 		}
-		Event event = new Event(timeStamp, subscriber.getType(), subscriber.getContent());
+		Event event = Event.obtain(timeStamp, subscriber.getType(), subscriber.getContent());
 		return event;
 	}
 	
@@ -3,16 +3,14 @@
  */
 package event;
 
-import util.*;
-
 import java.io.Serializable;
 import java.util.List;
 
 /**
  * A list for storing the events to be served. For speeding-up the operations of
- * removing and adding events to this list, this implementation uses a priority queue (heap)
- * internally, respecting the order of insertion if two elements have
- * the same priority.
+ * removing and adding events to this list, this implementation uses a priority queue
+ * internally (a calendar queue by default), respecting the order of insertion if two
+ * elements have the same priority.
  *
  * @author Gustavo S. Pavani
  * @version 1.0
@@ -22,14 +20,22 @@ public class EventList implements Serializable {
 	/** Serial version uid. */
 	private static final long serialVersionUID = 1L;
 	/** The queue for storing all events waiting for processing. */
-	StrictBinaryHeap queue;
+	EventQueue queue;
 	
 	/**
-	 * Creates a new EventList object.
+	 * Creates a new EventList object, backed by a calendar queue.
 	 *
 	 */
 	public EventList() {
-		queue = new StrictBinaryHeap(true);
+		queue = new CalendarEventQueue();
+	}
+	
+	/**
+	 * Creates a new EventList object.
+	 * @param aQueue The priority queue used for storing the events.
+	 */
+	public EventList(EventQueue aQueue) {
+		queue = aQueue;
 	}
 	
 	/**
@@ -37,7 +43,7 @@ public class EventList implements Serializable {
 	 * @return The next event of the list.
 	 */
 	public Event getNextEvent() {
-		return (Event)queue.peek();
+		return queue.peek();
 	}
 	
 	/**
@@ -45,7 +51,7 @@ public class EventList implements Serializable {
 	 * @return The next event of the list.
 	 */
 	public Event pollNextEvent() {
-		return (Event)queue.remove();
+		return queue.poll();
 	}
 	
 	/**
@@ -53,6 +59,7 @@ public class EventList implements Serializable {
 	 * @param event The specified event to be stored.
 	 */
 	public void addEvent(Event event) {
+		event.checkReleased();
 		queue.add(event);
 	}
 	
@@ -70,7 +77,7 @@ public class EventList implements Serializable {
 	 */
 	public void dump() {
 		while (queue.size() > 0) {
-			System.out.println(queue.remove().toString());
+			System.out.println(queue.poll().toString());
 		}		
 	}
 	
@@ -78,11 +85,10 @@ public class EventList implements Serializable {
 	 * Returns a String representation of this object.
 	 * No ordering can be assumed in this String!
 	 */
-	@SuppressWarnings("unchecked")
 	public String toString() {
 		StringBuilder buf = new StringBuilder();
-		List list = queue.asList();
-		for (Object element:list) {
+		List<Event> list = queue.asList();
+		for (Event element:list) {
 			buf.append(element.toString());
 			buf.append("\n");
 		}
@@ -0,0 +1,139 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package event;
+
+/**
+ * A pool of recycled events, for avoiding the allocation of a new Event object
+ * for each message hop or request of the simulation. The events are obtained with
+ * {@link Event#obtain(double, Event.Type, Object)} and released by the simulator
+ * main loop once they are dispatched to the control plane and not queued again.
+ * <p>Each thread has its own pool, so independent simulations running in parallel
+ * do not share their events. In debug mode, the released events are never reused,
+ * so that any later access to them throws an IllegalStateException.
+ *
+ * @version 1.0
+ */
+public class EventPool {
+	/** The default maximum number of free events kept by the pool. */
+	public static final int DEFAULT_CAPACITY = 4096;
+	/** The pool of each thread. */
+	private static final ThreadLocal<EventPool> current = new ThreadLocal<EventPool>() {
+		protected EventPool initialValue() {
+			return new EventPool(DEFAULT_CAPACITY, false);
+		}
+	};
+	/** The free events, ready to be reused. */
+	protected Event[] free;
+	/** The number of free events. */
+	protected int size;
+	/** Flag indicating the detection of events used after being released. */
+	protected boolean debug;
+	/** The number of events allocated by this pool. */
+	protected long allocated;
+	/** The number of events reused by this pool. */
+	protected long reused;
+	/** The number of events released to this pool. */
+	protected long released;
+
+	/**
+	 * Creates a new EventPool object.
+	 * @param capacity The maximum number of free events kept by the pool. Zero disables the recycling.
+	 * @param aDebug True for detecting events used after being released; false, otherwise.
+	 */
+	public EventPool(int capacity, boolean aDebug) {
+		this.free = new Event[Math.max(capacity, 0)];
+		this.size = 0;
+		this.debug = aDebug;
+	}
+
+	/**
+	 * Returns the pool of the current thread.
+	 * @return The pool of the current thread.
+	 */
+	public static EventPool getCurrent() {
+		return current.get();
+	}
+
+	/**
+	 * Sets the pool of the current thread.
+	 * @param pool The new pool of the current thread.
+	 */
+	public static void setCurrent(EventPool pool) {
+		current.set(pool);
+	}
+
+	/**
+	 * Returns an event with the specified values, reusing a released one, if available.
+	 * @param time The time when the event takes place.
+	 * @param aType The type of the event.
+	 * @param aContent The content associated with the event.
+	 * @return An event with the specified values.
+	 */
+	public Event acquire(double time, Event.Type aType, Object aContent) {
+		if (size == 0) {
+			allocated++;
+			return new Event(time, aType, aContent);
+		}
+		Event event = free[--size];
+		free[size] = null;
+		event.released = false;
+		event.timeStamp = time;
+		event.initialTimeStamp = time;
+		event.type = aType;
+		event.content = aContent;
+		reused++;
+		return event;
+	}
+
+	/**
+	 * Gives back an event that is not referenced anymore by the simulation.
+	 * @param event The event to be released.
+	 */
+	public void release(Event event) {
+		if (event.released)
+			throw new IllegalStateException("Event released twice: "+event.toString());
+		if (event.queued)
+			throw new IllegalStateException("Event released while still queued: "+event.toString());
+		event.released = true;
+		released++;
+		if (debug) //keeps the event out of circulation
+			return;
+		event.content = null;
+		event.next = null;
+		if (size < free.length)
+			free[size++] = event;
+	}
+
+	/**
+	 * Verifies if this pool is in debug mode.
+	 * @return True, if the released events are checked for later use; false, otherwise.
+	 */
+	public boolean isDebug() {
+		return this.debug;
+	}
+
+	/**
+	 * Returns the number of free events kept by this pool.
+	 * @return The number of free events kept by this pool.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("allocated: ");
+		buf.append(allocated);
+		buf.append(", reused: ");
+		buf.append(reused);
+		buf.append(", released: ");
+		buf.append(released);
+		buf.append(", free: ");
+		buf.append(size);
+		return buf.toString();
+	}
+}
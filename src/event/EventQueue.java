@@ -0,0 +1,50 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package event;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Defines the priority queue used by the EventList for storing the events
+ * waiting to be served. Implementations must serve the events in increasing
+ * order of time stamp and, if two events have the same time stamp, in the
+ * order of insertion (FIFO). The only exception is {@link LegacyHeapEventQueue},
+ * which reproduces the results of the original simulator.
+ *
+ * @version 1.0
+ */
+public interface EventQueue extends Serializable {
+
+	/**
+	 * Stores a new event in this queue.
+	 * @param event The event to be stored.
+	 */
+	public void add(Event event);
+
+	/**
+	 * Returns the next event of the queue, without removing it.
+	 * @return The next event of the queue, or null if the queue is empty.
+	 */
+	public Event peek();
+
+	/**
+	 * Returns the next event of the queue, by removing it.
+	 * @return The next event of the queue, or null if the queue is empty.
+	 */
+	public Event poll();
+
+	/**
+	 * Returns the number of events stored in this queue.
+	 * @return The number of events stored in this queue.
+	 */
+	public int size();
+
+	/**
+	 * Returns a list representation of this queue.
+	 * No ordering can be assumed in this list!
+	 * @return A list representation of this queue.
+	 */
+	public List<Event> asList();
+}
@@ -0,0 +1,72 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import util.StrictBinaryHeap;
+
+/**
+ * An event queue backed by a binary heap that respects the order of
+ * insertion for events with the same time stamp. Each operation costs
+ * O(log n).
+ *
+ * @see LegacyHeapEventQueue
+ *
+ * @version 1.0
+ */
+public class HeapEventQueue implements EventQueue {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The heap for storing all events waiting for processing. */
+	StrictBinaryHeap heap;
+
+	/**
+	 * Creates a new HeapEventQueue object.
+	 */
+	public HeapEventQueue() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new HeapEventQueue object.
+	 * @param lastInFirstOut True, if the events with the same time stamp are served
+	 * in the reverse order of insertion. False, in the order of insertion.
+	 */
+	protected HeapEventQueue(boolean lastInFirstOut) {
+		heap = new StrictBinaryHeap(true, lastInFirstOut);
+	}
+
+	public void add(Event event) {
+		heap.add(event);
+		event.queued = true;
+	}
+
+	public Event peek() {
+		if (heap.isEmpty())
+			return null;
+		return (Event)heap.peek();
+	}
+
+	public Event poll() {
+		if (heap.isEmpty())
+			return null;
+		Event event = (Event)heap.remove();
+		event.queued = false;
+		return event;
+	}
+
+	public int size() {
+		return heap.size();
+	}
+
+	public List<Event> asList() {
+		List<Event> list = new ArrayList<Event>(heap.size());
+		for (Comparable<?> element:heap.asList()) {
+			list.add((Event)element);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,25 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package event;
+
+/**
+ * The event queue of the original simulator, backed by a binary heap that
+ * serves the events with the same time stamp in the reverse order of insertion
+ * (LIFO). It reproduces the reference outputs obtained before the event queue
+ * became pluggable, whereas the other queues serve such events in the order of
+ * insertion, which changes the results of some simulations.
+ *
+ * @version 1.0
+ */
+public class LegacyHeapEventQueue extends HeapEventQueue {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a new LegacyHeapEventQueue object.
+	 */
+	public LegacyHeapEventQueue() {
+		super(true);
+	}
+}
@@ -6,7 +6,9 @@ package event;
 import util.*;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Hashtable;
+import java.util.Vector;
 
 /**
  * Schedules the events and manages the event generation.
@@ -20,29 +22,78 @@ public class Scheduler implements Serializable {
 	private static final long serialVersionUID = 1L;	
 	/** The event list associated with the scheduler. */
 	public EventList eventList;
-	/** The event generator priority list. */
-	public BinaryHeap generatorList;
-	/** Statistics for generation of each subscriber/generator. */
-	public Hashtable<String,Long> statistics;
+	/** The event generators, indexed by their order of registration. */
+	public Vector<EventGenerator> generators;
+	/** The event generator priority list, keyed by the time of the next event of each generator. */
+	public IndexedHeap generatorList;
+	/** The number of events created by each generator, indexed by the generator id. */
+	public long[] counters;
+	/** The condition for stopping the current run, if any. */
+	public TerminationCondition termination;
 	
 	/**
 	 * Creates a new Scheduler object.
 	 */
 	public Scheduler() {
+		this(new EventList());
+	}
+	
+	/**
+	 * Creates a new Scheduler object.
+	 * @param aEventList The event list to be used by this scheduler.
+	 */
+	public Scheduler(EventList aEventList) {
 		//Creates the new classes of list
-		eventList = new EventList();
-		generatorList = new BinaryHeap(true);
-		statistics = new Hashtable<String,Long>();
+		eventList = aEventList;
+		generators = new Vector<EventGenerator>();
+		generatorList = new IndexedHeap(1);
+		counters = new long[0];
 	}
 		
 	/**
 	 * Add a event generator to this scheduler.
 	 * @param generator An event generator.
+	 * @return The id of the generator, i.e., its order of registration.
 	 */
-	public void addGenerator(EventGenerator generator) {
-		Listener listener = new Listener(generator);
-		generatorList.add(listener);
-		statistics.put(generator.getSubscriberName(),new Long(0));
+	public int addGenerator(EventGenerator generator) {
+		int id = generators.size();
+		generatorList.add(id,generator.getStartTime());
+		generators.add(generator);
+		counters = Arrays.copyOf(counters,id + 1);
+		return id;
+	}
+	
+	/**
+	 * Returns the ids of the generators associated to the specified subscriber.
+	 * @param subscriberName The name of the subscriber.
+	 * @return The ids of the generators associated to the specified subscriber.
+	 */
+	public int[] getGeneratorIds(String subscriberName) {
+		int counter = 0;
+		int[] ids = new int[generators.size()];
+		for (int id = 0; id < ids.length; id++) {
+			if (generators.get(id).getSubscriberName().equals(subscriberName))
+				ids[counter++] = id;
+		}
+		return Arrays.copyOf(ids,counter);
+	}
+	
+	/**
+	 * Sets the condition for stopping the current run, initializing it with the
+	 * current counters of the generators.
+	 * @param aTermination The condition for stopping the current run.
+	 */
+	public void setTermination(TerminationCondition aTermination) {
+		this.termination = aTermination;
+		termination.initialize(this);
+	}
+	
+	/**
+	 * Verifies if the current run has to stop, according to the termination condition.
+	 * @return True, if the termination condition is satisfied; false, otherwise.
+	 */
+	public boolean isFinished() {
+		return (termination != null) && termination.isSatisfied();
 	}
 	
 	/**
@@ -63,7 +114,7 @@ public class Scheduler implements Serializable {
 		Event event=null; //the event to be returned
 		//Get the time of the next event in the list of generators
 		if (generatorList.size() > 0)
-			timeGen = ((Listener)generatorList.peek()).getTime();
+			timeGen = generatorList.peekKey();
 		else
 			throw new Exception("There is no event generator associated to the scheduler!");
 		//Get the time of the next event in the list of queued events
@@ -73,27 +124,26 @@ public class Scheduler implements Serializable {
 			timeQueue = Double.MAX_VALUE;
 		//Now compare these times and decides what kind of event to use.
 		if (timeGen <= timeQueue) { //generate event
-			//Get the first element of the list
-			Listener listener = (Listener) generatorList.remove();
-			//Get the generator
-			EventGenerator generator = listener.getGenerator();
+			//Get the generator of the first element of the list
+			int index = generatorList.peek();
+			EventGenerator generator = generators.get(index);
 			//Increment the counter
-			String subscriberName = generator.getSubscriberName();
-			Long counter = statistics.get(subscriberName);
-			long newCounter = counter.longValue() + 1;
-			statistics.put(subscriberName,new Long(newCounter));
+			counters[index]++;
+			if (termination != null)
+				termination.generated(index);
 			//Generate the event
 			try {
 				event = generator.create(timeGen);
 			} catch (Exception e) {e.printStackTrace();}
 			//Get the interarrival time
 			double iat = generator.getNextEventTime();
-			//Update the time of the next event and reinsert it in the list of generators
-			listener.setTime(timeGen+iat);
-			generatorList.add(listener);
+			//Update in place the time of the next event in the list of generators
+			generatorList.update(index,timeGen+iat);
 		} else { //get the first element of the list
 			event = eventList.pollNextEvent();
 		}
+		if ((termination != null) && (event != null))
+			termination.served(event);
 		return event;
 	}
 	
@@ -104,9 +154,27 @@ public class Scheduler implements Serializable {
 	 * the associated generator is executed.
 	 */
 	public Hashtable<String,Long> getStatistics() {
+		Hashtable<String,Long> statistics = new Hashtable<String,Long>();
+		for (int id = 0; id < counters.length; id++) {
+			String subscriberName = generators.get(id).getSubscriberName();
+			Long counter = statistics.get(subscriberName);
+			long value = (counter == null) ? 0L : counter.longValue();
+			statistics.put(subscriberName,new Long(value + counters[id]));
+		}
 		return statistics;
 	}
 	
+	/**
+	 * Returns the number of times that the specified generator
+	 * is executed, i.e., it creates a new event.
+	 * @param id The id of the generator.
+	 * @return The number of times that the specified generator
+	 * is executed.
+	 */
+	public long getCounter(int id) {
+		return counters[id];
+	}
+	
 	/**
 	 * Returns the number of times that the specified subscriber
 	 * is executed, i.e., the generator creates a new event.
@@ -115,7 +183,10 @@ public class Scheduler implements Serializable {
 	 * is executed.
 	 */
 	public long getCounter(String subscriberName) {
-		return statistics.get(subscriberName).longValue();
+		long counter = 0;
+		for (int id : getGeneratorIds(subscriberName))
+			counter = counter + counters[id];
+		return counter;
 	}
 	
 	/**
@@ -127,77 +198,8 @@ public class Scheduler implements Serializable {
 		buf.append("Event list:");
 		buf.append(eventList.toString());
 		buf.append("\n Statistics summary:\n");
-		buf.append(statistics.toString());
+		buf.append(getStatistics().toString());
 		return buf.toString();
 	}
-	
-	/**
-	 * Encapsulates the information relative to each event generator.
-	 * 
-	 * @author Gustavo S. Pavani
-	 * @version 1.0
-	 */
-	@SuppressWarnings("unchecked")
-	class Listener implements Comparable, Serializable{
-		/** Serial version uid. */
-		private static final long serialVersionUID = 1L;	
-		/** The time of the next event. */
-		double nextEventTime;
-		/** The event generator. */
-		EventGenerator generator;
-		
-		/**
-		 * Creates a new Listener object with nextEventTime equal to the generator start time.
-		 * @param aEventGenerator The specified event generator.
-		 */
-		Listener(EventGenerator aEventGenerator) {
-			this.generator = aEventGenerator;
-			nextEventTime = generator.getStartTime();
-		}
-		
-		/**
-		 * Compares this Listener object to another one and returns a number indicating the natural order
-		 * for scheduling these events.
-		 * 
-		 * @param obj Another Listener object.
-		 * @return -1, if this event has to be served first;
-		 *         +1, if this event has to be served after the compared event;
-		 *          0, if both events have to be served at the same time. 
-		 */
-		public int compareTo(Object obj) {
-			if (this.nextEventTime - ((Listener)obj).getTime() < 0.0) {
-				return -1;
-			} else if (this.nextEventTime - ((Listener)obj).getTime() > 0.0) {
-				return +1;
-			} else {
-				return 0;
-			}
-		}
-		
-		/**
-		 * Returns the time of the next event.
-		 * @return The time of the next event.
-		 */
-		public double getTime() {
-			return this.nextEventTime;
-		}
-
-		/**
-		 * Set the time of the next event.
-		 * @param time The new time of the next event.
-		 */
-		public void setTime(double time) {
-			this.nextEventTime = time;
-		}
-
-		/**
-		 * Gets the event generator associated to this listener object.
-		 * @return The event generator associated to this listener object.
-		 */
-		public EventGenerator getGenerator() {
-			return this.generator;
-		}
-
-	}
 
 }
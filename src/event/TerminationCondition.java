@@ -0,0 +1,148 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package event;
+
+import java.io.Serializable;
+
+/**
+ * The condition for stopping a run of the simulation, evaluated incrementally
+ * by the scheduler in O(1) for each served event. A run stops as soon as any of
+ * the following limits is reached:
+ * <ul>
+ * <li>the number of events created by the counted generators (the requests);</li>
+ * <li>the time stamp of the last served event (the simulated time);</li>
+ * <li>the number of events served by the scheduler.</li>
+ * </ul>
+ * The event that reaches a limit is still served.
+ *
+ * @version 1.0
+ */
+public class TerminationCondition implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The maximum number of requests. */
+	protected long maxRequests;
+	/** The maximum simulated time. */
+	protected double maxTime;
+	/** The maximum number of served events. */
+	protected long maxEvents;
+	/** Flag for each generator id indicating that its events are counted as requests. */
+	protected boolean[] counted;
+	/** The number of requests created so far. */
+	protected long requests;
+	/** The time stamp of the last served event. */
+	protected double time;
+	/** The number of events served so far. */
+	protected long events;
+
+	/**
+	 * Creates a new TerminationCondition object without any limit.
+	 */
+	public TerminationCondition() {
+		this.maxRequests = Long.MAX_VALUE;
+		this.maxTime = Double.POSITIVE_INFINITY;
+		this.maxEvents = Long.MAX_VALUE;
+		this.counted = new boolean[0];
+	}
+
+	/**
+	 * Sets the maximum number of requests.
+	 * @param limit The maximum number of requests.
+	 * @param generators The ids of the generators whose events are counted as requests.
+	 */
+	public void setMaxRequests(long limit, int[] generators) {
+		this.maxRequests = limit;
+		int length = 0;
+		for (int id : generators)
+			length = Math.max(length, id + 1);
+		this.counted = new boolean[length];
+		for (int id : generators)
+			this.counted[id] = true;
+	}
+
+	/**
+	 * Sets the maximum simulated time.
+	 * @param limit The maximum simulated time.
+	 */
+	public void setMaxTime(double limit) {
+		this.maxTime = limit;
+	}
+
+	/**
+	 * Sets the maximum number of served events.
+	 * @param limit The maximum number of served events.
+	 */
+	public void setMaxEvents(long limit) {
+		this.maxEvents = limit;
+	}
+
+	/**
+	 * Initializes the counters from the current state of the scheduler, so that
+	 * the requests already created by a loaded simulation are taken into account.
+	 * @param scheduler The scheduler.
+	 */
+	public void initialize(Scheduler scheduler) {
+		requests = 0;
+		for (int id = 0; id < counted.length; id++) {
+			if (counted[id])
+				requests = requests + scheduler.getCounter(id);
+		}
+		events = 0;
+		time = 0.0;
+	}
+
+	/**
+	 * Notifies that the generator with the specified id created a new event.
+	 * @param generator The id of the generator.
+	 */
+	public void generated(int generator) {
+		if ((generator < counted.length) && counted[generator])
+			requests++;
+	}
+
+	/**
+	 * Notifies that the scheduler served the specified event.
+	 * @param event The served event.
+	 */
+	public void served(Event event) {
+		events++;
+		time = event.timeStamp;
+	}
+
+	/**
+	 * Verifies if the run of the simulation has to stop.
+	 * @return True, if any of the limits is reached; false, otherwise.
+	 */
+	public boolean isSatisfied() {
+		return (requests >= maxRequests) || (events >= maxEvents) || (time >= maxTime);
+	}
+
+	/**
+	 * Returns the number of requests created so far.
+	 * @return The number of requests created so far.
+	 */
+	public long getRequests() {
+		return this.requests;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("requests: ");
+		buf.append(requests);
+		buf.append("/");
+		buf.append(maxRequests);
+		buf.append(", time: ");
+		buf.append(time);
+		buf.append("/");
+		buf.append(maxTime);
+		buf.append(", events: ");
+		buf.append(events);
+		buf.append("/");
+		buf.append(maxEvents);
+		return buf.toString();
+	}
+}
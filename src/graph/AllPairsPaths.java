@@ -0,0 +1,350 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Logger;
+
+/**
+ * Calculates the K-shortest paths of all pairs source-destination of a graph.
+ * The pairs are distributed among the threads of a fork-join pool by source node,
+ * each thread with its own instance of the Yen's algorithm over the compact snapshot
+ * of the graph, and the result is assembled in the same order of the sequential loop.
+ * <p>Optionally, the paths are stored in a binary cache file in the specified directory,
+ * whose name is given by a hash of the nodes, the edges, their weights and K.
+ * When the cache file exists, it is memory-mapped and read instead of calculating
+ * the paths again, e.g., in the other values of the variable of a simulation.
+ * The simulations of the same JVM, even with different class loaders, use a cache
+ * file one at a time, locking it with {@link CacheLocks}, so that only the first one
+ * calculates the paths and the others read them.
+ *
+ * @version 1.0
+ */
+public class AllPairsPaths implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The magic number of the cache files. */
+	public static final int MAGIC = 0x50415448;
+	/** The version of the format of the cache files. */
+	public static final int VERSION = 1;
+	/** The logging generator. */
+	private static Logger logger = Logger.getLogger(AllPairsPaths.class.getName());
+	/** The number of threads, or 0 to use the number of processors. */
+	protected int threads;
+	/** The directory of the cache files, or null if the paths are not cached. */
+	protected String cache;
+
+	/**
+	 * Creates a new AllPairsPaths object.
+	 * @param aThreads The number of threads, or 0 to use the number of processors.
+	 * @param aCache The directory of the cache files, or null if the paths are not cached.
+	 */
+	public AllPairsPaths(int aThreads, String aCache) {
+		this.threads = aThreads;
+		this.cache = aCache;
+	}
+
+	/**
+	 * Returns the K-shortest paths of each pair source-destination of the graph.
+	 * @param topology The graph.
+	 * @param K The number of desired shortest paths.
+	 * @return The K-shortest paths of each pair, keyed by "source-destination", in the order
+	 * of the nodes of the graph. The value is null for all pairs if K is less than 1.
+	 */
+	public LinkedHashMap<String,Vector<Path>> getPaths(Graph topology, int K) {
+		CompactGraph g = topology.snapshot();
+		int size = g.size();
+		int[][][] paths = null;
+		double[][] costs = new double[size * size][];
+		if (cache != null) {
+			File file = new File(cache, "paths-" + Long.toHexString(hash(g, K)) + ".bin");
+			//The lock is shared by all simulation contexts of the JVM
+			synchronized (CacheLocks.get(file.getAbsolutePath())) {
+				if (file.exists()) {
+					paths = new int[size * size][][];
+					try {
+						read(file, g, K, paths, costs);
+						logger.fine("Paths read from: " + file);
+					} catch (Exception e) {
+						logger.warning("Invalid cache file " + file + ": " + e);
+						paths = null;
+					}
+				}
+				if (paths == null) {
+					paths = this.calculate(g, K, costs);
+					try {
+						write(file, g, K, paths, costs);
+						logger.fine("Paths written to: " + file);
+					} catch (Exception e) {
+						logger.warning("Cache file " + file + " not written: " + e);
+					}
+				}
+			}
+		} else {
+			paths = this.calculate(g, K, costs);
+		}
+		//Assembles the paths in the order of the sequential calculation
+		LinkedHashMap<String,Vector<Path>> routes = new LinkedHashMap<String,Vector<Path>>();
+		for (int src = 0; src < size; src++) {
+			for (int tgt = 0; tgt < size; tgt++) {
+				if (src != tgt) { //Assure different nodes in the pair
+					int pair = src * size + tgt;
+					Vector<Path> vector = null;
+					if (paths[pair] != null) {
+						vector = new Vector<Path>();
+						for (int k = 0; k < paths[pair].length; k++) {
+							if (paths[pair][k] == null) { //There is no path between the nodes
+								vector.add(null);
+								continue;
+							}
+							Path path = new Path();
+							for (int node : paths[pair][k])
+								path.addNode(g.getNode(node));
+							path.setCost(costs[pair][k]);
+							vector.add(path);
+						}
+					}
+					routes.put(g.getNode(src) + "-" + g.getNode(tgt), vector);
+				}
+			}
+		}
+		return routes;
+	}
+
+	/**
+	 * Calculates the K-shortest paths of each pair source-destination of the graph.
+	 * @param g The compact graph.
+	 * @param K The number of desired shortest paths.
+	 * @param costs The costs of the paths of each pair, to be filled.
+	 * @return The node ids of the paths of each pair.
+	 */
+	protected int[][][] calculate(CompactGraph g, int K, double[][] costs) {
+		int[][][] paths = new int[g.size() * g.size()][][];
+		ForkJoinPool pool = (threads > 0) ? new ForkJoinPool(threads) : new ForkJoinPool();
+		try {
+			pool.invoke(new Sources(g, K, 0, g.size(), paths, costs));
+		} finally {
+			pool.shutdown();
+		}
+		return paths;
+	}
+
+	/**
+	 * Returns a 64-bit FNV-1a hash of the nodes, the edges and their weights of a graph and of K.
+	 * @param g The compact graph.
+	 * @param K The number of desired shortest paths.
+	 * @return The hash of the graph and K.
+	 */
+	public static long hash(CompactGraph g, int K) {
+		long hash = 0xcbf29ce484222325L;
+		hash = hash(hash, VERSION);
+		hash = hash(hash, K);
+		hash = hash(hash, g.size());
+		for (int i = 0; i < g.size(); i++) {
+			String node = g.getNode(i);
+			hash = hash(hash, node.length());
+			for (int j = 0; j < node.length(); j++)
+				hash = hash(hash, node.charAt(j));
+		}
+		hash = hash(hash, g.numberOfEdges());
+		for (int e = 0; e < g.numberOfEdges(); e++) {
+			hash = hash(hash, g.getSource(e));
+			hash = hash(hash, g.getTarget(e));
+			long bits = Double.doubleToLongBits(g.getWeight(e));
+			hash = hash(hash, (int) (bits >>> 32));
+			hash = hash(hash, (int) bits);
+		}
+		return hash;
+	}
+
+	/**
+	 * Adds the bytes of the specified value to a FNV-1a hash.
+	 * @param hash The current hash.
+	 * @param value The value.
+	 * @return The new hash.
+	 */
+	private static long hash(long hash, int value) {
+		for (int shift = 24; shift >= 0; shift = shift - 8) {
+			hash = hash ^ ((value >>> shift) & 0xff);
+			hash = hash * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Writes the paths to a cache file. The file is written with a temporary name
+	 * and then renamed, so that concurrent simulations never read a partial file.
+	 * @param file The cache file.
+	 * @param g The compact graph.
+	 * @param K The number of desired shortest paths.
+	 * @param paths The node ids of the paths of each pair.
+	 * @param costs The costs of the paths of each pair.
+	 * @throws IOException If the file cannot be written.
+	 */
+	protected static void write(File file, CompactGraph g, int K, int[][][] paths, double[][] costs) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		directory.mkdirs();
+		File temp = File.createTempFile(file.getName(), ".tmp", directory);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(hash(g, K));
+			out.writeInt(g.size());
+			out.writeInt(K);
+			for (int pair = 0; pair < paths.length; pair++) {
+				if ((pair / g.size()) == (pair % g.size()))
+					continue;
+				if (paths[pair] == null) {
+					out.writeInt(-1);
+					continue;
+				}
+				out.writeInt(paths[pair].length);
+				for (int k = 0; k < paths[pair].length; k++) {
+					int[] path = paths[pair][k];
+					if (path == null) {
+						out.writeInt(0);
+						continue;
+					}
+					out.writeInt(path.length);
+					out.writeDouble(costs[pair][k]);
+					for (int node : path)
+						out.writeInt(node);
+				}
+			}
+		} finally {
+			out.close();
+		}
+		if (!temp.renameTo(file))
+			temp.delete(); //Written by another simulation in the meantime
+	}
+
+	/**
+	 * Reads the paths from a memory-mapped cache file.
+	 * @param file The cache file.
+	 * @param g The compact graph.
+	 * @param K The number of desired shortest paths.
+	 * @param paths The node ids of the paths of each pair, to be filled.
+	 * @param costs The costs of the paths of each pair, to be filled.
+	 * @throws IOException If the file cannot be read or does not match the graph.
+	 */
+	protected static void read(File file, CompactGraph g, int K, int[][][] paths, double[][] costs) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if ((in.getInt() != MAGIC) || (in.getInt() != VERSION) || (in.getLong() != hash(g, K))
+					|| (in.getInt() != g.size()) || (in.getInt() != K))
+				throw new IOException("The cache file does not match the graph");
+			for (int pair = 0; pair < paths.length; pair++) {
+				if ((pair / g.size()) == (pair % g.size()))
+					continue;
+				int number = in.getInt();
+				if (number == -1)
+					continue;
+				paths[pair] = new int[number][];
+				costs[pair] = new double[number];
+				for (int k = 0; k < number; k++) {
+					int length = in.getInt();
+					if (length == 0)
+						continue;
+					costs[pair][k] = in.getDouble();
+					int[] path = new int[length];
+					for (int i = 0; i < length; i++) {
+						path[i] = in.getInt();
+						if ((path[i] < 0) || (path[i] >= g.size()))
+							throw new IOException("Invalid node id: " + path[i]);
+					}
+					paths[pair][k] = path;
+				}
+			}
+			if (in.hasRemaining())
+				throw new IOException("Unexpected data at the end of the cache file");
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupted cache file", e);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Calculates the paths of a range of source nodes, splitting the range among
+	 * the threads of the pool.
+	 */
+	protected static class Sources extends RecursiveAction {
+		/** Serial version uid. */
+		private static final long serialVersionUID = 1L;
+		/** The compact graph. */
+		protected CompactGraph g;
+		/** The number of desired shortest paths. */
+		protected int K;
+		/** The first source node of the range. */
+		protected int start;
+		/** The source node following the last one of the range. */
+		protected int end;
+		/** The node ids of the paths of each pair. */
+		protected int[][][] paths;
+		/** The costs of the paths of each pair. */
+		protected double[][] costs;
+
+		/**
+		 * Creates a new Sources object.
+		 * @param aG The compact graph.
+		 * @param aK The number of desired shortest paths.
+		 * @param aStart The first source node of the range.
+		 * @param aEnd The source node following the last one of the range.
+		 * @param aPaths The node ids of the paths of each pair, to be filled.
+		 * @param aCosts The costs of the paths of each pair, to be filled.
+		 */
+		protected Sources(CompactGraph aG, int aK, int aStart, int aEnd, int[][][] aPaths, double[][] aCosts) {
+			this.g = aG;
+			this.K = aK;
+			this.start = aStart;
+			this.end = aEnd;
+			this.paths = aPaths;
+			this.costs = aCosts;
+		}
+
+		/**
+		 * Calculates the paths of the range of source nodes.
+		 */
+		protected void compute() {
+			if (end - start > 1) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new Sources(g, K, start, middle, paths, costs), new Sources(g, K, middle, end, paths, costs));
+				return;
+			}
+			YEN yen = new YEN();
+			int size = g.size();
+			for (int src = start; src < end; src++) {
+				for (int tgt = 0; tgt < size; tgt++) {
+					if (src == tgt)
+						continue;
+					int pair = src * size + tgt;
+					try {
+						Vector<int[]> results = yen.getShortestPaths(src, tgt, g, K);
+						paths[pair] = results.toArray(new int[results.size()][]);
+						costs[pair] = new double[results.size()];
+						for (int k = 0; k < results.size(); k++) {
+							if (results.get(k) != null)
+								costs[pair][k] = yen.getCost(k);
+						}
+					} catch (Exception e) {e.printStackTrace();}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package graph;
+
+import java.util.Hashtable;
+
+/**
+ * The locks of the cache files of the paths, one for each file name.
+ * <p>The simulation contexts of a runner load this class from the parent
+ * class loader, instead of loading a private copy of it, so that all contexts
+ * of the JVM share the same locks. Therefore, this class must not refer to any
+ * other class of the simulator.
+ *
+ * @version 1.0
+ */
+public class CacheLocks {
+	/** The locks, keyed by the absolute name of the cache file. */
+	private static Hashtable<String,Object> locks = new Hashtable<String,Object>();
+
+	/**
+	 * Returns the lock of the specified cache file, creating it if necessary.
+	 * @param name The absolute name of the cache file.
+	 * @return The lock of the cache file.
+	 */
+	public static synchronized Object get(String name) {
+		Object lock = locks.get(name);
+		if (lock == null) {
+			lock = new Object();
+			locks.put(name, lock);
+		}
+		return lock;
+	}
+}
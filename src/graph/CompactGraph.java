@@ -0,0 +1,221 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package graph;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+/**
+ * An immutable snapshot of a graph in the compressed sparse row (CSR) format,
+ * which is optimized for the sparse topologies of the optical networks.
+ * Each node has an integer id (its index in the originating graph), the edges
+ * leaving a node occupy a contiguous range of edge ids, ordered by target node,
+ * and the lookup of the id of a node costs O(1).
+ * <p>The weight of each edge is its value, if it is a number; otherwise, it is NaN.
+ * Changes made to the originating graph are not reflected in the snapshot.
+ *
+ * @version 1.0
+ */
+public class CompactGraph implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The key of each node, indexed by the node id. */
+	protected String[] nodes;
+	/** The id of each node, indexed by the node key. */
+	protected HashMap<String,Integer> ids;
+	/** The first edge id of each node; the edges of node i range from offsets[i] to offsets[i+1]-1. */
+	protected int[] offsets;
+	/** The source node of each edge. */
+	protected int[] sources;
+	/** The target node of each edge. */
+	protected int[] targets;
+	/** The weight of each edge. */
+	protected double[] weights;
+	/** The original edge object of each edge. */
+	protected Edge[] edges;
+
+	/**
+	 * Creates a new CompactGraph object from the current state of the specified graph.
+	 * @param graph The graph.
+	 */
+	public CompactGraph(Graph graph) {
+		int size = graph.size();
+		nodes = new String[size];
+		ids = new HashMap<String,Integer>(2 * size);
+		for (int i = 0; i < size; i++) {
+			nodes[i] = graph.getNode(i);
+			ids.put(nodes[i], i);
+		}
+		//Counts the edges, since the counter of the graph is not updated when a node is removed
+		int numberOfEdges = 0;
+		for (int i = 0; i < size * size; i++) {
+			if (graph.matrix.get(i) != null)
+				numberOfEdges++;
+		}
+		offsets = new int[size + 1];
+		sources = new int[numberOfEdges];
+		targets = new int[numberOfEdges];
+		weights = new double[numberOfEdges];
+		edges = new Edge[numberOfEdges];
+		int counter = 0;
+		for (int i = 0; i < size; i++) {
+			offsets[i] = counter;
+			for (int j = 0; j < size; j++) {
+				Edge edge = graph.matrix.get(i * size + j);
+				if (edge != null) {
+					sources[counter] = i;
+					targets[counter] = j;
+					Object value = edge.getValue();
+					weights[counter] = (value instanceof Number) ? ((Number) value).doubleValue() : Double.NaN;
+					edges[counter] = edge;
+					counter++;
+				}
+			}
+		}
+		offsets[size] = counter;
+	}
+
+	/**
+	 * Returns the number of nodes of this graph.
+	 * @return The number of nodes of this graph.
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the number of edges of this graph.
+	 * @return The number of edges of this graph.
+	 */
+	public int numberOfEdges() {
+		return targets.length;
+	}
+
+	/**
+	 * Returns the id of the specified node.
+	 * @param key The key of the node.
+	 * @return The id of the node, or -1 if it does not exist.
+	 */
+	public int getId(String key) {
+		Integer id = ids.get(key);
+		return (id == null) ? -1 : id.intValue();
+	}
+
+	/**
+	 * Returns the key of the node with the specified id.
+	 * @param node The id of the node.
+	 * @return The key of the node.
+	 */
+	public String getNode(int node) {
+		return nodes[node];
+	}
+
+	/**
+	 * Returns the first edge id of the specified node.
+	 * @param node The id of the node.
+	 * @return The first edge id of the specified node.
+	 */
+	public int edgeStart(int node) {
+		return offsets[node];
+	}
+
+	/**
+	 * Returns the edge id following the last edge of the specified node.
+	 * @param node The id of the node.
+	 * @return The edge id following the last edge of the specified node.
+	 */
+	public int edgeEnd(int node) {
+		return offsets[node + 1];
+	}
+
+	/**
+	 * Returns the number of edges leaving the specified node.
+	 * @param node The id of the node.
+	 * @return The number of edges leaving the specified node.
+	 */
+	public int degree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	/**
+	 * Returns the source node of the specified edge.
+	 * @param edge The id of the edge.
+	 * @return The id of the source node of the edge.
+	 */
+	public int getSource(int edge) {
+		return sources[edge];
+	}
+
+	/**
+	 * Returns the target node of the specified edge.
+	 * @param edge The id of the edge.
+	 * @return The id of the target node of the edge.
+	 */
+	public int getTarget(int edge) {
+		return targets[edge];
+	}
+
+	/**
+	 * Returns the weight of the specified edge.
+	 * @param edge The id of the edge.
+	 * @return The weight of the edge.
+	 */
+	public double getWeight(int edge) {
+		return weights[edge];
+	}
+
+	/**
+	 * Returns the original edge object of the specified edge.
+	 * @param edge The id of the edge.
+	 * @return The original edge object.
+	 */
+	public Edge getEdge(int edge) {
+		return edges[edge];
+	}
+
+	/**
+	 * Returns the id of the edge between the specified nodes, in O(log degree).
+	 * @param source The id of the source node.
+	 * @param target The id of the target node.
+	 * @return The id of the edge, or -1 if it does not exist.
+	 */
+	public int getEdgeId(int source, int target) {
+		int low = offsets[source], high = offsets[source + 1] - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int node = targets[middle];
+			if (node < target)
+				low = middle + 1;
+			else if (node > target)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	/**
+	 * Verifies if there is an edge between the specified nodes.
+	 * @param source The id of the source node.
+	 * @param target The id of the target node.
+	 * @return True, if there is an edge between the two specified nodes. False, otherwise.
+	 */
+	public boolean hasEdge(int source, int target) {
+		return getEdgeId(source, target) != -1;
+	}
+
+	/**
+	 * Verifies if there is an edge between the specified nodes.
+	 * @param keySource The key from the source node.
+	 * @param keyTarget The key from the target node.
+	 * @return True, if there is an edge between the two specified nodes. False, otherwise.
+	 */
+	public boolean hasEdge(String keySource, String keyTarget) {
+		int source = getId(keySource);
+		int target = getId(keyTarget);
+		if ((source == -1) || (target == -1))
+			return false;
+		return getEdgeId(source, target) != -1;
+	}
+}
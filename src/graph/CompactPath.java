@@ -0,0 +1,310 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package graph;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An immutable loopless path over the node ids of a compact graph. Besides the node
+ * ids, it keeps the pairs of node id and position sorted by the node id, the edge ids
+ * of its hops and its hash code, so that the membership and position queries take a
+ * binary search over the nodes of the path, the edge queries take constant time and
+ * no object is allocated by them. The memory of a path is proportional to its length,
+ * not to the size of the graph.
+ * <p>The ids are valid only for the compact graph of the path: after a change of the
+ * topology, a new compact path must be obtained from the new snapshot of the graph.
+ *
+ * @version 1.0
+ */
+public class CompactPath implements Serializable, Comparable<CompactPath> {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The compact graph of this path. */
+	protected CompactGraph graph;
+	/** The node ids of this path, from the source to the destination. */
+	protected int[] nodes;
+	/** The pairs of node id and position of the nodes of this path, sorted by the node id. */
+	protected int[] positions;
+	/** The edge id of each hop of this path. */
+	protected int[] edgeIds;
+	/** The total cost of this path. */
+	protected double cost;
+	/** The hash code of this path. */
+	protected int hash;
+
+	/**
+	 * Creates a new CompactPath object.
+	 * @param aGraph The compact graph of this path.
+	 * @param aNodes The node ids of the path, from the source to the destination.
+	 * @param aCost The total cost of the path.
+	 * @throws IllegalArgumentException If the path contains a repeated node or a missing edge.
+	 */
+	public CompactPath(CompactGraph aGraph, int[] aNodes, double aCost) {
+		this.graph = aGraph;
+		this.nodes = aNodes.clone();
+		this.cost = aCost;
+		//Sorts the nodes by id, keeping the position in the lower bits
+		long[] sorted = new long[nodes.length];
+		for (int i = 0; i < nodes.length; i++)
+			sorted[i] = ((long) nodes[i] << 32) | i;
+		Arrays.sort(sorted);
+		positions = new int[2 * nodes.length];
+		for (int i = 0; i < sorted.length; i++) {
+			positions[2 * i] = (int) (sorted[i] >> 32);
+			positions[2 * i + 1] = (int) sorted[i];
+			if ((i > 0) && (positions[2 * i] == positions[2 * i - 2]))
+				throw new IllegalArgumentException("Repeated node in the path: " + graph.getNode(positions[2 * i]));
+		}
+		edgeIds = new int[Math.max(nodes.length - 1, 0)];
+		for (int i = 0; i < nodes.length; i++) {
+			if (i > 0) {
+				edgeIds[i - 1] = graph.getEdgeId(nodes[i - 1], nodes[i]);
+				if (edgeIds[i - 1] == -1)
+					throw new IllegalArgumentException("Missing edge in the path: " + graph.getNode(nodes[i - 1]) + "-" + graph.getNode(nodes[i]));
+			}
+		}
+		hash = Arrays.hashCode(nodes);
+	}
+
+	/**
+	 * Creates a new CompactPath object from a path of the specified compact graph.
+	 * @param path The path.
+	 * @param aGraph The compact graph of the path.
+	 * @throws IllegalArgumentException If a node or an edge of the path is not in the graph.
+	 */
+	public CompactPath(Path path, CompactGraph aGraph) {
+		this(aGraph, ids(path, aGraph), path.getCost());
+	}
+
+	/**
+	 * Returns the node ids of a path of the specified compact graph.
+	 * @param path The path.
+	 * @param graph The compact graph of the path.
+	 * @return The node ids of the path.
+	 * @throws IllegalArgumentException If a node of the path is not in the graph.
+	 */
+	private static int[] ids(Path path, CompactGraph graph) {
+		int[] ids = new int[path.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = graph.getId(path.getNode(i));
+			if (ids[i] == -1)
+				throw new IllegalArgumentException("Missing node in the graph: " + path.getNode(i));
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns an equivalent path with the keys of the nodes.
+	 * @return An equivalent path with the keys of the nodes.
+	 */
+	public Path toPath() {
+		Path path = new Path();
+		for (int node : nodes)
+			path.addNode(graph.getNode(node));
+		path.setCost(cost);
+		return path;
+	}
+
+	/**
+	 * Returns the compact graph of this path.
+	 * @return The compact graph of this path.
+	 */
+	public CompactGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the size of the path (in number of nodes).
+	 * @return The size of the path (in number of nodes).
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the cost of this path.
+	 * @return The cost of this path.
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * Returns the id of the node at the specified position.
+	 * @param i The position of the node.
+	 * @return The id of the node.
+	 */
+	public int getNodeId(int i) {
+		return nodes[i];
+	}
+
+	/**
+	 * Returns the key of the node at the specified position.
+	 * @param i The position of the node.
+	 * @return The key of the node.
+	 */
+	public String getNode(int i) {
+		return graph.getNode(nodes[i]);
+	}
+
+	/**
+	 * Returns the key of the first node (source node).
+	 * @return The key of the first node.
+	 */
+	public String firstNode() {
+		return graph.getNode(nodes[0]);
+	}
+
+	/**
+	 * Returns the key of the last node (destination node).
+	 * @return The key of the last node.
+	 */
+	public String lastNode() {
+		return graph.getNode(nodes[nodes.length - 1]);
+	}
+
+	/**
+	 * Returns the position of the specified node.
+	 * @param node The id of the node.
+	 * @return The position of the node, or -1 if it is not in the path.
+	 */
+	public int getNodePosition(int node) {
+		int low = 0;
+		int high = nodes.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int id = positions[2 * middle];
+			if (id < node)
+				low = middle + 1;
+			else if (id > node)
+				high = middle - 1;
+			else
+				return positions[2 * middle + 1];
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position of the specified node.
+	 * @param key The key of the node.
+	 * @return The position of the node, or -1 if it is not in the path.
+	 */
+	public int getNodePosition(String key) {
+		return this.getNodePosition(graph.getId(key));
+	}
+
+	/**
+	 * Verifies if a node belongs to this path.
+	 * @param key The key of the node.
+	 * @return True, if the node is in the path. False, otherwise.
+	 */
+	public boolean containNode(String key) {
+		return this.getNodePosition(key) != -1;
+	}
+
+	/**
+	 * Returns the key of the node following the specified node.
+	 * @param key The key of the node.
+	 * @return The key of the next node.
+	 * @throws ArrayIndexOutOfBoundsException If the node is the last one or it is not in the path.
+	 */
+	public String getNextNode(String key) throws ArrayIndexOutOfBoundsException {
+		return graph.getNode(nodes[this.getNodePosition(key) + 1]);
+	}
+
+	/**
+	 * Returns the key of the node preceding the specified node.
+	 * @param key The key of the node.
+	 * @return The key of the previous node.
+	 * @throws ArrayIndexOutOfBoundsException If the node is the first one or it is not in the path.
+	 */
+	public String getPreviousNode(String key) throws ArrayIndexOutOfBoundsException {
+		return graph.getNode(nodes[this.getNodePosition(key) - 1]);
+	}
+
+	/**
+	 * Verifies if the path contains the edge between the specified nodes.
+	 * @param source The id of the source node of the edge.
+	 * @param target The id of the target node of the edge.
+	 * @return True, if the path contains the edge.
+	 */
+	public boolean containEdge(int source, int target) {
+		int position = this.getNodePosition(source);
+		return (position != -1) && (position + 1 < nodes.length) && (nodes[position + 1] == target);
+	}
+
+	/**
+	 * Verifies if the path contains the specified edge.
+	 * @param edge The edge.
+	 * @return True, if the path contains the edge.
+	 */
+	public boolean containEdge(Edge edge) {
+		return this.containEdge(graph.getId(edge.getSource()), graph.getId(edge.getDestination()));
+	}
+
+	/**
+	 * Returns the edge id of the specified hop of this path.
+	 * @param i The position of the hop, starting at 0.
+	 * @return The edge id of the hop.
+	 */
+	public int getEdgeId(int i) {
+		return edgeIds[i];
+	}
+
+	/**
+	 * Returns the edge of the specified hop of this path, as stored in the graph.
+	 * @param i The position of the hop, starting at 0.
+	 * @return The edge of the hop.
+	 */
+	public Edge getEdge(int i) {
+		return graph.getEdge(edgeIds[i]);
+	}
+
+	/**
+	 * Compares the cost of this path to another path.
+	 * @param anotherPath The path to be compared to this object.
+	 * @return +1 if anotherPath has a lower cost, -1 if anotherPath has a greater
+	 * cost or 0 if it has the same cost.
+	 */
+	public int compareTo(CompactPath anotherPath) {
+		return Double.compare(cost, anotherPath.cost);
+	}
+
+	/**
+	 * Verifies if two paths are equal, i.e., if they contain the same nodes in the same order.
+	 * @param object The object to be compared to this path.
+	 * @return True, if the object is an equal path.
+	 */
+	public boolean equals(Object object) {
+		if (this == object)
+			return true;
+		if (!(object instanceof CompactPath))
+			return false;
+		CompactPath anotherPath = (CompactPath) object;
+		return (hash == anotherPath.hash) && Arrays.equals(nodes, anotherPath.nodes);
+	}
+
+	/**
+	 * Returns the hash code of this path, which is calculated only once.
+	 * @return The hash code of this path.
+	 */
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Returns a string representation of the path object.
+	 * @return A string representation of the path object.
+	 */
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < nodes.length; i++) {
+			if (i > 0)
+				buffer.append("-");
+			buffer.append(graph.getNode(nodes[i]));
+		}
+		return buffer.toString();
+	}
+}
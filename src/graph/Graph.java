@@ -30,6 +30,8 @@ public class Graph implements Cloneable, Serializable {
     private int numberOfEdges;
     /** Holds the translation from the key of the node to the integer index of the Node-Node Adjacency Matrix. */
     protected Vector<String> map;
+    /** The compact snapshot of the current state of this graph, if already built. */
+    protected transient CompactGraph snapshot;
     
     /** Creates new Graph */
     public Graph() {
@@ -62,6 +64,7 @@ public class Graph implements Cloneable, Serializable {
                 }
             }
             size ++; //Increment the size of the graph
+            snapshot = null; //Invalidate the snapshot
         }
     }
     
@@ -88,6 +91,7 @@ public class Graph implements Cloneable, Serializable {
             matrix.set(source*size+target,edge);
             //Increment the number of edges.
             numberOfEdges ++;
+            snapshot = null; //Invalidate the snapshot
         }
         return edge;
     }
@@ -113,6 +117,7 @@ public class Graph implements Cloneable, Serializable {
             }
             size --; //Decrement the size of the graph
             map.remove(key); //Remove the key from the mapping
+            snapshot = null; //Invalidate the snapshot
         }
     }
     
@@ -134,6 +139,7 @@ public class Graph implements Cloneable, Serializable {
             matrix.set(source*size+target,null);
             //Decrement the number of edges.
             numberOfEdges --;
+            snapshot = null; //Invalidate the snapshot
         }
     }
     
@@ -241,9 +247,24 @@ public class Graph implements Cloneable, Serializable {
         cloneGraph.map = (Vector) map.clone();
         cloneGraph.size = size;
         cloneGraph.numberOfEdges = numberOfEdges;
+        cloneGraph.snapshot = snapshot; //The snapshot is immutable
         return cloneGraph;
     }
     
+    /**
+     * Returns a compact and immutable snapshot of the current state of this graph,
+     * which is rebuilt only after this graph is modified.
+     * @return A compact snapshot of this graph.
+     */
+    public CompactGraph snapshot() {
+        CompactGraph current = snapshot;
+        if (current == null) {
+            current = new CompactGraph(this);
+            snapshot = current;
+        }
+        return current;
+    }
+    
     /**
      * Verifies if the other graph has the same topology of this object.
      */
@@ -308,8 +329,16 @@ public class Graph implements Cloneable, Serializable {
      * @return An enumeration of the adjacent edges of the specified node.
      */
     public Vector<Edge> adjacentEdges(String key) {
+        return adjacentEdges(map.indexOf(key));
+    }
+    
+    /**
+     * Returns an enumeration of the adjacent edges of the node at the specified position.
+     * @param position The position (index) of the specified node.
+     * @return An enumeration of the adjacent edges of the specified node.
+     */
+    public Vector<Edge> adjacentEdges(int position) {
         Vector<Edge> adjacent = new Vector<Edge>();
-        int position = map.indexOf(key);
         for (int i=0; i < size; i++) {
             Edge edge = matrix.get(position*size + i);
             if (edge != null)
@@ -0,0 +1,199 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package graph;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Vector;
+
+/**
+ * Maintains the K-shortest paths of all pairs source-destination of a graph under
+ * the removal of its edges and nodes, e.g., due to failures.
+ * <p>The pairs are indexed by the edges and nodes used by their paths. When an edge
+ * or a node is removed, only the pairs whose paths use it are marked as affected;
+ * the paths of the other pairs remain the K shortest ones, since the removal cannot
+ * create new paths. The affected pairs are recalculated in a single batch when the
+ * paths are read, so that all failures that happen at the same time (e.g., a node
+ * failure and the failures of its links) cause only one repair. Pairs whose source
+ * or destination has been removed are removed as well.
+ *
+ * @version 1.0
+ */
+public class IncrementalPaths implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The graph. */
+	protected Graph graph;
+	/** The number of desired shortest paths. */
+	protected int K;
+	/** The K-shortest paths of each pair, keyed by "source-destination". */
+	protected LinkedHashMap<String,Vector<Path>> routes;
+	/** The source and destination nodes of each pair. */
+	protected HashMap<String,String[]> pairs;
+	/** The pairs whose paths use each edge, keyed by "source-destination" of the edge. */
+	protected HashMap<String,HashSet<String>> edgeIndex;
+	/** The pairs whose paths or end nodes contain each node. */
+	protected HashMap<String,HashSet<String>> nodeIndex;
+	/** The pairs affected by the removals since the last repair. */
+	protected LinkedHashSet<String> affected;
+	/** The Yen's algorithm used for the repairs. */
+	protected transient YEN yen;
+
+	/**
+	 * Creates a new IncrementalPaths object.
+	 * @param aGraph The graph, whose edges and nodes will be removed afterwards.
+	 * @param aRoutes The K-shortest paths of each pair of the current graph, keyed by "source-destination".
+	 * @param aK The number of desired shortest paths.
+	 */
+	public IncrementalPaths(Graph aGraph, LinkedHashMap<String,Vector<Path>> aRoutes, int aK) {
+		this.graph = aGraph;
+		this.routes = aRoutes;
+		this.K = aK;
+		pairs = new HashMap<String,String[]>();
+		edgeIndex = new HashMap<String,HashSet<String>>();
+		nodeIndex = new HashMap<String,HashSet<String>>();
+		affected = new LinkedHashSet<String>();
+		for (String src : graph.nodes()) {
+			for (String tgt : graph.nodes()) {
+				String pair = src + "-" + tgt;
+				if (!src.equals(tgt) && routes.containsKey(pair)) {
+					pairs.put(pair, new String[]{src, tgt});
+					this.index(pair, routes.get(pair), true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks the pairs whose paths use the specified edge as affected. It must be called
+	 * when the edge is removed from the graph.
+	 * @param source The source node of the edge.
+	 * @param destination The destination node of the edge.
+	 */
+	public void removeEdge(String source, String destination) {
+		HashSet<String> set = edgeIndex.get(source + "-" + destination);
+		if (set != null)
+			affected.addAll(set);
+	}
+
+	/**
+	 * Marks the pairs whose paths or end nodes contain the specified node as affected.
+	 * It must be called when the node is removed from the graph.
+	 * @param node The node.
+	 */
+	public void removeNode(String node) {
+		HashSet<String> set = nodeIndex.get(node);
+		if (set != null)
+			affected.addAll(set);
+	}
+
+	/**
+	 * Returns the number of pairs waiting for the next repair.
+	 * @return The number of pairs waiting for the next repair.
+	 */
+	public int pending() {
+		return affected.size();
+	}
+
+	/**
+	 * Returns the source and destination nodes of the pairs waiting for the next repair,
+	 * i.e., the pairs whose paths may change when the paths are read.
+	 * @return The source and destination nodes of the pairs waiting for the next repair.
+	 */
+	public Vector<String[]> getAffected() {
+		Vector<String[]> ends = new Vector<String[]>();
+		for (String pair : affected) {
+			String[] pairEnds = pairs.get(pair);
+			if (pairEnds != null) //Not removed yet
+				ends.add(pairEnds);
+		}
+		return ends;
+	}
+
+	/**
+	 * Returns the K-shortest paths of each pair of the current graph, repairing the affected pairs, if any.
+	 * @return The K-shortest paths of each pair, keyed by "source-destination".
+	 */
+	public LinkedHashMap<String,Vector<Path>> getPaths() {
+		if (!affected.isEmpty())
+			this.repair();
+		return routes;
+	}
+
+	/**
+	 * Recalculates the paths of the affected pairs in the current graph.
+	 */
+	protected void repair() {
+		if (yen == null)
+			yen = new YEN();
+		CompactGraph g = graph.snapshot();
+		for (String pair : affected) {
+			String[] ends = pairs.get(pair);
+			if (ends == null) //Already removed
+				continue;
+			this.index(pair, routes.get(pair), false);
+			if ((g.getId(ends[0]) == -1) || (g.getId(ends[1]) == -1)) {
+				routes.remove(pair);
+				pairs.remove(pair);
+				continue;
+			}
+			Vector<Path> paths = null;
+			try {
+				paths = yen.getShortestPaths(ends[0], ends[1], graph, K);
+			} catch (Exception e) {e.printStackTrace();}
+			routes.put(pair, paths);
+			this.index(pair, paths, true);
+		}
+		affected.clear();
+	}
+
+	/**
+	 * Adds or removes a pair to the indexes of the edges and nodes of its paths and of its end nodes.
+	 * @param pair The pair.
+	 * @param paths The paths of the pair.
+	 * @param add True, to add the pair to the indexes. False, to remove it.
+	 */
+	protected void index(String pair, Vector<Path> paths, boolean add) {
+		String[] ends = pairs.get(pair);
+		this.index(nodeIndex, ends[0], pair, add);
+		this.index(nodeIndex, ends[1], pair, add);
+		if (paths == null)
+			return;
+		for (Path path : paths) {
+			if (path == null)
+				continue;
+			Vector<String> nodes = path.nodes();
+			for (int i = 0; i < nodes.size(); i++) {
+				this.index(nodeIndex, nodes.get(i), pair, add);
+				if (i > 0)
+					this.index(edgeIndex, nodes.get(i - 1) + "-" + nodes.get(i), pair, add);
+			}
+		}
+	}
+
+	/**
+	 * Adds or removes a pair to the specified entry of an index.
+	 * @param index The index.
+	 * @param key The key of the entry.
+	 * @param pair The pair.
+	 * @param add True, to add the pair. False, to remove it.
+	 */
+	private void index(HashMap<String,HashSet<String>> index, String key, String pair, boolean add) {
+		HashSet<String> set = index.get(key);
+		if (add) {
+			if (set == null) {
+				set = new HashSet<String>();
+				index.put(key, set);
+			}
+			set.add(pair);
+		} else if (set != null) {
+			set.remove(pair);
+			if (set.isEmpty())
+				index.remove(key);
+		}
+	}
+}
@@ -13,6 +13,9 @@ import java.util.*;
 
 /** The Path class represents a directed path or route and its associated cost.
  * It cannot contain repeated nodes, i.e., it must be a loopless path.
+ * The position of each node is indexed, so that the membership and position
+ * queries take constant time; the index is rebuilt after changes other than
+ * the addition of a node to the end of the path.
  *
  * @author Gustavo Sousa Pavani
  * @version 1.1
@@ -25,6 +28,10 @@ public class Path implements Serializable,Cloneable,Comparable {
     private double cost = 0;
     /** Contains the nodes of this path. */
     protected Vector<String> path;
+    /** The position of each node of this path, if already built. */
+    private transient HashMap<String,Integer> positions;
+    /** The edges of this path, if already built. */
+    private transient Edge[] edges;
     
     /** Creates new Path */
     public Path() {
@@ -36,6 +43,10 @@ public class Path implements Serializable,Cloneable,Comparable {
      */
     public void addNode(String key) {
         path.add(key);
+        edges = null;
+        //The index can be updated in place, keeping the first position of a repeated node.
+        if ((positions != null) && !positions.containsKey(key))
+            positions.put(key,path.size() - 1);
     }
     
     /** Adds a node to an arbitrary positon of the path.
@@ -45,6 +56,7 @@ public class Path implements Serializable,Cloneable,Comparable {
      */
     public void addNode(int i, String key) throws java.lang.ArrayIndexOutOfBoundsException {
         path.add(i,key);
+        this.invalidate();
     }
     
     /** Gives an ordered enumeration of the nodes in the path. The first element
@@ -102,7 +114,7 @@ public class Path implements Serializable,Cloneable,Comparable {
      * @throws java.lang.ArrayIndexOutOfBoundsException
      */
     public String getNextNode(String key) throws java.lang.ArrayIndexOutOfBoundsException{
-        int position = path.indexOf(key);
+        int position = this.getNodePosition(key);
         return path.get(position+1);
     }
 
@@ -112,7 +124,7 @@ public class Path implements Serializable,Cloneable,Comparable {
      * @throws java.lang.ArrayIndexOutOfBoundsException
      */
     public String getPreviousNode(String key) throws java.lang.ArrayIndexOutOfBoundsException{
-        int position = path.indexOf(key);
+        int position = this.getNodePosition(key);
         return path.get(position-1);
     }
 
@@ -121,7 +133,8 @@ public class Path implements Serializable,Cloneable,Comparable {
      * @return The index of the node.
      */
     public int getNodePosition(String key) {
-        return path.indexOf(key);
+        Integer position = this.positions().get(key);
+        return (position == null) ? -1 : position.intValue();
     }
     
     /** Replaces the node at the specified position with the specified node.
@@ -131,6 +144,7 @@ public class Path implements Serializable,Cloneable,Comparable {
      */
     public void setNode(int i, String key) throws java.lang.ArrayIndexOutOfBoundsException {
         path.set(i,key);
+        this.invalidate();
     }
     
     /** Deletes the node at the specified index.
@@ -139,6 +153,24 @@ public class Path implements Serializable,Cloneable,Comparable {
      */
     public void removeNodeAt(int i) throws java.lang.ArrayIndexOutOfBoundsException {
         path.remove(i);
+        this.invalidate();
+    }
+    
+    /** Deletes the nodes from the specified index till the end of the path.
+     * The index of positions is updated in place, in time proportional to
+     * the number of deleted nodes.
+     * @param size The index of the first node to be removed, i.e., the new size of the path.
+     */
+    public void truncate(int size) {
+        if (positions != null) {
+            for (int i = size; i < path.size(); i++) {
+                Integer position = positions.get(path.get(i));
+                if ((position != null) && (position.intValue() >= size)) //Not kept by a previous occurrence
+                    positions.remove(path.get(i));
+            }
+        }
+        path.setSize(size);
+        edges = null;
     }
     
     /** Deletes the node that matches the key.
@@ -146,6 +178,7 @@ public class Path implements Serializable,Cloneable,Comparable {
      * @return True, if the node has been removed; false, otherwise. 
      */    
     public boolean removeNode(Object key) {
+        this.invalidate();
         return path.remove(key);
     }
     
@@ -155,12 +188,7 @@ public class Path implements Serializable,Cloneable,Comparable {
      * @return True, if the key node is present in the path. False, otherwise.
      */
     public boolean containNode(String key) {
-    	for (String keyNode: path) {
-    		if (keyNode.equals(key)) {
-    			return true;
-    		}
-    	}
-    	return false;
+    	return this.positions().containsKey(key);
     }
      
     /**
@@ -217,7 +245,7 @@ public class Path implements Serializable,Cloneable,Comparable {
     public Path concatenate(Path anotherPath) {
         cost = cost + anotherPath.getCost();
         for (String value: anotherPath.nodes()) {
-            path.add(value);
+            this.addNode(value);
         }
         return this;
     }
@@ -262,8 +290,8 @@ public class Path implements Serializable,Cloneable,Comparable {
     public boolean containEdge(Edge edge) {
     	String keySource = edge.getSource();
     	String keyDestination = edge.getDestination();
-        int indexSource = path.indexOf(keySource);
-        int indexDestination = path.indexOf(keyDestination);
+        int indexSource = this.getNodePosition(keySource);
+        int indexDestination = this.getNodePosition(keyDestination);
         return ((indexSource != -1) && (indexDestination != -1) && ((indexDestination - indexSource) == 1)); 
     }
     
@@ -276,8 +304,8 @@ public class Path implements Serializable,Cloneable,Comparable {
     public Edge nextEdge(Edge edge) throws Exception{
     	String keySource = edge.getSource();
     	String keyDestination = edge.getDestination();
-        int indexSource = path.indexOf(keySource);
-        int indexDestination = path.indexOf(keyDestination);
+        int indexSource = this.getNodePosition(keySource);
+        int indexDestination = this.getNodePosition(keyDestination);
         if ((indexSource == -1) || (indexDestination == -1) || ((indexDestination - indexSource) != 1)) {
             throw new Exception("This path "+path.toString() +" does not contain the specified edge: "+edge.toString());
         } else if (indexDestination == path.size()) {
@@ -295,8 +323,8 @@ public class Path implements Serializable,Cloneable,Comparable {
     public boolean lastEdge(Edge edge) throws Exception{
     	String keySource = edge.getSource();
     	String keyDestination = edge.getDestination();
-        int indexSource = path.indexOf(keySource);
-        int indexDestination = path.indexOf(keyDestination);
+        int indexSource = this.getNodePosition(keySource);
+        int indexDestination = this.getNodePosition(keyDestination);
         if ((indexSource == -1) || (indexDestination == -1) || ((indexDestination - indexSource) != 1)) {
             throw new Exception("This path "+path.toString() +" does not contain the specified edge: "+edge.toString());
         }
@@ -319,10 +347,13 @@ public class Path implements Serializable,Cloneable,Comparable {
     }
     
     /**
-     * Returns the edges of this path, with null values.
+     * Returns the edges of this path, with null values. The array is built once
+     * and shared by the next calls, until the path is changed.
      * @return The edges of this path, with null values.
      */
     public Edge[] edges() {
+        if (edges != null)
+            return edges;
         Edge[] edge = new Edge[path.size() - 1];
         String sNode = path.get(0);
         for (int i=1; i < path.size(); i++) {
@@ -330,6 +361,7 @@ public class Path implements Serializable,Cloneable,Comparable {
             edge[i-1] = new Edge(sNode,dNode,null);
             sNode = dNode;
         }
+        edges = edge;
         return edge;
     }
     
@@ -354,8 +386,8 @@ public class Path implements Serializable,Cloneable,Comparable {
     public boolean firstEdge(Edge edge) throws Exception{
     	String keySource = edge.getSource();
     	String keyDestination = edge.getDestination();
-        int indexSource = path.indexOf(keySource);
-        int indexDestination = path.indexOf(keyDestination);
+        int indexSource = this.getNodePosition(keySource);
+        int indexDestination = this.getNodePosition(keyDestination);
         if ((indexSource == -1) || (indexDestination == -1) || ((indexDestination - indexSource) != 1)) {
             throw new Exception("This path "+path.toString() +" does not contain the specified edge: "+edge.toString());
         }
@@ -372,4 +404,25 @@ public class Path implements Serializable,Cloneable,Comparable {
     	String dNode = path.get(size - 1);
     	return new Edge(sNode,dNode,null);
     }
+
+    /**
+     * Returns the index of the position of each node of this path, building it if necessary.
+     * @return The position of each node of this path.
+     */
+    private HashMap<String,Integer> positions() {
+        if (positions == null) {
+            positions = new HashMap<String,Integer>(2 * path.size() + 1);
+            for (int i = path.size() - 1; i >= 0; i--)
+                positions.put(path.get(i),i); //The first position of a repeated node prevails
+        }
+        return positions;
+    }
+
+    /**
+     * Discards the index of positions and the edges of this path after a change.
+     */
+    private void invalidate() {
+        positions = null;
+        edges = null;
+    }
 }
@@ -6,6 +6,7 @@ package graph;
  * Created on 5 de Setembro de 2002, 10:37
  * Modified on 2 de Dezembro de 2002 - Removed the drasys package (www.opsresearch.com)
  * Logging API added in Feb. 20, 2003.
+ * Modified on Oct 18, 2026 - Restrictions applied by masks over the compact graph.
  */
 
 import java.util.*;
@@ -18,120 +19,45 @@ import util.*;
  * directed networks. The Yen's algorithm uses a path deviation approach and can
  * be found at: J.Y. Yen, <i>"Finding the K Shortest Loopless Paths in a Network"</i>,
  * Management Science Vol. 17, pp.712-716, 1971.
+ * <p>The algorithm runs over the compact snapshot of the graph. Instead of removing
+ * nodes and edges from a copy of the graph for each deviation node, the restrictions
+ * are marked in node and edge masks, which are cleared after each spur path, and the
+ * same Dijkstra workspace is used by all spur path computations.
  * @author  Gustavo Sousa Pavani
- * @version 1.2
+ * @version 1.3
  */
 public class YEN {
-    /** Stores the candidate set for shortest paths */
-    private BinaryHeap heap;
-    /** Stores the K shortest paths of this graph */
-    private Vector<Path> results;
+    /** Stores the candidate set for shortest paths, keyed by the index of each candidate. */
+    private IndexedHeap heap;
+    /** The node ids of the candidates inserted in the heap, indexed by the candidate index. */
+    private Vector<int[]> candidates;
+    /** The costs of the candidates, indexed by the candidate index. */
+    private double[] candidateCosts;
+    /** Stores the node ids of the K shortest paths of the graph. */
+    private Vector<int[]> results;
+    /** The costs of the K shortest paths of the graph. */
+    private double[] costs;
+    /** The Dijkstra's algorithm used for the spur paths. */
+    private Dijkstra dijkstra;
+    /** The nodes removed by the restriction 1, indexed by node id. */
+    private boolean[] removedNodes;
+    /** The edges removed by the restriction 2, indexed by edge id. */
+    private boolean[] removedEdges;
     /** The logging generator. */
     private static Logger logger = Logger.getLogger(YEN.class.getName());
-    
-    
+
+
     /** Creates new YEN */
     public YEN() {
-        heap = new BinaryHeap(true);
-    }
-    
-    /**Removes all the nodes from source (inclusive) until the deviation node (exclusive)
-     * contained in the root path. This is to ensure that no cycles are found int the
-     * new path.
-     * @param keySource The key of the source node.
-     * @param deviationNode The deviation node.
-     * @param shortestPath The shortest path used on the calculation of the root path.
-     * @param graph A clone of the graph.
-     * @return The root path (without the deviation node!). When the deviation node is the source node,
-     * then a empty path is returned.
-     */
-    @SuppressWarnings("unchecked")
-	private Path restriction1(String keySource, String deviationNode, Path shortestPath, Graph graph) {
-        //Create the root path
-        Path root = new Path();
-        //Debug purposes
-        logger.finest("Root path: ");
-        try {
-            //Get  a list of all the nodes from source (inclusive) until
-            //the deviation node (exclusive)
-            List list = shortestPath.subPath(keySource,deviationNode);
-            Iterator iterator = list.iterator();
-            //If the list is empty, the restriction 1 is not necessary. This happens
-            //when the deviation node is the source node. Then, a empty root path is returned.
-            if (iterator.hasNext()) {
-                //Create the root path and calculate its costs
-                String current=null, previous=null;
-                double rootCost=0;
-                while (iterator.hasNext()) {
-                    current = (String)iterator.next();
-                    //Debug purposes
-                    logger.finest(current+"-");
-                    root.addNode(current);
-                    if (previous!=null) {
-                        Edge edge = graph.getEdge(previous,current);
-                        rootCost = rootCost + (Double)edge.getValue();
-                    }
-                    previous = current;
-                }
-                //Debug purposes
-                logger.finer(deviationNode.toString());
-                //Calculate the cost for the last edge, because the deviation node is not
-                //included in the root path for reasons of implementation.
-                Edge edge = graph.getEdge(current,deviationNode);
-                rootCost = rootCost + (Double)edge.getValue();
-                root.setCost(rootCost);
-                //Remove all the nodes in the root path, but the deviation node.
-                for (String node: root.nodes()) {
-                    //Debug purposes
-                    logger.finest("Removing node: "+node);
-                    graph.removeNode(node);
-                }
-            }
-        } catch (Exception e) {
-			e.printStackTrace();
-            logger.severe(e.toString());
-        }
-        return root;
-    }
-    
-    /** Removes links from the deviation node on any edge used by previously found
-     * k-shortest paths with the same root path, i.e., links that follows the deviation
-     * node and belongs to pseudo-tree of k-shortest paths.
-     * @param keyDestination The key of the destination node.
-     * @param deviationNode The deviation node
-     * @param root The root path obtained in the Restriction 1.
-     * @param graph A clone of the graph.
-     * @param tree The pseudo-tree of k-shortest found paths.
-     * @return The spur path, if it exists; null, otherwise.
-     */
-    @SuppressWarnings("unchecked")
-	private Path restriction2(String keyDestination, String deviationNode, Path root, Graph graph, PathTree tree) {
-        //Remove the links of restriction 2 from the graph.
-        try {
-            //This part is necessary because the root path does not contain
-            // the deviation node for implementation reasons
-            Path rootAndDeviation = (Path) root.clone();
-            rootAndDeviation.addNode(deviationNode);
-            for (Enumeration enumTree = tree.nextsToRootPath(rootAndDeviation);enumTree.hasMoreElements();) {
-                try { //When a edge has already been removed
-                	String node = (String)enumTree.nextElement();
-                    //Debug purposes
-                    logger.finest("Removing edge: "+deviationNode+"-"+node);
-                    graph.removeEdge(deviationNode,node);
-                } catch (Exception eEdge) {/*do nothing*/}
-            }
-        } catch(Exception e) {e.printStackTrace();}
-        //The spur path
-        Path spur = null; //To return null if there is no shortest path
-        try { //For the exception that occurs when there is not a shortest path
-            //Calculate the spur path in the modified graph
-            spur = getShortestPath(deviationNode,keyDestination,graph);
-            //Debug purposes
-            logger.finest("Spur Path: " + spur.toString());
-        } catch (Exception eSpur) {/*System.out.println(); */ /*Do nothing*/}
-        return spur;
+        //Binary arity keeps the same selection order of the candidates with equal costs of the former heap.
+        heap = new IndexedHeap(16,2);
+        candidates = new Vector<int[]>();
+        candidateCosts = new double[16];
+        results = new Vector<int[]>();
+        costs = new double[1];
+        dijkstra = new Dijkstra();
     }
-    
+
     /** Calculates the K-shortest paths of a graph using Yen's algorithm.
      * @param keySource The key of the source node.
      * @param keyDestination The key of the destination node.
@@ -141,86 +67,170 @@ public class YEN {
      * @return A Vector of K-shortest paths of the graph. Important: There can be less
      *          shortest paths than specified in K!
      */
-    @SuppressWarnings("unchecked")
 	public Vector<Path> getShortestPaths(String keySource, String keyDestination, Graph graph, int K) throws Exception {
         if (K < 1) throw new Exception("Yen's Algorithm must have K >= 1!");
-        //Boolean flag indicating that the candidate set (heap) is empty and the last
-        // found k-shortest path has already been tested, i.e, all k-shortest paths
-        // has already been found.
-        boolean finishYen = false;
-        //Pseudo-tree of the k shortest paths
-        PathTree tree = new PathTree(keySource,keyDestination);
-        //Pseudo-tree of the candidates of shortest path
-        PathTree candidateTree = new PathTree(keySource,keyDestination);
+        Vector<Path> paths = new Vector<Path>();
+        CompactGraph g = graph.snapshot();
+        int source = g.getId(keySource);
+        int destination = g.getId(keyDestination);
+        if (source == -1 || destination == -1)
+            return paths;
+        this.getShortestPaths(source, destination, g, K);
+        for (int k = 0; k < results.size(); k++) {
+            int[] nodes = results.get(k);
+            //There is no path between the source and destination nodes.
+            if (nodes == null) {
+                paths.add(null);
+                continue;
+            }
+            Path path = new Path();
+            for (int node : nodes)
+                path.addNode(g.getNode(node));
+            path.setCost(costs[k]);
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    /** Calculates the K-shortest paths of a compact graph using Yen's algorithm.
+     * @param source The id of the source node.
+     * @param destination The id of the destination node.
+     * @param g The compact graph used to calculate the algorithm.
+     * @param K The number of desired shortest paths.
+     * @throws Exception When K is less than 1.
+     * @return A Vector with the node ids of the K-shortest paths of the graph, which is reused
+     *          by the next execution. Important: There can be less shortest paths than specified in K!
+     *          If there is no path at all, the only element is null.
+     * @see #getCost(int)
+     */
+    public Vector<int[]> getShortestPaths(int source, int destination, CompactGraph g, int K) throws Exception {
+        if (K < 1) throw new Exception("Yen's Algorithm must have K >= 1!");
         //Clean the K shortest paths and the heap candidates.
-        results  = new Vector<Path>();
-        heap.removeAllElements();
-        try {
-            //Calculate the shortest path
-            Path shortestPath = getShortestPath(keySource,keyDestination,graph);
-            //Insert it in the results vector and the pseudo-tree of paths
-            results.add(shortestPath);
-            tree.insertPath(shortestPath);
-            int counter = 1; //counter for the number of shortest paths found
-            while (!finishYen && (counter < K)) {
+        results.clear();
+        candidates.clear();
+        heap.clear();
+        if (costs.length < K)
+            costs = new double[K];
+        if (removedNodes == null || removedNodes.length != g.size())
+            removedNodes = new boolean[g.size()];
+        if (removedEdges == null || removedEdges.length != g.numberOfEdges())
+            removedEdges = new boolean[g.numberOfEdges()];
+        //Calculate the shortest path
+        int[] shortestPath = dijkstra.getShortestPath(source, destination, g, null, null);
+        results.add(shortestPath);
+        if (shortestPath == null)
+            return results;
+        costs[0] = dijkstra.getDistance(destination);
+        while (results.size() < K) {
+            //Debug purposes
+            logger.fine("Calculating the "+(results.size()+1)+"-shortest path");
+            //Pick the the last k-shortest path calculated
+            shortestPath = results.lastElement();
+            //Calculate the candidate set using each deviation node, from the source node
+            //until the node before the destination node.
+            double rootCost = 0;
+            for (int i = 0; i < shortestPath.length - 1; i++) {
+                int deviationNode = shortestPath[i];
                 //Debug purposes
-                logger.fine("Calculating the "+(counter+1)+"-shortest path");
-                //Pick the the last k-shortest path calculated
-                shortestPath = (Path) results.lastElement();
-                //Calculate the candidate set using each deviation node. The enumeration starts with
-                // the first vertex, i.e., the source node.
-                Enumeration enumPath = shortestPath.nodes().elements();
-                String deviationNode;
-                do  {
-                    //Get the deviation node.
-                    deviationNode = (String)enumPath.nextElement();
-                    //Debug purposes
-                    logger.finer("Deviation Node: " + deviationNode);
-                    //Get a clone copy of the original graph.
-                    Graph modGraph = (Graph) graph.clone();
-                    //Apply restrictions 1 and 2 and obtain the root and spur paths.
-                    Path root = restriction1(keySource, deviationNode, shortestPath, modGraph);
-                    Path spur = restriction2(keyDestination, deviationNode, root, modGraph, tree);
-                    //Concatenate the root and the spur paths and insert the result
-                    // into the heap, if the spur path exists and if the result has
-                    // not already inserted into the heap
-                    if (spur != null) {
-                        root.concatenate(spur);
-                        //Verify if the heap already contains this candidate path
-                        if (!candidateTree.contains(root)) {
-                            //Debug purposes
-                            logger.finer("Heap: "+root.toString());
-                            heap.add(root);
-                            //Insert the path in the already inserted candidate path tree
-                            candidateTree.insertPath(root);
-                        }
-                    }
-                } while (enumPath.hasMoreElements() && !(shortestPath.getNextNode(deviationNode)).equals(keyDestination));
-                //Get the best path in the candidate set and put it in the results vector
-                if (heap.size() != 0) {
-                    Path tempPath;
-                    tempPath = (Path) heap.remove();
-                    results.add(tempPath);
-                    tree.insertPath(tempPath);
-                } else {
-                    finishYen = true; //Time to finish the Yen's algorithm, i.e., empty heap and last found shortest path already tested.
-                    //There is no more shortest paths in this graph.
+                if (logger.isLoggable(Level.FINER))
+                    logger.finer("Deviation Node: " + g.getNode(deviationNode));
+                //Restriction 1: removes the nodes of the root path, but the deviation node.
+                for (int j = 0; j < i; j++)
+                    removedNodes[shortestPath[j]] = true;
+                //Restriction 2: removes the edges from the deviation node used by the shortest paths
+                //already found with the same root path.
+                for (int[] path : results) {
+                    if (samePrefix(path, shortestPath, i))
+                        removedEdges[g.getEdgeId(deviationNode, path[i + 1])] = true;
                 }
-                //Increment the counter of shortest paths.
-                counter = counter + 1;
+                //Calculate the spur path in the restricted graph
+                int[] spur = dijkstra.getShortestPath(deviationNode, destination, g, removedNodes, removedEdges);
+                //Concatenate the root and the spur paths and insert the result
+                // into the heap, if the spur path exists and if the result has
+                // not already inserted into the heap
+                if (spur != null) {
+                    int[] candidate = new int[i + spur.length];
+                    System.arraycopy(shortestPath, 0, candidate, 0, i);
+                    System.arraycopy(spur, 0, candidate, i, spur.length);
+                    if (!contains(candidate))
+                        addCandidate(candidate, rootCost + dijkstra.getDistance(destination));
+                }
+                //Clear the restrictions
+                for (int j = 0; j < i; j++)
+                    removedNodes[shortestPath[j]] = false;
+                for (int[] path : results) {
+                    if (samePrefix(path, shortestPath, i))
+                        removedEdges[g.getEdgeId(deviationNode, path[i + 1])] = false;
+                }
+                //The cost of the root path of the next deviation node
+                rootCost = rootCost + g.getWeight(g.getEdgeId(deviationNode, shortestPath[i + 1]));
             }
-        } catch (Exception e) {e.printStackTrace();}
+            //Get the best path in the candidate set and put it in the results vector
+            if (heap.isEmpty())
+                break; //There is no more shortest paths in this graph.
+            int best = heap.remove();
+            costs[results.size()] = candidateCosts[best];
+            results.add(candidates.get(best));
+        }
         return results;
     }
-    
+
+    /** Returns the cost of the specified shortest path of the last execution.
+     * @param k The index of the shortest path, starting at 0.
+     * @return The cost of the specified shortest path.
+     */
+    public double getCost(int k) {
+        return costs[k];
+    }
+
+    /** Verifies if two paths have the same nodes until the specified position (inclusive).
+     * @param path The first path.
+     * @param anotherPath The second path.
+     * @param position The position of the last node to be compared.
+     * @return True, if the paths have the same nodes until the position. False, otherwise.
+     */
+    private static boolean samePrefix(int[] path, int[] anotherPath, int position) {
+        if (path.length <= position + 1)
+            return false;
+        for (int j = 0; j <= position; j++) {
+            if (path[j] != anotherPath[j])
+                return false;
+        }
+        return true;
+    }
+
+    /** Verifies if the specified path has already been inserted into the candidate set.
+     * @param path The node ids of the path.
+     * @return True, if the path has already been inserted. False, otherwise.
+     */
+    private boolean contains(int[] path) {
+        for (int[] candidate : candidates) {
+            if (Arrays.equals(candidate, path))
+                return true;
+        }
+        return false;
+    }
+
+    /** Inserts a path into the candidate set.
+     * @param path The node ids of the path.
+     * @param cost The cost of the path.
+     */
+    private void addCandidate(int[] path, double cost) {
+        int index = candidates.size();
+        if (index == candidateCosts.length)
+            candidateCosts = Arrays.copyOf(candidateCosts, 2 * index);
+        candidates.add(path);
+        candidateCosts[index] = cost;
+        heap.add(index, cost);
+    }
+
     /** Executes the Dijkstra's algorithm for the shortest path.
      * @param keySource The key of the source node.
      * @param keyDestination The key of the destination node.
      * @param graph The graph used to calculate the algorithm.
-     * @return The shortest path, if it exists; othewise, return an empty path
+     * @return The shortest path, if it exists; othewise, return null
      */
     public Path getShortestPath(String keySource, String keyDestination, Graph graph) {
-        Dijkstra dijkstra = new Dijkstra();
         return dijkstra.getShortestPath(keySource, keyDestination, graph);
     }
 }
@@ -35,6 +35,8 @@ public abstract class ControlPlane implements Serializable{
 	
 	/** The random generator. */
 	protected static MersenneTwister random;
+	/** The calculation of the shortest paths of all pairs of nodes. */
+	protected AllPairsPaths allPairsPaths;
 	/** The simulation parameters. */
 	protected Hashtable<String,Vector<String>> parameters;
 	/** The load of the traffic matrix. */
@@ -56,6 +58,11 @@ public abstract class ControlPlane implements Serializable{
 			random = new MersenneTwister(Long.parseLong(seed.firstElement()));
 		else 
 			random = new MersenneTwister();
+		//Gets the number of threads and the cache directory for the calculation of the paths
+		Vector<String> pathThreads = parameters.get("/RWA/Paths/@threads");
+		Vector<String> pathCache = parameters.get("/RWA/Paths/@cache");
+		allPairsPaths = new AllPairsPaths(pathThreads != null ? Integer.parseInt(pathThreads.firstElement()) : 0,
+				pathCache != null ? pathCache.firstElement() : null);
 	}
 	
 	/**
@@ -234,7 +241,7 @@ public abstract class ControlPlane implements Serializable{
 	 * @return True, if the two points are connected by a link. False, otherwise.
 	 */
 	public static boolean hasConnectivity(String sourceId, String targetId) {
-		return graph.hasEdge(sourceId,targetId);
+		return graph.snapshot().hasEdge(sourceId,targetId);
 	}
 
 	/**
@@ -99,52 +99,71 @@ public class Failure implements Payload, Serializable {
 	 * @return The location of the failure.
 	 */
 	public Location locate(String key, Path path) {
-		//The location of the failure
-		Location location = null;
 		//Gets the positon of the key in the path of the connection
 		int indexKey = path.getNodePosition(key);
 		if (type.equals(Failure.Type.NODE)) { //Node failure
-			//Gets the node failed
-			String nodeFailure = (String) information;
 			//Gets the index of the node failed
-			int indexNode = path.getNodePosition(nodeFailure);
-			//Verify the position of the failure
-			if (indexNode == -1) { //Failure not in the path!
-				location = Location.NOT_APPLICABLE;
-			} else if (indexKey < indexNode) { //Upstream
-				if (indexNode - indexKey == 1) 
-					location = Location.NEIGHBOR_UPSTREAM;
-				else
-					location = Location.UPSTREAM;
-			} else if (indexKey > indexNode) { //Downstream
-				if (indexKey - indexNode == 1)
-					location = Location.NEIGHBOR_DOWNSTREAM;
-				else
-					location = Location.DOWNSTREAM;
-			}
+			return locate(indexKey, path.getNodePosition((String) information));
 		} else if (type.equals(Failure.Type.LINK)) { //Link failure
-			//Gets the last node upstream to the failure 
-			String sourceFailure = ((Edge) information).getSource();
-			//Gets the first node downstream to the failure 
-			String targetFailure = ((Edge) information).getDestination();
-			//Gets the positions of the failure 
-			int indexSource = path.getNodePosition(sourceFailure);
-			int indexTarget = path.getNodePosition(targetFailure);
-			//Verify the position of the failure
-			if ((indexSource == -1) || (indexTarget == -1) || ((indexTarget - indexSource) != 1)) {
-				//Failure not in the path!
-				location = Location.NOT_APPLICABLE;
-			} else if (indexKey <= indexSource) { //Upstream
-				if (indexKey == indexSource) 
-					location = Location.NEIGHBOR_UPSTREAM;
-				else
-					location = Location.UPSTREAM;
-			} else if (indexKey >= indexTarget) { //Downstream
-				if (indexKey == indexTarget)
-					location = Location.NEIGHBOR_DOWNSTREAM;
-				else
-					location = Location.DOWNSTREAM;
-			}
+			//Gets the positions of the last node upstream and the first node downstream to the failure
+			int indexSource = path.getNodePosition(((Edge) information).getSource());
+			int indexTarget = path.getNodePosition(((Edge) information).getDestination());
+			return locate(indexKey, indexSource, indexTarget);
+		}
+		return null;
+	}
+	
+	/**
+	 * Locates a node failure by the positions in the path of a connection.
+	 * @param indexKey The position of the node where the connection passes by.
+	 * @param indexNode The position of the node failed, or -1 if it is not in the path.
+	 * @return The location of the failure.
+	 */
+	protected static Location locate(int indexKey, int indexNode) {
+		//The location of the failure
+		Location location = null;
+		//Verify the position of the failure
+		if (indexNode == -1) { //Failure not in the path!
+			location = Location.NOT_APPLICABLE;
+		} else if (indexKey < indexNode) { //Upstream
+			if (indexNode - indexKey == 1) 
+				location = Location.NEIGHBOR_UPSTREAM;
+			else
+				location = Location.UPSTREAM;
+		} else if (indexKey > indexNode) { //Downstream
+			if (indexKey - indexNode == 1)
+				location = Location.NEIGHBOR_DOWNSTREAM;
+			else
+				location = Location.DOWNSTREAM;
+		}
+		//Returns the location of the failure.
+		return location; 
+	}
+	
+	/**
+	 * Locates a link failure by the positions in the path of a connection.
+	 * @param indexKey The position of the node where the connection passes by.
+	 * @param indexSource The position of the source node of the link failed, or -1 if it is not in the path.
+	 * @param indexTarget The position of the target node of the link failed, or -1 if it is not in the path.
+	 * @return The location of the failure.
+	 */
+	protected static Location locate(int indexKey, int indexSource, int indexTarget) {
+		//The location of the failure
+		Location location = null;
+		//Verify the position of the failure
+		if ((indexSource == -1) || (indexTarget == -1) || ((indexTarget - indexSource) != 1)) {
+			//Failure not in the path!
+			location = Location.NOT_APPLICABLE;
+		} else if (indexKey <= indexSource) { //Upstream
+			if (indexKey == indexSource) 
+				location = Location.NEIGHBOR_UPSTREAM;
+			else
+				location = Location.UPSTREAM;
+		} else if (indexKey >= indexTarget) { //Downstream
+			if (indexKey == indexTarget)
+				location = Location.NEIGHBOR_DOWNSTREAM;
+			else
+				location = Location.DOWNSTREAM;
 		}
 		//Returns the location of the failure.
 		return location; 
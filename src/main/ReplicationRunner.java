@@ -0,0 +1,233 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package main;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Hashtable;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Executes independent replications of a simulation concurrently in the same JVM,
+ * each one in its own SimulationContext, and merges their accounting outputs.
+ * <p>The number of replications and of threads are given by the element
+ * <code>&lt;Replications number="n" threads="t"/&gt;</code> of the <code>Main</code> section
+ * of the configuration file. Replication k adds k to all seeds of the configuration and
+ * writes its outputs with the suffix ".repk". Afterwards, each cell of the outputs is
+ * replaced by the average among the replications, ignoring NaN values, and written
+ * to the original output files. Cells that are not numbers or that are equal in
+ * all replications (e.g., headers and the variable of the simulation) are copied.
+ *
+ * @version 1.0
+ */
+public class ReplicationRunner {
+	/** The logging generator. */
+	private static Logger logger = Logger.getLogger(ReplicationRunner.class.getName());
+	/** The name of the configuration file. */
+	protected String fileConfig;
+	/** The name of the output file of the simulation. */
+	protected String output;
+	/** The number of replications. */
+	protected int replications;
+	/** The number of threads. */
+	protected int threads;
+	/** True, if the contexts share a temporary cache of the paths. */
+	protected boolean sharedCache;
+
+	/**
+	 * Creates a new ReplicationRunner object.
+	 * @param aFileConfig The name of the configuration file.
+	 * @throws Exception If the configuration file cannot be read.
+	 */
+	public ReplicationRunner(String aFileConfig) throws Exception {
+		this.fileConfig = aFileConfig;
+		Hashtable<String, Vector<String>> parameters = new Config(fileConfig).getSimulationParameters();
+		this.output = parameters.get("/Outputs/Output/@file").firstElement();
+		Vector<String> number = parameters.get("/Main/Replications/@number");
+		Vector<String> nThreads = parameters.get("/Main/Replications/@threads");
+		this.replications = 1;
+		if (number != null)
+			this.replications = Integer.parseInt(number.firstElement());
+		this.threads = Runtime.getRuntime().availableProcessors();
+		if (nThreads != null)
+			this.threads = Integer.parseInt(nThreads.firstElement());
+		this.sharedCache = (parameters.get("/RWA/Paths/@cache") == null);
+	}
+
+	/**
+	 * Executes all replications and merges their outputs.
+	 * @throws Exception If any replication fails.
+	 */
+	public void run() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, replications)));
+		Vector<Future<Object>> results = new Vector<Future<Object>>();
+		for (int k = 0; k < replications; k++) {
+			final int replication = k;
+			results.add(executor.submit(new Callable<Object>() {
+				public Object call() throws Exception {
+					logger.info("Starting replication " + replication);
+					SimulationContext context = new SimulationContext();
+					try {
+						context.replicate(fileConfig, replication);
+					} finally {
+						context.close();
+					}
+					logger.info("Replication " + replication + " finished");
+					return null;
+				}
+			}));
+		}
+		executor.shutdown();
+		try {
+			for (Future<Object> result : results)
+				result.get();
+		} finally {
+			executor.shutdownNow();
+			if (sharedCache)
+				SimulationContext.deleteCache(output);
+		}
+		merge(output, replications);
+	}
+
+	/**
+	 * Merges the output files of the replications into the original output files.
+	 * @param output The name of the output file of the simulation.
+	 * @param replications The number of replications.
+	 * @throws IOException If an output file cannot be read or written.
+	 */
+	public static void merge(String output, int replications) throws IOException {
+		File first = new File(SimulationContext.getOutputName(output, 0)).getAbsoluteFile();
+		String prefix = first.getName();
+		File[] files = first.getParentFile().listFiles();
+		for (File file : files) {
+			if (file.getName().startsWith(prefix)) {
+				String suffix = file.getName().substring(prefix.length());
+				mergeFile(output, suffix, replications);
+			}
+		}
+	}
+
+	/**
+	 * Merges the output files of the replications with the specified suffix.
+	 * @param output The name of the output file of the simulation.
+	 * @param suffix The suffix of the output file.
+	 * @param replications The number of replications.
+	 * @throws IOException If an output file cannot be read or written.
+	 */
+	protected static void mergeFile(String output, String suffix, int replications) throws IOException {
+		Vector<Vector<String[]>> tables = new Vector<Vector<String[]>>();
+		int lines = 0;
+		for (int k = 0; k < replications; k++) {
+			Vector<String[]> table = read(SimulationContext.getOutputName(output, k) + suffix);
+			lines = Math.max(lines, table.size());
+			tables.add(table);
+		}
+		FileWriter writer = new FileWriter(output + suffix);
+		try {
+			for (int i = 0; i < lines; i++) {
+				int cells = 0;
+				for (Vector<String[]> table : tables) {
+					if (i < table.size())
+						cells = Math.max(cells, table.get(i).length);
+				}
+				StringBuilder buf = new StringBuilder();
+				for (int j = 0; j < cells; j++) {
+					if (j > 0)
+						buf.append("\t");
+					buf.append(mergeCell(tables, i, j));
+				}
+				buf.append("\n");
+				writer.write(buf.toString());
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Merges the specified cell of the tables of the replications.
+	 * @param tables The tables of the replications.
+	 * @param line The line of the cell.
+	 * @param column The column of the cell.
+	 * @return The merged value of the cell.
+	 */
+	protected static String mergeCell(Vector<Vector<String[]>> tables, int line, int column) {
+		String text = null;
+		boolean equal = true, numeric = true;
+		double sum = 0.0;
+		int counter = 0;
+		for (Vector<String[]> table : tables) {
+			if ((line >= table.size()) || (column >= table.get(line).length))
+				continue;
+			String cell = table.get(line)[column];
+			if (text == null)
+				text = cell;
+			else if (!text.equals(cell))
+				equal = false;
+			try {
+				double value = Double.parseDouble(cell);
+				if (!Double.isNaN(value)) {
+					sum = sum + value;
+					counter++;
+				}
+			} catch (NumberFormatException e) {
+				numeric = false;
+			}
+		}
+		if (equal || !numeric)
+			return text;
+		if (counter == 0)
+			return Double.toString(Double.NaN);
+		return Double.toString(sum / counter);
+	}
+
+	/**
+	 * Reads an output file as a table of tab-separated cells.
+	 * @param fileName The name of the output file.
+	 * @return The table of cells of each line.
+	 * @throws IOException If the file cannot be read.
+	 */
+	protected static Vector<String[]> read(String fileName) throws IOException {
+		Vector<String[]> table = new Vector<String[]>();
+		File file = new File(fileName);
+		if (!file.exists())
+			return table;
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null)
+				table.add(line.split("\t", -1));
+		} finally {
+			reader.close();
+		}
+		return table;
+	}
+
+	/**
+	 * Main entry for running replications of a simulation.
+	 * @param args The name of the XML configuration file in the command line.
+	 */
+	public static void main(String[] args) {
+		if (args.length != 1) {
+			System.err.println("Usage: java main.ReplicationRunner config_file.xml");
+			return;
+		}
+		logger.info("Starting replications at: " + (new Date()).toString());
+		try {
+			new ReplicationRunner(args[0]).run();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		logger.info("Replications finished at: " + (new Date()).toString());
+	}
+}
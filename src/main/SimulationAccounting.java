@@ -133,6 +133,15 @@ public abstract class SimulationAccounting implements Serializable{
 		writer = writers.firstElement();
 	}
 	
+	/**
+	 * Sets the index of the actual run of the simulation, i.e., of the actual
+	 * value of its variable. Accountings that write a separate output for each
+	 * run use it for naming the output.
+	 * @param run The index of the actual run.
+	 */
+	public void setRun(int run) {
+	}
+
 	/**
 	 * Closes the output file. 
 	 */
@@ -0,0 +1,196 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package main;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Vector;
+
+import graph.CacheLocks;
+
+/**
+ * The context of an independent run of the simulator inside a shared JVM.
+ * <p>The simulator keeps much of its state in static fields: the graph and the
+ * random generators of the control plane, the sets of paths, the inter-domain
+ * routing tables, the variable of the simulation and so on. Each context loads
+ * the simulator classes with its own class loader, so it owns a private copy of
+ * all of this state and several contexts can run concurrently, each one producing
+ * exactly the same results as a standalone run. A context must be closed after its
+ * run, releasing its class loader and the classes loaded by it.
+ * <p>The contexts of a runner share the precomputed paths of the network through
+ * the cache files of the paths: if the configuration does not specify a directory
+ * for them, the contexts use the directory given by {@link #getCacheName(String)},
+ * which is removed by the runner at the end. The first context that needs the paths
+ * of a topology calculates and writes them, and the others read them. For this,
+ * the classes in {@link #SHARED} are loaded only once, by the class loader of this
+ * class, and their static state is common to all contexts.
+ *
+ * @version 1.0
+ */
+public class SimulationContext implements Closeable {
+	/** The names of the classes shared by all contexts. */
+	public static final String[] SHARED = {CacheLocks.class.getName()};
+	/** The class loader that owns the static state of this context. */
+	protected URLClassLoader loader;
+
+	/**
+	 * Creates a new SimulationContext object, loading the simulator classes
+	 * from the class path of the JVM.
+	 * @throws Exception If the class path cannot be read.
+	 */
+	public SimulationContext() throws Exception {
+		Vector<URL> urls = new Vector<URL>();
+		for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if (entry.length() > 0)
+				urls.add(new File(entry).toURI().toURL());
+		}
+		//The parent does not see the simulator classes, so that they are loaded again
+		loader = new ContextClassLoader(urls.toArray(new URL[urls.size()]), ClassLoader.getSystemClassLoader().getParent());
+	}
+
+	/**
+	 * Closes this context, releasing its class loader.
+	 * @throws IOException If the class loader cannot be closed.
+	 */
+	public void close() throws IOException {
+		loader.close();
+	}
+
+	/**
+	 * Returns the name of the directory of the cache files of the paths shared by
+	 * the contexts of a runner, if the configuration does not specify one.
+	 * @param output The name of the output file of the simulation.
+	 * @return The name of the directory of the cache files.
+	 */
+	public static String getCacheName(String output) {
+		return output + ".paths";
+	}
+
+	/**
+	 * Removes the directory of the cache files of the paths shared by the contexts
+	 * of a runner, and its files.
+	 * @param output The name of the output file of the simulation.
+	 */
+	public static void deleteCache(String output) {
+		File directory = new File(getCacheName(output));
+		File[] files = directory.listFiles();
+		if (files == null)
+			return;
+		for (File file : files)
+			file.delete();
+		directory.delete();
+	}
+
+	/**
+	 * Returns the name of the output file of the specified replication.
+	 * @param output The name of the output file of the simulation.
+	 * @param replication The number of the replication.
+	 * @return The name of the output file of the specified replication.
+	 */
+	public static String getOutputName(String output, int replication) {
+		return output + ".rep" + replication;
+	}
+
+	/**
+	 * Returns the name of the output file of the specified load point.
+	 * @param output The name of the output file of the simulation.
+	 * @param point The index of the load point.
+	 * @return The name of the output file of the specified load point.
+	 */
+	public static String getPointOutputName(String output, int point) {
+		return output + ".point" + point;
+	}
+
+	/**
+	 * Returns the name of the output file with only the heading lines of the
+	 * outputs of the load points.
+	 * @param output The name of the output file of the simulation.
+	 * @return The name of the output file with only the heading lines.
+	 */
+	public static String getHeadingOutputName(String output) {
+		return output + ".heading";
+	}
+
+	/**
+	 * Executes one replication of the simulation in this context.
+	 * @param fileConfig The name of the configuration file.
+	 * @param replication The number of the replication.
+	 * @throws Exception If the replication cannot be executed.
+	 * @see Simulator#replicate(String, int)
+	 */
+	public void replicate(String fileConfig, int replication) throws Exception {
+		this.execute("replicate", fileConfig, replication);
+	}
+
+	/**
+	 * Executes one load point of the simulation in this context.
+	 * @param fileConfig The name of the configuration file.
+	 * @param point The index of the load point, or a negative value for writing only the headings.
+	 * @throws Exception If the load point cannot be executed.
+	 * @see Simulator#sweep(String, int)
+	 */
+	public void sweep(String fileConfig, int point) throws Exception {
+		this.execute("sweep", fileConfig, point);
+	}
+
+	/**
+	 * Invokes the specified static entry point of the simulator in this context.
+	 * @param method The name of the entry point.
+	 * @param fileConfig The name of the configuration file.
+	 * @param index The index of the replication or load point.
+	 * @throws Exception If the entry point fails.
+	 */
+	protected void execute(String method, String fileConfig, int index) throws Exception {
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			Class<?> simulator = loader.loadClass(Simulator.class.getName());
+			Method entry = simulator.getMethod(method, String.class, int.class);
+			entry.invoke(null, fileConfig, index);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception)
+				throw (Exception) cause;
+			throw e;
+		} finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+	/**
+	 * The class loader of a context. It loads again all simulator classes, except
+	 * the shared ones, which are delegated to the class loader of this class.
+	 */
+	protected static class ContextClassLoader extends URLClassLoader {
+		/**
+		 * Creates a new ContextClassLoader object.
+		 * @param urls The class path of the simulator classes.
+		 * @param parent The parent class loader.
+		 */
+		public ContextClassLoader(URL[] urls, ClassLoader parent) {
+			super(urls, parent);
+		}
+
+		/**
+		 * Loads the class with the specified name.
+		 * @param name The binary name of the class.
+		 * @param resolve True, if the class must be resolved.
+		 * @return The class.
+		 * @throws ClassNotFoundException If the class is not found.
+		 */
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			for (String shared : SHARED) {
+				if (shared.equals(name))
+					return SimulationContext.class.getClassLoader().loadClass(name);
+			}
+			return super.loadClass(name, resolve);
+		}
+	}
+}
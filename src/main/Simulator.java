@@ -62,6 +62,10 @@ public class Simulator implements Serializable {
 	protected long numberOfRequests;
 	/** Requests to be counted. */
 	protected Vector<String> related;
+	/** Maximum simulated time of each run. */
+	protected double maxTime = Double.POSITIVE_INFINITY;
+	/** Maximum number of events served in each run. */
+	protected long maxEvents = Long.MAX_VALUE;
 	/** The run counter. */
 	protected transient int runCounter = 0;
 
@@ -72,13 +76,17 @@ public class Simulator implements Serializable {
 	 *            The name of the configuration file.
 	 */
 	public Simulator(String fileConfig) {
-		// Initialize the configuration of the simulation
-		try {
-			this.config = new Config(fileConfig);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		this(Simulator.readConfig(fileConfig));
+	}
 
+	/**
+	 * Creates a new Simulator object.
+	 * 
+	 * @param aConfig
+	 *            The configuration of the simulation.
+	 */
+	public Simulator(Config aConfig) {
+		this.config = aConfig;
 		// Gets the parameters
 		this.simulation = config.getSimulationParameters();
 		// Gets the variable of the simulation
@@ -112,6 +120,15 @@ public class Simulator implements Serializable {
 		// Parses the subscribers name that will be counted for the number of
 		// requests.
 		this.related = simulation.get("/Accounting/RequestRelated/@class");
+		// Parses the optional limits of simulated time and served events.
+		Vector<String> time = simulation.get("/Main/Termination/@time");
+		Vector<String> events = simulation.get("/Main/Termination/@events");
+		if (time != null) {
+			this.maxTime = Double.parseDouble(time.firstElement());
+		}
+		if (events != null) {
+			this.maxEvents = Long.parseLong(events.firstElement());
+		}
 		// Create the loader
 		this.loader = new Loader(config);
 	}
@@ -136,6 +153,9 @@ public class Simulator implements Serializable {
 		File output = accounting.getOutput();
 		// System.out.println("File: "+output.toString());
 		Vector<FileWriter> writers = accounting.getWriters();
+		// Create the pool of recycled events
+		EventPool pool = loader.getEventPool();
+		EventPool.setCurrent(pool);
 
 		// The simulation main loop
 		while (variableValue[0] <= stopValue) {
@@ -159,16 +179,17 @@ public class Simulator implements Serializable {
 				accounting.setWriters(writers); // Set the writers to the actual
 												// values
 			}
+			accounting.setRun(runCounter);
 
 			// Start the network part
 			controlPlane = loader.getControlPlane(accounting);
 			// System.out.println("Starting.\n Nodes:");
 			// System.out.println(controlPlane.graph.nodes().toString());
 
-			// Reset the counter of requests.
-			long requestCounter = 0;
+			// Set the condition for stopping this run
+			scheduler.setTermination(this.getTermination(scheduler));
 			// Run the simulation and print statistics information
-			while (requestCounter < numberOfRequests) {
+			while (!scheduler.isFinished()) {
 				Event event = null, response = null;
 				try {
 					// Gets the next event on the queue
@@ -196,28 +217,28 @@ public class Simulator implements Serializable {
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
+				Vector<Event> multiple = null;
 				if (response != null) { // response from the control plane
 					if (response.getType().equals(Event.Type.MULTIPLE)) { // Multiple
 																			// events
 																			// generated
-						Vector<Event> multiple = (Vector<Event>) response
-								.getContent();
+						multiple = (Vector<Event>) response.getContent();
 						// for each event do
 						for (Event single : multiple)
 							// Insert each event separatedly
 							scheduler.insertEvent(single);
+						// The wrapper is not needed anymore
+						if (response != event)
+							pool.release(response);
 					} else { // Single response
 						scheduler.insertEvent(response);
 					}
 				}
-				// Count the actual number of request till now.
-				long allCounters = 0;
-				for (String subscriber : related) {
-					allCounters = allCounters
-							+ scheduler.getCounter(subscriber);
+				// Recycle the dispatched event, if it was not queued again
+				if ((event != null) && (event != response)
+						&& ((multiple == null) || !multiple.contains(event))) {
+					pool.release(event);
 				}
-				requestCounter = allCounters;
-				// System.out.println("Req #: "+requestCounter);
 			}
 			// Update the utilization parameters, if implemented
 			try {
@@ -231,19 +252,7 @@ public class Simulator implements Serializable {
 			accounting.reset();
 
 			// Set the new value for the simulation
-			int sizeVar = simulation.get(variable).size();
-			for (int i = 0; i < sizeVar; i++) {
-				if (stepValue != 0.0) {
-					variableValue[i] = variableValue[i] + stepValue;
-				} else if (multValue != 0.0) {
-					variableValue[i] = variableValue[i]
-							+ (multValue * initialValue[i]);
-				} else if (expValue != 0.0) {
-					variableValue[i] = variableValue[i] * expValue;
-				}
-				String newValue = Double.toString(variableValue[i]);
-				simulation.get(variable).set(i, newValue);
-			}
+			this.nextValue();
 			// Vector<String> vec = new Vector<String>(); //old code
 			// vec.add(Double.toString(variableValue));
 			// simulation.put(variable,vec);
@@ -254,6 +263,96 @@ public class Simulator implements Serializable {
 		accounting.close();
 	}
 
+	/**
+	 * Sets the next value of the variable of the simulation.
+	 */
+	protected void nextValue() {
+		int sizeVar = simulation.get(variable).size();
+		for (int i = 0; i < sizeVar; i++) {
+			if (stepValue != 0.0) {
+				variableValue[i] = variableValue[i] + stepValue;
+			} else if (multValue != 0.0) {
+				variableValue[i] = variableValue[i]
+						+ (multValue * initialValue[i]);
+			} else if (expValue != 0.0) {
+				variableValue[i] = variableValue[i] * expValue;
+			}
+			String newValue = Double.toString(variableValue[i]);
+			simulation.get(variable).set(i, newValue);
+		}
+	}
+
+	/**
+	 * Returns the number of values (load points) of the variable of the
+	 * specified configuration, following the same sequence of values of a
+	 * simulation without changing its state.
+	 * 
+	 * @param aConfig
+	 *            The configuration of the simulation.
+	 * @return The number of values of the variable of the simulation.
+	 */
+	public static int countValues(Config aConfig) {
+		Hashtable<String, Vector<String>> parameters = aConfig
+				.getSimulationParameters();
+		String name = parameters.get("/Main/Variable/@name").firstElement();
+		double initial = Double.parseDouble(parameters.get(name).firstElement());
+		double step = 0.0, mult = 0.0, exp = 0.0;
+		if (parameters.get("/Main/Variable/@step") != null) {
+			step = Double.parseDouble(parameters.get("/Main/Variable/@step")
+					.firstElement());
+		}
+		if (parameters.get("/Main/Variable/@mult") != null) {
+			mult = Double.parseDouble(parameters.get("/Main/Variable/@mult")
+					.firstElement());
+		}
+		if (parameters.get("/Main/Variable/@exp") != null) {
+			exp = Double.parseDouble(parameters.get("/Main/Variable/@exp")
+					.firstElement());
+		}
+		double stop = Double.parseDouble(parameters.get(
+				"/Main/Variable/@stop").firstElement());
+		int points = 0;
+		double value = initial;
+		while (value <= stop) {
+			points++;
+			// The same steps of nextValue()
+			if (step != 0.0) {
+				value = value + step;
+			} else if (mult != 0.0) {
+				value = value + (mult * initial);
+			} else if (exp != 0.0) {
+				value = value * exp;
+			} else {
+				break; // constant variable - a single value
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * Creates the condition for stopping a run of the simulation, counting
+	 * the events created by the generators of the related subscribers.
+	 * 
+	 * @param sched
+	 *            The scheduler of the run.
+	 * @return The condition for stopping a run of the simulation.
+	 */
+	protected TerminationCondition getTermination(Scheduler sched) {
+		TerminationCondition termination = new TerminationCondition();
+		int[] ids = new int[0];
+		for (String subscriber : related) {
+			int[] subscriberIds = sched.getGeneratorIds(subscriber);
+			int length = ids.length;
+			ids = Arrays.copyOf(ids, length + subscriberIds.length);
+			System.arraycopy(subscriberIds, 0, ids, length,
+					subscriberIds.length);
+		}
+		termination.setMaxRequests(numberOfRequests, ids);
+		termination.setMaxTime(maxTime);
+		termination.setMaxEvents(maxEvents);
+		return termination;
+	}
+
 	/**
 	 * Main entry for the simulator program.
 	 * 
@@ -277,6 +376,116 @@ public class Simulator implements Serializable {
 		// System.out.println(AntNetCrankInterRoutingTable.printPherormones());
 	}
 
+	/**
+	 * Reads the configuration file of the simulation.
+	 * 
+	 * @param fileConfig
+	 *            The name of the configuration file.
+	 * @return The configuration of the simulation.
+	 */
+	protected static Config readConfig(String fileConfig) {
+		Config aConfig = null;
+		try {
+			aConfig = new Config(fileConfig);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return aConfig;
+	}
+
+	/**
+	 * Executes one replication of the simulation. The specified replication
+	 * number is added to all seeds of the configuration and appended to the
+	 * name of the output file, so that replication 0 is identical to a plain run.
+	 * This method is invoked by a SimulationContext, which isolates the static
+	 * state of each replication.
+	 * 
+	 * @param fileConfig
+	 *            The name of the configuration file.
+	 * @param replication
+	 *            The number of the replication.
+	 */
+	public static void replicate(String fileConfig, int replication) {
+		Config aConfig = Simulator.readConfig(fileConfig);
+		Hashtable<String, Vector<String>> parameters = aConfig
+				.getSimulationParameters();
+		for (String key : parameters.keySet()) {
+			if (key.toLowerCase().contains("seed")) {
+				Vector<String> values = parameters.get(key);
+				for (int i = 0; i < values.size(); i++) {
+					try {
+						long seed = Long.parseLong(values.get(i).trim());
+						values.set(i, Long.toString(seed + replication));
+					} catch (NumberFormatException e) {
+					} // not a numeric seed - keep it
+				}
+			}
+		}
+		Vector<String> output = parameters.get("/Outputs/Output/@file");
+		Simulator.shareCache(parameters);
+		output.set(0, SimulationContext.getOutputName(output.firstElement(),
+				replication));
+		new Simulator(aConfig).run();
+	}
+
+	/**
+	 * Executes the simulation only for one value (load point) of the variable,
+	 * writing the outputs with the suffix of this point. The variable takes the
+	 * same value and the run takes the same index as in the corresponding run
+	 * of a sequential simulation, so the outputs of each run are named as in a
+	 * sequential simulation. A negative point executes no run, writing only the
+	 * heading lines of the outputs with the suffix of the headings. This method
+	 * is invoked by a SimulationContext, which isolates the static state of each
+	 * point.
+	 * 
+	 * @param fileConfig
+	 *            The name of the configuration file.
+	 * @param point
+	 *            The index of the value of the variable.
+	 */
+	public static void sweep(String fileConfig, int point) {
+		Config aConfig = Simulator.readConfig(fileConfig);
+		Vector<String> output = aConfig.getSimulationParameters().get(
+				"/Outputs/Output/@file");
+		Simulator.shareCache(aConfig.getSimulationParameters());
+		if (point < 0) {
+			output.set(0, SimulationContext.getHeadingOutputName(output
+					.firstElement()));
+		} else {
+			output.set(0, SimulationContext.getPointOutputName(
+					output.firstElement(), point));
+		}
+		Simulator simulator = new Simulator(aConfig);
+		if (point < 0) {
+			simulator.stopValue = Double.NEGATIVE_INFINITY;
+		} else {
+			for (int k = 0; k < point; k++) {
+				simulator.nextValue();
+			}
+			simulator.stopValue = variableValue[0];
+			simulator.runCounter = point;
+		}
+		simulator.run();
+	}
+
+	/**
+	 * Sets the directory of the cache files of the paths shared by the contexts
+	 * of a runner, if the configuration does not specify one. It must be called
+	 * before the name of the output file is changed.
+	 * 
+	 * @param parameters
+	 *            The simulation parameters.
+	 */
+	protected static void shareCache(
+			Hashtable<String, Vector<String>> parameters) {
+		if (parameters.get("/RWA/Paths/@cache") == null) {
+			Vector<String> cache = new Vector<String>();
+			cache.add(SimulationContext.getCacheName(parameters.get(
+					"/Outputs/Output/@file").firstElement()));
+			parameters.put("/RWA/Paths/@cache", cache);
+		}
+	}
+
 	/**
 	 * Write the simulator object to the output file.
 	 * 
@@ -432,6 +641,23 @@ class Loader {
 		return cp;
 	}
 
+	/**
+	 * Gets the pool of recycled events for this simulator.
+	 * 
+	 * @return The pool of recycled events.
+	 */
+	public EventPool getEventPool() {
+		Vector<String> capacity = parameters.get("/Main/EventPool/@capacity");
+		Vector<String> debug = parameters.get("/Main/EventPool/@debug");
+		int size = EventPool.DEFAULT_CAPACITY;
+		if (capacity != null)
+			size = Integer.parseInt(capacity.firstElement());
+		boolean check = false;
+		if (debug != null)
+			check = Boolean.parseBoolean(debug.firstElement());
+		return new EventPool(size, check);
+	}
+
 	/**
 	 * Gets the scheduler for this simulator.
 	 * 
@@ -439,7 +665,21 @@ class Loader {
 	 */
 	public Scheduler getScheduler() {
 		if (this.isFresh()) { // fresh simulation
-			return new Scheduler();
+			Vector<String> queueClass = parameters.get("/Main/EventList/@class");
+			if (queueClass == null) // default event queue
+				return new Scheduler();
+			EventQueue queue = null;
+			try {
+				Class<?> sQueue = Class.forName(queueClass.firstElement());
+				queue = (EventQueue) sQueue.getDeclaredConstructor()
+						.newInstance();
+			} catch (Exception e) {
+				e.printStackTrace();
+				logger.warning("Using the default event queue instead of: "
+						+ queueClass.firstElement());
+				return new Scheduler();
+			}
+			return new Scheduler(new EventList(queue));
 		} else { // loaded simulation
 			return sim.scheduler;
 		}
@@ -894,7 +1134,7 @@ class Loader {
 			for (String node : nodeFailures) {
 				double time = Double.parseDouble(parameters.get(
 						"/Failure/NodeFailure/@time").get(nCounter));
-				Event failure = new Event(time, Event.Type.FAILURE_NODE, node);
+				Event failure = Event.obtain(time, Event.Type.FAILURE_NODE, node);
 				scheduler.insertEvent(failure);
 				// Increment counter
 				nCounter++;
@@ -905,7 +1145,7 @@ class Loader {
 			for (String link : linkFailures) {
 				double time = Double.parseDouble(parameters.get(
 						"/Failure/LinkFailure/@time").get(lCounter));
-				Event failure = new Event(time, Event.Type.FAILURE_LINK, link);
+				Event failure = Event.obtain(time, Event.Type.FAILURE_LINK, link);
 				scheduler.insertEvent(failure);
 				// Increment counter
 				lCounter++;
@@ -926,7 +1166,7 @@ class Loader {
 			Vector<String> offset = parameters.get("/Terminate/@offset");
 			if (offset != null)
 				time = time + Double.parseDouble(offset.firstElement());
-			Event event = new Event(time, Event.Type.TERMINATE, null);
+			Event event = Event.obtain(time, Event.Type.TERMINATE, null);
 			scheduler.insertEvent(event);
 		}
 	}
@@ -943,7 +1183,7 @@ class Loader {
 		if (serialize != null) {
 			for (String time : serialize) {
 				String name = parameters.get("/Serialize/@name").get(counter);
-				Event event = new Event(Double.parseDouble(time),
+				Event event = Event.obtain(Double.parseDouble(time),
 						Event.Type.SERIALIZE, name);
 				scheduler.insertEvent(event);
 				counter++; // Increment the counter
@@ -0,0 +1,216 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package main;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Hashtable;
+import java.util.LinkedHashSet;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Executes all values (load points) of the variable of a simulation concurrently
+ * in the same JVM, each one in its own SimulationContext, and reassembles their
+ * outputs in the order of the variable.
+ * <p>The number of threads is given by the element <code>&lt;Sweep threads="t"/&gt;</code>
+ * of the <code>Main</code> section of the configuration file. Each load point takes the
+ * same value of the variable and the same run index as in the sequential simulation
+ * and writes its outputs with the suffix ".pointi". The accounting writes the heading
+ * lines of an output when it is created, and then the results of each run. Therefore,
+ * an additional context without runs writes only the headings, with the suffix
+ * ".heading", and each reassembled output is its headings followed by the whole
+ * output of each point without the headings, in the order of the points. The outputs
+ * of a single run, e.g., the transients of each run, are written only by their
+ * point, so they are just renamed. The result is the same files written by a
+ * sequential simulation.
+ *
+ * @version 1.0
+ */
+public class SweepRunner {
+	/** The logging generator. */
+	private static Logger logger = Logger.getLogger(SweepRunner.class.getName());
+	/** The name of the configuration file. */
+	protected String fileConfig;
+	/** The name of the output file of the simulation. */
+	protected String output;
+	/** The number of load points. */
+	protected int points;
+	/** The number of threads. */
+	protected int threads;
+	/** True, if the contexts share a temporary cache of the paths. */
+	protected boolean sharedCache;
+
+	/**
+	 * Creates a new SweepRunner object.
+	 * @param aFileConfig The name of the configuration file.
+	 * @throws Exception If the configuration file cannot be read.
+	 */
+	public SweepRunner(String aFileConfig) throws Exception {
+		this.fileConfig = aFileConfig;
+		Config config = new Config(fileConfig);
+		Hashtable<String, Vector<String>> parameters = config.getSimulationParameters();
+		this.output = parameters.get("/Outputs/Output/@file").firstElement();
+		Vector<String> nThreads = parameters.get("/Main/Sweep/@threads");
+		this.threads = Runtime.getRuntime().availableProcessors();
+		if (nThreads != null)
+			this.threads = Integer.parseInt(nThreads.firstElement());
+		this.points = Simulator.countValues(config);
+		this.sharedCache = (parameters.get("/RWA/Paths/@cache") == null);
+	}
+
+	/**
+	 * Executes all load points and reassembles their outputs.
+	 * @throws Exception If any load point fails.
+	 */
+	public void run() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, points)));
+		Vector<Future<Object>> results = new Vector<Future<Object>>();
+		//The point -1 writes the headings of the outputs
+		for (int i = -1; i < points; i++) {
+			final int point = i;
+			results.add(executor.submit(new Callable<Object>() {
+				public Object call() throws Exception {
+					logger.info("Starting load point " + point);
+					SimulationContext context = new SimulationContext();
+					try {
+						context.sweep(fileConfig, point);
+					} finally {
+						context.close();
+					}
+					logger.info("Load point " + point + " finished");
+					return null;
+				}
+			}));
+		}
+		executor.shutdown();
+		try {
+			for (Future<Object> result : results)
+				result.get();
+		} finally {
+			executor.shutdownNow();
+			if (sharedCache)
+				SimulationContext.deleteCache(output);
+		}
+		if (points > 0)
+			reassemble(output, points);
+	}
+
+	/**
+	 * Reassembles the output files of the load points into the original output files,
+	 * removing the output files of the load points and of the headings.
+	 * @param output The name of the output file of the simulation.
+	 * @param points The number of load points.
+	 * @throws IOException If an output file cannot be read or written.
+	 */
+	public static void reassemble(String output, int points) throws IOException {
+		File heading = new File(SimulationContext.getHeadingOutputName(output)).getAbsoluteFile();
+		File directory = heading.getParentFile();
+		//The suffixes of the outputs, in the order that they are found
+		LinkedHashSet<String> suffixes = new LinkedHashSet<String>();
+		Vector<String> prefixes = new Vector<String>();
+		prefixes.add(heading.getName());
+		for (int i = 0; i < points; i++)
+			prefixes.add(new File(SimulationContext.getPointOutputName(output, i)).getName());
+		for (String prefix : prefixes) {
+			for (File file : directory.listFiles()) {
+				if (file.getName().startsWith(prefix) && !isPointOutput(file.getName().substring(prefix.length())))
+					suffixes.add(file.getName().substring(prefix.length()));
+			}
+		}
+		for (String suffix : suffixes) {
+			File headingFile = new File(SimulationContext.getHeadingOutputName(output) + suffix);
+			byte[] headings = read(headingFile);
+			FileOutputStream stream = new FileOutputStream(output + suffix);
+			try {
+				stream.write(headings);
+				for (int i = 0; i < points; i++) {
+					File file = new File(SimulationContext.getPointOutputName(output, i) + suffix);
+					byte[] content = read(file);
+					int start = startsWith(content, headings) ? headings.length : 0;
+					stream.write(content, start, content.length - start);
+					file.delete();
+				}
+			} finally {
+				stream.close();
+			}
+			headingFile.delete();
+		}
+	}
+
+	/**
+	 * Verifies if the specified suffix of an output name starts with the index of a
+	 * load point, i.e., if the output belongs to a load point with a longer index.
+	 * For example, the suffix "0.txt" of ".point10.txt" for the point 1.
+	 * @param suffix The suffix of the output name.
+	 * @return True, if the suffix starts with a digit. False, otherwise.
+	 */
+	protected static boolean isPointOutput(String suffix) {
+		return (suffix.length() > 0) && Character.isDigit(suffix.charAt(0));
+	}
+
+	/**
+	 * Verifies if the specified content starts with the specified prefix.
+	 * @param content The content of a file.
+	 * @param prefix The prefix.
+	 * @return True, if the content starts with the prefix. False, otherwise.
+	 */
+	protected static boolean startsWith(byte[] content, byte[] prefix) {
+		if (content.length < prefix.length)
+			return false;
+		for (int i = 0; i < prefix.length; i++) {
+			if (content[i] != prefix[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the content of the specified file.
+	 * @param file The file.
+	 * @return The content of the file, or an empty array if it does not exist.
+	 * @throws IOException If the file cannot be read.
+	 */
+	protected static byte[] read(File file) throws IOException {
+		if (!file.exists())
+			return new byte[0];
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		FileInputStream stream = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[8192];
+			int length;
+			while ((length = stream.read(buffer)) > 0)
+				content.write(buffer, 0, length);
+		} finally {
+			stream.close();
+		}
+		return content.toByteArray();
+	}
+
+	/**
+	 * Main entry for running all load points of a simulation concurrently.
+	 * @param args The name of the XML configuration file in the command line.
+	 */
+	public static void main(String[] args) {
+		if (args.length != 1) {
+			System.err.println("Usage: java main.SweepRunner config_file.xml");
+			return;
+		}
+		logger.info("Starting sweep at: " + (new Date()).toString());
+		try {
+			new SweepRunner(args[0]).run();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		logger.info("Sweep finished at: " + (new Date()).toString());
+	}
+}
@@ -54,6 +54,8 @@ public class Packet implements Serializable,Cloneable {
 	protected String target;
 	/** Identifies all packets belonging to a specific flow, i.e., the same LSP. */
 	protected String flowLabel;
+	/** The flow label as a primitive id, or -1 if there is no flow label. */
+	protected long flowId = -1L;
 	/** Defines the priority of the packet. */
 	protected Priority trafficClass;
 	/** Indicates the next extension header to examine, i.e., 
@@ -133,12 +135,32 @@ public class Packet implements Serializable,Cloneable {
 		return this.flowLabel;
 	}
 
+	/**
+	 * Returns the primitive id of the associated flow, for keying the per-flow
+	 * state of the nodes without boxing.
+	 * @return The id of the associated flow, or -1 if there is no flow label.
+	 */
+	public long getFlowId() {
+		return this.flowId;
+	}
+
 	/**
 	 * Set the label identifying the associated flow.
-	 * @param flowLabel A new label to set.
+	 * @param flowLabel A new label to set, i.e., the decimal representation of the flow id.
+	 * @throws NumberFormatException If the label is not a decimal number.
 	 */
 	public void setFlowLabel(String fLabel) {
 		this.flowLabel = fLabel;
+		this.flowId = (fLabel == null) ? -1L : Long.parseLong(fLabel);
+	}
+
+	/**
+	 * Set the label identifying the associated flow.
+	 * @param id The id of the flow.
+	 */
+	public void setFlowLabel(long id) {
+		this.flowLabel = Long.toString(id);
+		this.flowId = id;
 	}
 
 	/**
@@ -328,6 +350,7 @@ public class Packet implements Serializable,Cloneable {
 		cloned.procNode = new String(this.procNode);
 		if (flowLabel != null)
 			cloned.flowLabel = new String(this.flowLabel);
+		cloned.flowId = this.flowId;
 		cloned.path = (Path)this.path.clone();
 		cloned.hopLimit = this.hopLimit;
 		cloned.nextHeader = this.nextHeader;
@@ -112,6 +112,16 @@ public class TransientAccounting extends antnet.AntAccounting {
 		}	
 	}
 
+	/**
+	 * Sets the index of the actual run of the simulation, which is used for
+	 * naming the outputs of this run.
+	 * @param run The index of the actual run.
+	 */
+	@Override
+	public void setRun(int run) {
+		this.runTP = run;
+	}
+
 	/** 
 	 * Resets all the statistics gathered by this object.
 	 */
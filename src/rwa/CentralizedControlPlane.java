@@ -0,0 +1,365 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa;
+
+import event.Event;
+import graph.CompactGraph;
+import graph.CompactPath;
+import graph.Edge;
+import graph.IncrementalPaths;
+import graph.Path;
+
+import java.util.LinkedHashMap;
+import java.util.Vector;
+
+import main.Config;
+import main.Link;
+import main.SimulationAccounting;
+
+import ops.Accounting;
+import ops.Packet;
+import ops.TransientAccounting;
+
+/**
+ * A Centralized Control Plane for Routing and Wavelength Assignment with
+ * fixed-alternate routing, in the style of a Path Computation Element (PCE).
+ * The occupancy of the wavelengths of all links is kept in a global table,
+ * indexed by the edge ids of a compact snapshot of the topology, and the route
+ * and the wavelength of each request are chosen atomically at its arrival time.
+ * There is no signaling: the only events are the arrivals and the teardowns of
+ * the lightpaths, so that the blocking probability of large sweeps is obtained
+ * with a fraction of the events of the distributed control planes.
+ * <p>The alternate paths are tried in order, following the same policy of tries
+ * of the requests of the distributed control planes. The accounting receives RSVP
+ * messages with the route that the signaling would have recorded: the whole path
+ * for an established lightpath and the path until the first link without a
+ * common free wavelength (or block of slots) for a blocked one.
+ * <p>When a link or a node fails, the paths are repaired and the lightpaths that
+ * use the failed element are re-routed at the failure time, since the PCE
+ * knows the failure and the occupancy of the network; the localization time and
+ * the signaling delays are not modeled.
+ * <p>The lightpaths do not carry packets over the links, so the transient
+ * accounting, which measures the bytes carried by the links, is not supported.
+ *
+ * @version 1.0
+ */
+public class CentralizedControlPlane extends main.ControlPlane {
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+	/** The set of links of this network. */
+	protected LinkedHashMap<String,Link> links;
+	/** The maximum hop limit for a packet. */
+	protected int hopLimit;
+	/** The counter for identifying a request. */
+	protected long counterLightpath=0L;
+	/** The accounting of the simulation results. */
+	protected Accounting accounting;
+	/** The number of alternative paths of the network. */
+	protected int alternative;
+	/** The time of the last event. */
+	protected double lastTime;
+	/** The compact snapshot of the topology at the start of the simulation, whose ids never change. */
+	protected CompactGraph g;
+	/** The global occupancy of the links, indexed by edge id. */
+	protected WavelengthMask[] occupancy;
+	/** The alternate paths of each pair, indexed by source id * size + target id. */
+	protected CompactPath[][] routes;
+	/** The failed nodes, indexed by node id. */
+	protected boolean[] failedNodes;
+	/** The assignment of wavelengths (or blocks of slots, in flex-grid links). */
+	protected SpectrumAssignment spectrum;
+	/** The active connections, indexed by flow label. */
+	protected LinkedHashMap<String,Connection> activeConnections;
+	/** The repair of the shortest paths after failures. */
+	protected IncrementalPaths pathRepair;
+	/** Number of lightpaths re-routed after failures. */
+	protected int rerouted;
+	/** The working words of the free wavelengths along a path. */
+	protected transient long[] free;
+
+	/**
+	 * Creates a new CentralizedControlPlane object.
+	 * @param aConfig The XML configuration file for this problem.
+	 * @param aAccounting The accounting of the simulation results.
+	 * @throws IllegalArgumentException If the accounting is a transient accounting.
+	 */
+	public CentralizedControlPlane(Config aConfig, SimulationAccounting aAccounting) {
+		super(aConfig);
+		if (aAccounting instanceof TransientAccounting)
+			throw new IllegalArgumentException("Transient accounting not supported by the centralized control plane: "+aAccounting.getClass().getName());
+		this.accounting = (Accounting) aAccounting;
+		//Get the links of this network
+		links = config.getLinks();
+		activeConnections = new LinkedHashMap<String,Connection>();
+		hopLimit = Integer.parseInt(parameters.get("/OPS/Hop/@limit").firstElement());
+		alternative = Integer.parseInt(parameters.get("/RWA/Routing/@alternative").firstElement());
+		//Gets the assignment of wavelengths, first-fit if not specified
+		Vector<String> policy = parameters.get("/RWA/Spectrum/@policy");
+		Vector<String> slots = parameters.get("/RWA/Spectrum/@slots");
+		spectrum = new SpectrumAssignment(policy != null ? SpectrumAssignment.Policy.valueOf(policy.firstElement()) : SpectrumAssignment.Policy.FIRST_FIT,
+				slots != null ? Integer.parseInt(slots.firstElement()) : 1);
+		//Creates the global occupancy table
+		g = graph.snapshot();
+		occupancy = new WavelengthMask[g.numberOfEdges()];
+		int words = 0;
+		for (int edge = 0; edge < occupancy.length; edge++) {
+			Link link = links.get(g.getNode(g.getSource(edge)) + "-" + g.getNode(g.getTarget(edge)));
+			occupancy[edge] = new WavelengthMask(link.getNumberWavelengths());
+			words = Math.max(words, occupancy[edge].getWords().length);
+		}
+		free = new long[words];
+		failedNodes = new boolean[g.size()];
+		//Calculate the set of paths of the network
+		LinkedHashMap<String,Vector<Path>> setPaths = allPairsPaths.getPaths(graph,alternative + 1);
+		pathRepair = new IncrementalPaths(graph,setPaths,alternative + 1);
+		this.updateRoutes(setPaths);
+	}
+
+	/**
+	 * Process the specified event.
+	 * @param event The event to be processed.
+	 * @return The processed event. Null, if nothing else is
+	 * to be returned to the scheduler.
+	 */
+	@Override
+	public Event process(Event event) {
+		//Update the time stamp of the last event processed.
+		lastTime = event.getTimeStamp();
+		//For each event type
+		switch (event.getType()) {
+			case LIGHTPATH_REQUEST: //Lightpath request
+				LightpathRequest request = (LightpathRequest) event.getContent();
+				String label = Long.toString(counterLightpath);
+				this.counterLightpath ++; //Increment the counter
+				return this.setup(request,label,false);
+			case LIGHTPATH_TEARDOWN: //Remove connection
+				Connection connectionTear = (Connection) event.getContent();
+				//Ignore the teardown of a lightpath already released by a failure
+				if (activeConnections.get(connectionTear.getID()) == connectionTear) {
+					activeConnections.remove(connectionTear.getID());
+					this.release(connectionTear);
+				}
+				return null;
+			case FAILURE_LINK: //For link failure
+				//Get the edge associated with the failure
+				Edge edge = links.get((String) event.getContent()).getEdge();
+				int source = g.getId(edge.getSource());
+				int target = g.getId(edge.getDestination());
+				if (failedNodes[source] || failedNodes[target] || !graph.hasEdge(edge.getSource(),edge.getDestination()))
+					return null; //Already failed
+				try {
+					graph.removeEdge(edge.getSource(),edge.getDestination());
+				} catch(Exception e) {e.printStackTrace();}
+				//Mark the affected paths, which are recalculated when the set of paths is read
+				pathRepair.removeEdge(edge.getSource(),edge.getDestination());
+				return this.restore(-1,source,target);
+			case FAILURE_NODE: //For node failure
+				//Get the node associated with the failure
+				String id = (String)event.getContent();
+				int node = g.getId(id);
+				if (failedNodes[node])
+					return null; //Already failed
+				failedNodes[node] = true;
+				try {
+					graph.removeNode(id);
+				} catch(Exception e) {e.printStackTrace();}
+				//Mark the affected paths, which are recalculated when the set of paths is read
+				pathRepair.removeNode(id);
+				return this.restore(node,-1,-1);
+			default: System.err.println("Unknown event: "+event.toString());
+				return null;
+		}
+	}
+
+	/**
+	 * Establishes a lightpath for the specified request, if there is a common free wavelength
+	 * (or block of slots) in one of its alternate paths, and accounts the result.
+	 * @param request The lightpath request.
+	 * @param label The flow label of the lightpath.
+	 * @param reRouting True, if the request re-routes a lightpath disrupted by a failure.
+	 * @return The teardown event of the established lightpath, or null if the request is blocked.
+	 */
+	protected Event setup(LightpathRequest request, String label, boolean reRouting) {
+		int source = g.getId(request.getSource());
+		int target = g.getId(request.getTarget());
+		CompactPath[] paths = ((source == -1) || (target == -1)) ? null : routes[source * g.size() + target];
+		CompactPath path = null;
+		int hops = 0; //Hops until the blocking link
+		Error.Code code;
+		while (true) {
+			int alternate = request.getTry();
+			if ((paths == null) || (alternate >= paths.length)) {
+				//There is no route available
+				path = null;
+				hops = 0;
+				code = Error.Code.RP_NO_ROUTE_AVAILABLE;
+			} else {
+				path = paths[alternate];
+				hops = this.accumulate(path);
+				if (hops == path.size() - 1) { //Common free wavelengths in the whole path
+					int lambda = spectrum.select(free);
+					if (lambda != -1) {
+						//Reserve the wavelengths in all links of the path
+						for (int i = 0; i < path.size() - 1; i++)
+							occupancy[path.getEdgeId(i)].setWavelengths(lambda,spectrum.getSlots());
+						Connection connection = new Connection(path,lambda,label,request);
+						connection.setSlots(spectrum.getSlots());
+						connection.setStartTime(lastTime);
+						activeConnections.put(label,connection);
+						//Accounts the successfull lightpath establishment
+						accounting.addSuccesful(this.signal(request,label,path,hops,Packet.Header.RSVP_RESV,null,reRouting));
+						return Event.obtain(lastTime + request.getDuration(),Event.Type.LIGHTPATH_TEARDOWN,connection);
+					}
+				}
+				code = Error.Code.RP_LABEL_SET;
+			}
+			request.addTry(); //add a try to the counter of tries
+			if (!request.tryAgain()) {
+				//Accounts the failed lightpath request
+				accounting.addFailed(this.signal(request,label,path,hops,Packet.Header.RSVP_PATH_ERR,new Error(code),reRouting));
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Accumulates in the working words the common free wavelengths of the links of a path.
+	 * @param path The path.
+	 * @return The number of hops from the source node until the first link without a common free
+	 * wavelength, inclusive, or the number of hops of the path if all links have a common free wavelength.
+	 */
+	protected int accumulate(CompactPath path) {
+		int hops = path.size() - 1;
+		for (int i = 0; i < hops; i++) {
+			long[] words = occupancy[path.getEdgeId(i)].getWords();
+			long any = 0L;
+			for (int w = 0; w < free.length; w++) {
+				long word = (w < words.length) ? words[w] : 0L;
+				free[w] = (i == 0) ? word : (free[w] & word);
+				any = any | free[w];
+			}
+			if (any == 0L) //The signaling would stop at the next node
+				return i + 1;
+		}
+		return hops;
+	}
+
+	/**
+	 * Releases the wavelengths of a connection in all links of its path.
+	 * @param connection The connection.
+	 */
+	protected void release(Connection connection) {
+		CompactPath path = connection.getCompactPath(g);
+		for (int i = 0; i < path.size() - 1; i++)
+			occupancy[path.getEdgeId(i)].clearWavelengths(connection.getWavelength(),connection.getSlots());
+	}
+
+	/**
+	 * Returns the RSVP message that the signaling would have delivered to the accounting.
+	 * @param request The lightpath request.
+	 * @param label The flow label of the lightpath.
+	 * @param path The path of the lightpath, or null if there is no route.
+	 * @param hops The number of hops traversed by the message.
+	 * @param header The header of the message.
+	 * @param error The error of the message, or null if the lightpath is established.
+	 * @param reRouting True, if the request re-routes a lightpath disrupted by a failure.
+	 * @return The RSVP message.
+	 */
+	protected RSVP signal(LightpathRequest request, String label, CompactPath path, int hops, Packet.Header header, Error error, boolean reRouting) {
+		RSVP rsvp = new RSVP(request,hopLimit,0L);
+		rsvp.setFlowLabel(label);
+		for (int i = 1; i <= hops; i++) //Record the route traversed
+			rsvp.setNode(path.getNode(i));
+		rsvp.setNextHeader(header);
+		if (error != null)
+			rsvp.setError(error);
+		if (reRouting)
+			rsvp.setReRouting();
+		return rsvp;
+	}
+
+	/**
+	 * Repairs the paths after a failure and re-routes the lightpaths that use the failed node or link.
+	 * @param node The id of the failed node, or -1 for a link failure.
+	 * @param source The id of the source node of the failed link, or -1 for a node failure.
+	 * @param target The id of the target node of the failed link, or -1 for a node failure.
+	 * @return The teardown events of the re-routed lightpaths, or null if there is none.
+	 */
+	protected Event restore(int node, int source, int target) {
+		//Update only the pairs whose paths are repaired
+		Vector<String[]> repaired = pathRepair.getAffected();
+		LinkedHashMap<String,Vector<Path>> setPaths = pathRepair.getPaths();
+		for (String[] ends : repaired)
+			this.updateRoutes(g.getId(ends[0]),g.getId(ends[1]),setPaths);
+		//Release the disrupted lightpaths, in the order of establishment
+		Vector<Connection> disrupted = new Vector<Connection>();
+		for (Connection connection : activeConnections.values()) {
+			CompactPath path = connection.getCompactPath(g);
+			if ((node != -1) ? (path.getNodePosition(node) != -1) : path.containEdge(source,target))
+				disrupted.add(connection);
+		}
+		for (Connection connection : disrupted) {
+			activeConnections.remove(connection.getID());
+			this.release(connection);
+		}
+		//Re-route them with the residual duration
+		Vector<Event> teardowns = new Vector<Event>();
+		for (Connection connection : disrupted) {
+			LightpathRequest request = connection.getRequest();
+			request.resetTry();
+			request.setDuration(request.getDuration() - (lastTime - connection.getStartTime()));
+			Event teardown = this.setup(request,connection.getID(),true);
+			if (teardown != null) {
+				teardowns.add(teardown);
+				rerouted ++;
+			}
+		}
+		if (teardowns.isEmpty())
+			return null;
+		return Event.obtain(lastTime,Event.Type.MULTIPLE,teardowns);
+	}
+
+	/**
+	 * Updates the alternate paths of each pair in the compact snapshot of the topology.
+	 * @param setPaths The shortest paths of each pair, keyed by "source-destination".
+	 */
+	protected void updateRoutes(LinkedHashMap<String,Vector<Path>> setPaths) {
+		int size = g.size();
+		routes = new CompactPath[size * size][];
+		for (int src = 0; src < size; src++) {
+			for (int tgt = 0; tgt < size; tgt++) {
+				if (src != tgt)
+					this.updateRoutes(src,tgt,setPaths);
+			}
+		}
+	}
+
+	/**
+	 * Updates the alternate paths of the specified pair in the compact snapshot of the topology.
+	 * @param src The id of the source node of the pair.
+	 * @param tgt The id of the target node of the pair.
+	 * @param setPaths The shortest paths of each pair, keyed by "source-destination".
+	 */
+	protected void updateRoutes(int src, int tgt, LinkedHashMap<String,Vector<Path>> setPaths) {
+		Vector<Path> paths = setPaths.get(g.getNode(src) + "-" + g.getNode(tgt));
+		if (paths == null) { //The pair has been removed
+			routes[src * g.size() + tgt] = null;
+			return;
+		}
+		Vector<CompactPath> compact = new Vector<CompactPath>();
+		for (Path path : paths) {
+			if (path != null) //There is a path between the nodes
+				compact.add(new CompactPath(path,g));
+		}
+		routes[src * g.size() + tgt] = compact.toArray(new CompactPath[compact.size()]);
+	}
+
+	/**
+	 * Prints the last simulation time.
+	 */
+	public void updateValues() {
+		System.out.println("LastTime: "+lastTime);
+		System.out.println("Rerouted: "+rerouted);
+	}
+}
@@ -21,10 +21,16 @@ public class Connection implements java.io.Serializable, Cloneable {
 	protected LightpathRequest lightpathRequest;
     /** Path from source to target station. */
 	protected Path path;
+    /** The compact form of the path, if already built. */
+	protected transient CompactPath compactPath;
     /** Used wavelength in this lightpath. */
 	protected int wavelength;
+    /** Number of contiguous wavelengths (spectrum slots) used in this lightpath, starting at the used wavelength. */
+	protected int slots = 1;
     /** Unique identification of the flow (lightpath). */
 	protected String uniqueID;
+    /** The unique identification as a primitive flow id, or -1 if there is none. */
+	protected long flowId = -1L;
     /** The start time of this connection. */
 	protected double startTime;
     
@@ -54,8 +60,21 @@ public class Connection implements java.io.Serializable, Cloneable {
         path = aPath;
         wavelength = aWavelength;
         uniqueID = aUniqueID;
+        if (aUniqueID != null)
+            flowId = Long.parseLong(aUniqueID);
         lightpathRequest = request;
     }
+
+    /** Creates new Connection.
+     * @param aPath Compact path from source to target station. 
+     * @param aWavelength Used wavelength in this lightpath.
+     * @param aUniqueID The unique ID of this connection.
+     * @param request The lightpath request associated with this connection.
+     */
+    public Connection(CompactPath aPath, int aWavelength, String aUniqueID, LightpathRequest request) {
+        this(aPath.toPath(),aWavelength,aUniqueID,request);
+        compactPath = aPath;
+    }
     
     /**
      * Returns the path of this connection.
@@ -65,6 +84,19 @@ public class Connection implements java.io.Serializable, Cloneable {
         return this.path;
     }
     
+    /**
+     * Returns the compact path of this connection, which is built over the
+     * specified graph the first time and kept afterwards, e.g., for locating
+     * the failures of the nodes and links of the graph.
+     * @param graph The compact graph of the path.
+     * @return The compact path of this connection.
+     */
+    public CompactPath getCompactPath(CompactGraph graph) {
+        if (this.compactPath == null)
+            this.compactPath = new CompactPath(path,graph);
+        return this.compactPath;
+    }
+    
     /**
      * Returns the number of hops of this connection.
      * @return The number of hops of this connection.
@@ -80,6 +112,22 @@ public class Connection implements java.io.Serializable, Cloneable {
     public int getWavelength() {
         return this.wavelength;
     }
+    
+    /**
+     * Returns the number of contiguous wavelengths (spectrum slots) used in this connection.
+     * @return The number of contiguous wavelengths used in this connection.
+     */
+    public int getSlots() {
+        return this.slots;
+    }
+    
+    /**
+     * Sets the number of contiguous wavelengths (spectrum slots) used in this connection.
+     * @param aSlots The number of contiguous wavelengths used in this connection.
+     */
+    public void setSlots(int aSlots) {
+        this.slots = aSlots;
+    }
         
     /**
      * Returns the source of this connection.
@@ -104,6 +152,14 @@ public class Connection implements java.io.Serializable, Cloneable {
     public String getID() {
     	return this.uniqueID;
     }
+
+    /**
+     * Returns the unique identification of this connection as a primitive flow id.
+     * @return The flow id of this connection, or -1 if it has no unique identification.
+     */
+    public long getFlowId() {
+    	return this.flowId;
+    }
     
     /**
      * Returns a clone object of this connection.
@@ -112,8 +168,11 @@ public class Connection implements java.io.Serializable, Cloneable {
     public Object clone() {
         Connection conn = new Connection();
         conn.path = (Path) this.path.clone();
+        conn.compactPath = this.compactPath; //Immutable
         conn.wavelength = this.wavelength;
+        conn.slots = this.slots;
         conn.uniqueID = this.uniqueID;
+        conn.flowId = this.flowId;
         conn.lightpathRequest = (LightpathRequest)this.lightpathRequest.clone();
         return (Object)conn;
     }
@@ -138,6 +197,10 @@ public class Connection implements java.io.Serializable, Cloneable {
         buffer.append(path.toString());
         buffer.append(", wavelength: ");
         buffer.append(wavelength);
+        if (slots > 1) {
+            buffer.append(", slots: ");
+            buffer.append(slots);
+        }
         buffer.append(", request: ");
         buffer.append(this.lightpathRequest.toString());
         return buffer.toString();
@@ -0,0 +1,187 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa;
+
+import graph.Edge;
+import graph.Path;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.Vector;
+
+import main.Failure;
+
+/**
+ * The table of active connections of an optical node, indexed by the links and
+ * the nodes of the path of each connection. The connections disrupted by the
+ * failure of a link or a node are found in the index of the failed link or node,
+ * without locating the failure in the path of every active connection. The
+ * connections found are sorted by the order in which they were registered, which
+ * is the iteration order of the table of active connections, so that the
+ * notifications of the failure are sent in the same order as with a scan of all
+ * connections.
+ *
+ * @version 1.0
+ */
+public class ConnectionRegistry implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The active connections, keyed by their flow labels, in the order of registration. */
+	protected LinkedHashMap<String,Connection> connections;
+	/** The sequence number of the registration of each active connection, keyed by its flow label. */
+	protected HashMap<String,Long> sequence;
+	/** The next sequence number of registration. */
+	protected long counter;
+	/** The flow labels of the connections that traverse each link, keyed by "source-destination" of the link. */
+	protected HashMap<String,HashSet<String>> links;
+	/** The flow labels of the connections that traverse each node, keyed by the node. */
+	protected HashMap<String,HashSet<String>> nodes;
+
+	/**
+	 * Creates a new ConnectionRegistry object.
+	 */
+	public ConnectionRegistry() {
+		connections = new LinkedHashMap<String,Connection>();
+		sequence = new HashMap<String,Long>();
+		links = new HashMap<String,HashSet<String>>();
+		nodes = new HashMap<String,HashSet<String>>();
+	}
+
+	/**
+	 * Adds an active connection, replacing the one with the same flow label.
+	 * The replacing connection keeps the order of the replaced one.
+	 * @param label The flow label of the connection.
+	 * @param connection The connection.
+	 * @return The connection previously registered with the flow label, or null if there is none.
+	 */
+	public Connection put(String label, Connection connection) {
+		Connection previous = connections.put(label, connection);
+		if (previous != null)
+			this.index(label, previous, false);
+		else
+			sequence.put(label, counter++);
+		this.index(label, connection, true);
+		return previous;
+	}
+
+	/**
+	 * Removes an active connection.
+	 * @param label The flow label of the connection.
+	 * @return The removed connection, or null if there is none.
+	 */
+	public Connection remove(String label) {
+		Connection previous = connections.remove(label);
+		if (previous != null) {
+			sequence.remove(label);
+			this.index(label, previous, false);
+		}
+		return previous;
+	}
+
+	/**
+	 * Returns the active connection with the specified flow label.
+	 * @param label The flow label of the connection.
+	 * @return The connection, or null if there is none.
+	 */
+	public Connection get(String label) {
+		return connections.get(label);
+	}
+
+	/**
+	 * Returns the flow labels of the active connections.
+	 * @return The flow labels of the active connections, in the order of registration.
+	 */
+	public Set<String> keySet() {
+		return connections.keySet();
+	}
+
+	/**
+	 * Returns the number of active connections.
+	 * @return The number of active connections.
+	 */
+	public int size() {
+		return connections.size();
+	}
+
+	/**
+	 * Returns the flow labels of the active connections that may be disrupted by
+	 * the specified failure, i.e., the connections that traverse the failed link
+	 * or node. The location of the failure in each returned connection must
+	 * still be verified with {@link Failure#locate(String, Path)}.
+	 * @param failure The failure.
+	 * @return The flow labels of the connections, in the order of registration.
+	 */
+	public Vector<String> affected(Failure failure) {
+		HashSet<String> index;
+		if (failure.getType().equals(Failure.Type.LINK)) {
+			Edge edge = (Edge) failure.getInformation();
+			index = links.get(edge.getSource() + "-" + edge.getDestination());
+		} else {
+			index = nodes.get((String) failure.getInformation());
+		}
+		Vector<String> labels = new Vector<String>();
+		if (index == null)
+			return labels;
+		labels.addAll(index);
+		//Sorts only the affected connections by their order of registration
+		Collections.sort(labels, new Comparator<String>() {
+			public int compare(String label1, String label2) {
+				long sequence1 = sequence.get(label1);
+				long sequence2 = sequence.get(label2);
+				return (sequence1 < sequence2) ? -1 : ((sequence1 > sequence2) ? 1 : 0);
+			}
+		});
+		return labels;
+	}
+
+	/**
+	 * Adds or removes a connection to the indexes of the links and nodes of its path.
+	 * @param label The flow label of the connection.
+	 * @param connection The connection.
+	 * @param add True, to add the connection. False, to remove it.
+	 */
+	protected void index(String label, Connection connection, boolean add) {
+		Path path = connection.getPath();
+		for (int i = 0; i < path.size(); i++) {
+			this.index(nodes, path.getNode(i), label, add);
+			if (i < path.size() - 1)
+				this.index(links, path.getNode(i) + "-" + path.getNode(i + 1), label, add);
+		}
+	}
+
+	/**
+	 * Adds or removes a flow label to the index of the specified link or node.
+	 * @param map The indexes of the links or of the nodes.
+	 * @param key The "source-destination" of the link or the node.
+	 * @param label The flow label of the connection.
+	 * @param add True, to add the connection. False, to remove it.
+	 */
+	private void index(HashMap<String,HashSet<String>> map, String key, String label, boolean add) {
+		HashSet<String> labels = map.get(key);
+		if (add) {
+			if (labels == null) {
+				labels = new HashSet<String>();
+				map.put(key, labels);
+			}
+			labels.add(label);
+		} else if (labels != null) {
+			labels.remove(label);
+			if (labels.isEmpty())
+				map.remove(key);
+		}
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		return connections.toString();
+	}
+}
@@ -6,8 +6,8 @@ package rwa;
 import event.Event;
 import graph.Edge;
 import graph.Graph;
+import graph.IncrementalPaths;
 import graph.Path;
-import graph.YEN;
 
 import java.io.FileInputStream;
 import java.io.ObjectInputStream;
@@ -58,13 +58,16 @@ public class DistributedControlPlane extends main.ControlPlane {
 	protected double faultLocalizationTime;
 	/** The length in bytes for the identification of a node. */
 	protected int identificationLength;
-	/** The collection of LSP disrupted by a failure, which
-	 * are eligible for full re-routing. */
-	protected Hashtable<String,LightpathRequest> disruptedLSP;
-	/** The collection of LSP successfully re-routed after a failure. */
-	protected Hashtable<String,Connection> reroutedLSP;
+	/** The LSP disrupted by a failure, which are eligible for full re-routing,
+	 * and the ones successfully re-routed after a failure. */
+	protected RestorationTracker restoration;
+	/** The flooding of the failures detected in the last instant. */
+	protected FailureFlooding flooding;
 	/** The actual collection of shortest paths of this network. */
 	public static LinkedHashMap<String,Vector<Path>> setPaths;
+	/** The repair of the shortest paths after failures, which is null until the first failure
+	 * if the routing tables have been read from a file. */
+	protected static IncrementalPaths pathRepair;
 	
 	/**
 	 * Creates a new DistributedControlPlane object.
@@ -79,8 +82,7 @@ public class DistributedControlPlane extends main.ControlPlane {
 		//Create the nodes of this network
 		nodes = new LinkedHashMap<String,OpticalNode>();
 		//Create the storage of disrupted connections by failure
-		disruptedLSP = new Hashtable<String,LightpathRequest>();
-		reroutedLSP = new Hashtable<String,Connection>();
+		restoration = new RestorationTracker();
 		//Get the simulation parameters
 		Hashtable<String,Vector<String>> parameters = config.getSimulationParameters();
 		hopLimit = Integer.parseInt(parameters.get("/OPS/Hop/@limit").firstElement());
@@ -90,8 +92,12 @@ public class DistributedControlPlane extends main.ControlPlane {
 		if (serRT) {
 			String fileRT = parameters.get("/RWA/Serialize/@file").firstElement();
 			rTables = this.read(fileRT);
+			//Discard the paths of the topology of a previous run
+			setPaths = null;
+			pathRepair = null;
 		} else { //Calculate the set of paths of the network
 			setPaths = this.getPaths(graph,alternative);
+			pathRepair = new IncrementalPaths(graph,setPaths,alternative+1);
 		}
 		//Gets the size of the time slice
 		timeSlice = Double.parseDouble(parameters.get("/Outputs/Transient/@timeSlice").firstElement());
@@ -155,7 +161,7 @@ public class DistributedControlPlane extends main.ControlPlane {
 				RSVP rsvpPath = new RSVP(request,hopLimit,counterLightpath);
 				this.counterLightpath ++; //Increment the counter
 				//Create a new event for setting up the lightpath
-				return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpPath);
+				return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpPath);
 			case LIGHTPATH_ESTABLISHED: //Lightpath established
 				RSVP rsvpConfirm = (RSVP) event.getContent();
 				//Gets the connection object.
@@ -166,18 +172,18 @@ public class DistributedControlPlane extends main.ControlPlane {
 				accounting.addSuccesful(rsvpConfirm);
 				//See if it is a succesful re-routing of a failed LSP
 				if (rsvpConfirm.isReRouting()) {
-					reroutedLSP.put(rsvpConfirm.getFlowLabel(),connectionEst);
+					restoration.restore(rsvpConfirm.getFlowId(),connectionEst,event.getTimeStamp(),event.getTimeStamp() + duration);
 				}
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
-				return new Event((event.getTimeStamp() + duration),Event.Type.LIGHTPATH_TEARDOWN,connectionEst);
+				return Event.obtain((event.getTimeStamp() + duration),Event.Type.LIGHTPATH_TEARDOWN,connectionEst);
 			case LIGHTPATH_PROBLEM:
 				RSVP rsvpErr = (RSVP) event.getContent();
 				LightpathRequest lRequest;
 				//Get the error status
 				Error error = rsvpErr.getError();
 				//Get the label
-				int label = Integer.parseInt(rsvpErr.getFlowLabel());
+				long label = rsvpErr.getFlowId();
 				RSVP rsvpRetry = null; //new Rsvp message
 				Error.Code errorCode = error.getErrorCode(); 
 				//Allocation of wavelength contention problem
@@ -185,7 +191,7 @@ public class DistributedControlPlane extends main.ControlPlane {
 					lRequest = (LightpathRequest) ((Connection)rsvpErr.getObject()).getRequest();
 					rsvpRetry = new RSVP(lRequest,hopLimit,label);
 					//System.out.println("Contention: "+lRequest.toString());
-					if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+					if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 						rsvpRetry.setReRouting(); //set the flag of re-routing
 						//System.out.println(event.toString());
 					}
@@ -195,14 +201,16 @@ public class DistributedControlPlane extends main.ControlPlane {
 					lRequest.addTry(); //add a try to the counter of tries					
 					if (lRequest.tryAgain()) { //resend the request
 						rsvpRetry = new RSVP(lRequest,hopLimit,label);
-						if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+						if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 							rsvpRetry.setReRouting(); //set the flag of re-routing
 							//System.out.println(event.toString());
 						}
 					} else { 
 						//Accounts the failed lightpath request
 						accounting.addFailed(rsvpErr);
-						//if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) 
+						if (rsvpErr.isReRouting())
+							restoration.fail(rsvpErr.getFlowId(),event.getTimeStamp());
+						//if (restoration.isDisrupted(rsvpErr.getFlowId())) 
 							//System.out.println("Failed:"+event.toString());
 					}
 				//LSP failure forward or backward 	
@@ -220,22 +228,21 @@ public class DistributedControlPlane extends main.ControlPlane {
 					//Set the label indicating to tackle the failure
 					rsvpRetry.setReRouting();
 					//Adds the connection to the list of disrupted LSP 
-					disruptedLSP.put(rsvpErr.getFlowLabel(),lRequest);
+					restoration.disrupt(rsvpErr.getFlowId(),lRequest,event.getTimeStamp(),event.getInitialTimeStamp() + residualDuration);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				}
 				//Now, return the result.
 				if (rsvpRetry != null)
-					return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry);
+					return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry);
 				else 
 					return null;
 			case LIGHTPATH_TEARDOWN: //Remove connection
 				Connection connectionTear = (Connection) event.getContent();
-				String flowLabel = connectionTear.getID();
-				if ((disruptedLSP.get(flowLabel) == null) || ((reroutedLSP.get(flowLabel) != null) && (reroutedLSP.get(flowLabel).getPath().equals(connectionTear.getPath()) ) )) {
+				if (restoration.teardown(connectionTear,event.getTimeStamp())) {
 					//Send RSVP PathTear message
 					RSVP rsvpTear = new RSVP(connectionTear,Packet.Header.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getTarget());
 					//System.out.println(rsvpTear.toString());
-					return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpTear);
+					return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpTear);
 				} else { //Ignore the teardown associated to a failed LSP, since it is already cleaned and rerouted.
 					return null;
 				}
@@ -257,36 +264,31 @@ public class DistributedControlPlane extends main.ControlPlane {
 					else 
 						return response;
 				} else { //Failed node
-					accounting.addFailed(packet);					
+					accounting.addFailed(packet);
+					if ((packet instanceof RSVP) && ((RSVP) packet).isReRouting())
+						restoration.fail(packet.getFlowId(),event.getTimeStamp());
 					return null;					
 				}
 			case FAILURE_LINK:  //For link failure
 				//Get the edge associated with the failure
 				String sEdge = (String) event.getContent();
 				Edge edge = links.get(sEdge).getEdge();
+				IncrementalPaths linkRepair = this.getPathRepair();
 				//Remove the failure edge from the graph
 				try { //Do it only if it is not a node failure
 					if (nodes.containsKey(edge.getSource()) && nodes.containsKey(edge.getDestination())) {
 						graph.removeEdge(edge.getSource(),edge.getDestination());
+						//Mark the affected paths, which are recalculated when the set of paths is read
+						linkRepair.removeEdge(edge.getSource(),edge.getDestination());
 					}
 				} catch(Exception e) {e.printStackTrace();}	
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,alternative);
 				//Notifies the end nodes of the failure after the localization time
 				double timeNotification = lastTime + this.faultLocalizationTime;
 				int lengthFailure = 2 * this.identificationLength;
-				//Creates the packets of notification
-				Packet failureTo = new Packet(Packet.Header.LINK_FAILURE,edge.getDestination(),edge.getDestination(),Packet.Priority.HIGH,lengthFailure,graph.size());
-				Packet failureFrom = new Packet(Packet.Header.LINK_FAILURE,edge.getSource(),edge.getSource(),Packet.Priority.HIGH,lengthFailure,graph.size());
-				//Adds the edge to the packets.
-				Failure failureLinkAdv = new Failure(edge); 
-				failureTo.setPayload(failureLinkAdv); 
-				failureFrom.setPayload(failureLinkAdv);
-				//Add to the vector of events
-				Vector<Event> failuresLink = new Vector<Event>();
-				failuresLink.add(new Event(timeNotification,Event.Type.PACKET_ARRIVAL,failureFrom));
-				failuresLink.add(new Event(timeNotification,Event.Type.PACKET_ARRIVAL,failureTo));				
-				return new Event(timeNotification,Event.Type.MULTIPLE,failuresLink);
+				//Coalesces the failures of the same instant in a single flooding
+				if ((flooding == null) || !flooding.accepts(timeNotification))
+					flooding = new FailureFlooding(nodes,timeNotification);
+				return flooding.add(new Failure(edge),lengthFailure,graph.size());
 			case FAILURE_NODE: //For node failure
 				//Get the node associated with the failure
 				id = (String)event.getContent();
@@ -295,20 +297,21 @@ public class DistributedControlPlane extends main.ControlPlane {
 				Vector<String> neighbors = graph.adjacentNodes(id);
 				for (String neighId:neighbors) {
 					//Add the edge "from" the removed node
-					failuresNode.add(new Event(lastTime,Event.Type.FAILURE_LINK,new String(id+"-"+neighId)));
+					failuresNode.add(Event.obtain(lastTime,Event.Type.FAILURE_LINK,new String(id+"-"+neighId)));
 					//Add the edge "to" the removed node
-					failuresNode.add(new Event(lastTime,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
+					failuresNode.add(Event.obtain(lastTime,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
 				}
+				IncrementalPaths nodeRepair = this.getPathRepair();
 				//Remove the failure node from the graph
 				try {					
 					graph.removeNode(id);
+					//Mark the affected paths, which are recalculated when the set of paths is read
+					nodeRepair.removeNode(id);
 				} catch(Exception e) {e.printStackTrace();}				
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,alternative);
 				//Remove the node from the list of nodes 
 				nodes.remove(id);
 				//Return the response containing the failure of the multiple links
-				return new Event(lastTime,Event.Type.MULTIPLE,failuresNode);
+				return Event.obtain(lastTime,Event.Type.MULTIPLE,failuresNode);
 			default: System.err.println("Unknown event: "+event.toString());
 				return null;
 		}
@@ -319,7 +322,7 @@ public class DistributedControlPlane extends main.ControlPlane {
 	 */
 	public void updateValues() {
 		System.out.println("LastTime: "+lastTime);
-		System.out.println("Rerouted: "+reroutedLSP.toString());
+		System.out.println("Restoration: "+restoration.toString());
 	}
 	
 	/**
@@ -346,20 +349,7 @@ public class DistributedControlPlane extends main.ControlPlane {
 	 * @return 1+ alternatives paths for each pair source-destination of the topology.
 	 */
 	public LinkedHashMap<String,Vector<Path>> getPaths(Graph topology, int alternative) {
-		LinkedHashMap<String,Vector<Path>> routes = new LinkedHashMap<String,Vector<Path>>();
-		YEN yen = new YEN();
-		for(String src: topology.nodes()) {
-			for (String tgt: topology.nodes()) {
-				if (!src.equals(tgt)) { //Assure different nodes in the pair
-					Vector<Path> paths = null;;
-					try { 
-						paths = yen.getShortestPaths(src,tgt,topology,alternative+1);
-					} catch (Exception e) {e.printStackTrace();}
-					routes.put(src+"-"+tgt,paths);
-				}
-			}
-		}
-		return routes;
+		return allPairsPaths.getPaths(topology,alternative+1);
 	}
 	
 	/**
@@ -367,6 +357,19 @@ public class DistributedControlPlane extends main.ControlPlane {
 	 * @return The set of shortest paths of the actual topology.
 	 */
 	public static LinkedHashMap<String,Vector<Path>> getPaths() {
+		if (pathRepair != null)
+			setPaths = pathRepair.getPaths();
 		return setPaths;
 	}
+	
+	/**
+	 * Returns the repair of the shortest paths, creating it if the routing tables have been
+	 * read from a file. It must be called before the topology is changed by a failure.
+	 * @return The repair of the shortest paths.
+	 */
+	protected IncrementalPaths getPathRepair() {
+		if (pathRepair == null)
+			pathRepair = new IncrementalPaths(graph,this.getPaths(graph,alternative),alternative+1);
+		return pathRepair;
+	}
 }
@@ -0,0 +1,210 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa;
+
+import graph.Edge;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Vector;
+
+import event.Event;
+import main.Failure;
+import ops.Packet;
+
+/**
+ * The flooding of the link failures detected in the same instant of a control plane.
+ * The end nodes of each failed link are notified after the localization time and the
+ * notifications are forwarded hop by hop to the rest of the network. Instead of sending
+ * a copy of each failure to every neighbor and discarding the duplicates at the nodes,
+ * the time of the first arrival of each failure at every node is calculated by a
+ * shortest-delay tree from the end nodes of the failure. Then, a node forwards a
+ * notification only to the neighbors that it reaches first, and all failures that
+ * arrive at a neighbor in the same instant are carried by a single notification.
+ * Therefore, each node receives each failure once, at the same time of the flooding.
+ * <p>The arrival times are calculated on the topology of the nodes when the first
+ * notification is delivered, i.e., after all failures of the instant are removed.
+ *
+ * @version 1.0
+ */
+public class FailureFlooding implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The functioning nodes of the network. */
+	protected Map<String,? extends OpticalNode> nodes;
+	/** The time of notification of the end nodes. */
+	protected double time;
+	/** The failures of the flooding, in the order of their detection. */
+	protected Vector<Failure> failures;
+	/** The nodes already notified of each failure. */
+	protected Vector<HashSet<String>> reached;
+	/** The notifications of the functioning end nodes, keyed by the node id. */
+	protected LinkedHashMap<String,FailureNotification> origins;
+	/** The time of the first arrival of each failure at the nodes, or null if the flooding has not started. */
+	protected Vector<HashMap<String,Double>> arrival;
+
+	/**
+	 * Creates a new FailureFlooding object.
+	 * @param aNodes The functioning nodes of the network.
+	 * @param aTime The time of notification of the end nodes.
+	 */
+	public FailureFlooding(Map<String,? extends OpticalNode> aNodes, double aTime) {
+		this.nodes = aNodes;
+		this.time = aTime;
+		failures = new Vector<Failure>();
+		reached = new Vector<HashSet<String>>();
+		origins = new LinkedHashMap<String,FailureNotification>();
+	}
+
+	/**
+	 * Verifies if a failure notified at the specified time can be added to this flooding,
+	 * i.e., if the time is the same and the flooding has not started.
+	 * @param aTime The time of notification of the end nodes.
+	 * @return True, if the failure can be added. False, otherwise.
+	 */
+	public boolean accepts(double aTime) {
+		return (this.time == aTime) && (arrival == null);
+	}
+
+	/**
+	 * Adds a link failure to this flooding. Each functioning end node receives a single
+	 * notification with all failures of its links. A notification sent to a failed end
+	 * node is lost, as any packet sent to it, and it is not coalesced.
+	 * @param failure The link failure.
+	 * @param length The length of the notification packet.
+	 * @param size The size of the network.
+	 * @return The events of the new notifications.
+	 */
+	public Event add(Failure failure, int length, int size) {
+		Edge edge = (Edge) failure.getInformation();
+		failures.add(failure);
+		HashSet<String> notified = new HashSet<String>();
+		reached.add(notified);
+		Vector<Event> events = new Vector<Event>();
+		for (String end : new String[]{edge.getSource(), edge.getDestination()}) {
+			FailureNotification notification = origins.get(end);
+			if (notification == null) {
+				notification = new FailureNotification(this);
+				Packet packet = new Packet(Packet.Header.LINK_FAILURE, end, end, Packet.Priority.HIGH, length, size);
+				packet.setPayload(notification);
+				events.add(Event.obtain(time, Event.Type.PACKET_ARRIVAL, packet));
+				if (nodes.containsKey(end))
+					origins.put(end, notification);
+			}
+			notification.failures.add(failure);
+			notified.add(end);
+		}
+		return Event.obtain(time, Event.Type.MULTIPLE, events);
+	}
+
+	/**
+	 * Forwards the notification processed by a node to the neighbors that it reaches
+	 * first, with the failures that arrive at each neighbor in the same instant.
+	 * @param node The node processing the notification.
+	 * @param event The event of the notification.
+	 * @return The events of the notifications forwarded to the neighbors.
+	 */
+	public Vector<Event> forward(OpticalNode node, Event event) {
+		if (arrival == null)
+			this.propagate();
+		Packet packet = (Packet) event.getContent();
+		Vector<Event> broadcast = new Vector<Event>();
+		for (String neighId : node.graph.adjacentNodes(node.id)) {
+			LinkState link = node.links.get(neighId);
+			if (link == null)
+				continue;
+			double newTimeStamp = event.getTimeStamp() + link.getDelay();
+			FailureNotification notification = null;
+			for (int i = 0; i < failures.size(); i++) {
+				Double first = arrival.get(i).get(neighId);
+				if ((first != null) && (first.doubleValue() == newTimeStamp) && reached.get(i).add(neighId)) {
+					if (notification == null)
+						notification = new FailureNotification(this);
+					notification.failures.add(failures.get(i));
+				}
+			}
+			if (notification != null) {
+				//Retransmit the packet
+				Packet cloned = (Packet) packet.clone();
+				cloned.retransmit(node.id, neighId);
+				cloned.setNode(neighId);
+				cloned.setPayload(notification);
+				broadcast.add(Event.obtain(newTimeStamp, Event.Type.PACKET_ARRIVAL, cloned));
+			}
+		}
+		return broadcast;
+	}
+
+	/**
+	 * Calculates the time of the first arrival of each failure at the nodes. The failures
+	 * with the same end nodes, e.g., the two directions of a link, share the calculation.
+	 */
+	protected void propagate() {
+		arrival = new Vector<HashMap<String,Double>>();
+		HashMap<String,HashMap<String,Double>> trees = new HashMap<String,HashMap<String,Double>>();
+		for (Failure failure : failures) {
+			Edge edge = (Edge) failure.getInformation();
+			String source = edge.getSource();
+			String destination = edge.getDestination();
+			String key = (source.compareTo(destination) < 0) ? (source + "-" + destination) : (destination + "-" + source);
+			HashMap<String,Double> tree = trees.get(key);
+			if (tree == null) {
+				tree = this.tree(source, destination);
+				trees.put(key, tree);
+			}
+			arrival.add(tree);
+		}
+	}
+
+	/**
+	 * Calculates the shortest-delay tree from the end nodes of a failure, with the
+	 * delays of the links as seen by each node.
+	 * @param source The source node of the failed link.
+	 * @param destination The destination node of the failed link.
+	 * @return The time of the first arrival at each reachable node.
+	 */
+	protected HashMap<String,Double> tree(String source, String destination) {
+		HashMap<String,Double> first = new HashMap<String,Double>();
+		HashSet<String> settled = new HashSet<String>();
+		first.put(source, time);
+		first.put(destination, time);
+		while (true) {
+			//Selects the closest node not settled
+			String closest = null;
+			double closestTime = Double.POSITIVE_INFINITY;
+			for (Map.Entry<String,Double> entry : first.entrySet()) {
+				if (!settled.contains(entry.getKey()) && (entry.getValue().doubleValue() < closestTime)) {
+					closest = entry.getKey();
+					closestTime = entry.getValue().doubleValue();
+				}
+			}
+			if (closest == null)
+				return first;
+			settled.add(closest);
+			OpticalNode node = nodes.get(closest);
+			if (node == null) //Failed node, which does not forward
+				continue;
+			for (String neighId : node.graph.adjacentNodes(closest)) {
+				LinkState link = node.links.get(neighId);
+				if (link == null)
+					continue;
+				double newTime = closestTime + link.getDelay();
+				Double current = first.get(neighId);
+				if ((current == null) || (newTime < current.doubleValue()))
+					first.put(neighId, newTime);
+			}
+		}
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		return "time: " + time + ", failures: " + failures.toString();
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa;
+
+import java.util.Vector;
+
+import event.Event;
+import main.Failure;
+import ops.Payload;
+
+/**
+ * The payload of a failure notification delivered to a node by a flooding of
+ * failures. It carries all failures of the flooding that arrive at the node in
+ * the same instant, so that the node processes them in a single event.
+ *
+ * @version 1.0
+ */
+public class FailureNotification implements Payload {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The flooding that delivers this notification. */
+	protected FailureFlooding flooding;
+	/** The failures notified, in the order of their detection. */
+	protected Vector<Failure> failures;
+
+	/**
+	 * Creates a new FailureNotification object.
+	 * @param aFlooding The flooding that delivers this notification.
+	 */
+	public FailureNotification(FailureFlooding aFlooding) {
+		this.flooding = aFlooding;
+		this.failures = new Vector<Failure>();
+	}
+
+	/**
+	 * Returns the failures notified.
+	 * @return The failures notified, in the order of their detection.
+	 */
+	public Vector<Failure> getFailures() {
+		return this.failures;
+	}
+
+	/**
+	 * Returns the flooding that delivers this notification.
+	 * @return The flooding that delivers this notification.
+	 */
+	public FailureFlooding getFlooding() {
+		return this.flooding;
+	}
+
+	/**
+	 * Forwards the notification from the node that is processing it to the
+	 * neighbors reached first through this node.
+	 * @param node The node processing the notification.
+	 * @param event The event of the notification.
+	 * @return The events of the notifications forwarded to the neighbors.
+	 */
+	public Vector<Event> forward(OpticalNode node, Event event) {
+		return flooding.forward(node, event);
+	}
+
+	/**
+	 * Returns a clone object of this payload. The flooding is shared by the clone.
+	 * @return A clone object of this payload.
+	 */
+	public Object clone() {
+		FailureNotification cloned = new FailureNotification(this.flooding);
+		for (Failure failure : this.failures)
+			cloned.failures.add((Failure) failure.clone());
+		return cloned;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		return this.failures.toString();
+	}
+}
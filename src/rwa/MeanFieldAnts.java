@@ -0,0 +1,177 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Vector;
+
+import antnet.AntPacket;
+import event.Event;
+import ops.Accounting;
+import ops.Packet;
+
+/**
+ * Aggregated (mean-field) mode for the ants of an AntNet control plane. Instead of
+ * scheduling one event per hop of each ant, the forward ants launched in a time slice
+ * are kept in a batch, which is processed when the first event after the end of the
+ * slice (or a failure) arrives. All forward trips of the batch are walked against the
+ * same snapshot of the pheromone tables and of the link state, and then all backward
+ * trips update the pheromone tables, the parametric models and the wavelength usage
+ * tables in a single pass.
+ * <p>The length of the slice is the fidelity knob: a short slice approaches the
+ * per-ant behavior, since the ants see the updates of the previous slices, while a
+ * long slice removes more events from the scheduler. The ant hops take no simulated
+ * time in these control planes, so the batch changes only the moment in which the
+ * updates become visible to the other ants.
+ *
+ * @version 1.0
+ */
+public class MeanFieldAnts implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The length of the time slice. */
+	protected double slice;
+	/** The end of the current time slice. */
+	protected double end;
+	/** The forward ants of the current time slice, in the order of launching. */
+	protected Vector<Event> batch;
+	/** The ants of the batch that turned into backward ants. */
+	protected Vector<Event> backward;
+	/** The number of ants launched in this mode. */
+	protected long ants;
+	/** The number of processed batches. */
+	protected long slices;
+	/** The number of ant hops processed in the batches, i.e., the events of the per-ant mode. */
+	protected long hops;
+
+	/**
+	 * Creates a new MeanFieldAnts object.
+	 * @param aSlice The length of the time slice.
+	 */
+	public MeanFieldAnts(double aSlice) {
+		if (aSlice < 0)
+			throw new IllegalArgumentException("The time slice must be non-negative: " + aSlice);
+		this.slice = aSlice;
+		batch = new Vector<Event>();
+		backward = new Vector<Event>();
+	}
+
+	/**
+	 * Verifies if the specified packet is a newly launched ant, which must be batched.
+	 * @param packet The packet.
+	 * @return True, if the packet is a forward ant. False, otherwise.
+	 */
+	public static boolean isForwardAnt(Packet packet) {
+		return (packet instanceof AntPacket) && packet.getNextHeader().equals(Packet.Header.ANT_FORWARD);
+	}
+
+	/**
+	 * Adds a newly launched forward ant to the batch of the current time slice.
+	 * @param time The time of launching.
+	 * @param ant The forward ant.
+	 */
+	public void add(double time, Packet ant) {
+		if (batch.isEmpty())
+			end = time + slice;
+		//Not obtained from the event pool, since it is kept after the dispatch
+		batch.add(new Event(time, Event.Type.PACKET_ARRIVAL, ant));
+		ants++;
+	}
+
+	/**
+	 * Verifies if the batch must be processed before the specified event, i.e.,
+	 * if the event is after the end of the time slice or if it is a failure.
+	 * @param event The event about to be processed by the control plane.
+	 * @return True, if the batch must be processed. False, otherwise.
+	 */
+	public boolean isDue(Event event) {
+		if (batch.isEmpty())
+			return false;
+		Event.Type type = event.getType();
+		return (event.getTimeStamp() > end) || type.equals(Event.Type.FAILURE_LINK) || type.equals(Event.Type.FAILURE_NODE);
+	}
+
+	/**
+	 * Processes the ants of the batch: first, all forward trips and, then, all backward trips.
+	 * @param nodes The functioning nodes of the network.
+	 * @param accounting The accounting of the simulation results.
+	 */
+	public void flush(Map<String,? extends OpticalNode> nodes, Accounting accounting) {
+		if (batch.isEmpty())
+			return;
+		//As in the simulator main loop, a failure of an ant does not stop the others
+		for (Event event : batch) {
+			try {
+				if (this.walk(event, Packet.Header.ANT_FORWARD, nodes, accounting))
+					backward.add(event);
+			} catch (Exception e) {e.printStackTrace();}
+		}
+		for (Event event : backward) {
+			try {
+				this.walk(event, Packet.Header.ANT_BACKWARD, nodes, accounting);
+			} catch (Exception e) {e.printStackTrace();}
+		}
+		batch.clear();
+		backward.clear();
+		slices++;
+	}
+
+	/**
+	 * Processes the hops of an ant while it keeps the same header.
+	 * @param event The event of the ant.
+	 * @param header The header of the trip.
+	 * @param nodes The functioning nodes of the network.
+	 * @param accounting The accounting of the simulation results.
+	 * @return True, if the ant has changed its header. False, if it is routed or killed.
+	 */
+	protected boolean walk(Event event, Packet.Header header, Map<String,? extends OpticalNode> nodes, Accounting accounting) {
+		Packet packet = (Packet) event.getContent();
+		while (packet.getNextHeader().equals(header)) {
+			OpticalNode node = nodes.get(packet.getNode());
+			if (node == null) { //Failed node
+				accounting.addFailed(packet);
+				return false;
+			}
+			Event response = node.process(event);
+			hops++;
+			if (response.getType().equals(Event.Type.ANT_ROUTED)) {
+				accounting.addSuccesful(packet);
+				return false;
+			} else if (response.getType().equals(Event.Type.ANT_KILLED)) {
+				accounting.addFailed(packet);
+				return false;
+			} else if (response.getType().equals(Event.Type.IGNORE)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of ants launched in this mode.
+	 * @return The number of ants launched in this mode.
+	 */
+	public long getAnts() {
+		return ants;
+	}
+
+	/**
+	 * Returns the number of ant hops processed in the batches, i.e., the number
+	 * of events that the per-ant mode would have scheduled for the same ants.
+	 * @return The number of ant hops processed in the batches.
+	 */
+	public long getHops() {
+		return hops;
+	}
+
+	/**
+	 * Returns a string representation of this object, for comparison with the per-ant mode.
+	 * @return A string representation of this object.
+	 */
+	public String toString() {
+		return "slice: " + slice + ", ants: " + ants + ", batches: " + slices + ", per-ant events: " + hops
+			+ ", reduction: " + ((ants > 0) ? (double) hops / ants : 0.0);
+	}
+}
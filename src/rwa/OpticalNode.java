@@ -35,9 +35,9 @@ public class OpticalNode implements Serializable {
 	/** The link attributes of this node. */
 	protected LinkedHashMap<String,LinkState> links;
 	/** The unique IDs of the failures already processed. */
-	protected Vector<Integer> failureID;
-	/** The table of active connections in that node. */
-	protected Hashtable<String,Connection> activeConnections;
+	protected HashSet<Integer> failureID;
+	/** The table of active connections in that node, indexed by the links they traverse. */
+	protected ConnectionRegistry activeConnections;
 	/** The physical topology of the network. */
 	protected Graph graph;
 
@@ -53,8 +53,8 @@ public class OpticalNode implements Serializable {
 		this.routingTable = aRoutingTable;
 		this.links = aLinks;
 		this.graph = aGraph;
-		this.activeConnections = new Hashtable<String,Connection>();
-		this.failureID = new Vector<Integer>();
+		this.activeConnections = new ConnectionRegistry();
+		this.failureID = new HashSet<Integer>();
 	}
 
 	/**
@@ -120,103 +120,85 @@ public class OpticalNode implements Serializable {
 		Error error; //The associated error specification
 	    switch (header) {
 	    case LINK_FAILURE: //Packet associated with control plane (separated channel)
-	    	//Identify the failure
-	    	Failure failure = (Failure) packet.getPayload();
-	    	//Flooding of the failure
-	    	if (!failureID.contains(failure.getID())) { //First time
-	    		//Mock local update of the topology
-	    		((ExplicitRoutingTable)routingTable).updateFromTopology(graph,DistributedControlPlane.getPaths());
-	    		//Broadcast the failure to the neighbors
-	    		String previousHop = packet.getSource();
-	    		Vector<String> neighbors = graph.adjacentNodes(id);
-	    		Vector<Event> broadcast = new Vector<Event>(); 
-	    		//Adds the flooding information
-	    		for(String neighId:neighbors) {
-	    			if (!neighId.equals(previousHop)) { //not visited
-	    				//Retransmit the packet
-	    				Packet clonedFrom = (Packet)packet.clone();
-	    				clonedFrom.retransmit(id,neighId);
-	    				clonedFrom.setNode(neighId);
-	    				//Set new time stamp
-	    				double transmissionTime = this.links.get(neighId).getDelay();
-	    				double newTimeStamp = event.getTimeStamp() + transmissionTime;
-	    				//Add to the list of broadcast
-	    				broadcast.add(new Event(newTimeStamp,Event.Type.PACKET_ARRIVAL,clonedFrom));
-	    			}
-	    		}
-	    		//Add the failure to the list of processed ones.
-	    		failureID.add(failure.getID());
-	    		/* Remove the link states affected by the failure. */
-	    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
-	    			links.remove(((Edge)failure.getInformation()).getDestination());
-	    		}
-	    		/* Treatment the failure by the neighbor nodes */
-	    		//Now, if it is the closest node upstream to the failure
-	    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
-	    			//Adds the notification of broken LSP to the event
-	    			for(String activeID:activeConnections.keySet()) {
-	    				//Gets the connection
-	    				Connection active = activeConnections.get(activeID);
-	    				//Locate the failure
-	    				Location location = failure.locate(id,active.getPath());
-	    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
-	    					//Create the PathErr packet
-	    					RSVP pathErr = new RSVP(active,Packet.Header.RSVP_PATH_ERR,id,active.getSource());
-	    					//Create the error with path remove flag
-	    					error = new Error(Error.Code.LSP_FAILURE,true);
-	    					pathErr.setError(error);
-	    					pathErr.setFlowLabel(activeID);
-	    					//System.out.println(pathErr.toString());
-	    					double transmissionTime=0;
-	    					//Not the source node to treat the failure
-	    					if(!id.equals(active.getPath().firstNode())) {
-	    						nextHop = active.getPath().getPreviousNode(id);
-	    						pathErr.setNode(nextHop);
+	    	//Identify the failures notified in the same instant
+	    	FailureNotification notification = (FailureNotification)packet.getPayload();
+	    	//Forward the notification to the neighbors reached first through this node
+	    	Vector<Event> broadcast = notification.forward(this,event);
+	    	for(Failure failure:notification.getFailures()) {
+		    	//Treatment of the failure
+		    	if (!failureID.contains(failure.getID())) { //First time
+		    		//Mock local update of the topology
+		    		((ExplicitRoutingTable)routingTable).updateFromTopology(graph,DistributedControlPlane.getPaths());
+		    		//Add the failure to the list of processed ones.
+		    		failureID.add(failure.getID());
+		    		/* Remove the link states affected by the failure. */
+		    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
+		    			links.remove(((Edge)failure.getInformation()).getDestination());
+		    		}
+		    		/* Treatment the failure by the neighbor nodes */
+		    		//Now, if it is the closest node upstream to the failure
+		    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
+		    			//Adds the notification of broken LSP to the event
+		    			for(String activeID:activeConnections.affected(failure)) {
+		    				//Gets the connection
+		    				Connection active = activeConnections.get(activeID);
+		    				//Locate the failure
+		    				Location location = failure.locate(id,active.getPath());
+		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
+		    					//Create the PathErr packet
+		    					RSVP pathErr = new RSVP(active,Packet.Header.RSVP_PATH_ERR,id,active.getSource());
+		    					//Create the error with path remove flag
+		    					error = new Error(Error.Code.LSP_FAILURE,true);
+		    					pathErr.setError(error);
+		    					pathErr.setFlowLabel(activeID);
+		    					//System.out.println(pathErr.toString());
+		    					double transmissionTime=0;
+		    					//Not the source node to treat the failure
+		    					if(!id.equals(active.getPath().firstNode())) {
+		    						nextHop = active.getPath().getPreviousNode(id);
+		    						pathErr.setNode(nextHop);
+		    						//Set new time stamp
+		    						transmissionTime = this.links.get(nextHop).getDelay();	
+		    					}
+		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
+		    					broadcast.add(Event.obtain(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathErr));
+		    				}
+		    			}
+		    			//Now, if it is the closest node downstream to the failure
+		    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
+		    			//Adds the notification of broken LSP to the event
+		    			for(String activeID:activeConnections.affected(failure)) {
+		    				//Gets the connection
+		    				Connection active = activeConnections.get(activeID);
+		    				//Locate the failure
+		    				Location location = failure.locate(id,active.getPath());
+		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
+		    					//Create the PathErr packet
+		    					RSVP pathTear = new RSVP(active,Packet.Header.RSVP_PATH_TEAR,id,active.getTarget());
+		    					//Create the error
+		    					error = new Error(Error.Code.LSP_FAILURE);
+		    					pathTear.setError(error);
+		    					pathTear.setFlowLabel(activeID);
+		    					//System.out.println(pathTear.toString());
+		    					//Not the target node to treat the failure
+		    					double transmissionTime = 0;
+		    					//Not the last node to tackle the failure
+		    					if(!id.equals(active.getPath().lastNode())) {
+		    						nextHop = active.getPath().getNextNode(id);
+		    						pathTear.setNode(nextHop);
+		    						transmissionTime = this.links.get(nextHop).getDelay();	
+		    					}
 	    						//Set new time stamp
-	    						transmissionTime = this.links.get(nextHop).getDelay();	
-	    					}
-	    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
-	    					broadcast.add(new Event(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathErr));
-	    				}
-	    			}
-	    			//Now, if it is the closest node downstream to the failure
-	    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
-	    			//Adds the notification of broken LSP to the event
-	    			for(String activeID:activeConnections.keySet()) {
-	    				//Gets the connection
-	    				Connection active = activeConnections.get(activeID);
-	    				//Locate the failure
-	    				Location location = failure.locate(id,active.getPath());
-	    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
-	    					//Create the PathErr packet
-	    					RSVP pathTear = new RSVP(active,Packet.Header.RSVP_PATH_TEAR,id,active.getTarget());
-	    					//Create the error
-	    					error = new Error(Error.Code.LSP_FAILURE);
-	    					pathTear.setError(error);
-	    					pathTear.setFlowLabel(activeID);
-	    					//System.out.println(pathTear.toString());
-	    					//Not the target node to treat the failure
-	    					double transmissionTime = 0;
-	    					//Not the last node to tackle the failure
-	    					if(!id.equals(active.getPath().lastNode())) {
-	    						nextHop = active.getPath().getNextNode(id);
-	    						pathTear.setNode(nextHop);
-	    						transmissionTime = this.links.get(nextHop).getDelay();	
-	    					}
-    						//Set new time stamp
-	    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
-	    					//Add to the list of broadcast
-	    					broadcast.add(new Event(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathTear));
-	    				}
-	    			}
-	    		}	    		
-	    		//System.out.println(broadcast.toString());
-	    		//Return the multiple packets associated with the failure
-	    		response = new Event(event.getTimeStamp(),Event.Type.MULTIPLE,broadcast);
-	    	} else { //Already processed the failure.
-	    		event.setType(Event.Type.IGNORE);
-	    		response = event;
+		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
+		    					//Add to the list of broadcast
+		    					broadcast.add(Event.obtain(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathTear));
+		    				}
+		    			}
+		    		}	    		
+		    	}
 	    	}
+	    	//Return the multiple packets associated with the failures
+	    	response = Event.obtain(event.getTimeStamp(),Event.Type.MULTIPLE,broadcast);
 	    	break;
 	    	case RSVP_PATH: //path reservation
 	    		//System.out.println(event.toString());
@@ -245,10 +227,7 @@ public class OpticalNode implements Serializable {
 	    			//Reset the SD pair to the new values
 	    			rsvp.setSDPair(target,request.getSource());		    		
 		    		//Choose a free wavelength
-		    		int pos = 0; //position of the first free wavelength
-		    		while (!mask.testWavelength(pos)) { //First-fit strategy
-		    			pos++; //Increment the counter
-		    		}
+		    		int pos = mask.nextFreeWavelength(0); //First-fit strategy
 		    		//Create a connection and add it as a object.
 		    		Connection connectionEst = new Connection(rsvp.getPath(),pos,rsvp.getFlowLabel(),request);
 		    		//Set the start time of the connection, which starts after arriving at the source node.
@@ -318,7 +297,7 @@ public class OpticalNode implements Serializable {
 	    				//Get the associated mask
 	    				WavelengthMask linkMaskTear = link.getMask();
 	    				//Clear the wavelength
-	    				linkMaskTear.clearWavelength(teared.getWavelength());
+	    				linkMaskTear.clearWavelengths(teared.getWavelength(), teared.getSlots());
 	    			} else {
 	    				System.out.print(event.toString());
 	    			}
@@ -346,7 +325,7 @@ public class OpticalNode implements Serializable {
 			    		//Get the associated mask
 	    				WavelengthMask linkMaskRem = link.getMask();
 	    				//Clear the wavelength
-	    				linkMaskRem.clearWavelength(removed_perr.getWavelength());
+	    				linkMaskRem.clearWavelengths(removed_perr.getWavelength(), removed_perr.getSlots());
 	    			}
 	    		}
 				//Gets the target node
@@ -378,11 +357,11 @@ public class OpticalNode implements Serializable {
 	    		//Get the associated mask
 	    		WavelengthMask linkMask = links.get(fwdId).getMask();
 	    		//See the status of the wavelength
-	    		if (linkMask.testWavelength(connection.getWavelength())) {
+	    		if (linkMask.testWavelengths(connection.getWavelength(), connection.getSlots())) {
 		    		//System.out.println("Adding conn: "+rsvp.getFlowLabel()+" with: "+connection.toString()+" to intermediate node: "+id);
 		    		activeConnections.put(rsvp.getFlowLabel(),connection);
 		    		//Set the wavelength
-		    		linkMask.setWavelength(connection.getWavelength());
+		    		linkMask.setWavelengths(connection.getWavelength(), connection.getSlots());
 		    		//Verify if the ant reached the source node.
 		    		target = rsvp.getTarget();
 			    	if (target.equals(id)) {
@@ -430,8 +409,8 @@ public class OpticalNode implements Serializable {
 	    		//Get the associated mask
 	    		WavelengthMask linkMaskTear = links.get(forwardId).getMask();
 	    		//Clear the wavelength
-	    		int clear = ((Connection)rsvp.getObject()).getWavelength();
-	    		linkMaskTear.clearWavelength(clear);
+	    		Connection cleared = (Connection) rsvp.getObject();
+	    		linkMaskTear.clearWavelengths(cleared.getWavelength(), cleared.getSlots());
 	    		//Verify if the ant reached the source node.
 		    	if (rsvp.getSource().equals(id)) {
 		    		event.setType(Event.Type.LIGHTPATH_REMOVED);
@@ -460,7 +439,7 @@ public class OpticalNode implements Serializable {
 		    		//Get the associated mask
 		    		WavelengthMask linkMaskErr = links.get(nextHop).getMask();
 		    		//Clear the wavelength
-		    		linkMaskErr.clearWavelength(removed_rerr.getWavelength());
+		    		linkMaskErr.clearWavelengths(removed_rerr.getWavelength(), removed_rerr.getSlots());
 			    	//Set the next hop in the packet
 			    	rsvp.setNode(nextHop);
 		    		//Set the new time of the event due to transmission time
@@ -43,7 +43,7 @@ public class RSVP extends Packet{
 	 */
 	public RSVP(LightpathRequest request, int limit, long label) {
 		super(Packet.Header.RSVP_PATH,request.getSource(),request.getTarget(),Packet.Priority.HIGH,0,limit);
-		this.setFlowLabel(Long.toString(label));
+		this.setFlowLabel(label);
 		object = request;
 	}
 	
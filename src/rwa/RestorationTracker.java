@@ -0,0 +1,252 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa;
+
+import java.io.Serializable;
+
+import util.LongHashMap;
+
+/**
+ * The bookkeeping of the restoration of the lightpaths disrupted by failures in a
+ * control plane. For each disrupted flow, it keeps the lightpath request being
+ * restored, the connection that restored it and the time of the last teardown
+ * expected for the flow, i.e., the end of the residual duration of the disrupted
+ * connection or of its restoration.
+ * <p>An entry is removed as soon as its time has passed and no restoration attempt
+ * of the flow is in progress, that is, on the final teardown of the flow or when its
+ * last restoration attempt is established or accounted as failed. An entry whose
+ * restoration attempts are lost, e.g., with a node that fails during the signaling,
+ * is removed anyway when its time has passed by more than a timeout, and it is counted
+ * as a forced expiration. Therefore, the size of the tracker follows the number of
+ * flows in restoration, instead of the number of flows ever disrupted along the
+ * simulation.
+ *
+ * @version 1.0
+ */
+public class RestorationTracker implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The default timeout after the time of an entry, far longer than the signaling of a restoration. */
+	public static final double DEFAULT_TIMEOUT = 60.0;
+
+	/**
+	 * The restoration state of a disrupted flow.
+	 */
+	protected static class Entry implements Serializable {
+		/** Serial version uid. */
+		private static final long serialVersionUID = 1L;
+		/** The lightpath request being restored, or null if the flow was not disrupted. */
+		protected LightpathRequest request;
+		/** The connection that restored the flow, or null if there is none. */
+		protected Connection restored;
+		/** The number of restoration attempts in progress. */
+		protected int pending;
+		/** The time of the last teardown expected for the flow. */
+		protected double end;
+	}
+
+	/** The entries of the flows, keyed by their flow ids. */
+	protected LongHashMap<Entry> entries;
+	/** The number of entries that triggers the next sweep of expired entries. */
+	protected int sweep;
+	/** The maximum number of entries along the simulation. */
+	protected int peak;
+	/** The number of disruptions. */
+	protected long disruptions;
+	/** The number of established restorations. */
+	protected long restorations;
+	/** The time after the time of an entry when it is removed, even with restoration attempts in progress. */
+	protected double timeout;
+	/** The number of entries removed with restoration attempts in progress. */
+	protected long forced;
+
+	/**
+	 * Creates a new RestorationTracker object with the default timeout.
+	 */
+	public RestorationTracker() {
+		this(DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Creates a new RestorationTracker object.
+	 * @param aTimeout The time after the time of an entry when it is removed, even with
+	 * restoration attempts in progress.
+	 */
+	public RestorationTracker(double aTimeout) {
+		entries = new LongHashMap<Entry>();
+		sweep = LongHashMap.DEFAULT_CAPACITY;
+		timeout = aTimeout;
+	}
+
+	/**
+	 * Registers the disruption of a flow, whose restoration attempt is started.
+	 * @param flow The flow id.
+	 * @param request The lightpath request to be restored, with the residual duration.
+	 * @param time The current time.
+	 * @param end The time of the teardown of the disrupted connection, i.e., the
+	 * time of the disruption plus the residual duration.
+	 */
+	public void disrupt(long flow, LightpathRequest request, double time, double end) {
+		Entry entry = this.entry(flow, time, end);
+		entry.request = request;
+		entry.pending++;
+		disruptions++;
+	}
+
+	/**
+	 * Registers the establishment of a restoration attempt of a flow.
+	 * @param flow The flow id.
+	 * @param connection The connection that restored the flow.
+	 * @param time The current time.
+	 * @param end The time of the teardown of the connection.
+	 */
+	public void restore(long flow, Connection connection, double time, double end) {
+		Entry entry = this.entry(flow, time, end);
+		entry.restored = connection;
+		if (entry.pending > 0)
+			entry.pending--;
+		restorations++;
+	}
+
+	/**
+	 * Registers the failure of a restoration attempt of a flow, which is accounted as failed.
+	 * @param flow The flow id.
+	 * @param time The current time.
+	 */
+	public void fail(long flow, double time) {
+		Entry entry = entries.get(flow);
+		if (entry == null)
+			return;
+		if (entry.pending > 0)
+			entry.pending--;
+		this.release(flow, entry, time);
+	}
+
+	/**
+	 * Processes the teardown of a connection, verifying if the PathTear message must be sent.
+	 * The teardown of a disrupted connection is ignored, since it is already cleaned,
+	 * unless it was restored with the same path.
+	 * @param connection The connection to be torn down.
+	 * @param time The current time.
+	 * @return True, if the PathTear message must be sent. False, if the teardown is ignored.
+	 */
+	public boolean teardown(Connection connection, double time) {
+		long flow = connection.getFlowId();
+		Entry entry = entries.get(flow);
+		boolean tear = (entry == null) || (entry.request == null)
+			|| ((entry.restored != null) && entry.restored.getPath().equals(connection.getPath()));
+		if (entry != null)
+			this.release(flow, entry, time);
+		return tear;
+	}
+
+	/**
+	 * Verifies if a flow is disrupted, i.e., if its restoration messages must be flagged.
+	 * @param flow The flow id.
+	 * @return True, if the flow is disrupted. False, otherwise.
+	 */
+	public boolean isDisrupted(long flow) {
+		Entry entry = entries.get(flow);
+		return (entry != null) && (entry.request != null);
+	}
+
+	/**
+	 * Returns the entry of a flow, creating it if necessary, and extends its time.
+	 * @param flow The flow id.
+	 * @param time The current time.
+	 * @param end The time of the teardown expected for the flow.
+	 * @return The entry of the flow.
+	 */
+	protected Entry entry(long flow, double time, double end) {
+		Entry entry = entries.get(flow);
+		if (entry == null) {
+			if (entries.size() >= sweep)
+				this.expire(time);
+			entry = new Entry();
+			entry.end = end;
+			entries.put(flow, entry);
+			peak = Math.max(peak, entries.size());
+		} else if (end > entry.end) {
+			entry.end = end;
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes the entry of a flow if its time has passed and no restoration attempt is in progress,
+	 * or if its time has passed by more than the timeout.
+	 * @param flow The flow id.
+	 * @param entry The entry of the flow.
+	 * @param time The current time.
+	 */
+	protected void release(long flow, Entry entry, double time) {
+		if ((entry.pending == 0) && (time >= entry.end)) {
+			entries.remove(flow);
+		} else if (time >= entry.end + timeout) { //Restoration attempts lost
+			entries.remove(flow);
+			forced++;
+		}
+	}
+
+	/**
+	 * Removes the expired entries, i.e., the ones whose time has passed
+	 * and with no restoration attempt in progress, or whose time has passed
+	 * by more than the timeout.
+	 * @param time The current time.
+	 */
+	public void expire(double time) {
+		for (long flow : entries.keys())
+			this.release(flow, entries.get(flow), time);
+		//Amortizes the sweeps over the insertions
+		sweep = Math.max(2 * entries.size(), LongHashMap.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Returns the number of flows being tracked.
+	 * @return The number of flows being tracked.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the maximum number of flows tracked at the same time.
+	 * @return The maximum number of flows tracked at the same time.
+	 */
+	public int getPeak() {
+		return peak;
+	}
+
+	/**
+	 * Returns the number of disruptions.
+	 * @return The number of disruptions.
+	 */
+	public long getDisruptions() {
+		return disruptions;
+	}
+
+	/**
+	 * Returns the number of established restorations.
+	 * @return The number of established restorations.
+	 */
+	public long getRestorations() {
+		return restorations;
+	}
+
+	/**
+	 * Returns the number of entries removed with restoration attempts in progress.
+	 * @return The number of entries removed with restoration attempts in progress.
+	 */
+	public long getForced() {
+		return forced;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		return "tracked: " + entries.size() + ", peak: " + peak + ", forced: " + forced + ", disrupted: " + disruptions + ", restored: " + restorations;
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa;
+
+import java.io.Serializable;
+
+/**
+ * Contiguous spectrum assignment for flex-grid (elastic) optical links, whose
+ * spectrum is divided in slots (e.g., 320 slots of 12.5 GHz). The positions of a
+ * wavelength mask or of a label set are the slots and a request occupies a block
+ * of contiguous slots, which must be free in all links of the path.
+ * <p>The free blocks are found a word at a time: the free slots are shifted and
+ * ANDed with themselves, doubling the length of the detected runs at each step,
+ * so that the bit i of the result is set if the block starting at the slot i is
+ * free. The first-fit and last-fit policies take the lowest and the highest bit
+ * of the result; the best-fit policy takes the start of the shortest run of free
+ * slots that fits the block.
+ *
+ * @version 1.0
+ */
+public class SpectrumAssignment implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+
+	/** The policies of contiguous spectrum assignment. */
+	public enum Policy {
+		/** The free block with the lowest slots. */
+		FIRST_FIT,
+		/** The free block with the highest slots. */
+		LAST_FIT,
+		/** The free block in the shortest run of free slots, i.e., the one that least fragments the spectrum. */
+		BEST_FIT
+	}
+
+	/** The policy of assignment. */
+	protected Policy policy;
+	/** The number of contiguous slots of each request. */
+	protected int slots;
+	/** The working words of the run detection. */
+	protected transient long[] runs;
+
+	/**
+	 * Creates a new SpectrumAssignment object.
+	 * @param aPolicy The policy of assignment.
+	 * @param aSlots The number of contiguous slots of each request.
+	 */
+	public SpectrumAssignment(Policy aPolicy, int aSlots) {
+		if (aSlots < 1)
+			throw new IllegalArgumentException("The number of slots must be at least 1: " + aSlots);
+		this.policy = aPolicy;
+		this.slots = aSlots;
+	}
+
+	/**
+	 * Returns the policy of assignment.
+	 * @return The policy of assignment.
+	 */
+	public Policy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Returns the number of contiguous slots of each request.
+	 * @return The number of contiguous slots of each request.
+	 */
+	public int getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Selects a block of free slots according to the policy of this object.
+	 * @param words The words of the free slots, e.g., of the label set accumulated along the path.
+	 * @return The first slot of the selected block, or -1 if there is no free block.
+	 */
+	public int select(long[] words) {
+		if (policy.equals(Policy.BEST_FIT))
+			return bestFit(words, slots);
+		if ((runs == null) || (runs.length < words.length))
+			runs = new long[words.length];
+		blocks(words, slots, runs);
+		if (policy.equals(Policy.FIRST_FIT))
+			return nextSetBit(runs, 0, words.length);
+		return previousSetBit(runs, words.length);
+	}
+
+	/**
+	 * Selects a block of free slots of a wavelength mask according to the policy of this object.
+	 * @param mask The wavelength mask, e.g., the mask accumulated along the path.
+	 * @return The first slot of the selected block, or -1 if there is no free block.
+	 */
+	public int select(WavelengthMask mask) {
+		return this.select(mask.getWords());
+	}
+
+	/**
+	 * Returns the first slot of the lowest free block of the specified width.
+	 * @param words The words of the free slots.
+	 * @param width The number of contiguous slots.
+	 * @return The first slot of the block, or -1 if there is no free block.
+	 */
+	public static int firstFit(long[] words, int width) {
+		long[] result = new long[words.length];
+		blocks(words, width, result);
+		return nextSetBit(result, 0, words.length);
+	}
+
+	/**
+	 * Returns the first slot of the highest free block of the specified width.
+	 * @param words The words of the free slots.
+	 * @param width The number of contiguous slots.
+	 * @return The first slot of the block, or -1 if there is no free block.
+	 */
+	public static int lastFit(long[] words, int width) {
+		long[] result = new long[words.length];
+		blocks(words, width, result);
+		return previousSetBit(result, words.length);
+	}
+
+	/**
+	 * Returns the first slot of the shortest run of free slots that fits the
+	 * specified width. Ties are broken by the lowest slot.
+	 * @param words The words of the free slots.
+	 * @param width The number of contiguous slots.
+	 * @return The first slot of the block, or -1 if there is no free block.
+	 */
+	public static int bestFit(long[] words, int width) {
+		int best = -1;
+		int bestLength = Integer.MAX_VALUE;
+		int start = nextSetBit(words, 0, words.length);
+		while (start != -1) {
+			int end = nextClearBit(words, start, words.length);
+			int length = end - start;
+			if ((length >= width) && (length < bestLength)) {
+				best = start;
+				bestLength = length;
+				if (length == width) //Exact fit
+					break;
+			}
+			start = nextSetBit(words, end, words.length);
+		}
+		return best;
+	}
+
+	/**
+	 * Detects the free blocks of the specified width. The bit i of the result is set
+	 * if the slots from i to i+width-1 are all free. The runs are detected by shifting
+	 * the words and ANDing them, doubling the detected length at each step.
+	 * @param words The words of the free slots. The bits after the last slot must be clear.
+	 * @param width The number of contiguous slots.
+	 * @param result The words of the result, with at least the length of the words of the free slots.
+	 */
+	public static void blocks(long[] words, int width, long[] result) {
+		int len = words.length;
+		System.arraycopy(words, 0, result, 0, len);
+		int length = 1; //Length of the runs detected in the result
+		while (length < width) {
+			int shift = Math.min(length, width - length);
+			int q = shift >>> 6, r = shift & 63;
+			//Ascending order: each word reads only itself and the following words, not changed yet
+			for (int i = 0; i < len; i++) {
+				long low = (i + q < len) ? result[i + q] : 0L;
+				long shifted;
+				if (r == 0) {
+					shifted = low;
+				} else {
+					long high = (i + q + 1 < len) ? result[i + q + 1] : 0L;
+					shifted = (low >>> r) | (high << (64 - r));
+				}
+				result[i] = result[i] & shifted;
+			}
+			length = length + shift;
+		}
+	}
+
+	/**
+	 * Returns the first set bit at or after the specified position.
+	 * @param words The words.
+	 * @param from The position to start the search.
+	 * @param len The number of words to be considered.
+	 * @return The position of the bit, or -1 if there is none.
+	 */
+	public static int nextSetBit(long[] words, int from, int len) {
+		int index = from >>> 6;
+		if (index >= len)
+			return -1;
+		long word = words[index] & (-1L << from);
+		while (word == 0) {
+			if (++index == len)
+				return -1;
+			word = words[index];
+		}
+		return (index << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Returns the first clear bit at or after the specified position.
+	 * @param words The words.
+	 * @param from The position to start the search.
+	 * @param len The number of words to be considered.
+	 * @return The position of the bit, which is 64*len if all following bits are set.
+	 */
+	public static int nextClearBit(long[] words, int from, int len) {
+		int index = from >>> 6;
+		if (index >= len)
+			return from;
+		long word = ~words[index] & (-1L << from);
+		while (word == 0) {
+			if (++index == len)
+				return len << 6;
+			word = ~words[index];
+		}
+		return (index << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Returns the last set bit of the words.
+	 * @param words The words.
+	 * @param len The number of words to be considered.
+	 * @return The position of the bit, or -1 if there is none.
+	 */
+	public static int previousSetBit(long[] words, int len) {
+		for (int index = len - 1; index >= 0; index--) {
+			if (words[index] != 0)
+				return (index << 6) + 63 - Long.numberOfLeadingZeros(words[index]);
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns a string representation of this object.
+	 * @return A string representation of this object.
+	 */
+	public String toString() {
+		return policy + " (" + slots + " slots)";
+	}
+}
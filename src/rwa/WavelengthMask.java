@@ -9,14 +9,16 @@ import java.util.*;
 
 /**
  * Wavelength mask. The wavelengths with true values are available.
+ * The mask is stored as a bitset of 64-bit words, so that the intersection,
+ * the count and the search of the available wavelengths are done a word at a time.
  * 
  * @author Gustavo Sousa Pavani
- * @version 1.0 
+ * @version 1.1 
  */
 public class WavelengthMask implements Serializable, Cloneable {
 	static final long serialVersionUID = 1L;
-	/** The wavelength mask array. */
-	boolean[] mask;
+	/** The wavelength mask words. The bit i is set if the wavelength i is available. */
+	long[] bits;
 	/** The wavelengths in the network. */
 	int wavelengths;
 	
@@ -26,20 +28,32 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 */
 	public WavelengthMask(int w) {
 		this.wavelengths = w;
-		mask = new boolean[w];
-		Arrays.fill(mask,true);
+		bits = new long[words(w)];
+		Arrays.fill(bits,-1L);
+		if ((w & 63) != 0) //Clear the bits after the last wavelength
+			bits[bits.length - 1] = (1L << w) - 1;
 	}
 	
 	/** For cloning purposes. */
 	protected WavelengthMask() {
 	}
 	
+	/**
+	 * Returns the number of words needed for the specified number of wavelengths.
+	 * @param w The number of wavelengths.
+	 * @return The number of words needed for the specified number of wavelengths.
+	 */
+	public static int words(int w) {
+		return (w + 63) >>> 6;
+	}
+	
 	/**
 	 * Set as used (false) the wavelength at the specified position.
 	 * @param pos The specified position of the wavelength.
 	 */
 	public void setWavelength(int pos) {
-		mask[pos]=false;		
+		this.check(pos);
+		bits[pos >>> 6] &= ~(1L << pos);
 	}
 	
 	
@@ -48,7 +62,8 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 * @param pos The specified position of the wavelength.
 	 */	
 	public void clearWavelength(int pos) {
-		mask[pos]=true;
+		this.check(pos);
+		bits[pos >>> 6] |= (1L << pos);
 	}
 	
 	/**
@@ -58,7 +73,86 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 * @return True if the wavelength is available. False, otherwise.
 	 */
 	public boolean testWavelength(int pos) {
-		return mask[pos];
+		this.check(pos);
+		return (bits[pos >>> 6] & (1L << pos)) != 0;
+	}
+	
+	/**
+	 * Set as used (false) the contiguous wavelengths (slots) of the specified block.
+	 * @param start The position of the first wavelength of the block.
+	 * @param width The number of wavelengths of the block.
+	 */
+	public void setWavelengths(int start, int width) {
+		this.check(start, width);
+		int end = start + width;
+		for (int i = start >>> 6; i <= (end - 1) >>> 6; i++)
+			bits[i] &= ~this.range(i, start, end);
+	}
+	
+	/**
+	 * Set as unused (true) the contiguous wavelengths (slots) of the specified block.
+	 * @param start The position of the first wavelength of the block.
+	 * @param width The number of wavelengths of the block.
+	 */
+	public void clearWavelengths(int start, int width) {
+		this.check(start, width);
+		int end = start + width;
+		for (int i = start >>> 6; i <= (end - 1) >>> 6; i++)
+			bits[i] |= this.range(i, start, end);
+	}
+	
+	/**
+	 * Test if all the contiguous wavelengths (slots) of the specified block are available.
+	 * @param start The position of the first wavelength of the block.
+	 * @param width The number of wavelengths of the block.
+	 * @return True if all the wavelengths of the block are available. False, otherwise.
+	 */
+	public boolean testWavelengths(int start, int width) {
+		this.check(start, width);
+		int end = start + width;
+		for (int i = start >>> 6; i <= (end - 1) >>> 6; i++) {
+			long range = this.range(i, start, end);
+			if ((bits[i] & range) != range)
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns the bits of the specified word that belong to a block of positions.
+	 * @param index The index of the word.
+	 * @param start The first position of the block.
+	 * @param end The position following the last one of the block.
+	 * @return The bits of the word that belong to the block.
+	 */
+	private long range(int index, int start, int end) {
+		long range = -1L;
+		if (index == (start >>> 6))
+			range = range & (-1L << start);
+		if ((index == ((end - 1) >>> 6)) && ((end & 63) != 0))
+			range = range & (-1L >>> -end);
+		return range;
+	}
+	
+	/**
+	 * Verifies if the block of positions is inside the mask.
+	 * @param start The first position of the block.
+	 * @param width The number of positions of the block.
+	 * @throws ArrayIndexOutOfBoundsException If the block is empty or outside the mask.
+	 */
+	private void check(int start, int width) {
+		if ((width < 1) || (start < 0) || (start + width > wavelengths))
+			throw new ArrayIndexOutOfBoundsException(start + width - 1);
+	}
+	
+	/**
+	 * Verifies if the position is inside the mask.
+	 * @param pos The position of the wavelength.
+	 * @throws ArrayIndexOutOfBoundsException If the position is outside the mask.
+	 */
+	private void check(int pos) {
+		if ((pos < 0) || (pos >= wavelengths))
+			throw new ArrayIndexOutOfBoundsException(pos);
 	}
 	
 	/**
@@ -66,7 +160,7 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 * @return The free wavelength ratio.
 	 */
 	public double freeWavelengthRatio() {
-		return ((double)this.freeWavelengths()) / ((double)(mask.length));
+		return ((double)this.freeWavelengths()) / ((double)(wavelengths));
 	}
 	
 	/** 
@@ -75,22 +169,64 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 */
 	public int freeWavelengths() {
 		int count = 0;
-		for (int i=0; i<mask.length; i++) {
-			if (mask[i])
-				count++;
+		for (int i=0; i<bits.length; i++) {
+			count = count + Long.bitCount(bits[i]);
 		}
 		return count;		
 	}
 	
+	/**
+	 * Returns the first free wavelength at or after the specified position (first-fit).
+	 * @param from The position to start the search.
+	 * @return The first free wavelength at or after the position, or -1 if there is none.
+	 */
+	public int nextFreeWavelength(int from) {
+		if (from < 0)
+			from = 0;
+		int index = from >>> 6;
+		if (index >= bits.length)
+			return -1;
+		long word = bits[index] & (-1L << from);
+		while (true) {
+			if (word != 0)
+				return (index << 6) + Long.numberOfTrailingZeros(word);
+			if (++index == bits.length)
+				return -1;
+			word = bits[index];
+		}
+	}
+	
+	/**
+	 * Returns the first used wavelength at or after the specified position.
+	 * @param from The position to start the search.
+	 * @return The first used wavelength at or after the position, or -1 if there is none.
+	 */
+	public int nextUsedWavelength(int from) {
+		if (from < 0)
+			from = 0;
+		int index = from >>> 6;
+		if (index >= bits.length)
+			return -1;
+		long word = ~bits[index] & (-1L << from);
+		while (true) {
+			if (word != 0) {
+				int pos = (index << 6) + Long.numberOfTrailingZeros(word);
+				return (pos < wavelengths) ? pos : -1;
+			}
+			if (++index == bits.length)
+				return -1;
+			word = ~bits[index];
+		}
+	}
+	
 	/**
 	 * Gets the list of free wavelengths.
 	 * @return The list of free wavelengths.
 	 */
 	public Vector<Integer> listFreeWavelengths() {
 		Vector<Integer> available = new Vector<Integer>();
-		for (int i=0; i<mask.length; i++) {
-			if (mask[i])
-				available.add(i);
+		for (int i=this.nextFreeWavelength(0); i != -1; i=this.nextFreeWavelength(i+1)) {
+			available.add(i);
 		}
 		return available;
 	}
@@ -100,9 +236,33 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 * @param wMask 
 	 */
 	public void updateMask(WavelengthMask wMask) {
-		for (int i=0; i < mask.length; i++) {
-			this.mask[i] = this.mask[i] & wMask.mask[i];
-		}		
+		int len = Math.min(bits.length, wMask.bits.length);
+		for (int i=0; i < len; i++) {
+			this.bits[i] = this.bits[i] & wMask.bits[i];
+		}
+		for (int i=len; i < bits.length; i++) {
+			this.bits[i] = 0L;
+		}
+	}
+	
+	/**
+	 * Marks as used the wavelengths that are available in another mask, using the AND NOT operator.
+	 * @param wMask The mask with the wavelengths to be marked as used.
+	 */
+	public void excludeMask(WavelengthMask wMask) {
+		int len = Math.min(bits.length, wMask.bits.length);
+		for (int i=0; i < len; i++) {
+			this.bits[i] = this.bits[i] & ~wMask.bits[i];
+		}
+	}
+	
+	/**
+	 * Returns the words of the mask. The bit i is set if the wavelength i is available.
+	 * The returned array must not be changed.
+	 * @return The words of the mask.
+	 */
+	public long[] getWords() {
+		return bits;
 	}
 	
 	/**
@@ -110,7 +270,7 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 * @return The size, i.e., the number of positions of the mask.
 	 */
 	public int size() {
-		return mask.length;
+		return wavelengths;
 	}
 	
 	/**
@@ -118,7 +278,13 @@ public class WavelengthMask implements Serializable, Cloneable {
 	 * @return A string representation of this object. Available wavelengths are marked as true.
 	 */
 	public String toString() {
-		return Arrays.toString(mask);
+		StringBuilder builder = new StringBuilder("[");
+		for (int i=0; i < wavelengths; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(this.testWavelength(i));
+		}
+		return builder.append("]").toString();
 	}
 	
 	/**
@@ -128,8 +294,7 @@ public class WavelengthMask implements Serializable, Cloneable {
 	public Object clone() {
 		WavelengthMask newMask = new WavelengthMask();
 		newMask.wavelengths = this.wavelengths;		
-		newMask.mask = new boolean[wavelengths];
-		System.arraycopy(this.mask,0,newMask.mask,0,wavelengths);
+		newMask.bits = this.bits.clone();
 		return newMask;
 	}
 }
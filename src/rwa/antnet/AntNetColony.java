@@ -20,6 +20,7 @@ import main.RoutingTable;
 import main.Failure.Location;
 import rwa.Connection;
 import rwa.Error;
+import rwa.FailureNotification;
 import rwa.LightpathRequest;
 import rwa.LinkState;
 import rwa.OpticalNode;
@@ -148,10 +149,7 @@ public class AntNetColony extends OpticalNode {
 	    			//Reset the SD pair to the new values
 	    			rsvp.setSDPair(target,request.getSource());		    		
 		    		//Choose a free wavelength
-		    		int pos = 0; //position of the first free wavelength
-		    		while (!mask.testWavelength(pos)) { //First-fit strategie
-		    			pos++; //Increment the counter
-		    		}
+		    		int pos = mask.nextFreeWavelength(0); //First-fit strategy
 		    		//Create a connection and add it as a object.
 		    		Connection connectionEst = new Connection(rsvp.getPath(),pos,rsvp.getFlowLabel(),request);
 		    		//Set the start time of the connection, which starts after arriving at the source node.
@@ -217,103 +215,85 @@ public class AntNetColony extends OpticalNode {
 	    		response = super.process(event);
 	    		break;
 		    case LINK_FAILURE: //Packet associated with control plane (separated channel)
-		    	//Identify the failure
-		    	Failure failure = (Failure) packet.getPayload();
-		    	//Flooding of the failure
-		    	if (!failureID.contains(failure.getID())) { //First time
-		    		//Mock local update of the topology
-		    		routingTable.updateFromTopology(graph);
-		    		//Broadcast the failure to the neighbors
-		    		String previousHop = packet.getSource();
-		    		Vector<String> neighbors = graph.adjacentNodes(id);
-		    		Vector<Event> broadcast = new Vector<Event>(); 
-		    		//Adds the flooding information
-		    		for(String neighId:neighbors) {
-		    			if (!neighId.equals(previousHop)) { //not visited
-		    				//Retransmit the packet
-		    				Packet clonedFrom = (Packet)packet.clone();
-		    				clonedFrom.retransmit(id,neighId);
-		    				clonedFrom.setNode(neighId);
-		    				//Set new time stamp
-		    				double transmissionTime = this.links.get(neighId).getDelay();
-		    				double newTimeStamp = event.getTimeStamp() + transmissionTime;
-		    				//Add to the list of broadcast
-		    				broadcast.add(new Event(newTimeStamp,Event.Type.PACKET_ARRIVAL,clonedFrom));
-		    			}
-		    		}
-		    		//Add the failure to the list of processed ones.
-		    		failureID.add(failure.getID());
-		    		/* Remove the link states affected by the failure. */
-		    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
-		    			links.remove(((Edge)failure.getInformation()).getDestination());
-		    		}
-		    		/* Treatment the failure by the neighbor nodes */
-		    		//Now, if it is the closest node upstream to the failure
-		    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
-		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
-		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
-		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
-		    					//Create the PathErr packet
-		    					RSVP pathErr = new RSVP(active,Packet.Header.RSVP_PATH_ERR,id,active.getSource());
-		    					//Create the error with path remove flag
-		    					error = new Error(Error.Code.LSP_FAILURE,true);
-		    					pathErr.setError(error);
-		    					pathErr.setFlowLabel(activeID);
-		    					//System.out.println(pathErr.toString());
-		    					double transmissionTime=0;
-		    					//Not the source node to treat the failure
-		    					if(!id.equals(active.getPath().firstNode())) {
-		    						nextHop = active.getPath().getPreviousNode(id);
-		    						pathErr.setNode(nextHop);
+		    	//Identify the failures notified in the same instant
+		    	FailureNotification notification = (FailureNotification)packet.getPayload();
+		    	//Forward the notification to the neighbors reached first through this node
+		    	Vector<Event> broadcast = notification.forward(this,event);
+		    	for(Failure failure:notification.getFailures()) {
+			    	//Treatment of the failure
+			    	if (!failureID.contains(failure.getID())) { //First time
+			    		//Mock local update of the topology
+			    		routingTable.updateFromTopology(graph);
+			    		//Add the failure to the list of processed ones.
+			    		failureID.add(failure.getID());
+			    		/* Remove the link states affected by the failure. */
+			    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
+			    			links.remove(((Edge)failure.getInformation()).getDestination());
+			    		}
+			    		/* Treatment the failure by the neighbor nodes */
+			    		//Now, if it is the closest node upstream to the failure
+			    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
+			    			//Adds the notification of broken LSP to the event
+			    			for(String activeID:activeConnections.affected(failure)) {
+			    				//Gets the connection
+			    				Connection active = activeConnections.get(activeID);
+			    				//Locate the failure
+			    				Location location = failure.locate(id,active.getPath());
+			    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
+			    					//Create the PathErr packet
+			    					RSVP pathErr = new RSVP(active,Packet.Header.RSVP_PATH_ERR,id,active.getSource());
+			    					//Create the error with path remove flag
+			    					error = new Error(Error.Code.LSP_FAILURE,true);
+			    					pathErr.setError(error);
+			    					pathErr.setFlowLabel(activeID);
+			    					//System.out.println(pathErr.toString());
+			    					double transmissionTime=0;
+			    					//Not the source node to treat the failure
+			    					if(!id.equals(active.getPath().firstNode())) {
+			    						nextHop = active.getPath().getPreviousNode(id);
+			    						pathErr.setNode(nextHop);
+			    						//Set new time stamp
+			    						transmissionTime = this.links.get(nextHop).getDelay();	
+			    					}
+			    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
+			    					broadcast.add(Event.obtain(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathErr));
+			    				}
+			    			}
+			    			//Now, if it is the closest node downstream to the failure
+			    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
+			    			//Adds the notification of broken LSP to the event
+			    			for(String activeID:activeConnections.affected(failure)) {
+			    				//Gets the connection
+			    				Connection active = activeConnections.get(activeID);
+			    				//Locate the failure
+			    				Location location = failure.locate(id,active.getPath());
+			    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
+			    					//Create the PathErr packet
+			    					RSVP pathTear = new RSVP(active,Packet.Header.RSVP_PATH_TEAR,id,active.getTarget());
+			    					//Create the error
+			    					error = new Error(Error.Code.LSP_FAILURE);
+			    					pathTear.setError(error);
+			    					pathTear.setFlowLabel(activeID);
+			    					//System.out.println(pathTear.toString());
+			    					//Not the target node to treat the failure
+			    					double transmissionTime = 0;
+			    					//Not the last node to tackle the failure
+			    					if(!id.equals(active.getPath().lastNode())) {
+			    						nextHop = active.getPath().getNextNode(id);
+			    						pathTear.setNode(nextHop);
+			    						transmissionTime = this.links.get(nextHop).getDelay();	
+			    					}
 		    						//Set new time stamp
-		    						transmissionTime = this.links.get(nextHop).getDelay();	
-		    					}
-		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
-		    					broadcast.add(new Event(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathErr));
-		    				}
-		    			}
-		    			//Now, if it is the closest node downstream to the failure
-		    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
-		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
-		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
-		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
-		    					//Create the PathErr packet
-		    					RSVP pathTear = new RSVP(active,Packet.Header.RSVP_PATH_TEAR,id,active.getTarget());
-		    					//Create the error
-		    					error = new Error(Error.Code.LSP_FAILURE);
-		    					pathTear.setError(error);
-		    					pathTear.setFlowLabel(activeID);
-		    					//System.out.println(pathTear.toString());
-		    					//Not the target node to treat the failure
-		    					double transmissionTime = 0;
-		    					//Not the last node to tackle the failure
-		    					if(!id.equals(active.getPath().lastNode())) {
-		    						nextHop = active.getPath().getNextNode(id);
-		    						pathTear.setNode(nextHop);
-		    						transmissionTime = this.links.get(nextHop).getDelay();	
-		    					}
-	    						//Set new time stamp
-		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
-		    					//Add to the list of broadcast
-		    					broadcast.add(new Event(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathTear));
-		    				}
-		    			}
-		    		}	    		
-		    		//System.out.println(broadcast.toString());
-		    		//Return the multiple packets associated with the failure
-		    		response = new Event(event.getTimeStamp(),Event.Type.MULTIPLE,broadcast);
-		    	} else { //Already processed the failure.
-		    		event.setType(Event.Type.IGNORE);
-		    		response = event;
+			    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
+			    					//Add to the list of broadcast
+			    					broadcast.add(Event.obtain(newTimeStamp,Event.Type.PACKET_ARRIVAL,pathTear));
+			    				}
+			    			}
+			    		}	    		
+			    	}
 		    	}
+		    	//Return the multiple packets associated with the failures
+		    	response = Event.obtain(event.getTimeStamp(),Event.Type.MULTIPLE,broadcast);
 		    	break;
 	    }
 		return response;				
@@ -14,7 +14,7 @@ import java.util.Vector;
 import java.util.logging.Logger;
 
 import antnet.AntPacket;
-import antnet.NeighborAttr;
+import antnet.PheromoneRoutingTable;
 import antnet.StatisticalParametricModel;
 
 import ops.Accounting;
@@ -22,10 +22,13 @@ import ops.Packet;
 import random.MersenneTwister;
 import rwa.Connection;
 import rwa.Error;
+import rwa.FailureFlooding;
 import rwa.LightpathRequest;
 import rwa.LinkState;
+import rwa.MeanFieldAnts;
 import rwa.OpticalNode;
 import rwa.RSVP;
+import rwa.RestorationTracker;
 import event.Event;
 import graph.Edge;
 import graph.Graph;
@@ -33,7 +36,6 @@ import main.Config;
 import main.ControlPlane;
 import main.Failure;
 import main.Link;
-import main.RoutingTableEntry;
 import main.SimulationAccounting;
 
 /**
@@ -76,12 +78,16 @@ public class AntNetControlPlane extends ControlPlane {
 	/** The length in bytes for the identification of a link or a node. */
 	protected int identificationLength;
 	/**
-	 * The collection of LSP disrupted by a failure, which are eligible for full
-	 * re-routing.
+	 * The LSP disrupted by a failure, which are eligible for full re-routing,
+	 * and the ones successfully re-routed after a failure.
 	 */
-	protected Hashtable<String, LightpathRequest> disruptedLSP;
-	/** The collection of LSP successfully re-routed after a failure. */
-	protected Hashtable<String, Connection> reroutedLSP;
+	protected RestorationTracker restoration;
+	/** The flooding of the failures detected in the last instant. */
+	protected FailureFlooding flooding;
+	/** The aggregated (mean-field) mode of the ants, or null for the per-ant mode. */
+	protected MeanFieldAnts meanField;
+	/** The number of ant events processed by this control plane. */
+	protected long antEvents;
 	/** Random number generator for ants. */
 	public static MersenneTwister rngAnt;
 	/** The logging generator. */
@@ -107,8 +113,7 @@ public class AntNetControlPlane extends ControlPlane {
 		// Create the nodes of this network
 		nodes = new LinkedHashMap<String, AntNetColony>();
 		// Create the storage of disrutped connections by failure
-		disruptedLSP = new Hashtable<String, LightpathRequest>();
-		reroutedLSP = new Hashtable<String, Connection>();
+		restoration = new RestorationTracker();
 		// Get the simulation parameters
 		hopLimit = Integer.parseInt(parameters.get("/OPS/Hop/@limit")
 				.firstElement());
@@ -146,6 +151,11 @@ public class AntNetControlPlane extends ControlPlane {
 		timeSlice = Double.parseDouble(parameters.get(
 				"/Outputs/Transient/@timeSlice").firstElement());
 		actualTimeSlice = timeSlice;
+		// Gets the time slice of the aggregated (mean-field) mode of the ants, if any
+		Vector<String> vMeanField = parameters.get("/Ant/MeanField/@slice");
+		if (vMeanField != null)
+			meanField = new MeanFieldAnts(Double.parseDouble(vMeanField
+					.firstElement()));
 		// Gets the time necessary for fault localization.
 		faultLocalizationTime = Double.parseDouble(parameters.get(
 				"/Failure/Timing/@localization").firstElement());
@@ -209,6 +219,9 @@ public class AntNetControlPlane extends ControlPlane {
 		String id;
 		// Update the time stamp of the last event to be processed processed.
 		lastTime = event.getTimeStamp();
+		// Process the batch of ants of the elapsed time slice, if applicable
+		if ((meanField != null) && meanField.isDue(event))
+			meanField.flush(nodes, accounting);
 		// Do transient accounting, if applicable
 		if (lastTime > actualTimeSlice) {
 			// Update the actual time slice
@@ -230,7 +243,7 @@ public class AntNetControlPlane extends ControlPlane {
 			RSVP rsvpPath = new RSVP(request, hopLimit, counterLightpath);
 			this.counterLightpath++; // Increment the counter
 			// Create a new event for setting up the lightpath
-			return new Event(event.getTimeStamp(), Event.Type.PACKET_ARRIVAL,
+			return Event.obtain(event.getTimeStamp(), Event.Type.PACKET_ARRIVAL,
 					rsvpPath);
 		case LIGHTPATH_ESTABLISHED: // Lightpath established
 			RSVP rsvpConfirm = (RSVP) event.getContent();
@@ -242,12 +255,13 @@ public class AntNetControlPlane extends ControlPlane {
 			accounting.addSuccesful(rsvpConfirm);
 			// See if it is a succesful re-routing of a failed LSP
 			if (rsvpConfirm.isReRouting()) {
-				reroutedLSP.put(rsvpConfirm.getFlowLabel(), connectionEst);
+				restoration.restore(rsvpConfirm.getFlowId(), connectionEst,
+						event.getTimeStamp(), event.getTimeStamp() + duration);
 			}
 			// System.out.println(event.toString());
 			// Return a new event for tearing down the lightpath when
 			// appropriate
-			return new Event((event.getTimeStamp() + duration),
+			return Event.obtain((event.getTimeStamp() + duration),
 					Event.Type.LIGHTPATH_TEARDOWN, connectionEst);
 		case LIGHTPATH_PROBLEM:
 			RSVP rsvpErr = (RSVP) event.getContent();
@@ -255,7 +269,7 @@ public class AntNetControlPlane extends ControlPlane {
 			// Get the error status
 			Error error = rsvpErr.getError();
 			// Get the label
-			int label = Integer.parseInt(rsvpErr.getFlowLabel());
+			long label = rsvpErr.getFlowId();
 			RSVP rsvpRetry = null; // new Rsvp message
 			Error.Code errorCode = error.getErrorCode();
 			// Allocation of wavelength contention problem
@@ -264,7 +278,7 @@ public class AntNetControlPlane extends ControlPlane {
 						.getRequest();
 				// System.out.println("Contention: "+lRequest.toString());
 				rsvpRetry = new RSVP(lRequest, hopLimit, label);
-				if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+				if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 					rsvpRetry.setReRouting(); // set the flag of re-routing
 					// System.out.println(event.toString());
 				}
@@ -275,7 +289,7 @@ public class AntNetControlPlane extends ControlPlane {
 				lRequest = (LightpathRequest) rsvpErr.getObject();
 				lRequest.addTry(); // add a try to the counter of tries
 				if (lRequest.tryAgain()
-						&& disruptedLSP.containsKey(rsvpErr.getFlowLabel())) { // resend
+						&& restoration.isDisrupted(rsvpErr.getFlowId())) { // resend
 																				// the
 																				// request
 																				// (only
@@ -286,7 +300,7 @@ public class AntNetControlPlane extends ControlPlane {
 					rsvpRetry.setReRouting(); // set the flag of re-routing
 					Vector<Event> multiple = new Vector<Event>();
 					// add the hold-off timer for resending the message.
-					multiple.add(new Event(holdoff + event.getTimeStamp(),
+					multiple.add(Event.obtain(holdoff + event.getTimeStamp(),
 							Event.Type.PACKET_ARRIVAL, rsvpRetry));
 					// System.out.println(event.toString());
 					int times = (int) (holdoff * rerouteAntRate);
@@ -296,16 +310,19 @@ public class AntNetControlPlane extends ControlPlane {
 					for (int i = 0; i < times; i++) {
 						AntPacket ant = new AntPacket(lRequest.getSource(),
 								lRequest.getTarget(), hopLimit, bytesHop);
-						multiple.add(new Event(delay + event.getTimeStamp(),
+						multiple.add(Event.obtain(delay + event.getTimeStamp(),
 								Event.Type.PACKET_ARRIVAL, ant));
 						delay = delay + (1.0 / rerouteAntRate);
 					}
 					// Return the multiple events to the simulator
-					return new Event(lastTime, Event.Type.MULTIPLE, multiple);
+					return Event.obtain(lastTime, Event.Type.MULTIPLE, multiple);
 				} else {
 					// Accounts the failed lightpath request
 					accounting.addFailed(rsvpErr);
-					// if (disruptedLSP.containsKey(rsvpErr.getFlowLabel()))
+					if (rsvpErr.isReRouting())
+						restoration.fail(rsvpErr.getFlowId(), event
+								.getTimeStamp());
+					// if (restoration.isDisrupted(rsvpErr.getFlowId()))
 					// System.out.println("Failed:"+event.toString());
 				}
 				// LSP failure forward or backward
@@ -328,29 +345,27 @@ public class AntNetControlPlane extends ControlPlane {
 				// Set the label indicating to tackle the failure
 				rsvpRetry.setReRouting();
 				// Adds the connection to the list of disrupted LSP
-				disruptedLSP.put(rsvpErr.getFlowLabel(), lRequest);
+				restoration.disrupt(rsvpErr.getFlowId(), lRequest, event
+						.getTimeStamp(), event.getInitialTimeStamp()
+						+ residualDuration);
 				System.out.println("Adding LSP failure: "
 						+ rsvpErr.getFlowLabel() + " ," + disrupted.toString());
 			}
 			// Now, return the result.
 			if (rsvpRetry != null)
-				return new Event(event.getTimeStamp(),
+				return Event.obtain(event.getTimeStamp(),
 						Event.Type.PACKET_ARRIVAL, rsvpRetry);
 			else
 				return null;
 		case LIGHTPATH_TEARDOWN: // Remove connection
 			Connection connectionTear = (Connection) event.getContent();
-			String flowLabel = connectionTear.getID();
-			if ((disruptedLSP.get(flowLabel) == null)
-					|| ((reroutedLSP.get(flowLabel) != null) && (reroutedLSP
-							.get(flowLabel).getPath().equals(connectionTear
-							.getPath())))) {
+			if (restoration.teardown(connectionTear, event.getTimeStamp())) {
 				// Send RSVP PathTear message
 				RSVP rsvpTear = new RSVP(connectionTear,
 						Packet.Header.RSVP_PATH_TEAR,
 						connectionTear.getSource(), connectionTear.getTarget());
 				// System.out.println(rsvpTear.toString());
-				return new Event(event.getTimeStamp(),
+				return Event.obtain(event.getTimeStamp(),
 						Event.Type.PACKET_ARRIVAL, rsvpTear);
 			} else { // Ignore the teardown associated to a failed LSP, since it
 						// is already cleaned and rerouted.
@@ -362,6 +377,14 @@ public class AntNetControlPlane extends ControlPlane {
 		case PACKET_ARRIVAL: // Ant
 			// Get the packet
 			Packet packet = (Packet) event.getContent();
+			if (packet instanceof AntPacket) {
+				antEvents++;
+				// Mean-field mode: the ant is processed with the batch of its time slice
+				if ((meanField != null) && MeanFieldAnts.isForwardAnt(packet)) {
+					meanField.add(event.getTimeStamp(), packet);
+					return null;
+				}
+			}
 			// Get the node associated to this packet
 			id = packet.getNode();
 			// Give the packet to the right node
@@ -382,6 +405,8 @@ public class AntNetControlPlane extends ControlPlane {
 				}
 			} else { // Failed node
 				accounting.addFailed(packet);
+				if ((packet instanceof RSVP) && ((RSVP) packet).isReRouting())
+					restoration.fail(packet.getFlowId(), event.getTimeStamp());
 				return null;
 			}
 		case FAILURE_LINK: // For link failure
@@ -400,25 +425,10 @@ public class AntNetControlPlane extends ControlPlane {
 			// Notifies the end nodes of the failure after the localization time
 			double timeNotification = lastTime + this.faultLocalizationTime;
 			int lengthFailure = 2 * this.identificationLength;
-			// Creates the packets of notification
-			Packet failureTo = new Packet(Packet.Header.LINK_FAILURE,
-					edge.getDestination(), edge.getDestination(),
-					Packet.Priority.HIGH, lengthFailure, graph.size());
-			Packet failureFrom = new Packet(Packet.Header.LINK_FAILURE,
-					edge.getSource(), edge.getSource(), Packet.Priority.HIGH,
-					lengthFailure, graph.size());
-			// Adds the edge to the packets.
-			Failure failureLinkAdv = new Failure(edge);
-			failureTo.setPayload(failureLinkAdv);
-			failureFrom.setPayload(failureLinkAdv);
-			// Add to the vector of events
-			Vector<Event> failuresLink = new Vector<Event>();
-			failuresLink.add(new Event(timeNotification,
-					Event.Type.PACKET_ARRIVAL, failureFrom));
-			failuresLink.add(new Event(timeNotification,
-					Event.Type.PACKET_ARRIVAL, failureTo));
-			return new Event(timeNotification, Event.Type.MULTIPLE,
-					failuresLink);
+			// Coalesces the failures of the same instant in a single flooding
+			if ((flooding == null) || !flooding.accepts(timeNotification))
+				flooding = new FailureFlooding(nodes, timeNotification);
+			return flooding.add(new Failure(edge), lengthFailure, graph.size());
 		case FAILURE_NODE: // For node failure
 			// Get the node associated with the failure
 			id = (String) event.getContent();
@@ -427,10 +437,10 @@ public class AntNetControlPlane extends ControlPlane {
 			Vector<String> neighbors = graph.adjacentNodes(id);
 			for (String neighId : neighbors) {
 				// Add the edge "from" the removed node
-				failuresNode.add(new Event(lastTime, Event.Type.FAILURE_LINK,
+				failuresNode.add(Event.obtain(lastTime, Event.Type.FAILURE_LINK,
 						new String(id + "-" + neighId)));
 				// Add the edge "to" the removed node
-				failuresNode.add(new Event(lastTime, Event.Type.FAILURE_LINK,
+				failuresNode.add(Event.obtain(lastTime, Event.Type.FAILURE_LINK,
 						new String(neighId + "-" + id)));
 			}
 			// Remove the failure node from the graph
@@ -442,7 +452,7 @@ public class AntNetControlPlane extends ControlPlane {
 			// Remove the node from the list of nodes
 			nodes.remove(id);
 			// Return the response containing the failure of the multiple links
-			return new Event(lastTime, Event.Type.MULTIPLE, failuresNode);
+			return Event.obtain(lastTime, Event.Type.MULTIPLE, failuresNode);
 		default:
 			logger.severe("Unknown event: " + event.toString());
 			return null;
@@ -452,104 +462,60 @@ public class AntNetControlPlane extends ControlPlane {
 	/**
 	 * Returns the next hop with the highest level of pheromone.
 	 * 
-	 * @param neighborhood
-	 *            The routing table of a given destination.
+	 * @param table
+	 *            The pheromone routing table.
+	 * @param destination
+	 *            The index of the destination in the routing table.
 	 * @param rsvp
 	 *            The RSVP message.
 	 * @return The next hop with the highest level of pheromone.
 	 */
-	public static String select(RoutingTableEntry neighborhood, RSVP rsvp) {
-		int size; // Number of neighbors
+	public static String select(PheromoneRoutingTable table, int destination,
+			RSVP rsvp) {
 		// Get the last edge visited.
 		String lastVisited = null;
 		if (rsvp.getPathLength() > 0) { // not first hop
 			lastVisited = rsvp.getPath().getLastEdge().getSource();
-			size = neighborhood.size() - 1;
-		} else { // First hop
-			size = neighborhood.size();
-		}
-		if (size == 0) {
-			return null;
-		}
-		String maxId = null; // id of the neighbor with biggest level
-		double maxLevel = Double.NEGATIVE_INFINITY; // biggest pheromone level
-		// For each neighbor do
-		for (String neighId : neighborhood.neighborhood()) {
-			if (!neighId.equals(lastVisited)) { // Avoids the rsvp message to
-												// come back.
-				double level = ((NeighborAttr) neighborhood.getEntry(neighId))
-						.getPheromoneLevel();
-				if (maxLevel < level) { // Neighbor with biggest level of
-										// pheromone
-					maxLevel = level;
-					maxId = neighId;
-				}
-			}
 		}
+		// Avoids the rsvp message to come back.
+		int next = table.best(destination, table.getNeighborId(lastVisited));
 		// Return the id with the maximum level found
-		return maxId;
+		return (next == -1) ? null : table.getNeighbor(next);
 	}
 
 	/**
 	 * Selects the next hop based ONLY on the probabilities of the routing
 	 * table. It is not allowed to come back!
 	 * 
-	 * @param neighborhood
-	 *            The routing table of a given destination.
+	 * @param table
+	 *            The pheromone routing table.
+	 * @param destination
+	 *            The index of the destination in the routing table.
+	 * @param packet
+	 *            The packet to be routed.
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood, Packet packet) {
-		int count = 0; // Counter for the number of neighbors
-		int size; // Number of neighbors
+	public static String select(PheromoneRoutingTable table, int destination,
+			Packet packet) {
 		// Get the last edge visited.
 		String lastVisited = null;
 		if (packet.getPathLength() > 0) { // not first hop
 			lastVisited = packet.getPath().getLastEdge().getSource();
-			size = neighborhood.size() - 1;
-		} else { // First hop
-			size = neighborhood.size();
-		}
-		if (size == 0) {
-			return null;
-		}
-		double[] probabilityDistribution = new double[size]; // Probability
-																// distribution
-		String[] keys = new String[size]; // For storing the ids of the nodes.
-		double totalLevel = 0.0; // Sum of probabilities
-		// For each neighbor do
-		for (String neighId : neighborhood.neighborhood()) {
-			if (!neighId.equals(lastVisited)) {
-				double level = ((NeighborAttr) neighborhood.getEntry(neighId))
-						.getPheromoneLevel();
-				probabilityDistribution[count] = level;
-				totalLevel = totalLevel + level;
-				keys[count] = neighId;
-				count++;
-			}
-		}
-		// Normalize the values
-		for (int i = 0; i < size; i++) {
-			probabilityDistribution[i] = probabilityDistribution[i]
-					/ totalLevel;
 		}
 		// Spins the wheel
-		double sample = rngAnt.nextDouble();
-		// Set sum to the first probability
-		double sum = probabilityDistribution[0];
-		int n = 0;
-		while (sum < sample) {
-			n = n + 1;
-			sum = sum + probabilityDistribution[n];
-		}
-		return keys[n];
+		int next = table.sample(destination, table.getNeighborId(lastVisited),
+				rngAnt);
+		return (next == -1) ? null : table.getNeighbor(next);
 	}
 
 	/**
 	 * Selects the next hop based on the probabilities of the routing table and
 	 * on the local statistics (free wavelength ratio).
 	 * 
-	 * @param neighborhood
-	 *            The routing table of a given destination.
+	 * @param table
+	 *            The pheromone routing table.
+	 * @param destination
+	 *            The index of the destination in the routing table.
 	 * @param links
 	 *            The state of the neighbor links.
 	 * @param ant
@@ -559,38 +525,39 @@ public class AntNetControlPlane extends ControlPlane {
 	 *            (congestion).
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood,
+	public static String select(PheromoneRoutingTable table, int destination,
 			LinkedHashMap<String, LinkState> links, AntPacket ant, double alpha) {
 		// Gets the total number of free points between the neighbors.
 		double totalFreeWavelengths = 0.0; // Total number of free wavelengths
 		double totalPheromoneLevel = 0.0;
 		// Gets the neighbors that are not in the tabu list.
-		Vector<String> availableNeighbors = new Vector<String>();
-		for (String neighId : neighborhood.neighborhood()) { // Uses
-																// neighborhood
-																// instead of
-																// opticalBuffers
-																// because of
-																// failure
-																// tolerance
+		int[] availableNeighbors = table.getCandidates();
+		double[] probabilityDistribution = table.getDistribution();
+		int size = 0; // Number of available neighbors
+		for (int neighbor = 0; neighbor < table.getNumberNeighbors(); neighbor++) {
+			// Uses the neighborhood instead of opticalBuffers because of failure tolerance
+			String neighId = table.getNeighbor(neighbor);
 			if (!ant.isTabu(neighId)) { // not in tabu list
-				availableNeighbors.add(neighId);
+				availableNeighbors[size] = neighbor;
+				// Get the number of free wavelengths
+				double freeLambdas = links.get(neighId).getMask()
+						.freeWavelengths();
+				probabilityDistribution[size] = freeLambdas;
+				size++;
 				// Get the total number of free wavelengths
-				totalFreeWavelengths = totalFreeWavelengths
-						+ links.get(neighId).getMask().freeWavelengths();
+				totalFreeWavelengths = totalFreeWavelengths + freeLambdas;
 				// And the total pheromone level
 				totalPheromoneLevel = totalPheromoneLevel
-						+ ((NeighborAttr) neighborhood.getEntry(neighId))
-								.getPheromoneLevel();
+						+ table.getPheromoneLevel(destination, neighbor);
 			}
 		}
 		// Verify the routing decision policy
-		if ((availableNeighbors.size() == 0)) { // all neighbors already visited
+		if (size == 0) { // all neighbors already visited
 												// - doing loop!
 			// Proceed like a data packet
 			String nextHop = null;
-			if (neighborhood.size() > 1) {
-				nextHop = select(neighborhood, ant);
+			if (table.getNumberNeighbors() > 1) {
+				nextHop = select(table, destination, ant);
 			} else {
 				// nextHop = ant.getLastVisited();
 				return null;
@@ -607,38 +574,19 @@ public class AntNetControlPlane extends ControlPlane {
 			 * Now, use the pheromone values with the local heuristic to
 			 * calculate the next hop.
 			 */
-			int size = availableNeighbors.size(); // Number of neighbors
-			double[] probabilityDistribution = new double[size]; // Probability
-																	// distribution
-			String[] keys = new String[size]; // For storing the ids of the
-												// nodes.
-			int count = 0; // Counter for the number of neighbors
-			// For each neighbor do
-			for (String neighId : availableNeighbors) {
-				// Get the appropriate neighbor and the associated link state
-				keys[count] = neighId;
-				NeighborAttr neigh = (NeighborAttr) neighborhood
-						.getEntry(neighId);
-				LinkState state = links.get(neighId);
+			for (int count = 0; count < size; count++) {
+				double level = table.getPheromoneLevel(destination,
+						availableNeighbors[count]);
+				double freeLambdas = probabilityDistribution[count];
 				// Now calculate the probability
-				double freeLambdas = state.getMask().freeWavelengths();
-				//
-				probabilityDistribution[count] = ((neigh.getPheromoneLevel() / totalPheromoneLevel) + alpha
+				probabilityDistribution[count] = ((level / totalPheromoneLevel) + alpha
 						* (freeLambdas / totalFreeWavelengths))
 						/ (1.0 + alpha);
-				// Increment the index
-				count++;
 			}
 			// Spins the wheel
-			double sample = rngAnt.nextDouble();
-			// Set sum to the first probability
-			double sum = probabilityDistribution[0];
-			int n = 0;
-			while (sum < sample) {
-				n = n + 1;
-				sum = sum + probabilityDistribution[n];
-			}
-			return keys[n];
+			int n = PheromoneRoutingTable.spin(probabilityDistribution, size,
+					rngAnt.nextDouble());
+			return table.getNeighbor(availableNeighbors[n]);
 		}
 	}
 
@@ -701,10 +649,13 @@ public class AntNetControlPlane extends ControlPlane {
 	 */
 	public void updateValues() {
 		System.out.println("LastTime: " + lastTime);
-		System.out.println("Disrupted: "
-				+ this.disruptedLSP.keySet().toString());
-		System.out.println("Total disrupted: " + disruptedLSP.size());
-		System.out.println("Rerouted: " + reroutedLSP.toString());
+		System.out.println("Restoration: " + restoration.toString());
+		if (meanField != null) {
+			// Process the ants of the last time slice
+			meanField.flush(nodes, accounting);
+			System.out.println("Mean-field ants: " + meanField.toString());
+		}
+		System.out.println("Ant events: " + antEvents);
 	}
 
 	/**
@@ -4,15 +4,11 @@
 package rwa.antnet;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 
 import antnet.AntPacket;
-import antnet.LocalParametricView;
-import antnet.NeighborAttr;
 import antnet.PheromoneRoutingTable;
 import antnet.StatisticalParametricModel;
 
-import main.RoutingTableEntry;
 import ops.Packet;
 import rwa.LinkState;
 import rwa.RSVP;
@@ -60,9 +56,8 @@ public class AntNetRoutingTable extends PheromoneRoutingTable {
 			//System.out.println(packet.toString());
 			return null;
 		}
-		RoutingTableEntry neighborhood = destination[index];
 		//Gives the appropriate processing to the RSVP packet
-		return AntNetControlPlane.select(neighborhood,(RSVP)packet);
+		return AntNetControlPlane.select(this,index,(RSVP)packet);
 	}
 
 	/**
@@ -80,8 +75,7 @@ public class AntNetRoutingTable extends PheromoneRoutingTable {
 		Integer index = destinationMap.get(target);
 		if (index == null) //removed node from the topology
 			return null;
-		RoutingTableEntry neighborhood = destination[index];
-		return AntNetControlPlane.select(neighborhood,links,(AntPacket)ant,alpha);		
+		return AntNetControlPlane.select(this,index,links,(AntPacket)ant,alpha);		
 	}
 	
 	/**
@@ -93,48 +87,31 @@ public class AntNetRoutingTable extends PheromoneRoutingTable {
 	 */
 	@SuppressWarnings("unchecked")
 	public void update(AntPacket ant, StatisticalParametricModel model) {
-		//Gets the ant target
-		String target = ant.getTarget();
-		//Gets the processing node 
-		String procId = ant.getNode();
-		//Get the list of possible destination nodes to sub-path updating
-		List<String> subPath = ant.getSubPath();
-		//For each node in the subpath
-		for (String nodeId:subPath) {
-			//Get the appropriate view
-			LocalParametricView view = model.get(nodeId);
-			//Verify if it is good to update the sub-path
-			double upperCondidenceInterval = view.getAverage() + zFactor * (view.getDeviation() / Math.sqrt((double)view.getWindow()));
-			//Get the traveling value of the subpath
-			double pathValue = (double)ant.getSubPathLength(procId,nodeId);
-			//If it is a good sub-path or it is the "true" target node do
-			if ((pathValue < upperCondidenceInterval) || target.equals(nodeId)) {
-				//Updates the local view
-				model.update(pathValue,nodeId);
-				view = model.get(nodeId);
-				//Gets the appropriate routing table 
-				int index = destinationMap.get(nodeId);
-				RoutingTableEntry rTable = destination[index];
-				int neighborhoodSize = rTable.size();
-				//Gets the reinforcement value.
-				double reinforcement = this.getReinforcement(ant,view,neighborhoodSize,nodeId);
-				//Gets the node who is the one chosen as forward node
-				String forwardId = ant.getForwardNode();
-				//For each neighbor do		
-				for (String neighId : rTable.neighborhood()) {
-					//Gets the old pheromone level
-					NeighborAttr attr = (NeighborAttr)rTable.getEntry(neighId);
-					double oldLevel = attr.getPheromoneLevel();
-					double newLevel; //New pheromone level
-					if (neighId.equals(forwardId)) { //Positive reinforcement
-						newLevel = oldLevel + (reinforcement * (1.0 - oldLevel));
-					} else { //Negative reinforcement
-						newLevel = oldLevel - (reinforcement * oldLevel);
-					}
-					//Set the new level and update the pheromone routing table
-					attr.setPheromoneLevel(newLevel);
-					rTable.putEntry(neighId,attr);
+		//Updates the local views of the good sub-paths and of the "true" target node
+		int count = model.update(ant,zFactor);
+		int[] updated = model.getUpdated();
+		double[] values = model.getValues();
+		int neighborhoodSize = this.getNumberNeighbors();
+		//Gets the node who is the one chosen as forward node
+		int forward = this.getNeighborId(ant.getForwardNode());
+		//For each updated destination
+		for (int i = 0; i < count; i++) {
+			//Gets the appropriate routing table 
+			int index = destinationMap.get(model.getNode(updated[i]));
+			//Gets the reinforcement value.
+			double reinforcement = this.getReinforcement(values[i],model,updated[i],neighborhoodSize);
+			//For each neighbor do		
+			for (int neighbor = 0; neighbor < neighbors.length; neighbor++) {
+				//Gets the old pheromone level
+				double oldLevel = this.getPheromoneLevel(index,neighbor);
+				double newLevel; //New pheromone level
+				if (neighbor == forward) { //Positive reinforcement
+					newLevel = oldLevel + (reinforcement * (1.0 - oldLevel));
+				} else { //Negative reinforcement
+					newLevel = oldLevel - (reinforcement * oldLevel);
 				}
+				//Set the new level and update the pheromone routing table
+				this.setPheromoneLevel(index,neighbor,newLevel);
 			}
 		}		
 	}
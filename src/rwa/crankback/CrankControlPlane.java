@@ -15,15 +15,18 @@ import ops.Packet;
 import rwa.Connection;
 import rwa.Error;
 import rwa.ExplicitRoutingTable;
+import rwa.FailureFlooding;
 import rwa.LightpathRequest;
 import rwa.LinkState;
+import rwa.RestorationTracker;
+import rwa.SpectrumAssignment;
 import rwa.crankback.LabelSwitchRouter.ReRouting;
 import rwa.crankback.LabelSwitchRouter.WavelengthAssignment;
 import event.Event;
 import graph.Edge;
 import graph.Graph;
+import graph.IncrementalPaths;
 import graph.Path;
-import graph.YEN;
 import main.Config;
 import main.ControlPlane;
 import main.Failure;
@@ -69,15 +72,20 @@ public class CrankControlPlane extends ControlPlane {
 	protected int reroutingAttempts;
 	/** The chosen wavelength assignment algorithm. */
 	protected WavelengthAssignment wa;
+	/** The contiguous spectrum assignment of flex-grid links, or null for the wavelength assignment. */
+	protected SpectrumAssignment spectrum;
 	/** The length in bytes for the identification of a node. */
 	protected int identificationLength;
-	/** The collection of LSP disrupted by a failure, which
-	 * are eligible for full re-routing. */
-	protected Hashtable<String,LightpathRequest> disruptedLSP;
-	/** The collection of LSP successfully restored after a failure. */
-	protected Hashtable<String,Connection> restoredLSP;
+	/** The LSP disrupted by a failure, which are eligible for full re-routing,
+	 * and the ones successfully restored after a failure. */
+	protected RestorationTracker restoration;
+	/** The flooding of the failures detected in the last instant. */
+	protected FailureFlooding flooding;
 	/** The actual collection of shortest paths of this network. */
 	public static LinkedHashMap<String,Vector<Path>> setPaths;
+	/** The repair of the shortest paths after failures, which is null until the first failure
+	 * if the routing tables have been read from a file. */
+	protected static IncrementalPaths pathRepair;
 
 	/**
 	 * Creates a new DistributedControlPlane object.
@@ -93,8 +101,7 @@ public class CrankControlPlane extends ControlPlane {
 		//Create the nodes of this network
 		nodes = new LinkedHashMap<String,LabelSwitchRouter>();
 		//Create the storage of disrupted connections by failure
-		disruptedLSP = new Hashtable<String,LightpathRequest>();
-		restoredLSP = new Hashtable<String,Connection>();
+		restoration = new RestorationTracker();
 		//Get the simulation parameters
 		Hashtable<String,Vector<String>> parameters = config.getSimulationParameters();
 		//see all the parameters
@@ -106,16 +113,24 @@ public class CrankControlPlane extends ControlPlane {
 		maxReroutingAttempts = Integer.parseInt(parameters.get("/RWA/Routing/@maxAttempts").firstElement());
 		this.alternative = reroutingAttempts + 1; //Number of k-shortest paths
 		wa = WavelengthAssignment.valueOf(parameters.get("/RWA/WA/@type").firstElement());
+		Vector<String> spectrumPolicy = parameters.get("/RWA/Spectrum/@policy");
+		if (spectrumPolicy != null) //Flex-grid links: the wavelengths of the links are spectrum slots
+			spectrum = new SpectrumAssignment(SpectrumAssignment.Policy.valueOf(spectrumPolicy.firstElement()),
+					Integer.parseInt(parameters.get("/RWA/Spectrum/@slots").firstElement()));
 		boolean serRT = Boolean.parseBoolean(parameters.get("/RWA/Serialize/@rt").firstElement());
 		LinkedHashMap<String,ExplicitRoutingTable> rTables = null; 
 		if (serRT) {
 			String fileRT = parameters.get("/RWA/Serialize/@file").firstElement();
 			rTables = this.read(fileRT);
+			//Discard the paths of the topology of a previous run
+			setPaths = null;
+			pathRepair = null;
 		} else { //Calculate the set of paths of the network
 	//		System.out.println("Calculando caminhos");
 			//TEREI QUE MUDAR ISTO, POIS AQUI ENTRA A IMPLEMENTACAO DO OBGP PARA CALCULAR OS CAMINHOs
 			//PARA A REDE. Vou ter que saber calcular para interno (ai funciona isto mesmo), e para externo
 			setPaths = this.getPaths(graph,alternative);
+			pathRepair = new IncrementalPaths(graph,setPaths,alternative);
 		}
 		//Gets the size of the time slice
 		timeSlice = Double.parseDouble(parameters.get("/Outputs/Transient/@timeSlice").firstElement());
@@ -151,6 +166,7 @@ public class CrankControlPlane extends ControlPlane {
 			
 			
 			LabelSwitchRouter node = new LabelSwitchRouter(id,ert,linkStateSet,graph,wa,rerouting,maxReroutingAttempts,reroutingAttempts);
+			node.setSpectrumAssignment(spectrum);
 			nodes.put(id,node);
 		}
 		System.out.println("JA PASSEI PELO CONSTRUTOR");
@@ -187,7 +203,7 @@ public class CrankControlPlane extends ControlPlane {
 				CrankRSVP rsvpPath = new CrankRSVP(request,hopLimit,counterLightpath);
 				this.counterLightpath ++; //Increment the counter
 				//Create a new event for setting up the lightpath
-				return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpPath);
+				return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpPath);
 			case LIGHTPATH_ESTABLISHED: //Lightpath established
 				CrankRSVP rsvpConfirm = (CrankRSVP) event.getContent();
 				//Gets the connection object.
@@ -198,18 +214,18 @@ public class CrankControlPlane extends ControlPlane {
 				accounting.addSuccesful(rsvpConfirm);
 				//See if it is a successful re-routing of a failed LSP
 				if (rsvpConfirm.inRestoration()) {
-					restoredLSP.put(rsvpConfirm.getFlowLabel(),connectionEst);
+					restoration.restore(rsvpConfirm.getFlowId(),connectionEst,event.getTimeStamp(),event.getTimeStamp() + duration);
 				}
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
-				return new Event((event.getTimeStamp() + duration),Event.Type.LIGHTPATH_TEARDOWN,connectionEst);
+				return Event.obtain((event.getTimeStamp() + duration),Event.Type.LIGHTPATH_TEARDOWN,connectionEst);
 			case LIGHTPATH_PROBLEM:
 				CrankRSVP rsvpErr = (CrankRSVP) event.getContent();
 				LightpathRequest lRequest;
 				//Get the error status
 				Error error = rsvpErr.getError();
 				//Get the label
-				int label = Integer.parseInt(rsvpErr.getFlowLabel());
+				long label = rsvpErr.getFlowId();
 				CrankRSVP rsvpRetry = null; //new Rsvp message
 				Error.Code errorCode = error.getErrorCode(); 
 				//Allocation of wavelength contention problem
@@ -217,7 +233,7 @@ public class CrankControlPlane extends ControlPlane {
 					lRequest = (LightpathRequest) ((Connection)rsvpErr.getObject()).getRequest();
 					rsvpRetry = new CrankRSVP(lRequest,hopLimit,label);
 					//System.out.println("Contention: "+lRequest.toString());
-					if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+					if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 						rsvpRetry.setRestoration(); //set the flag for restoration
 						//System.out.println(event.toString());
 					}
@@ -236,7 +252,7 @@ public class CrankControlPlane extends ControlPlane {
 					//Set the label indicating to tackle the failure
 					rsvpRetry.setRestoration();
 					//Adds the connection to the list of disrupted LSP 
-					disruptedLSP.put(rsvpErr.getFlowLabel(),lRequest);
+					restoration.disrupt(rsvpErr.getFlowId(),lRequest,event.getTimeStamp(),event.getInitialTimeStamp() + residualDuration);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				//Wavelength continuity constraint violated or no link available, use alternate path	
 				} else if((errorCode.equals(Error.Code.RP_LABEL_SET)) || (errorCode.equals(Error.Code.RP_NO_ROUTE_AVAILABLE))) {
@@ -244,33 +260,36 @@ public class CrankControlPlane extends ControlPlane {
 					lRequest.addTry(); //add a try to the counter of tries					
 					if (lRequest.tryAgain()) { //resend the request
 						rsvpRetry = new CrankRSVP(lRequest,hopLimit,label);
-						if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+						if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 							rsvpRetry.setRestoration(); //set the flag of restoration
 							//System.out.println(event.toString());
 						}
 					} else { 
 						//Accounts the failed lightpath request
 						accounting.addFailed(rsvpErr);
-						//if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) 
+						if (rsvpErr.inRestoration())
+							restoration.fail(rsvpErr.getFlowId(),event.getTimeStamp());
+						//if (restoration.isDisrupted(rsvpErr.getFlowId())) 
 							//System.out.println("Failed:"+event.toString());
 					}					
 				} else if(errorCode.equals(Error.Code.RP_REROUTING_LIMIT_EXCEEDED)){
 					//Accounts the failed lightpath request
-					accounting.addFailed(rsvpErr);					
+					accounting.addFailed(rsvpErr);
+					if (rsvpErr.inRestoration())
+						restoration.fail(rsvpErr.getFlowId(),event.getTimeStamp());
 				}
 				//Now, return the result.
 				if (rsvpRetry != null)
-					return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry);
+					return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry);
 				else 
 					return null;
 			case LIGHTPATH_TEARDOWN: //Remove connection
 				Connection connectionTear = (Connection) event.getContent();
-				String flowLabel = connectionTear.getID();
-				if ((disruptedLSP.get(flowLabel) == null) || ((restoredLSP.get(flowLabel) != null) && (restoredLSP.get(flowLabel).getPath().equals(connectionTear.getPath()) ) )) {
+				if (restoration.teardown(connectionTear,event.getTimeStamp())) {
 					//Send RSVP PathTear message
 					CrankRSVP rsvpTear = new CrankRSVP(connectionTear,Packet.Header.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getTarget());
 					//System.out.println(rsvpTear.toString());
-					return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpTear);
+					return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpTear);
 				} else { //Ignore the teardown associated to a failed LSP, since it is already cleaned and rerouted.
 					return null;
 				}
@@ -292,17 +311,22 @@ public class CrankControlPlane extends ControlPlane {
 					else 
 						return response;
 				} else { //Failed node
-					accounting.addFailed(packet);					
+					accounting.addFailed(packet);
+					if ((packet instanceof CrankRSVP) && ((CrankRSVP) packet).inRestoration())
+						restoration.fail(packet.getFlowId(),event.getTimeStamp());
 					return null;					
 				}
 			case FAILURE_LINK:  //For link failure
 				//Get the edge associated with the failure
 				String sEdge = (String) event.getContent();
 				Edge edge = links.get(sEdge).getEdge();
+				IncrementalPaths linkRepair = this.getPathRepair();
 				//Remove the failure edge from the graph
 				try { //Do it only if it is not a node failure
 					if (nodes.containsKey(edge.getSource()) && nodes.containsKey(edge.getDestination())) {
 						graph.removeEdge(edge.getSource(),edge.getDestination());
+						//Mark the affected paths, which are recalculated when the set of paths is read
+						linkRepair.removeEdge(edge.getSource(),edge.getDestination());
 					}
 				} catch(Exception e) {e.printStackTrace();}	
 				//detect and remove "orphan" nodes, i.e., disconnected ones.
@@ -313,28 +337,19 @@ public class CrankControlPlane extends ControlPlane {
 						try {
 							//System.out.println("Removing node: "+node);
 							graph.removeNode(node);
+							linkRepair.removeNode(node);
 							//Remove the node from the list of nodes 
 							nodes.remove(node);
 						} catch (Exception e) {e.printStackTrace();}
 					}
 				}
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,alternative);
 				//Notifies the end nodes of the failure after the localization time
 				double timeNotification = lastTime + this.faultLocalizationTime;
 				int lengthFailure = 2 * this.identificationLength;
-				//Creates the packets of notification
-				Packet failureTo = new Packet(Packet.Header.LINK_FAILURE,edge.getDestination(),edge.getDestination(),Packet.Priority.HIGH,lengthFailure,graph.size());
-				Packet failureFrom = new Packet(Packet.Header.LINK_FAILURE,edge.getSource(),edge.getSource(),Packet.Priority.HIGH,lengthFailure,graph.size());
-				//Adds the edge to the packets.
-				Failure failureLinkAdv = new Failure(edge); 
-				failureTo.setPayload(failureLinkAdv); 
-				failureFrom.setPayload(failureLinkAdv);
-				//Add to the vector of events
-				Vector<Event> failuresLink = new Vector<Event>();
-				failuresLink.add(new Event(timeNotification,Event.Type.PACKET_ARRIVAL,failureFrom));
-				failuresLink.add(new Event(timeNotification,Event.Type.PACKET_ARRIVAL,failureTo));				
-				return new Event(timeNotification,Event.Type.MULTIPLE,failuresLink);
+				//Coalesces the failures of the same instant in a single flooding
+				if ((flooding == null) || !flooding.accepts(timeNotification))
+					flooding = new FailureFlooding(nodes,timeNotification);
+				return flooding.add(new Failure(edge),lengthFailure,graph.size());
 			case FAILURE_NODE: //For node failure
 				//Get the node associated with the failure
 				id = (String)event.getContent();
@@ -343,20 +358,21 @@ public class CrankControlPlane extends ControlPlane {
 				Vector<String> neighbors = graph.adjacentNodes(id);
 				for (String neighId:neighbors) {
 					//Add the edge "from" the removed node
-					failuresNode.add(new Event(lastTime,Event.Type.FAILURE_LINK,new String(id+"-"+neighId)));
+					failuresNode.add(Event.obtain(lastTime,Event.Type.FAILURE_LINK,new String(id+"-"+neighId)));
 					//Add the edge "to" the removed node
-					failuresNode.add(new Event(lastTime,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
+					failuresNode.add(Event.obtain(lastTime,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
 				}
+				IncrementalPaths nodeRepair = this.getPathRepair();
 				//Remove the failure node from the graph
 				try {					
 					graph.removeNode(id);
+					//Mark the affected paths, which are recalculated when the set of paths is read
+					nodeRepair.removeNode(id);
 				} catch(Exception e) {e.printStackTrace();}				
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,alternative);
 				//Remove the node from the list of nodes 
 				nodes.remove(id);
 				//Return the response containing the failure of the multiple links
-				return new Event(lastTime,Event.Type.MULTIPLE,failuresNode);
+				return Event.obtain(lastTime,Event.Type.MULTIPLE,failuresNode);
 			default: System.err.println("Unknown event: "+event.toString());
 				return null;
 		}
@@ -367,7 +383,7 @@ public class CrankControlPlane extends ControlPlane {
 	 */
 	public void updateValues() {
 		System.out.println("LastTime: "+lastTime);
-		System.out.println("Rerouted: "+restoredLSP.toString());
+		System.out.println("Restoration: "+restoration.toString());
 	}
 	
 	/**
@@ -394,22 +410,7 @@ public class CrankControlPlane extends ControlPlane {
 	 * @return The alternatives paths for each pair source-destination of the topology.
 	 */
 	public LinkedHashMap<String,Vector<Path>> getPaths(Graph topology, int alternative) {
-		LinkedHashMap<String,Vector<Path>> routes = new LinkedHashMap<String,Vector<Path>>();
-		YEN yen = new YEN();
-		for(String src: topology.nodes()) {
-		//	System.out.println("Paths para n: " + src);
-			for (String tgt: topology.nodes()) {
-				if (!src.equals(tgt)) { //Assure different nodes in the pair
-					Vector<Path> paths = null;;
-					try { 
-						paths = yen.getShortestPaths(src,tgt,topology,alternative);
-					} catch (Exception e) {e.printStackTrace();}
-					routes.put(src+"-"+tgt,paths);
-				}
-			}
-		}
-		//System.out.println(routes.toString());
-		return routes;
+		return allPairsPaths.getPaths(topology,alternative);
 	}
 	
 	/**
@@ -417,7 +418,20 @@ public class CrankControlPlane extends ControlPlane {
 	 * @return The set of shortest paths of the actual topology.
 	 */
 	public static LinkedHashMap<String,Vector<Path>> getPaths() {
+		if (pathRepair != null)
+			setPaths = pathRepair.getPaths();
 		return setPaths;
 	}
+	
+	/**
+	 * Returns the repair of the shortest paths, creating it if the routing tables have been
+	 * read from a file. It must be called before the topology is changed by a failure.
+	 * @return The repair of the shortest paths.
+	 */
+	protected IncrementalPaths getPathRepair() {
+		if (pathRepair == null)
+			pathRepair = new IncrementalPaths(graph,this.getPaths(graph,alternative),alternative);
+		return pathRepair;
+	}
 
 }
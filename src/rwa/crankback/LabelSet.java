@@ -4,23 +4,32 @@
 package rwa.crankback;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 import java.util.Vector;
 
 import rwa.WavelengthMask;
 
 /**
  * This class represents a Label Set (Inclusive) object.
+ * The membership of the labels is kept in a bitset of 64-bit words, which is
+ * intersected with the wavelength masks a word at a time, and the labels are
+ * also kept in an array in their order of preference (e.g., LU or MU).
  * 
  * @author Gustavo S. Pavani
- * @version 1.0
+ * @version 1.1
  *
  */
 public class LabelSet implements Serializable {
 	/** Serial UID for serialization. */
 	private static final long serialVersionUID = 1L;
 
-	/** The set of available wavelengths. */
-	protected Vector<Integer> set;
+	/** The membership bitset of the available wavelengths. */
+	protected long[] bits;
+	/** The available wavelengths, in their order of preference. */
+	protected int[] labels;
+	/** The number of available wavelengths. */
+	protected int size;
 	
 	/**
 	 * For cloning purposes.
@@ -33,27 +42,37 @@ public class LabelSet implements Serializable {
 	 * @param wavelength The number of available wavelengths.
 	 */
 	public LabelSet(int wavelength) {
-		set = new Vector<Integer>();
+		bits = new long[WavelengthMask.words(wavelength)];
+		labels = new int[wavelength];
 		for(int i=0; i< wavelength; i++)
-			set.add(i);
+			this.addLabel(i);
 	}
 	
 	/**
 	 * Creates a new LabelSet object. This constructor is suited for LU and MU operations.
-	 * @param wavelength The number of available wavelengths.
+	 * @param labels The available wavelengths, in their order of preference.
 	 */
 	public LabelSet(int[] labels) {
-		set = new Vector<Integer>();
+		bits = new long[1];
+		this.labels = new int[labels.length];
 		for(int i=0; i< labels.length; i++)
-			set.add(labels[i]);
+			this.addLabel(labels[i]);
 	}
 	
 	/**
-	 * Add a label to the end of the Label Set object.
+	 * Add a label to the end of the Label Set object, if it is not already in it.
 	 * @param label The label to be added.
 	 */
 	public void addLabel(int label) {
-		set.add(label);
+		if (this.contains(label))
+			return;
+		int index = label >>> 6;
+		if (index >= bits.length)
+			bits = Arrays.copyOf(bits, Math.max(index + 1, 2 * bits.length));
+		bits[index] |= (1L << label);
+		if (size == labels.length)
+			labels = Arrays.copyOf(labels, Math.max(size + 1, 2 * size));
+		labels[size++] = label;
 	}
 	
 	/**
@@ -61,8 +80,24 @@ public class LabelSet implements Serializable {
 	 * @param label The label to be removed.
 	 */
 	public void removeLabel(int label) {
-		int index = set.indexOf(label);
-		set.remove(index);
+		if (!this.contains(label))
+			return;
+		bits[label >>> 6] &= ~(1L << label);
+		int index = 0;
+		while (labels[index] != label)
+			index++;
+		System.arraycopy(labels, index + 1, labels, index, size - index - 1);
+		size--;
+	}
+	
+	/**
+	 * Verifies if the specified label is in the Label Set object.
+	 * @param label The label.
+	 * @return True, if the label is in the Label Set object. False, otherwise.
+	 */
+	public boolean contains(int label) {
+		int index = label >>> 6;
+		return (label >= 0) && (index < bits.length) && ((bits[index] & (1L << label)) != 0);
 	}
 	
 	/**
@@ -70,16 +105,20 @@ public class LabelSet implements Serializable {
 	 * @param mask The wavelength mask.
 	 */
 	public void inclusive(WavelengthMask mask) {
-		Vector<Integer> remove = new Vector<Integer>(); 
-		for(int label:set) { //for all labels in the label set
-			if (!mask.testWavelength(label)) { //label not available
-				remove.add(label);
-			}
-		}
-		//System.out.println(remove.toString());
-		for(int rem:remove) { //remove the labels not available
-			this.removeLabel(rem);
+		long[] words = mask.getWords();
+		int len = Math.min(bits.length, words.length);
+		for (int i=0; i < len; i++) //word-parallel intersection
+			bits[i] = bits[i] & words[i];
+		for (int i=len; i < bits.length; i++)
+			bits[i] = 0L;
+		//Compact the labels that remain available, keeping their order
+		int count = 0;
+		for (int i=0; i < size; i++) {
+			int label = labels[i];
+			if ((bits[label >>> 6] & (1L << label)) != 0)
+				labels[count++] = label;
 		}
+		size = count;
 	}
 	
 	/**
@@ -87,15 +126,41 @@ public class LabelSet implements Serializable {
 	 * @return A Vector of the labels of this Label Set object.
 	 */
 	public Vector<Integer> getLabels() {
+		Vector<Integer> set = new Vector<Integer>(size);
+		for (int i=0; i < size; i++)
+			set.add(labels[i]);
 		return set;
 	}
 	
+	/**
+	 * Returns the membership words of this Label Set object. The bit i is set if the
+	 * label i is in the Label Set object. The returned array must not be changed.
+	 * @return The membership words of this Label Set object.
+	 */
+	public long[] getWords() {
+		return bits;
+	}
+	
+	/**
+	 * Returns the label at the specified position of the order of preference.
+	 * @param i The position of the label, from 0 to size()-1.
+	 * @return The label at the specified position.
+	 */
+	public int getLabel(int i) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		return labels[i];
+	}
+	
 	/**
 	 * Returns the first label of this Label Set object.
 	 * @return The first label of this Label Set object.
+	 * @throws NoSuchElementException If the Label Set object is empty.
 	 */
 	public int getFirstLabel() {
-		return set.firstElement();
+		if (size == 0)
+			throw new NoSuchElementException();
+		return labels[0];
 	}
 	
 	/**
@@ -103,7 +168,7 @@ public class LabelSet implements Serializable {
 	 * @return The number of labels in the Label Set object.
 	 */
 	public int size() {
-		return set.size();
+		return size;
 	}
 	
 	/**
@@ -111,16 +176,23 @@ public class LabelSet implements Serializable {
 	 * @return A String representation of this object.
 	 */
 	public String toString() {
-		return set.toString();
+		StringBuilder builder = new StringBuilder("[");
+		for (int i=0; i < size; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(labels[i]);
+		}
+		return builder.append("]").toString();
 	}
 
 	/**
 	 * Returns a cloned object.
 	 */
-	@SuppressWarnings("unchecked")
 	public Object clone() {
 		LabelSet clone = new LabelSet();
-		clone.set = (Vector<Integer>)this.set.clone();
+		clone.bits = this.bits.clone();
+		clone.labels = this.labels.clone();
+		clone.size = this.size;
 		return clone;
 	}
 }
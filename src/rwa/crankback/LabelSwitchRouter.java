@@ -7,7 +7,6 @@ import event.Event;
 import graph.Edge;
 import graph.Graph;
 
-import java.util.Hashtable;
 import java.util.LinkedHashMap;
 import java.util.Vector;
 
@@ -19,10 +18,13 @@ import main.Failure.Location;
 import rwa.Connection;
 import rwa.Error;
 import rwa.ExplicitRoutingTable;
+import rwa.FailureNotification;
 import rwa.LightpathRequest;
 import rwa.LinkState;
 import rwa.OpticalNode;
+import rwa.SpectrumAssignment;
 import rwa.WavelengthMask;
+import util.LongHashMap;
 
 /**
  * 
@@ -66,9 +68,11 @@ public class LabelSwitchRouter extends OpticalNode {
 	/** The chosen wavelength assignment algorithm. */
 	protected WavelengthAssignment wa;
 	/** The table for temporarily storing Label Set objects. */
-	protected Hashtable<String, LabelSet> labelSetTable;
+	protected LongHashMap<LabelSet> labelSetTable;
 	/** The history table serving as tabu in segment re-routing. */
-	protected Hashtable<String, Vector<String>> historyTable;
+	protected LongHashMap<Vector<String>> historyTable;
+	/** The contiguous spectrum assignment of flex-grid links, or null for the wavelength assignment. */
+	protected SpectrumAssignment spectrum;
 
 	/**
 	 * Creates a new LabelSwitchRouter object.
@@ -101,43 +105,78 @@ public class LabelSwitchRouter extends OpticalNode {
 		this.maxReroutingAttempts = maxAttempts;
 		this.reroutingAttempts = attempts;
 		if (this.rerouting.equals(ReRouting.SEGMENT)) {
-			labelSetTable = new Hashtable<String, LabelSet>();
-			historyTable = new Hashtable<String, Vector<String>>();
+			labelSetTable = new LongHashMap<LabelSet>();
+			historyTable = new LongHashMap<Vector<String>>();
 		}
 		//GATO remover as duas linhas abaixo 
-		labelSetTable = new Hashtable<String, LabelSet>();
-		historyTable = new Hashtable<String, Vector<String>>();
+		labelSetTable = new LongHashMap<LabelSet>();
+		historyTable = new LongHashMap<Vector<String>>();
 	}
 
 	/**
-	 * Associates the neighbor id of a failed routed node to a flow label.
+	 * Sets the contiguous spectrum assignment of the flex-grid links. When it is set,
+	 * the positions of the label sets are spectrum slots and the connections occupy
+	 * blocks of contiguous slots chosen by its policy, instead of a single wavelength.
 	 * 
-	 * @param label
-	 *            The label of the RSVP message.
+	 * @param aSpectrum
+	 *            The spectrum assignment, or null for the wavelength assignment.
+	 */
+	public void setSpectrumAssignment(SpectrumAssignment aSpectrum) {
+		this.spectrum = aSpectrum;
+	}
+
+	/**
+	 * Chooses the label (first slot of the block, in flex-grid links) of a
+	 * connection from the label set accumulated along its path.
+	 * 
+	 * @param labelSet
+	 *            The non-empty label set.
+	 * @return The chosen label, or -1 if there is no free block of slots.
+	 */
+	protected int assignLabel(LabelSet labelSet) {
+		if (spectrum == null)
+			return labelSet.getFirstLabel();
+		return spectrum.select(labelSet.getWords());
+	}
+
+	/**
+	 * Returns the number of contiguous wavelengths (spectrum slots) of each connection.
+	 * 
+	 * @return The number of contiguous wavelengths of each connection.
+	 */
+	protected int getSlots() {
+		return (spectrum == null) ? 1 : spectrum.getSlots();
+	}
+
+	/**
+	 * Associates the neighbor id of a failed routed node to a flow.
+	 * 
+	 * @param flow
+	 *            The flow id of the RSVP message.
 	 * @param neigh
 	 *            The id of the visited neighbor.
 	 */
-	protected void putHistoryTable(String label, String neigh) {
-		Vector<String> history = historyTable.get(label);
+	protected void putHistoryTable(long flow, String neigh) {
+		Vector<String> history = historyTable.get(flow);
 		if (history == null) // no neighbor id in the list
 			history = new Vector<String>();
 		// Add the neighbor id to the list
 		if (!history.contains(neigh)) // no repeated elements
 			history.add(neigh);
-		this.historyTable.put(label, history);
+		this.historyTable.put(flow, history);
 	}
 
 	/**
 	 * Gets the number of already visited neighbor nodes by the RSVP Path
 	 * message.
 	 * 
-	 * @param label
-	 *            The label of the RSVP message.
+	 * @param flow
+	 *            The flow id of the RSVP message.
 	 * @return The number of already visited neighbor nodes by the RSVP Path
 	 *         message.
 	 */
-	protected int sizeHistoryTable(String label) {
-		Vector<String> history = historyTable.get(label);
+	protected int sizeHistoryTable(long flow) {
+		Vector<String> history = historyTable.get(flow);
 		if (history == null) // no neighbor id in the list
 			return 0;
 		else
@@ -148,18 +187,18 @@ public class LabelSwitchRouter extends OpticalNode {
 	/**
 	 * Gets the
 	 * 
-	 * @param label
+	 * @param flow
 	 * @return
 	 */
-	protected Vector<String> getHistoryTable(String label) {
-		Vector<String> history = historyTable.get(label);
+	protected Vector<String> getHistoryTable(long flow) {
+		Vector<String> history = historyTable.get(flow);
 		//System.out.println(historyTable.toString());
 		if (history == null) // no neighbor id in the list
 		{
 			//System.out.println("EH NULL");
 			return new Vector<String>();
 		} else
-			return historyTable.get(label);
+			return historyTable.get(flow);
 	}
 
 	/**
@@ -191,10 +230,11 @@ public class LabelSwitchRouter extends OpticalNode {
 			LightpathRequest request = (LightpathRequest) rsvp.getObject();
 			// Get the label set object
 			LabelSet labelSet = rsvp.getLabelSet();
-			if ((labelSet != null) && (labelSet.size() == 0)) { // There is no
+			if ((labelSet != null) && ((labelSet.size() == 0) // There is no
 																// free
 																// wavelengths
 																// to allocate
+					|| (target.equals(id) && (this.assignLabel(labelSet) == -1)))) {
 				// wavelength continuity constraint violated
 				rsvp.setNextHeader(Packet.Header.RSVP_PATH_ERR); // change
 																	// header to
@@ -213,11 +253,12 @@ public class LabelSwitchRouter extends OpticalNode {
 				rsvp.setNextHeader(Packet.Header.RSVP_RESV);
 				// Reset the SD pair to the new values
 				rsvp.setSDPair(target, request.getSource());
-				// Choose the first free wavelength
-				int lambda = labelSet.getFirstLabel();
+				// Choose the first free wavelength (or block of slots)
+				int lambda = this.assignLabel(labelSet);
 				// Create a connection and add it as a object.
 				Connection connectionEst = new Connection(rsvp.getPath(),
 						lambda, rsvp.getFlowLabel(), request);
+				connectionEst.setSlots(this.getSlots());
 				// Set the start time of the connection, which starts after
 				// arriving at the source node.
 				// Because of that, it uses the round trip time as the time to
@@ -238,7 +279,7 @@ public class LabelSwitchRouter extends OpticalNode {
 				if (this.rerouting.equals(ReRouting.SEGMENT)) { // Intermediate
 																// node
 																// re-routing
-					int routingTry = this.sizeHistoryTable(rsvp.getFlowLabel());
+					int routingTry = this.sizeHistoryTable(rsvp.getFlowId());
 					nextHop = ((ExplicitRoutingTable) routingTable).nextHop(
 							rsvp, routingTry);
 				} else { // None or end-to-end routing
@@ -270,7 +311,7 @@ public class LabelSwitchRouter extends OpticalNode {
 					// Store the label set, if applicable
 					if ((labelSet != null)
 							&& (this.rerouting.equals(ReRouting.SEGMENT)))
-						labelSetTable.put(rsvp.getFlowLabel(),
+						labelSetTable.put(rsvp.getFlowId(),
 								(LabelSet) labelSet.clone());
 					// Updates the mask
 					if (labelSet == null)
@@ -308,8 +349,8 @@ public class LabelSwitchRouter extends OpticalNode {
 				// Clean the temporary label set and the history table, if
 				// applicable
 				if (this.rerouting.equals(ReRouting.SEGMENT)) {
-					labelSetTable.remove(rsvp.getFlowLabel());
-					historyTable.remove(rsvp.getFlowLabel());
+					labelSetTable.remove(rsvp.getFlowId());
+					historyTable.remove(rsvp.getFlowId());
 				}
 				// Gets the connection
 				Connection teared = (Connection) rsvp.getObject();
@@ -320,7 +361,7 @@ public class LabelSwitchRouter extends OpticalNode {
 					// Get the associated mask
 					WavelengthMask linkMaskTear = link.getMask();
 					// Clear the wavelength
-					linkMaskTear.clearWavelength(teared.getWavelength());
+					linkMaskTear.clearWavelengths(teared.getWavelength(), teared.getSlots());
 				} else {
 					System.out.print(event.toString());
 				}
@@ -351,7 +392,7 @@ public class LabelSwitchRouter extends OpticalNode {
 					// Get the associated mask
 					WavelengthMask linkMaskRem = link.getMask();
 					// Clear the wavelength
-					linkMaskRem.clearWavelength(removed_perr.getWavelength());
+					linkMaskRem.clearWavelengths(removed_perr.getWavelength(), removed_perr.getSlots());
 				}
 			}
 			// Gets the target node
@@ -376,7 +417,7 @@ public class LabelSwitchRouter extends OpticalNode {
 			case ADMISSION_CONTROL_FAILURE:
 				if (this.rerouting.equals(ReRouting.SEGMENT)) {
 					// Remove the connection from the history table
-					this.historyTable.remove(rsvp.getFlowLabel());
+					this.historyTable.remove(rsvp.getFlowId());
 				}
 				if (target.equals(id)) { // RSVP reached the target node
 					event.setType(Event.Type.LIGHTPATH_PROBLEM);
@@ -396,14 +437,14 @@ public class LabelSwitchRouter extends OpticalNode {
 					// Remove the last visited node from the record route
 					String last = rsvp.removeLastVisited();
 					// Put it in the history table
-					String label = rsvp.getFlowLabel();
-					this.putHistoryTable(label, last);
+					long flow = rsvp.getFlowId();
+					this.putHistoryTable(flow, last);
 					// System.out.println("ProcLA: "+id+" last: "+last);
 					// Gets the request and update the try counter
 					lRequest = (LightpathRequest) rsvp.getObject();
 					lRequest.addTry();
 					// Verify if we can make another re-routing attempt
-					int currentAttempt = this.sizeHistoryTable(label);
+					int currentAttempt = this.sizeHistoryTable(flow);
 					// Gets the number of available neighbors
 					int neighbors;
 					if (id.equals(lRequest.getSource()))
@@ -423,7 +464,7 @@ public class LabelSwitchRouter extends OpticalNode {
 						// Set as path message
 						rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 						// Sets the previous label set
-						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 						// Set the record route in the RSVP
 						rsvp.setRecordRoute();
 						// Reset the error
@@ -449,7 +490,7 @@ public class LabelSwitchRouter extends OpticalNode {
 							event.setTimeStamp(event.getTimeStamp()
 									+ links.get(nextHop).getDelay());
 							// Remove the entry in the history table
-							this.historyTable.remove(rsvp.getFlowLabel());
+							this.historyTable.remove(rsvp.getFlowId());
 						}
 					}
 				} else { // None or end-to-end routing
@@ -478,14 +519,14 @@ public class LabelSwitchRouter extends OpticalNode {
 						rsvp.getPath().addNode(last);
 					}
 					// Put it in the history table
-					this.putHistoryTable(rsvp.getFlowLabel(), last);
+					this.putHistoryTable(rsvp.getFlowId(), last);
 					// System.out.println("ProcRT: "+id+" last: "+last);
 					// Gets the request and update the try counter
 					lRequest = (LightpathRequest) rsvp.getObject();
 					lRequest.addTry();
 					// Verify if we can make another re-routing attempt
 					int currentAttempt = this.sizeHistoryTable(rsvp
-							.getFlowLabel());
+							.getFlowId());
 					// System.out.println("Cur: "+currentAttempt+" max: "+this.reroutingAttempts);
 					// Gets the number of available neighbors
 					int neighbors;
@@ -502,7 +543,7 @@ public class LabelSwitchRouter extends OpticalNode {
 						// Set as path message
 						rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 						// Sets the previous label set
-						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 						// Set the record route in the RSVP
 						rsvp.setRecordRoute();
 						// Reset the error
@@ -528,7 +569,7 @@ public class LabelSwitchRouter extends OpticalNode {
 							event.setTimeStamp(event.getTimeStamp()
 									+ links.get(nextHop).getDelay());
 							// Remove the entry in the history table
-							this.historyTable.remove(rsvp.getFlowLabel());
+							this.historyTable.remove(rsvp.getFlowId());
 						}
 					}
 				} else { // None or end-to-end routing
@@ -549,13 +590,13 @@ public class LabelSwitchRouter extends OpticalNode {
 				// Remove the last visited node from the record route
 				String last = rsvp.removeLastVisited();
 				// Put it in the history table
-				this.putHistoryTable(rsvp.getFlowLabel(), last);
+				this.putHistoryTable(rsvp.getFlowId(), last);
 				// System.out.println("ProcRE: "+id+" last: "+last);
 				// Gets the request and update the try counter
 				lRequest = (LightpathRequest) rsvp.getObject();
 				lRequest.addTry();
 				// Verify if we can make another re-routing attempt
-				int currentAttempt = this.sizeHistoryTable(rsvp.getFlowLabel());
+				int currentAttempt = this.sizeHistoryTable(rsvp.getFlowId());
 				// System.out.println("Cur: "+currentAttempt);
 				// Gets the number of available neighbors
 				int neighbors;
@@ -572,7 +613,7 @@ public class LabelSwitchRouter extends OpticalNode {
 					// Set as path message
 					rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 					// Sets the previous label set
-					rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+					rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 					// Set the record route in the RSVP
 					rsvp.setRecordRoute();
 					// Reset the error
@@ -595,7 +636,7 @@ public class LabelSwitchRouter extends OpticalNode {
 						event.setTimeStamp(event.getTimeStamp()
 								+ links.get(nextHop).getDelay());
 						// Remove the entry in the history table
-						this.historyTable.remove(rsvp.getFlowLabel());
+						this.historyTable.remove(rsvp.getFlowId());
 					}
 				}
 				break;
@@ -615,14 +656,14 @@ public class LabelSwitchRouter extends OpticalNode {
 			// Get the associated mask
 			WavelengthMask linkMask = links.get(fwdId).getMask();
 			// See the status of the wavelength
-			if (linkMask.testWavelength(connection.getWavelength())) {
+			if (linkMask.testWavelengths(connection.getWavelength(), connection.getSlots())) {
 				// System.out.println("Adding conn: "+rsvp.getFlowLabel()+" with: "+connection.toString()+" to intermediate node: "+id);
 				activeConnections.put(rsvp.getFlowLabel(), connection);
 				// Set the wavelength
-				linkMask.setWavelength(connection.getWavelength());
+				linkMask.setWavelengths(connection.getWavelength(), connection.getSlots());
 				if (this.rerouting.equals(ReRouting.SEGMENT)) {
 					// Remove the connection from the history table
-					this.historyTable.remove(rsvp.getFlowLabel());
+					this.historyTable.remove(rsvp.getFlowId());
 				}
 				// Verify if the resv message reached the source node.
 				target = rsvp.getTarget();
@@ -675,8 +716,8 @@ public class LabelSwitchRouter extends OpticalNode {
 			// Get the associated mask
 			WavelengthMask linkMaskTear = links.get(forwardId).getMask();
 			// Clear the wavelength
-			int clear = ((Connection) rsvp.getObject()).getWavelength();
-			linkMaskTear.clearWavelength(clear);
+			Connection cleared = (Connection) rsvp.getObject();
+			linkMaskTear.clearWavelengths(cleared.getWavelength(), cleared.getSlots());
 			// Verify if the RSVP reached the source node.
 			if (rsvp.getSource().equals(id)) {
 				event.setType(Event.Type.LIGHTPATH_REMOVED);
@@ -704,7 +745,7 @@ public class LabelSwitchRouter extends OpticalNode {
 				// Get the associated mask
 				WavelengthMask linkMaskErr = links.get(nextHop).getMask();
 				// Clear the wavelength
-				linkMaskErr.clearWavelength(removed_rerr.getWavelength());
+				linkMaskErr.clearWavelengths(removed_rerr.getWavelength(), removed_rerr.getSlots());
 				// Set the next hop in the packet
 				rsvp.setNode(nextHop);
 				// Set the new time of the event due to transmission time
@@ -715,122 +756,100 @@ public class LabelSwitchRouter extends OpticalNode {
 			break;
 		case LINK_FAILURE: // Packet associated with control plane (separated
 							// channel)
-			// Identify the failure
-			Failure failure = (Failure) packet.getPayload();
-			// Flooding of the failure
-			if (!failureID.contains(failure.getID())) { // First time
-				// Mock local update of the topology
-				((ExplicitRoutingTable) routingTable).updateFromTopology(graph,
-						CrankControlPlane.getPaths());
-				// Broadcast the failure to the neighbors
-				String previousHop = packet.getSource();
-				Vector<String> neighbors = graph.adjacentNodes(id);
-				Vector<Event> broadcast = new Vector<Event>();
-				// Adds the flooding information
-				for (String neighId : neighbors) {
-					if (!neighId.equals(previousHop)) { // not visited
-						// Retransmit the packet
-						Packet clonedFrom = (Packet) packet.clone();
-						clonedFrom.retransmit(id, neighId);
-						clonedFrom.setNode(neighId);
-						// Set new time stamp
-						double transmissionTime = this.links.get(neighId)
-								.getDelay();
-						double newTimeStamp = event.getTimeStamp()
-								+ transmissionTime;
-						// Add to the list of broadcast
-						broadcast.add(new Event(newTimeStamp,
-								Event.Type.PACKET_ARRIVAL, clonedFrom));
+			// Identify the failures notified in the same instant
+			FailureNotification notification = (FailureNotification) packet.getPayload();
+			// Forward the notification to the neighbors reached first through this node
+			Vector<Event> broadcast = notification.forward(this, event);
+			for (Failure failure : notification.getFailures()) {
+				// Treatment of the failure
+				if (!failureID.contains(failure.getID())) { // First time
+					// Mock local update of the topology
+					((ExplicitRoutingTable) routingTable).updateFromTopology(graph,
+							CrankControlPlane.getPaths());
+					// Add the failure to the list of processed ones.
+					failureID.add(failure.getID());
+					/* Remove the link states affected by the failure. */
+					if (((Edge) failure.getInformation()).getSource().equals(id)) {
+						links.remove(((Edge) failure.getInformation())
+								.getDestination());
 					}
-				}
-				// Add the failure to the list of processed ones.
-				failureID.add(failure.getID());
-				/* Remove the link states affected by the failure. */
-				if (((Edge) failure.getInformation()).getSource().equals(id)) {
-					links.remove(((Edge) failure.getInformation())
-							.getDestination());
-				}
-				/* Treatment the failure by the neighbor nodes */
-				// Now, if it is the closest node upstream to the failure
-				if (id.equals(((Edge) failure.getInformation()).getSource())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathErr = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_ERR, id,
-									active.getSource());
-							// Create the error with path remove flag
-							error = new Error(Error.Code.LSP_FAILURE, true);
-							pathErr.setError(error);
-							pathErr.setFlowLabel(activeID);
-							// System.out.println(pathErr.toString());
-							double transmissionTime = 0;
-							// Not the source node to treat the failure
-							if (!id.equals(active.getPath().firstNode())) {
-								nextHop = active.getPath().getPreviousNode(id);
-								pathErr.setNode(nextHop);
-								// Set new time stamp
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+					/* Treatment the failure by the neighbor nodes */
+					// Now, if it is the closest node upstream to the failure
+					if (id.equals(((Edge) failure.getInformation()).getSource())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathErr = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_ERR, id,
+										active.getSource());
+								// Create the error with path remove flag
+								error = new Error(Error.Code.LSP_FAILURE, true);
+								pathErr.setError(error);
+								pathErr.setFlowLabel(activeID);
+								// System.out.println(pathErr.toString());
+								double transmissionTime = 0;
+								// Not the source node to treat the failure
+								if (!id.equals(active.getPath().firstNode())) {
+									nextHop = active.getPath().getPreviousNode(id);
+									pathErr.setNode(nextHop);
+									// Set new time stamp
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathErr));
 							}
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathErr));
 						}
-					}
-					// Now, if it is the closest node downstream to the failure
-				} else if (id.equals(((Edge) failure.getInformation())
-						.getDestination())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathTear = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_TEAR, id,
-									active.getTarget());
-							// Create the error
-							error = new Error(Error.Code.LSP_FAILURE);
-							pathTear.setError(error);
-							pathTear.setFlowLabel(activeID);
-							// System.out.println(pathTear.toString());
-							// Not the target node to treat the failure
-							double transmissionTime = 0;
-							// Not the last node to tackle the failure
-							if (!id.equals(active.getPath().lastNode())) {
-								nextHop = active.getPath().getNextNode(id);
-								pathTear.setNode(nextHop);
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+						// Now, if it is the closest node downstream to the failure
+					} else if (id.equals(((Edge) failure.getInformation())
+							.getDestination())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathTear = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_TEAR, id,
+										active.getTarget());
+								// Create the error
+								error = new Error(Error.Code.LSP_FAILURE);
+								pathTear.setError(error);
+								pathTear.setFlowLabel(activeID);
+								// System.out.println(pathTear.toString());
+								// Not the target node to treat the failure
+								double transmissionTime = 0;
+								// Not the last node to tackle the failure
+								if (!id.equals(active.getPath().lastNode())) {
+									nextHop = active.getPath().getNextNode(id);
+									pathTear.setNode(nextHop);
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								// Set new time stamp
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								// Add to the list of broadcast
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathTear));
 							}
-							// Set new time stamp
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							// Add to the list of broadcast
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathTear));
 						}
 					}
 				}
-				// System.out.println(broadcast.toString());
-				// Return the multiple packets associated with the failure
-				response = new Event(event.getTimeStamp(), Event.Type.MULTIPLE,
-						broadcast);
-			} else { // Already processed the failure.
-				event.setType(Event.Type.IGNORE);
-				response = event;
 			}
+			// Return the multiple packets associated with the failures
+			response = Event.obtain(event.getTimeStamp(), Event.Type.MULTIPLE, broadcast);
 			break;
 		}
 		return response;
@@ -1,13 +1,14 @@
 /*
  * Created on 14/02/2008.
  */
-package rwa.crankback.antnet;
+package rwa.crankback;
 
 import java.io.Serializable;
-import java.util.Arrays;
 
 /**
  * This class represents the collection of wavelength usage, given a destination.
+ * The sums of the usage over the window are kept up to date at each sample, so
+ * that they are read without going through the whole history table.
  *
  * @author Gustavo S. Pavani
  * @version 1.0
@@ -26,6 +27,8 @@ public class WavelengthUsage implements Serializable {
 	protected int wavelength;
 	/** The index of the sample inside the window. */
 	protected int sample = 0;
+	/** The sums of the wavelength usage over the window. */
+	protected long[] sums;
 	
 	/**
 	 * Creates a new WavelengthUsage object.
@@ -39,8 +42,10 @@ public class WavelengthUsage implements Serializable {
 		this.sliding = aSliding;
 		if (sliding) { //sliding
 			table = new long[window][wavelength];
+			sums = new long[wavelength];
 		} else { //non-sliding
 			table = new long[1][wavelength];
+			sums = table[0]; //The counters are the sums
 		}
 	}
 	
@@ -49,8 +54,9 @@ public class WavelengthUsage implements Serializable {
 	 * @param usage The wavelength usage.
 	 */
 	public void addUsage(int[] usage) {
-		if (sliding) {
+		if (sliding) { //Replace the oldest sample in the sums
 			for(int i=0; i < wavelength; i++) {
+				sums[i] = sums[i] - table[sample][i] + (long)usage[i];
 				table[sample][i] = (long)usage[i];
 			}
 		} else { //Non-sliding
@@ -70,24 +76,19 @@ public class WavelengthUsage implements Serializable {
 	
 	/**
 	 * Gets the wavelength usage history in the table.
+	 * The returned array is maintained by this object and must not be modified.
 	 * @return The wavelength usage history in the table.
 	 */
 	public long[] getUsage() {
-		//Allocate space
-		long[] usage = new long[wavelength];
-		Arrays.fill(usage,0L);
-		if (sliding) { //sliding
-			for(int i=0; i < wavelength; i++) {
-				for(int j=0; j < window; j++) {
-					usage[i] = usage[i] + table[j][i];
-				}
-			}
-		} else { //Non-sliding
-			for(int i=0; i < wavelength; i++) {
-				usage[i] = table[0][i];
-			}			
-		}
-		return usage;
+		return sums;
+	}
+	
+	/**
+	 * Returns the number of wavelengths.
+	 * @return The number of wavelengths.
+	 */
+	public int getWavelengths() {
+		return wavelength;
 	}
 	
 	/**
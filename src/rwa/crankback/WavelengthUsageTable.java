@@ -0,0 +1,233 @@
+/*
+ * Created on 14/02/2008.
+ */
+package rwa.crankback;
+
+import graph.Graph;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * This class represents the local statistics of the wavelength usage,
+ * concerning all destinations of an optical node.
+ * The total usage of all destinations is updated with the difference of each
+ * collected sample and the wavelengths ranked by it are refreshed only when they
+ * are read after an update. Since a sample changes the total of a single
+ * destination, the previous ranking is almost sorted and the refresh is an
+ * insertion sort of few moves.
+ *
+ * @author Gustavo S. Pavani
+ * @version 1.0
+ *
+ */
+public class WavelengthUsageTable implements Serializable {
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;	
+	/** Mapping between nodes and values. */
+	protected HashMap<String,Integer> map;
+	/** Wavelength usage values. */
+	WavelengthUsage[] lambdaTable;
+	/** The physical topology. */
+	protected Graph graph;
+	/** The identification of this node. */
+	protected String id;
+	/** The number of wavelengths. */
+	protected int wavelength;
+	/** The total wavelength usage of all destinations. */
+	protected long[] total;
+	/** The wavelengths from the least used to the most used. Ties are ordered by the wavelength. */
+	protected int[] leastUsed;
+	/** The wavelengths from the most used to the least used. Ties are ordered by the wavelength. */
+	protected int[] mostUsed;
+	/** True, if the total usage has changed since the last ranking. */
+	protected boolean changed;
+
+	/** 
+	 * Creates a new WavelengthUsageTable object.
+	 * @param aId The id of the node that belongs this model.
+	 * @param aGraph The physical topology of the network.
+	 * @param window The size of the window.
+	 */
+	public WavelengthUsageTable(String aId, Graph aGraph, int wavelength, int window, boolean sliding) {
+		this.id = aId;
+		this.graph = aGraph;
+		this.wavelength = wavelength;
+		total = new long[wavelength];
+		leastUsed = new int[wavelength];
+		mostUsed = new int[wavelength];
+		for (int i=0; i < wavelength; i++) {
+			leastUsed[i] = i;
+			mostUsed[i] = i;
+		}
+		map = new HashMap<String,Integer>();
+		lambdaTable = new WavelengthUsage[graph.size()];
+		Vector<String> nodes = graph.nodes();
+		for (int index=0; index < graph.size();index++) {
+			String nodeId = nodes.get(index); 
+			map.put(nodeId.toString(),index);
+			if (!nodeId.equals(id)) {
+				lambdaTable[index] = new WavelengthUsage(wavelength,window,sliding); 
+			} else {
+				lambdaTable[index] = null;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the wavelength usage associated to the specified destination.
+	 * @param destination The id of the destination of the node.
+	 * @return The wavelength usage associated to the specified destination.
+	 */
+	public WavelengthUsage get(String destination) {
+		int index = map.get(destination);
+		return lambdaTable[index];
+	}
+	
+	public WavelengthUsage[] getArray() {
+		return this.lambdaTable;
+	}
+	
+	/**
+	 * Update the local table associated with the specified node.
+	 * @param usage The wavelength usage collected by the backward ant.
+	 * @param nodeId The specified node.
+	 */
+	public void update(int[] usage, String nodeId) {
+		int index = map.get(nodeId);
+		WavelengthUsage wu = lambdaTable[index];
+		long[] sums = wu.getUsage();
+		for (int i=0; i < wavelength; i++)
+			total[i] = total[i] - sums[i];
+		wu.addUsage(usage);
+		for (int i=0; i < wavelength; i++)
+			total[i] = total[i] + sums[i];
+		changed = true;
+	}
+	
+	/**
+	 * Returns the number of wavelengths.
+	 * @return The number of wavelengths.
+	 */
+	public int getWavelengths() {
+		return wavelength;
+	}
+	
+	/**
+	 * Returns the total wavelength usage of all destinations.
+	 * The returned array is maintained by this object and must not be modified.
+	 * @return The total wavelength usage of all destinations.
+	 */
+	public long[] getTotalUsage() {
+		return total;
+	}
+	
+	/**
+	 * Returns the wavelengths from the most used to the least used, for all destinations.
+	 * The returned array is maintained by this object and must not be modified.
+	 * @return The wavelengths from the most used to the least used.
+	 */
+	public int[] getMostUsed() {
+		if (changed)
+			this.rank();
+		return mostUsed;
+	}
+	
+	/**
+	 * Returns the wavelengths from the least used to the most used, for all destinations.
+	 * The returned array is maintained by this object and must not be modified.
+	 * @return The wavelengths from the least used to the most used.
+	 */
+	public int[] getLeastUsed() {
+		if (changed)
+			this.rank();
+		return leastUsed;
+	}
+	
+	/**
+	 * Refreshes the rankings of the wavelengths after a change of the total usage.
+	 */
+	protected void rank() {
+		sort(leastUsed, total);
+		reverse(leastUsed, total, mostUsed);
+		changed = false;
+	}
+	
+	/**
+	 * Returns the ranking of the wavelengths by the specified usage vector.
+	 * @param usage The usage vector.
+	 * @param most True, to rank from the most used to the least used. False, for the opposite order.
+	 * @return The ranking of the wavelengths. Ties are ordered by the wavelength.
+	 */
+	public static int[] rank(long[] usage, boolean most) {
+		int[] order = new int[usage.length];
+		for (int i=0; i < order.length; i++)
+			order[i] = i;
+		sort(order, usage);
+		if (!most)
+			return order;
+		int[] reverse = new int[usage.length];
+		reverse(order, usage, reverse);
+		return reverse;
+	}
+	
+	/**
+	 * Sorts the wavelengths from the least used to the most used, ordering ties by the
+	 * wavelength. Insertion sort is used, since it is linear for an almost sorted order.
+	 * @param order The wavelengths to be sorted.
+	 * @param usage The usage vector.
+	 */
+	protected static void sort(int[] order, long[] usage) {
+		for (int i=1; i < order.length; i++) {
+			int lambda = order[i];
+			long value = usage[lambda];
+			int j = i - 1;
+			while ((j >= 0) && ((usage[order[j]] > value) || ((usage[order[j]] == value) && (order[j] > lambda)))) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = lambda;
+		}
+	}
+	
+	/**
+	 * Reverses a ranking from the least used to the most used, keeping the ties ordered
+	 * by the wavelength.
+	 * @param order The wavelengths from the least used to the most used.
+	 * @param usage The usage vector.
+	 * @param reverse The wavelengths from the most used to the least used, to be filled.
+	 */
+	protected static void reverse(int[] order, long[] usage, int[] reverse) {
+		int k = 0;
+		int end = order.length - 1;
+		while (end >= 0) {
+			int start = end;
+			while ((start > 0) && (usage[order[start - 1]] == usage[order[end]]))
+				start--;
+			for (int i=start; i <= end; i++)
+				reverse[k++] = order[i];
+			end = start - 1;
+		}
+	}
+	
+	/**
+	 * Returns a String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Id: ");
+		builder.append(id);
+		builder.append("\n");
+		Vector<String> nodes = graph.nodes();
+		for (int index=0; index < nodes.size(); index ++) {
+			String key = nodes.get(index);
+			builder.append(key);
+			builder.append(" - ");
+			WavelengthUsage wu = lambdaTable[index];
+			builder.append(wu.toString());
+			builder.append("\n");
+		}
+		return builder.toString();
+	}
+}
@@ -7,19 +7,25 @@ import java.io.*;
 import java.lang.reflect.Method;
 import java.util.*;
 
+import antnet.AntPacket;
 import antnet.NeighborAttr;
+import antnet.PheromoneRoutingTable;
 import antnet.StatisticalParametricModel;
 import ops.Accounting;
 import ops.Packet;
 import random.MersenneTwister;
 import rwa.Connection;
 import rwa.Error;
+import rwa.FailureFlooding;
 import rwa.LightpathRequest;
 import rwa.LinkState;
+import rwa.MeanFieldAnts;
+import rwa.RestorationTracker;
 import rwa.crankback.CrankRSVP;
 import rwa.crankback.LabelSwitchRouter;
 import rwa.crankback.LabelSwitchRouter.ReRouting;
 import rwa.crankback.LabelSwitchRouter.WavelengthAssignment;
+import rwa.crankback.WavelengthUsageTable;
 import util.QuickSort;
 import event.Event;
 import graph.Edge;
@@ -75,11 +81,15 @@ public class AntNetCrankControlPlane extends ControlPlane {
 	protected WavelengthAssignment wa;
 	/** The length in bytes for the identification of a link or a node. */
 	protected int identificationLength;
-	/** The collection of LSP disrupted by a failure, which
-	 * are eligible for full re-routing. */
-	protected Hashtable<String,LightpathRequest> disruptedLSP;
-	/** The collection of LSP successfully restored after a failure. */
-	protected Hashtable<String,Connection> restoredLSP;	
+	/** The LSP disrupted by a failure, which are eligible for full re-routing,
+	 * and the ones successfully restored after a failure. */
+	protected RestorationTracker restoration;
+	/** The flooding of the failures detected in the last instant. */
+	protected FailureFlooding flooding;
+	/** The aggregated (mean-field) mode of the ants, or null for the per-ant mode. */
+	protected MeanFieldAnts meanField;
+	/** The number of ant events processed by this control plane. */
+	protected long antEvents;
 	/** Random number generator for ants. */
 	public static MersenneTwister rngAnt;
 	/** The logging generator. */
@@ -100,8 +110,7 @@ public class AntNetCrankControlPlane extends ControlPlane {
 		//Create the nodes of this network
 		nodes = new LinkedHashMap<String,AntNetLSR>();
 		//Create the storage of disrupted connections by failure
-		disruptedLSP = new Hashtable<String,LightpathRequest>();
-		restoredLSP = new Hashtable<String,Connection>();		
+		restoration = new RestorationTracker();
 		//Get the simulation parameters
 		hopLimit = Integer.parseInt(parameters.get("/OPS/Hop/@limit").firstElement());
 		holdoff = Double.parseDouble(parameters.get("/Ant/Holdoff/@timer").firstElement());
@@ -123,6 +132,10 @@ public class AntNetCrankControlPlane extends ControlPlane {
 		//Gets the size of the time slice
 		timeSlice = Double.parseDouble(parameters.get("/Outputs/Transient/@timeSlice").firstElement());
 		actualTimeSlice = timeSlice;
+		//Gets the time slice of the aggregated (mean-field) mode of the ants, if any
+		Vector<String> vMeanField = parameters.get("/Ant/MeanField/@slice");
+		if (vMeanField != null)
+			meanField = new MeanFieldAnts(Double.parseDouble(vMeanField.firstElement()));
 		// Gets the time necessary for fault localization.
 		faultLocalizationTime = Double.parseDouble(parameters.get("/Failure/Timing/@localization").firstElement());
 		identificationLength = Integer.parseInt(parameters.get("/OPS/Hop/@bytes").firstElement());
@@ -171,6 +184,9 @@ public class AntNetCrankControlPlane extends ControlPlane {
 		String id;
 		//Update the time stamp of the last event to be processed processed.
 		lastTime = event.getTimeStamp(); 
+		//Process the batch of ants of the elapsed time slice, if applicable
+		if ((meanField != null) && meanField.isDue(event))
+			meanField.flush(nodes, accounting);
 		//Do transient accounting, if applicable
 		if (lastTime > actualTimeSlice) {
 			//Update the actual time slice
@@ -190,7 +206,7 @@ public class AntNetCrankControlPlane extends ControlPlane {
 				CrankRSVP rsvpPath = new CrankRSVP(request,hopLimit,counterLightpath);
 				this.counterLightpath ++; //Increment the counter
 				//Create a new event for setting up the lightpath
-				return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpPath);
+				return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpPath);
 			case LIGHTPATH_ESTABLISHED: //Lightpath established
 				CrankRSVP rsvpConfirm = (CrankRSVP) event.getContent();
 				//Gets the connection object.
@@ -201,18 +217,18 @@ public class AntNetCrankControlPlane extends ControlPlane {
 				accounting.addSuccesful(rsvpConfirm);
 				//See if it is a successful re-routing of a failed LSP
 				if (rsvpConfirm.inRestoration()) {
-					restoredLSP.put(rsvpConfirm.getFlowLabel(),connectionEst);
+					restoration.restore(rsvpConfirm.getFlowId(),connectionEst,event.getTimeStamp(),event.getTimeStamp() + duration);
 				}
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
-				return new Event((event.getTimeStamp() + duration),Event.Type.LIGHTPATH_TEARDOWN,connectionEst);
+				return Event.obtain((event.getTimeStamp() + duration),Event.Type.LIGHTPATH_TEARDOWN,connectionEst);
 			case LIGHTPATH_PROBLEM:
 				CrankRSVP rsvpErr = (CrankRSVP) event.getContent();
 				LightpathRequest lRequest;
 				//Get the error status
 				Error error = rsvpErr.getError();
 				//Get the label
-				int label = Integer.parseInt(rsvpErr.getFlowLabel());
+				long label = rsvpErr.getFlowId();
 				CrankRSVP rsvpRetry = null; //new Rsvp message
 				Error.Code errorCode = error.getErrorCode(); 
 				//Allocation of wavelength contention problem
@@ -220,7 +236,7 @@ public class AntNetCrankControlPlane extends ControlPlane {
 					lRequest = (LightpathRequest) ((Connection)rsvpErr.getObject()).getRequest();
 					rsvpRetry = new CrankRSVP(lRequest,hopLimit,label);
 					//System.out.println("Contention: "+lRequest.toString());
-					if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+					if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 						rsvpRetry.setRestoration(); //set the flag for restoration
 						//System.out.println(event.toString());
 					}
@@ -239,37 +255,39 @@ public class AntNetCrankControlPlane extends ControlPlane {
 					//Set the label indicating to tackle the failure
 					rsvpRetry.setRestoration();
 					//Adds the connection to the list of disrupted LSP 
-					disruptedLSP.put(rsvpErr.getFlowLabel(),lRequest);
+					restoration.disrupt(rsvpErr.getFlowId(),lRequest,event.getTimeStamp(),event.getInitialTimeStamp() + residualDuration);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				//Wavelength continuity constraint violated or no link available, use alternate path	
 				} else if((errorCode.equals(Error.Code.RP_LABEL_SET)) || (errorCode.equals(Error.Code.RP_NO_ROUTE_AVAILABLE))) {
 					lRequest = (LightpathRequest) rsvpErr.getObject();
 					lRequest.addTry(); //add a try to the counter of tries
 					//Resend the request using holdoff-timer - Photonics Network Communications 2008 (Restoration)
-					if (lRequest.tryAgain() && disruptedLSP.containsKey(rsvpErr.getFlowLabel()) && this.rerouting.equals(ReRouting.END_TO_END)) { //resend the request
+					if (lRequest.tryAgain() && restoration.isDisrupted(rsvpErr.getFlowId()) && this.rerouting.equals(ReRouting.END_TO_END)) { //resend the request
 						rsvpRetry = new CrankRSVP(lRequest,hopLimit,label);
-						if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+						if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 							rsvpRetry.setRestoration(); //set the flag of restoration
 							//System.out.println(event.toString());
 							Vector<Event> multiple = new Vector<Event>();
 							//add the hold-off timer for resending the message.
-							multiple.add(new Event(holdoff+event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry));
+							multiple.add(Event.obtain(holdoff+event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry));
 							//System.out.println(event.toString());
 							int times = (int)(holdoff * restoreAntRate);
 							double delay = 0.0; //Delay between two consecutive ants
 							int bytesHop = Integer.parseInt(parameters.get("/OPS/Hop/@bytes").firstElement());
 							for (int i=0; i < times; i++) {
 								Ant ant = new Ant(lRequest.getSource(),lRequest.getTarget(),hopLimit,bytesHop);
-								multiple.add(new Event(delay+event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,ant));
+								multiple.add(Event.obtain(delay+event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,ant));
 								delay = delay + (1.0 / restoreAntRate);
 							}
 							//Return the multiple events to the simulator
-							return new Event(lastTime,Event.Type.MULTIPLE,multiple);												
+							return Event.obtain(lastTime,Event.Type.MULTIPLE,multiple);												
 						}
 					} else { 
 						//Accounts the failed lightpath request
 						accounting.addFailed(rsvpErr);
-						//if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) 
+						if (rsvpErr.inRestoration())
+							restoration.fail(rsvpErr.getFlowId(),event.getTimeStamp());
+						//if (restoration.isDisrupted(rsvpErr.getFlowId())) 
 							//System.out.println("Failed:"+event.toString());
 					}					
 				} else if(errorCode.equals(Error.Code.RP_REROUTING_LIMIT_EXCEEDED)){
@@ -277,20 +295,21 @@ public class AntNetCrankControlPlane extends ControlPlane {
 					//try {
 					accounting.addFailed(rsvpErr);
 					//} catch(Exception e){System.err.println(event.toString());}
+					if (rsvpErr.inRestoration())
+						restoration.fail(rsvpErr.getFlowId(),event.getTimeStamp());
 				}
 				//Now, return the result.
 				if (rsvpRetry != null)
-					return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry);
+					return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpRetry);
 				else 
 					return null;
 			case LIGHTPATH_TEARDOWN: //Remove connection
 				Connection connectionTear = (Connection) event.getContent();
-				String flowLabel = connectionTear.getID();
-				if ((disruptedLSP.get(flowLabel) == null) || ((restoredLSP.get(flowLabel) != null) && (restoredLSP.get(flowLabel).getPath().equals(connectionTear.getPath()) ) )) {
+				if (restoration.teardown(connectionTear,event.getTimeStamp())) {
 					//Send RSVP PathTear message
 					CrankRSVP rsvpTear = new CrankRSVP(connectionTear,Packet.Header.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getTarget());
 					//System.out.println(rsvpTear.toString());
-					return new Event(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpTear);
+					return Event.obtain(event.getTimeStamp(),Event.Type.PACKET_ARRIVAL,rsvpTear);
 				} else { //Ignore the teardown associated to a failed LSP, since it is already cleaned and rerouted.
 					return null;
 				}
@@ -300,6 +319,14 @@ public class AntNetCrankControlPlane extends ControlPlane {
 			case PACKET_ARRIVAL: // Ant
 				//Get the packet
 				Packet packet = (Packet) event.getContent();
+				if (packet instanceof AntPacket) {
+					antEvents++;
+					//Mean-field mode: the ant is processed with the batch of its time slice
+					if ((meanField != null) && MeanFieldAnts.isForwardAnt(packet)) {
+						meanField.add(event.getTimeStamp(), packet);
+						return null;
+					}
+				}
 				//Get the node associated to this packet
 				id = packet.getNode();
 				//Give the packet to the right node
@@ -319,7 +346,9 @@ public class AntNetCrankControlPlane extends ControlPlane {
 						return response;
 					}
 				} else { //Failed node
-					accounting.addFailed(packet);					
+					accounting.addFailed(packet);
+					if ((packet instanceof CrankRSVP) && ((CrankRSVP) packet).inRestoration())
+						restoration.fail(packet.getFlowId(),event.getTimeStamp());
 					return null;					
 				}
 			case FAILURE_LINK:  //For link failure
@@ -348,18 +377,10 @@ public class AntNetCrankControlPlane extends ControlPlane {
 				//Notifies the end nodes of the failure after the localization time
 				double timeNotification = lastTime + this.faultLocalizationTime;
 				int lengthFailure = 2 * this.identificationLength;
-				//Creates the packets of notification
-				Packet failureTo = new Packet(Packet.Header.LINK_FAILURE,edge.getDestination(),edge.getDestination(),Packet.Priority.HIGH,lengthFailure,graph.size());
-				Packet failureFrom = new Packet(Packet.Header.LINK_FAILURE,edge.getSource(),edge.getSource(),Packet.Priority.HIGH,lengthFailure,graph.size());
-				//Adds the edge to the packets.
-				Failure failureLinkAdv = new Failure(edge); 
-				failureTo.setPayload(failureLinkAdv); 
-				failureFrom.setPayload(failureLinkAdv);
-				//Add to the vector of events
-				Vector<Event> failuresLink = new Vector<Event>();
-				failuresLink.add(new Event(timeNotification,Event.Type.PACKET_ARRIVAL,failureFrom));
-				failuresLink.add(new Event(timeNotification,Event.Type.PACKET_ARRIVAL,failureTo));				
-				return new Event(timeNotification,Event.Type.MULTIPLE,failuresLink);
+				//Coalesces the failures of the same instant in a single flooding
+				if ((flooding == null) || !flooding.accepts(timeNotification))
+					flooding = new FailureFlooding(nodes,timeNotification);
+				return flooding.add(new Failure(edge),lengthFailure,graph.size());
 			case FAILURE_NODE: //For node failure
 				//Get the node associated with the failure
 				id = (String)event.getContent();
@@ -368,9 +389,9 @@ public class AntNetCrankControlPlane extends ControlPlane {
 				Vector<String> neighbors = graph.adjacentNodes(id);
 				for (String neighId:neighbors) {
 					//Add the edge "from" the removed node
-					failuresNode.add(new Event(lastTime,Event.Type.FAILURE_LINK,new String(id+"-"+neighId)));
+					failuresNode.add(Event.obtain(lastTime,Event.Type.FAILURE_LINK,new String(id+"-"+neighId)));
 					//Add the edge "to" the removed node
-					failuresNode.add(new Event(lastTime,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
+					failuresNode.add(Event.obtain(lastTime,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
 				}
 				//Remove the failure node from the graph
 				try {					
@@ -379,7 +400,7 @@ public class AntNetCrankControlPlane extends ControlPlane {
 				//Remove the node from the list of nodes 
 				nodes.remove(id);
 				//Return the response containing the failure of the multiple links
-				return new Event(lastTime,Event.Type.MULTIPLE,failuresNode);
+				return Event.obtain(lastTime,Event.Type.MULTIPLE,failuresNode);
 			default: System.err.println("Unknown event: "+event.toString());
 				return null;
 		}
@@ -390,9 +411,13 @@ public class AntNetCrankControlPlane extends ControlPlane {
 	 */
 	public void updateValues() {
 		System.out.println("LastTime: "+lastTime);
-		System.out.println("Disrupted: "+this.disruptedLSP.keySet().toString());
-		System.out.println("Total disrupted: "+disruptedLSP.size());
-		System.out.println("Rerouted: "+restoredLSP.toString());
+		System.out.println("Restoration: "+restoration.toString());
+		if (meanField != null) {
+			//Process the ants of the last time slice
+			meanField.flush(nodes, accounting);
+			System.out.println("Mean-field ants: "+meanField.toString());
+		}
+		System.out.println("Ant events: "+antEvents);
 	}
 	
 	/**
@@ -422,34 +447,40 @@ public class AntNetCrankControlPlane extends ControlPlane {
 	/**
 	 * Selects the next hop based on the probabilities of the routing table and
 	 * on the local statistics (free wavelength ratio).
-	 * @param neighborhood The routing table of a given destination.
+	 * @param table The pheromone routing table.
+	 * @param destination The index of the destination in the routing table.
 	 * @param links The state of the neighbor links.
 	 * @param ant The packet ant.
 	 * @param alpha Trade-off between shortest-path and heuristic correction (congestion).
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood, LinkedHashMap<String,LinkState> links, Ant ant, double alpha, double powerFactor){
+	public static String select(PheromoneRoutingTable table, int destination, LinkedHashMap<String,LinkState> links, Ant ant, double alpha, double powerFactor){
 		//Gets the total number of free points between the neighbors.
 		double totalFreeWavelengths = 0.0;  //Total number of free wavelengths
 		double totalPheromoneLevel = 0.0;
 		//Gets the neighbors that are not in the tabu list.
-		Vector<String> availableNeighbors = new Vector<String>();
- 		for (String neighId: neighborhood.neighborhood()) { 
+		int[] availableNeighbors = table.getCandidates();
+		double[] probabilityDistribution = table.getDistribution();
+		int size = 0; //Number of available neighbors
+ 		for (int neighbor = 0; neighbor < table.getNumberNeighbors(); neighbor++) { 
+ 			String neighId = table.getNeighbor(neighbor);
  			if (!ant.isTabu(neighId)) { //not in tabu list
- 				availableNeighbors.add(neighId);
+ 				availableNeighbors[size] = neighbor;
  				//Get the total number of free wavelengths
  				double free = (double) links.get(neighId).getMask().freeWavelengths();
- 				totalFreeWavelengths = totalFreeWavelengths + Math.pow(free, powerFactor);
+ 				probabilityDistribution[size] = Math.pow(free, powerFactor);
+ 				totalFreeWavelengths = totalFreeWavelengths + probabilityDistribution[size];
+ 				size++;
  				//And the total pheromone level
- 				totalPheromoneLevel = totalPheromoneLevel + ((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel(); 
+ 				totalPheromoneLevel = totalPheromoneLevel + table.getPheromoneLevel(destination,neighbor); 
  			}
  		}
  		//Verify the routing decision policy
- 		if ((availableNeighbors.size() == 0)) { //all neighbors already visited - doing loop!
+ 		if (size == 0) { //all neighbors already visited - doing loop!
  			//Proceed like a data packet
  			String nextHop = null;
- 			if (neighborhood.size() > 1) {
- 				nextHop = select(neighborhood,ant);
+ 			if (table.getNumberNeighbors() > 1) {
+ 				nextHop = select(table,destination,ant);
  			} else {
  				//nextHop = ant.getLastVisited();
  				return null;
@@ -465,82 +496,34 @@ public class AntNetCrankControlPlane extends ControlPlane {
  			return nextHop;
  		} else { //There are other nodes not already visited.
  			/* Now, use the pheromone values with the local heuristic to calculate the next hop. */
- 			int size = availableNeighbors.size(); //Number of neighbors
- 			double[] probabilityDistribution = new double[size]; //Probability distribution
- 			String[] keys = new String[size]; //For storing the ids of the nodes.
- 			int count=0; //Counter for the number of neighbors	 
- 			//For each neighbor do
- 			for (String neighId: availableNeighbors) {
- 				//Get the appropriate neighbor and the associated link state
- 				keys[count] = neighId;
- 				NeighborAttr neigh = (NeighborAttr) neighborhood.getEntry(neighId);
+ 			for (int count=0; count < size; count++) {
+ 				double level = table.getPheromoneLevel(destination,availableNeighbors[count]);
 				//Now calculate the probability
- 				double freeLambdas = links.get(neighId).getMask().freeWavelengths();
- 				//
- 				probabilityDistribution[count] = ((neigh.getPheromoneLevel() / totalPheromoneLevel) + alpha*(Math.pow(freeLambdas,powerFactor)/totalFreeWavelengths)) / (1.0 + alpha);
- 				//Increment the index
- 				count++;
+ 				probabilityDistribution[count] = ((level / totalPheromoneLevel) + alpha*(probabilityDistribution[count]/totalFreeWavelengths)) / (1.0 + alpha);
  			}		
  			//Spins the wheel
- 			double sample = rngAnt.nextDouble();
- 			//Set sum to the first probability
- 			double sum = probabilityDistribution[0];
- 			int n = 0;
- 			while (sum < sample) {
- 				n = n + 1;
- 				sum = sum + probabilityDistribution[n];
- 			}		
- 			return keys[n];							
+ 			int n = PheromoneRoutingTable.spin(probabilityDistribution,size,rngAnt.nextDouble());
+ 			return table.getNeighbor(availableNeighbors[n]);							
  		}
 	}
 
 	/**
 	 * Selects the next hop based ONLY on the probabilities of the routing table.
 	 * It is not allowed to come back! 
-	 * @param neighborhood The routing table of a given destination.
+	 * @param table The pheromone routing table.
+	 * @param destination The index of the destination in the routing table.
+	 * @param packet The packet to be routed.
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood,Packet packet){
-		int count=0; //Counter for the number of neighbors	 
-		int size; //Number of neighbors
+	public static String select(PheromoneRoutingTable table, int destination, Packet packet){
 		//Get the last edge visited.
 		String lastVisited = null;
 		if (packet.getPathLength() > 0) { // not first hop
 			lastVisited = packet.getPath().getLastEdge().getSource();
-			size = neighborhood.size() - 1;
-		} else { //First hop
-			size = neighborhood.size();
-		}
-		if (size == 0) {
-			return null;
-		}
-		double[] probabilityDistribution = new double[size]; //Probability distribution
-		String[] keys = new String[size]; //For storing the ids of the nodes.
-		double totalLevel = 0.0; //Sum of probabilities
-		//For each neighbor do
-		for (String neighId: neighborhood.neighborhood()) {
-			if (!neighId.equals(lastVisited)) {
-				double level = ((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel();
-				probabilityDistribution[count] = level;
-				totalLevel = totalLevel + level;
-				keys[count] = neighId;
-				count++;
-			}
-		}
-		//Normalize the values
-		for (int i=0; i<size;i++) {
-			probabilityDistribution[i] = probabilityDistribution[i]/totalLevel;
 		}
 		//Spins the wheel
-		double sample = rngAnt.nextDouble();
-		//Set sum to the first probability
-		double sum = probabilityDistribution[0];
-		int n = 0;
-		while (sum < sample) {
-			n = n + 1;
-			sum = sum + probabilityDistribution[n];
-		}		
-		return keys[n];		
+		int next = table.sample(destination,table.getNeighborId(lastVisited),rngAnt);
+		return (next == -1) ? null : table.getNeighbor(next);		
 	}
 
 	/**
@@ -19,12 +19,14 @@ import main.RoutingTable;
 import main.Failure.Location;
 import rwa.Connection;
 import rwa.Error;
+import rwa.FailureNotification;
 import rwa.LightpathRequest;
 import rwa.LinkState;
 import rwa.WavelengthMask;
 import rwa.crankback.CrankRSVP;
 import rwa.crankback.LabelSet;
 import rwa.crankback.LabelSwitchRouter;
+import rwa.crankback.WavelengthUsageTable;
 
 /**
  * @author Gustavo S. Pavani
@@ -222,7 +224,7 @@ public class AntNetLSR extends LabelSwitchRouter {
 																// node
 																// re-routing
 					nextHop = ((AntNetCrankRoutingTable) routingTable).nextHop(
-							rsvp, this.getHistoryTable(rsvp.getFlowLabel()));
+							rsvp, this.getHistoryTable(rsvp.getFlowId()));
 				} else { // None or end-to-end routing
 					nextHop = ((AntNetCrankRoutingTable) routingTable).nextHop(
 							rsvp, new Vector<String>());
@@ -255,7 +257,7 @@ public class AntNetLSR extends LabelSwitchRouter {
 					// Store the label set, if applicable
 					if ((labelSet != null)
 							&& (this.rerouting.equals(ReRouting.SEGMENT)))
-						labelSetTable.put(rsvp.getFlowLabel(),
+						labelSetTable.put(rsvp.getFlowId(),
 								(LabelSet) labelSet.clone());
 					// Updates the mask
 					if (labelSet == null) {
@@ -307,121 +309,99 @@ public class AntNetLSR extends LabelSwitchRouter {
 			break;
 		case LINK_FAILURE: // Packet associated with control plane (separated
 							// channel)
-			// Identify the failure
-			Failure failure = (Failure) packet.getPayload();
-			// Flooding of the failure
-			if (!failureID.contains(failure.getID())) { // First time
-				// Mock local update of the topology
-				routingTable.updateFromTopology(graph);
-				// Broadcast the failure to the neighbors
-				String previousHop = packet.getSource();
-				Vector<String> neighbors = graph.adjacentNodes(id);
-				Vector<Event> broadcast = new Vector<Event>();
-				// Adds the flooding information
-				for (String neighId : neighbors) {
-					if (!neighId.equals(previousHop)) { // not visited
-						// Retransmit the packet
-						Packet clonedFrom = (Packet) packet.clone();
-						clonedFrom.retransmit(id, neighId);
-						clonedFrom.setNode(neighId);
-						// Set new time stamp
-						double transmissionTime = this.links.get(neighId)
-								.getDelay();
-						double newTimeStamp = event.getTimeStamp()
-								+ transmissionTime;
-						// Add to the list of broadcast
-						broadcast.add(new Event(newTimeStamp,
-								Event.Type.PACKET_ARRIVAL, clonedFrom));
+			// Identify the failures notified in the same instant
+			FailureNotification notification = (FailureNotification) packet.getPayload();
+			// Forward the notification to the neighbors reached first through this node
+			Vector<Event> broadcast = notification.forward(this, event);
+			for (Failure failure : notification.getFailures()) {
+				// Treatment of the failure
+				if (!failureID.contains(failure.getID())) { // First time
+					// Mock local update of the topology
+					routingTable.updateFromTopology(graph);
+					// Add the failure to the list of processed ones.
+					failureID.add(failure.getID());
+					/* Remove the link states affected by the failure. */
+					if (((Edge) failure.getInformation()).getSource().equals(id)) {
+						links.remove(((Edge) failure.getInformation())
+								.getDestination());
 					}
-				}
-				// Add the failure to the list of processed ones.
-				failureID.add(failure.getID());
-				/* Remove the link states affected by the failure. */
-				if (((Edge) failure.getInformation()).getSource().equals(id)) {
-					links.remove(((Edge) failure.getInformation())
-							.getDestination());
-				}
-				/* Treatment the failure by the neighbor nodes */
-				// Now, if it is the closest node upstream to the failure
-				if (id.equals(((Edge) failure.getInformation()).getSource())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathErr = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_ERR, id,
-									active.getSource());
-							// Create the error with path remove flag
-							error = new Error(Error.Code.LSP_FAILURE, true);
-							pathErr.setError(error);
-							pathErr.setFlowLabel(activeID);
-							// System.out.println(pathErr.toString());
-							double transmissionTime = 0;
-							// Not the source node to treat the failure
-							if (!id.equals(active.getPath().firstNode())) {
-								nextHop = active.getPath().getPreviousNode(id);
-								pathErr.setNode(nextHop);
-								// Set new time stamp
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+					/* Treatment the failure by the neighbor nodes */
+					// Now, if it is the closest node upstream to the failure
+					if (id.equals(((Edge) failure.getInformation()).getSource())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathErr = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_ERR, id,
+										active.getSource());
+								// Create the error with path remove flag
+								error = new Error(Error.Code.LSP_FAILURE, true);
+								pathErr.setError(error);
+								pathErr.setFlowLabel(activeID);
+								// System.out.println(pathErr.toString());
+								double transmissionTime = 0;
+								// Not the source node to treat the failure
+								if (!id.equals(active.getPath().firstNode())) {
+									nextHop = active.getPath().getPreviousNode(id);
+									pathErr.setNode(nextHop);
+									// Set new time stamp
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathErr));
 							}
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathErr));
 						}
-					}
-					// Now, if it is the closest node downstream to the failure
-				} else if (id.equals(((Edge) failure.getInformation())
-						.getDestination())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathTear = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_TEAR, id,
-									active.getTarget());
-							// Create the error
-							error = new Error(Error.Code.LSP_FAILURE);
-							pathTear.setError(error);
-							pathTear.setFlowLabel(activeID);
-							// System.out.println(pathTear.toString());
-							// Not the target node to treat the failure
-							double transmissionTime = 0;
-							// Not the last node to tackle the failure
-							if (!id.equals(active.getPath().lastNode())) {
-								nextHop = active.getPath().getNextNode(id);
-								pathTear.setNode(nextHop);
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+						// Now, if it is the closest node downstream to the failure
+					} else if (id.equals(((Edge) failure.getInformation())
+							.getDestination())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathTear = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_TEAR, id,
+										active.getTarget());
+								// Create the error
+								error = new Error(Error.Code.LSP_FAILURE);
+								pathTear.setError(error);
+								pathTear.setFlowLabel(activeID);
+								// System.out.println(pathTear.toString());
+								// Not the target node to treat the failure
+								double transmissionTime = 0;
+								// Not the last node to tackle the failure
+								if (!id.equals(active.getPath().lastNode())) {
+									nextHop = active.getPath().getNextNode(id);
+									pathTear.setNode(nextHop);
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								// Set new time stamp
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								// Add to the list of broadcast
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathTear));
 							}
-							// Set new time stamp
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							// Add to the list of broadcast
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathTear));
 						}
 					}
 				}
-				// System.out.println(broadcast.toString());
-				// Return the multiple packets associated with the failure
-				response = new Event(event.getTimeStamp(), Event.Type.MULTIPLE,
-						broadcast);
-			} else { // Already processed the failure.
-				event.setType(Event.Type.IGNORE);
-				response = event;
 			}
+			// Return the multiple packets associated with the failures
+			response = Event.obtain(event.getTimeStamp(), Event.Type.MULTIPLE, broadcast);
 			break;
 		}
 		return response;
@@ -435,50 +415,21 @@ public class AntNetLSR extends LabelSwitchRouter {
 	 * @return The most used label set for wavelength assignment.
 	 */
 	protected int[] getMostUsed(long[] usage) {
-		int[] order = new int[usage.length];
-		for (int i = 0; i < usage.length; i++) {
-			long max = Long.MIN_VALUE;
-			int pos = -1;
-			for (int j = 0; j < usage.length; j++) {
-				if (usage[j] > max) {
-					max = usage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			usage[pos] = Long.MIN_VALUE;
-		}
-		return order;
+		return WavelengthUsageTable.rank(usage, true);
 	}
 
+	/**
+	 * Returns the most used label set for wavelength assignment, considering the
+	 * usage of all destinations.
+	 * 
+	 * @param w
+	 *            The number of wavelengths of the link.
+	 * @return The most used label set for wavelength assignment.
+	 */
 	protected int[] getMostUsed(int w) {
-		// Gets the total usage for all destinations
-		WavelengthUsage[] table = lambdaTable.getArray();
-		long totalUsage[] = new long[w];
-		Arrays.fill(totalUsage, 0L);
-		for (int i = 0; i < table.length; i++) {
-			if (table[i] != null) {
-				long usage[] = table[i].getUsage();
-				for (int j = 0; j < w; j++) {
-					totalUsage[j] = totalUsage[j] + usage[j];
-				}
-			}
-		}
-		// Now order from the most used to the least used
-		int[] order = new int[w];
-		for (int i = 0; i < w; i++) {
-			long max = Long.MIN_VALUE;
-			int pos = -1;
-			for (int j = 0; j < w; j++) {
-				if (totalUsage[j] > max) {
-					max = totalUsage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			totalUsage[pos] = Long.MIN_VALUE;
-		}
-		return order;
+		if (w == lambdaTable.getWavelengths())
+			return lambdaTable.getMostUsed();
+		return getMostUsed(Arrays.copyOf(lambdaTable.getTotalUsage(), w));
 	}
 
 	/**
@@ -489,49 +440,20 @@ public class AntNetLSR extends LabelSwitchRouter {
 	 * @return The least used label set for wavelength assignment.
 	 */
 	protected int[] getLeastUsed(long[] usage) {
-		int[] order = new int[usage.length];
-		for (int i = 0; i < usage.length; i++) {
-			long min = Long.MAX_VALUE;
-			int pos = -1;
-			for (int j = 0; j < usage.length; j++) {
-				if (usage[j] < min) {
-					min = usage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			usage[pos] = Long.MAX_VALUE;
-		}
-		return order;
+		return WavelengthUsageTable.rank(usage, false);
 	}
 
+	/**
+	 * Returns the least used label set for wavelength assignment, considering the
+	 * usage of all destinations.
+	 * 
+	 * @param w
+	 *            The number of wavelengths of the link.
+	 * @return The least used label set for wavelength assignment.
+	 */
 	protected int[] getLeastUsed(int w) {
-		// Gets the total usage for all destinations
-		WavelengthUsage[] table = lambdaTable.getArray();
-		long totalUsage[] = new long[w];
-		Arrays.fill(totalUsage, 0L);
-		for (int i = 0; i < table.length; i++) {
-			if (table[i] != null) {
-				long usage[] = table[i].getUsage();
-				for (int j = 0; j < w; j++) {
-					totalUsage[j] = totalUsage[j] + usage[j];
-				}
-			}
-		}
-		// Now order from the least used to the most used
-		int[] order = new int[w];
-		for (int i = 0; i < w; i++) {
-			long min = Long.MAX_VALUE;
-			int pos = -1;
-			for (int j = 0; j < w; j++) {
-				if (totalUsage[j] < min) {
-					min = totalUsage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			totalUsage[pos] = Long.MAX_VALUE;
-		}
-		return order;
+		if (w == lambdaTable.getWavelengths())
+			return lambdaTable.getLeastUsed();
+		return getLeastUsed(Arrays.copyOf(lambdaTable.getTotalUsage(), w));
 	}
 }
@@ -75,11 +75,9 @@ public class Ant extends AntPacket {
 		}
 		// Gets the length of the collector
 		int len = collector.length;
-		// for each position, probe the wavelength mask
-		for (int i = 0; i < len; i++) {
-			if (!mask.testWavelength(i)) { // occupied lambda
-				collector[i] = collector[i] + 1; // Increment the counter
-			}
+		// for each occupied lambda of the wavelength mask
+		for (int i = mask.nextUsedWavelength(0); (i != -1) && (i < len); i = mask.nextUsedWavelength(i + 1)) {
+			collector[i] = collector[i] + 1; // Increment the counter
 		}
 	}
 
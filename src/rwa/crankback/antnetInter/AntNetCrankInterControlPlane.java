@@ -11,25 +11,28 @@ import java.util.*;
 import javax.accessibility.AccessibleStateSet;
 
 import antnet.NeighborAttr;
+import antnet.PheromoneRoutingTable;
 import antnet.StatisticalParametricModel;
 import ops.Accounting;
 import ops.Packet;
 import random.MersenneTwister;
 import rwa.Connection;
 import rwa.Error;
+import rwa.FailureFlooding;
 import rwa.LightpathRequest;
 import rwa.LinkState;
+import rwa.RestorationTracker;
 import rwa.crankback.antnetInter.CrankRSVP;
 import rwa.crankback.obgp.OBGPLabelSwitchRouter;
 import rwa.crankback.LabelSwitchRouter;
 import rwa.crankback.LabelSwitchRouter.ReRouting;
 import rwa.crankback.LabelSwitchRouter.WavelengthAssignment;
+import rwa.crankback.WavelengthUsageTable;
 import util.QuickSort;
 import event.Event;
 import graph.Edge;
 import graph.Graph;
 import graph.Path;
-import graph.YEN;
 import main.Config;
 import main.ControlPlane;
 import main.Failure;
@@ -85,12 +88,12 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 	protected int maxInterRoutes;
 
 	/**
-	 * The collection of LSP disrupted by a failure, which are eligible for full
-	 * re-routing.
+	 * The LSP disrupted by a failure, which are eligible for full re-routing,
+	 * and the ones successfully restored after a failure.
 	 */
-	protected Hashtable<String, LightpathRequest> disruptedLSP;
-	/** The collection of LSP successfully restored after a failure. */
-	protected Hashtable<String, Connection> restoredLSP;
+	protected RestorationTracker restoration;
+	/** The flooding of the failures detected in the last instant. */
+	protected FailureFlooding flooding;
 	/** Random number generator for ants. */
 	public static MersenneTwister rngAnt;
 
@@ -110,7 +113,8 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 	/** The interdomain routing for all topology - like BGP **/
 	protected static LinkedHashMap<String, Vector<Path>> interdomainRoutes;
 
-	protected static LinkedHashMap<String, Connection> reroutedLSP;
+	/** The number of LSP successfully established after a crankback re-routing. */
+	protected long rerouted;
 
 	/** A boolean flag for verbose printf debug mode **/
 	private boolean verbose = false;
@@ -143,8 +147,7 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 		// Create the nodes of this network
 		nodes = new LinkedHashMap<String, AntNetInterLSR>();
 		// Create the storage of disrupted connections by failure
-		disruptedLSP = new Hashtable<String, LightpathRequest>();
-		restoredLSP = new Hashtable<String, Connection>();
+		restoration = new RestorationTracker();
 		// Get the simulation parameters
 		hopLimit = Integer.parseInt(parameters.get("/OPS/Hop/@limit")
 				.firstElement());
@@ -214,7 +217,6 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 
 		// create the collection of graphs
 		domainGraphs = new LinkedHashMap<String, Graph>();
-		reroutedLSP = new LinkedHashMap<String, Connection>();
 
 
 		AntNetCrankInterRoutingTable interdomainRoutes;
@@ -397,7 +399,7 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 					counterLightpath);
 			this.counterLightpath++; // Increment the counter
 			// Create a new event for setting up the lightpath
-			return new Event(event.getTimeStamp(), Event.Type.PACKET_ARRIVAL,
+			return Event.obtain(event.getTimeStamp(), Event.Type.PACKET_ARRIVAL,
 					rsvpPath);
 		case LIGHTPATH_ESTABLISHED: // Lightpath established
 			CrankRSVP rsvpConfirm = (CrankRSVP) event.getContent();
@@ -410,18 +412,19 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 			accounting.addSuccesful(rsvpConfirm);
 			// See if it is a successful re-routing of a failed LSP
 			if (rsvpConfirm.inRestoration()) {
-				restoredLSP.put(rsvpConfirm.getFlowLabel(), connectionEst);
+				restoration.restore(rsvpConfirm.getFlowId(), connectionEst,
+						event.getTimeStamp(), event.getTimeStamp() + duration);
 			}
 			
 			//See if it is a successful re-routing of a failed LSP
 			if (rsvpConfirm.isRerouting()) {
-				reroutedLSP.put(rsvpConfirm.getFlowLabel(), connectionEst);
+				rerouted++;
 			}
 
 			// System.out.println(event.toString());
 			// Return a new event for tearing down the lightpath when
 			// appropriate
-			return new Event((event.getTimeStamp() + duration),
+			return Event.obtain((event.getTimeStamp() + duration),
 					Event.Type.LIGHTPATH_TEARDOWN, connectionEst);
 		case LIGHTPATH_PROBLEM:
 			CrankRSVP rsvpErr = (CrankRSVP) event.getContent();
@@ -429,7 +432,7 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 			// Get the error status
 			Error error = rsvpErr.getError();
 			// Get the label
-			int label = Integer.parseInt(rsvpErr.getFlowLabel());
+			long label = rsvpErr.getFlowId();
 			CrankRSVP rsvpRetry = null; // new Rsvp message
 			Error.Code errorCode = error.getErrorCode();
 			// Allocation of wavelength contention problem
@@ -438,7 +441,7 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 						.getRequest();
 				rsvpRetry = new CrankRSVP(lRequest, hopLimit, label);
 				// System.out.println("Contention: "+lRequest.toString());
-				if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+				if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 					rsvpRetry.setRestoration(); // set the flag for restoration
 					// System.out.println(event.toString());
 				}
@@ -459,7 +462,9 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 				// Set the label indicating to tackle the failure
 				rsvpRetry.setRestoration();
 				// Adds the connection to the list of disrupted LSP
-				disruptedLSP.put(rsvpErr.getFlowLabel(), lRequest);
+				restoration.disrupt(rsvpErr.getFlowId(), lRequest, event
+						.getTimeStamp(), event.getInitialTimeStamp()
+						+ residualDuration);
 				// System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				// Wavelength continuity constraint violated or no link
 				// available, use alternate path
@@ -471,18 +476,18 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 				// Communications 2008 (Restoration)
 				
 				if (lRequest.tryAgain()
-						&& disruptedLSP.containsKey(rsvpErr.getFlowLabel())
+						&& restoration.isDisrupted(rsvpErr.getFlowId())
 						&& this.rerouting.equals(ReRouting.END_TO_END)) { // resend
 																			// the
 																			// request
 					rsvpRetry = new CrankRSVP(lRequest, hopLimit, label);
-					if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+					if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 						rsvpRetry.setRestoration(); // set the flag of
 													// restoration
 						// System.out.println(event.toString());
 						Vector<Event> multiple = new Vector<Event>();
 						// add the hold-off timer for resending the message.
-						multiple.add(new Event(holdoff + event.getTimeStamp(),
+						multiple.add(Event.obtain(holdoff + event.getTimeStamp(),
 								Event.Type.PACKET_ARRIVAL, rsvpRetry));
 						// System.out.println(event.toString());
 						int times = (int) (holdoff * restoreAntRate);
@@ -493,19 +498,22 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 						for (int i = 0; i < times; i++) {
 							Ant ant = new Ant(lRequest.getSource(),
 									lRequest.getTarget(), hopLimit, bytesHop);
-							multiple.add(new Event(
+							multiple.add(Event.obtain(
 									delay + event.getTimeStamp(),
 									Event.Type.PACKET_ARRIVAL, ant));
 							delay = delay + (1.0 / restoreAntRate);
 						}
 						// Return the multiple events to the simulator
-						return new Event(lastTime, Event.Type.MULTIPLE,
+						return Event.obtain(lastTime, Event.Type.MULTIPLE,
 								multiple);
 					}
 				} else {
 					// Accounts the failed lightpath request
 					accounting.addFailed(rsvpErr);
-					// if (disruptedLSP.containsKey(rsvpErr.getFlowLabel()))
+					if (rsvpErr.inRestoration())
+						restoration.fail(rsvpErr.getFlowId(), event
+								.getTimeStamp());
+					// if (restoration.isDisrupted(rsvpErr.getFlowId()))
 					// System.out.println("Failed:"+event.toString());
 				}
 			} else if (errorCode.equals(Error.Code.RP_REROUTING_LIMIT_EXCEEDED)) {
@@ -513,26 +521,24 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 				// try {
 				accounting.addFailed(rsvpErr);
 				// } catch(Exception e){System.err.println(event.toString());}
+				if (rsvpErr.inRestoration())
+					restoration.fail(rsvpErr.getFlowId(), event.getTimeStamp());
 			}
 			// Now, return the result.
 			if (rsvpRetry != null)
-				return new Event(event.getTimeStamp(),
+				return Event.obtain(event.getTimeStamp(),
 						Event.Type.PACKET_ARRIVAL, rsvpRetry);
 			else
 				return null;
 		case LIGHTPATH_TEARDOWN: // Remove connection
 			Connection connectionTear = (Connection) event.getContent();
-			String flowLabel = connectionTear.getID();
-			if ((disruptedLSP.get(flowLabel) == null)
-					|| ((restoredLSP.get(flowLabel) != null) && (restoredLSP
-							.get(flowLabel).getPath().equals(connectionTear
-							.getPath())))) {
+			if (restoration.teardown(connectionTear, event.getTimeStamp())) {
 				// Send RSVP PathTear message
 				CrankRSVP rsvpTear = new CrankRSVP(connectionTear,
 						Packet.Header.RSVP_PATH_TEAR,
 						connectionTear.getSource(), connectionTear.getTarget());
 				// System.out.println(rsvpTear.toString());
-				return new Event(event.getTimeStamp(),
+				return Event.obtain(event.getTimeStamp(),
 						Event.Type.PACKET_ARRIVAL, rsvpTear);
 			} else { // Ignore the teardown associated to a failed LSP, since it
 						// is already cleaned and rerouted.
@@ -566,6 +572,9 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 				}
 			} else { // Failed node
 				accounting.addFailed(packet);
+				if ((packet instanceof CrankRSVP)
+						&& ((CrankRSVP) packet).inRestoration())
+					restoration.fail(packet.getFlowId(), event.getTimeStamp());
 				return null;
 			}
 		case FAILURE_LINK: // For link failure
@@ -573,7 +582,6 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 			String sEdge = (String) event.getContent();
 			Edge edge = links.get(sEdge).getEdge();
 			double timeNotification = 0;
-			Vector<Event> failuresLink = null;
 			
 			
 			try { // Do it only if it is not a node failure
@@ -639,27 +647,10 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 			// Notifies the end nodes of the failure after the localization time
 			timeNotification = lastTime + this.faultLocalizationTime;
 			int lengthFailure = 2 * this.identificationLength;
-			// Creates the packets of notification
-			Packet failureTo = new Packet(Packet.Header.LINK_FAILURE,
-					edge.getDestination(), edge.getDestination(),
-					Packet.Priority.HIGH, lengthFailure, graph.size());
-			Packet failureFrom = new Packet(Packet.Header.LINK_FAILURE,
-					edge.getSource(), edge.getSource(), Packet.Priority.HIGH,
-					lengthFailure, graph.size());
-			// Adds the edge to the packets.
-			Failure failureLinkAdv = new Failure(edge);
-			failureTo.setPayload(failureLinkAdv);
-			failureFrom.setPayload(failureLinkAdv);
-			// Add to the vector of events
-			failuresLink = new Vector<Event>();
-			failuresLink.add(new Event(timeNotification,
-					Event.Type.PACKET_ARRIVAL, failureFrom));
-			failuresLink.add(new Event(timeNotification,
-					Event.Type.PACKET_ARRIVAL, failureTo));
-			
-			
-						return new Event(timeNotification, Event.Type.MULTIPLE,
-					failuresLink);
+			// Coalesces the failures of the same instant in a single flooding
+			if ((flooding == null) || !flooding.accepts(timeNotification))
+				flooding = new FailureFlooding(nodes, timeNotification);
+			return flooding.add(new Failure(edge), lengthFailure, graph.size());
 		case FAILURE_NODE: // For node failure
 			// Get the node associated with the failure
 			id = (String) event.getContent();
@@ -668,10 +659,10 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 			Vector<String> neighbors = graph.adjacentNodes(id);
 			for (String neighId : neighbors) {
 				// Add the edge "from" the removed node
-				failuresNode.add(new Event(lastTime, Event.Type.FAILURE_LINK,
+				failuresNode.add(Event.obtain(lastTime, Event.Type.FAILURE_LINK,
 						new String(id + "-" + neighId)));
 				// Add the edge "to" the removed node
-				failuresNode.add(new Event(lastTime, Event.Type.FAILURE_LINK,
+				failuresNode.add(Event.obtain(lastTime, Event.Type.FAILURE_LINK,
 						new String(neighId + "-" + id)));
 			}
 			// Remove the failure node from the graph
@@ -724,7 +715,7 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 			// Remove the node from the list of nodes
 			nodes.remove(id);
 			// Return the response containing the failure of the multiple links
-			return new Event(lastTime, Event.Type.MULTIPLE, failuresNode);
+			return Event.obtain(lastTime, Event.Type.MULTIPLE, failuresNode);
 		default:
 			System.err.println("Unknown event: " + event.toString());
 			return null;
@@ -800,10 +791,8 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 	 */
 	public void updateValues() {
 		System.out.println("LastTime: " + lastTime);
-		System.out.println("Disrupted: "
-				+ this.disruptedLSP.keySet().toString());
-		System.out.println("Total disrupted: " + disruptedLSP.size());
-		System.out.println("Rerouted: " + reroutedLSP.size());
+		System.out.println("Restoration: " + restoration.toString());
+		System.out.println("Rerouted: " + rerouted);
 	}
 
 	/**
@@ -840,8 +829,10 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 	 * Selects the next hop based on the probabilities of the routing table and
 	 * on the local statistics (free wavelength ratio).
 	 * 
-	 * @param neighborhood
-	 *            The routing table of a given destination.
+	 * @param table
+	 *            The pheromone routing table.
+	 * @param destination
+	 *            The index of the destination in the routing table.
 	 * @param links
 	 *            The state of the neighbor links.
 	 * @param ant
@@ -851,35 +842,39 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 	 *            (congestion).
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood,
+	public static String select(PheromoneRoutingTable table, int destination,
 			LinkedHashMap<String, LinkState> links, Ant ant, double alpha,
 			double powerFactor) {
 		// Gets the total number of free points between the neighbors.
 		double totalFreeWavelengths = 0.0; // Total number of free wavelengths
 		double totalPheromoneLevel = 0.0;
 		// Gets the neighbors that are not in the tabu list.
-		Vector<String> availableNeighbors = new Vector<String>();
-		for (String neighId : neighborhood.neighborhood()) {
+		int[] availableNeighbors = table.getCandidates();
+		double[] probabilityDistribution = table.getDistribution();
+		int size = 0; // Number of available neighbors
+		for (int neighbor = 0; neighbor < table.getNumberNeighbors(); neighbor++) {
+			String neighId = table.getNeighbor(neighbor);
 			if (!ant.isTabu(neighId)) { // not in tabu list
-				availableNeighbors.add(neighId);
+				availableNeighbors[size] = neighbor;
 				// Get the total number of free wavelengths
 				double free = (double) links.get(neighId).getMask()
 						.freeWavelengths();
+				probabilityDistribution[size] = Math.pow(free, powerFactor);
 				totalFreeWavelengths = totalFreeWavelengths
-						+ Math.pow(free, powerFactor);
+						+ probabilityDistribution[size];
+				size++;
 				// And the total pheromone level
 				totalPheromoneLevel = totalPheromoneLevel
-						+ ((NeighborAttr) neighborhood.getEntry(neighId))
-								.getPheromoneLevel();
+						+ table.getPheromoneLevel(destination, neighbor);
 			}
 		}
 		// Verify the routing decision policy
-		if ((availableNeighbors.size() == 0)) { // all neighbors already visited
+		if (size == 0) { // all neighbors already visited
 												// - doing loop!
 			// Proceed like a data packet
 			String nextHop = null;
-			if (neighborhood.size() > 1) {
-				nextHop = select(neighborhood, ant);
+			if (table.getNumberNeighbors() > 1) {
+				nextHop = select(table, destination, ant);
 			} else {
 				// nextHop = ant.getLastVisited();
 				return null;
@@ -899,38 +894,18 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 			 * Now, use the pheromone values with the local heuristic to
 			 * calculate the next hop.
 			 */
-			int size = availableNeighbors.size(); // Number of neighbors
-			double[] probabilityDistribution = new double[size]; // Probability
-																	// distribution
-			String[] keys = new String[size]; // For storing the ids of the
-												// nodes.
-			int count = 0; // Counter for the number of neighbors
-			// For each neighbor do
-			for (String neighId : availableNeighbors) {
-				// Get the appropriate neighbor and the associated link state
-				keys[count] = neighId;
-				NeighborAttr neigh = (NeighborAttr) neighborhood
-						.getEntry(neighId);
+			for (int count = 0; count < size; count++) {
+				double level = table.getPheromoneLevel(destination,
+						availableNeighbors[count]);
 				// Now calculate the probability
-				double freeLambdas = links.get(neighId).getMask()
-						.freeWavelengths();
-				//
-				probabilityDistribution[count] = ((neigh.getPheromoneLevel() / totalPheromoneLevel) + alpha
-						* (Math.pow(freeLambdas, powerFactor) / totalFreeWavelengths))
+				probabilityDistribution[count] = ((level / totalPheromoneLevel) + alpha
+						* (probabilityDistribution[count] / totalFreeWavelengths))
 						/ (1.0 + alpha);
-				// Increment the index
-				count++;
 			}
 			// Spins the wheel
-			double sample = rngAnt.nextDouble();
-			// Set sum to the first probability
-			double sum = probabilityDistribution[0];
-			int n = 0;
-			while (sum < sample) {
-				n = n + 1;
-				sum = sum + probabilityDistribution[n];
-			}
-			return keys[n];
+			int n = PheromoneRoutingTable.spin(probabilityDistribution, size,
+					rngAnt.nextDouble());
+			return table.getNeighbor(availableNeighbors[n]);
 		}
 	}
 
@@ -938,54 +913,25 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 	 * Selects the next hop based ONLY on the probabilities of the routing
 	 * table. It is not allowed to come back!
 	 * 
-	 * @param neighborhood
-	 *            The routing table of a given destination.
+	 * @param table
+	 *            The pheromone routing table.
+	 * @param destination
+	 *            The index of the destination in the routing table.
+	 * @param packet
+	 *            The packet to be routed.
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood, Packet packet) {
-		int count = 0; // Counter for the number of neighbors
-		int size; // Number of neighbors
+	public static String select(PheromoneRoutingTable table, int destination,
+			Packet packet) {
 		// Get the last edge visited.
 		String lastVisited = null;
 		if (packet.getPathLength() > 0) { // not first hop
 			lastVisited = packet.getPath().getLastEdge().getSource();
-			size = neighborhood.size() - 1;
-		} else { // First hop
-			size = neighborhood.size();
-		}
-		if (size == 0) {
-			return null;
-		}
-		double[] probabilityDistribution = new double[size]; // Probability
-																// distribution
-		String[] keys = new String[size]; // For storing the ids of the nodes.
-		double totalLevel = 0.0; // Sum of probabilities
-		// For each neighbor do
-		for (String neighId : neighborhood.neighborhood()) {
-			if (!neighId.equals(lastVisited)) {
-				double level = ((NeighborAttr) neighborhood.getEntry(neighId))
-						.getPheromoneLevel();
-				probabilityDistribution[count] = level;
-				totalLevel = totalLevel + level;
-				keys[count] = neighId;
-				count++;
-			}
-		}
-		// Normalize the values
-		for (int i = 0; i < size; i++) {
-			probabilityDistribution[i] = probabilityDistribution[i]
-					/ totalLevel;
 		}
 		// Spins the wheel
-		double sample = rngAnt.nextDouble();
-		// Set sum to the first probability
-		double sum = probabilityDistribution[0];
-		int n = 0;
-		while (sum < sample) {
-			n = n + 1;
-			sum = sum + probabilityDistribution[n];
-		}
-		return keys[n];
+		int next = table.sample(destination, table.getNeighborId(lastVisited),
+				rngAnt);
+		return (next == -1) ? null : table.getNeighbor(next);
 	}
 
 	/**
@@ -1000,28 +946,7 @@ public class AntNetCrankInterControlPlane extends ControlPlane {
 	 */
 	public LinkedHashMap<String, Vector<Path>> getPaths(Graph topology,
 			int alternative) {
-		LinkedHashMap<String, Vector<Path>> routes = new LinkedHashMap<String, Vector<Path>>();
-		YEN yen = new YEN();
-
-		for (String src : topology.nodes()) {
-			// System.out.println("Paths para no: " + src);
-			for (String tgt : topology.nodes()) {
-				if (!src.equals(tgt)) { // Assure different nodes in the pair
-					Vector<Path> paths = null;
-
-					try {
-						paths = yen.getShortestPaths(src, tgt, topology,
-								alternative);
-
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-					routes.put(src + "-" + tgt, paths);
-				}
-			}
-		}
-		// System.out.println(routes.toString());
-		return routes;
+		return allPairsPaths.getPaths(topology, alternative);
 	}
 
 	/**
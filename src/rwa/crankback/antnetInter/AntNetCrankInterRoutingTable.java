@@ -35,6 +35,7 @@ import antnet.StatisticalParametricModel;
 import random.MersenneTwister;
 import rwa.LinkState;
 import rwa.crankback.antnet.AntNetCrankControlPlane;
+import rwa.crankback.obgp.InterDomainTable;
 import rwa.crankback.obgp.OBGPControlPlane;
 //import sun.org.mozilla.javascript.internal.Interpreter;
 //import sun.reflect.ReflectionFactory.GetReflectionFactoryAction;
@@ -93,6 +94,13 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 	 */
 	protected static LinkedHashMap<String, ArrayList<NeighborAttr>> interPheromone;
 
+	/** The routes of crankRoutes, indexed by the ids of the source and destination domains. */
+	protected static InterDomainTable<ArrayList<Vector<String>>> crankIndex;
+	/** The routes of interRoutes, indexed by the ids of the source and destination domains. */
+	protected static InterDomainTable<ArrayList<Vector<String>>> routeIndex;
+	/** The pheromone levels of interPheromone, indexed by the ids of the source and destination domains. */
+	protected static InterDomainTable<ArrayList<NeighborAttr>> pheromoneIndex;
+
 	public AntNetCrankInterRoutingTable(String source, double aConfidence,
 			double firstWeight, double secondWeight, double aAmplifier,
 			double aAlpha, double factor, boolean aDeterministic,
@@ -100,6 +108,11 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 		super(source, aConfidence, firstWeight, secondWeight, aAmplifier,
 				aAlpha);
 		this.crankRoutes = route;
+		crankIndex = new InterDomainTable<ArrayList<Vector<String>>>();
+		for (String key : route.keySet()) {
+			String[] pair = key.split("-");
+			crankIndex.put(pair[0], pair[1], route.get(key));
+		}
 		this.powerFactor = factor;
 		this.deterministic = aDeterministic;
 		interPheromone = new LinkedHashMap<String, ArrayList<NeighborAttr>>();
@@ -107,6 +120,8 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 		this.c2 = super.c2;
 		this.amplifier = super.amplifier;
 		this.interRoutes = new HashMap<String, HashMap<String, ArrayList<Vector<String>>>>();
+		routeIndex = new InterDomainTable<ArrayList<Vector<String>>>();
+		pheromoneIndex = new InterDomainTable<ArrayList<NeighborAttr>>();
 		this.asNumber = asNumber;
 
 	}
@@ -126,25 +141,28 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 		// comeca com 1, pois os dominios sao numerados a partir de 01
 		for (int i = 1; i <= asNumber; i++) {
 			if (!String.valueOf(i).equals(AS)) {
-				ArrayList teste = new ArrayList();
+				ArrayList<Vector<String>> teste = new ArrayList<Vector<String>>();
 				routeInfo.put("" + i + "", teste);
+				routeIndex.put(AS, "" + i + "", teste);
 			}
 		}
 		this.interRoutes.put(AS, routeInfo);
 	}
 
 	public void setDestNeighPair(String AS, String dest, Vector<String> neigh) {
-		ArrayList lista = interRoutes.get(AS).get(dest);
+		ArrayList<Vector<String>> lista = interRoutes.get(AS).get(dest);
 		lista.add(neigh);
 	}
 
 	public void putPheromoneEntry(String key, NeighborAttr pheromoneLevel) {
 		if (interPheromone.get(key) == null) {
-			ArrayList entry = new ArrayList();
+			ArrayList<NeighborAttr> entry = new ArrayList<NeighborAttr>();
 			interPheromone.put(key, entry);
+			String[] pair = key.split("-");
+			pheromoneIndex.put(pair[0], pair[1], entry);
 		}
 
-		ArrayList entry = interPheromone.get(key);
+		ArrayList<NeighborAttr> entry = interPheromone.get(key);
 		entry.add(pheromoneLevel);
 		// interPheromone.put(key, pheromoneLevel);
 	}
@@ -196,9 +214,6 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 	public static String getInterNextHop(String source, String target,
 			int selected, Vector<String> historyTable) {
 
-		String Source = source.split(":")[0];
-		String Target = target.split(":")[0];
-
 		// System.out.println(interRoutes.get(Source).get(Target).toString());
 
 		// int selected = getNextRoute(Source,Target) ;
@@ -212,11 +227,10 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 		// + interRoutes.get(Source).get(Target).get(selected)
 		// .firstElement());
 
-		String nextHop = interRoutes.get(Source).get(Target).get(selected)
-				.firstElement();
+		Vector<String> route = routeIndex.get(source, target).get(selected);
+		String nextHop = route.firstElement();
 		if (nextHop.equals(source)) {
-			nextHop = interRoutes.get(Source).get(Target).get(selected)
-					.lastElement();
+			nextHop = route.lastElement();
 		}
 
 		return nextHop;
@@ -225,20 +239,13 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 	}
 
 	public static String getNextHop(String source, String target, int trying) {
-		String Source = source;
-		if (source.contains(":")) {
-			source = source.split(":")[0];
-		}
-		if (target.contains(":")) {
-			target = target.split(":")[0];
-		}
-		String key = source + "-" + target;
 		// System.out.println("Me pediram o nexthop, estou devolvendo: " +
-		// crankRoutes.get(key).get(trying).firstElement());
+		// crankIndex.get(source, target).get(trying).firstElement());
 		// String probnextHop = interRoutes.get(source).get(target).get(arg0)
-		String nextHop = crankRoutes.get(key).get(trying).firstElement();
-		if (nextHop.equals(Source)) {
-			nextHop = crankRoutes.get(key).get(trying).get(1); // o elemento na
+		Vector<String> route = crankIndex.get(source, target).get(trying);
+		String nextHop = route.firstElement();
+		if (nextHop.equals(source)) {
+			nextHop = route.get(1); // o elemento na
 																// posicao 1 eh
 																// sempre o
 																// segundo
@@ -250,28 +257,14 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 
 	public static Vector<String> getASPath(String source, String target,
 			int route) {
-		if (source.contains(":")) {
-			source = source.split(":")[0];
-		}
-		if (target.contains(":")) {
-			target = target.split(":")[0];
-		}
-		String key = source + "-" + target;
 		// System.out.println("Retornando = "
-		// + interRoutes.get(source).get(target).get(route));
-		return interRoutes.get(source).get(target).get(route);
+		// + routeIndex.get(source, target).get(route));
+		return routeIndex.get(source, target).get(route);
 	}
 
 	public static Vector<String> getEntireASPath(String source, String target,
 			int route) {
-		if (source.contains(":")) {
-			source = source.split(":")[0];
-		}
-		if (target.contains(":")) {
-			target = target.split(":")[0];
-		}
-		String key = source + "-" + target;
-		return crankRoutes.get(key).get(route);
+		return crankIndex.get(source, target).get(route);
 	}
 
 	/*
@@ -341,6 +334,7 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 					double oldLevel = interPheromone.get(sourceDomain+"-"+destinationDomain).get(i).getPheromoneLevel();
 					interPheromone.get(sourceDomain+"-"+destinationDomain).get(i).setPheromoneLevel(oldLevel+(levelToDistribute/rotas.size()));
 				}
+				reindex(sourceDomain, destinationDomain);
 		
 		
 		//verifica todas as possiveis rotas interdominio que utilizam o link como utilizacao
@@ -361,11 +355,28 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 					
 				}
 			}
+			reindex(sourceDomain, possibleDestination);
 		}
 	
 		
 		
 
+	}
+
+	/**
+	 * Updates the indexes of the inter-domain routes and pheromone levels of the
+	 * specified pair of domains with the entries of the string-keyed tables.
+	 * 
+	 * @param sourceDomain
+	 *            The source domain.
+	 * @param destinationDomain
+	 *            The destination domain.
+	 */
+	protected static void reindex(String sourceDomain, String destinationDomain) {
+		routeIndex.put(sourceDomain, destinationDomain,
+				interRoutes.get(sourceDomain).get(destinationDomain));
+		pheromoneIndex.put(sourceDomain, destinationDomain,
+				interPheromone.get(sourceDomain + "-" + destinationDomain));
 	}
 
 	/**
@@ -546,10 +557,8 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 	 */
 	public static String getAntNextHop(String source, String target, int trying) {
 
-		String nextHop = interRoutes
-				.get(AntNetCrankInterControlPlane.getDomain(source))
-				.get(AntNetCrankInterControlPlane.getDomain(target))
-				.get(trying).get(0);
+		Vector<String> route = routeIndex.get(source, target).get(trying);
+		String nextHop = route.get(0);
 		// String nextHop = crankRoutes
 		// .get(AntNetCrankInterControlPlane.getDomain(source) + "-"
 		// + AntNetCrankInterControlPlane.getDomain(target))
@@ -559,10 +568,7 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 
 		if (nextHop.equals(source)) {
 
-			nextHop = interRoutes
-					.get(AntNetCrankInterControlPlane.getDomain(source))
-					.get(AntNetCrankInterControlPlane.getDomain(target))
-					.get(trying).get(1);
+			nextHop = route.get(1);
 			// nextHop = crankRoutes
 			// .get(AntNetCrankInterControlPlane.getDomain(source) + "-"
 			// + AntNetCrankInterControlPlane.getDomain(target))
@@ -611,12 +617,12 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 		 */
 
 		// obtem todas as possiveis rotas entre o dominio Source -- Destination.
-		ArrayList<NeighborAttr> rotas = interPheromone
-				.get(AntNetCrankInterControlPlane.getDomain(source) + "-"
-						+ AntNetCrankInterControlPlane.getDomain(target));
+		ArrayList<NeighborAttr> rotas = pheromoneIndex.get(source, target);
 
 		ArrayList<NeighborAttr> rotas2 = (ArrayList<NeighborAttr>) rotas
 				.clone();
+		// e as respectivas rotas interdominio
+		ArrayList<Vector<String>> routes = routeIndex.get(source, target);
 
 		// POR ENQUANTO FUNCIONA PARA CRANKBACK EM ENLACES INTERDOMINIO.
 		// FAZ TUDO NO VETOR DE ROTAS, ROTAS2, QUE EH FAKE
@@ -637,10 +643,7 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 					// .getDomain(source)).get(
 					// AntNetCrankInterControlPlane
 					// .getDomain(target)));
-					if (interRoutes
-							.get(AntNetCrankInterControlPlane.getDomain(source))
-							.get(AntNetCrankInterControlPlane.getDomain(target))
-							.get(j).contains(hopToEliminate)) {
+					if (routes.get(j).contains(hopToEliminate)) {
 						distribuirFeromonio += rotas2.get(j)
 								.getPheromoneLevel();
 						rotas2.get(j).setPheromoneLevel(0.0);
@@ -660,10 +663,7 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 					// .getDomain(source)).get(
 					// AntNetCrankInterControlPlane
 					// .getDomain(target)));
-					if (!(interRoutes
-							.get(AntNetCrankInterControlPlane.getDomain(source))
-							.get(AntNetCrankInterControlPlane.getDomain(target))
-							.get(j).contains(hopToEliminate))) {
+					if (!(routes.get(j).contains(hopToEliminate))) {
 						Double incremento = distribuirFeromonio
 								/ quantidadedeVizinhosBons;
 						rotas2.get(j).setPheromoneLevel(
@@ -678,10 +678,7 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 
 		for (String node : caminho.nodes()) {
 			for (int j = 0; j < rotas.size(); j++) {
-				Vector<String> possibleRoute = interRoutes
-						.get(AntNetCrankInterControlPlane.getDomain(source))
-						.get(AntNetCrankInterControlPlane.getDomain(target))
-						.get(j);
+				Vector<String> possibleRoute = routes.get(j);
 				if (possibleRoute.contains(node)) {
 					rotas2.get(j).setPheromoneLevel(0.0);
 				}
@@ -806,16 +803,12 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 		 */
 
 		// obtem todas as possiveis rotas entre o dominio Source -- Destination.
-		ArrayList<NeighborAttr> rotas = interPheromone
-				.get(AntNetCrankInterControlPlane.getDomain(source) + "-"
-						+ AntNetCrankInterControlPlane.getDomain(target));
+		ArrayList<NeighborAttr> rotas = pheromoneIndex.get(source, target);
 
 		Vector<String> availableNeighbors = new Vector<String>();
 
 		// obtem as possiveis enlaces interdominio a ser percorrido pela formiga
-		ArrayList<Vector<String>> neigh = interRoutes.get(
-				AntNetCrankInterControlPlane.getDomain(source)).get(
-				AntNetCrankInterControlPlane.getDomain(target));
+		ArrayList<Vector<String>> neigh = routeIndex.get(source, target);
 
 		// Preciso somar todos os comprimentos de onda disponiveis para cada uma
 		// das possiveis rotas:
@@ -1018,8 +1011,8 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 								sourceDomain, destinationDomain);
 
 						// obtem todas as possiveis rotas
-						ArrayList<Vector<String>> rotas = interRoutes.get(
-								sourceDomain).get(destinationDomain);
+						ArrayList<Vector<String>> rotas = routeIndex.get(
+								sourceDomain, destinationDomain);
 
 						// obtem o numero de possiveis rotas entre sourceDomain
 						// e destinationDomain
@@ -1066,9 +1059,11 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 											+ " = "
 											+ +ant.getASRecord(key));
 
-						for (int i = 0; i < interPheromone.get(key).size(); i++) {
+						ArrayList<NeighborAttr> levels = pheromoneIndex.get(
+								sourceDomain, target);
+						for (int i = 0; i < levels.size(); i++) {
 
-							double oldLevel = interPheromone.get(key).get(i)
+							double oldLevel = levels.get(i)
 									.getPheromoneLevel();
 							double newLevel;
 							if (verbose)
@@ -1087,7 +1082,7 @@ public class AntNetCrankInterRoutingTable extends PheromoneRoutingTable {
 								System.out.println("Nivel novo de ferormonio "
 										+ key + " " + newLevel);
 							// define o novo nivel de ferormonio
-							interPheromone.get(key).get(i)
+							levels.get(i)
 									.setPheromoneLevel(newLevel);
 
 						}
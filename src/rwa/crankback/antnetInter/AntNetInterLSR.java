@@ -19,6 +19,7 @@ import main.RoutingTable;
 import main.Failure.Location;
 import rwa.Connection;
 import rwa.Error;
+import rwa.FailureNotification;
 import rwa.LightpathRequest;
 import rwa.LinkState;
 import rwa.WavelengthMask;
@@ -27,6 +28,7 @@ import rwa.crankback.antnetInter.CrankRSVP;
 import rwa.crankback.CrankControlPlane;
 import rwa.crankback.LabelSet;
 import rwa.crankback.LabelSwitchRouter;
+import rwa.crankback.WavelengthUsageTable;
 
 /**
  * @author Gustavo S. Pavani, Andre Filipe M. Batista
@@ -588,14 +590,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 						// pac.setSDPair(id, target);
 
 						/*
-						 * if (!this.getHistoryTable(rsvp.getFlowLabel())
+						 * if (!this.getHistoryTable(rsvp.getFlowId())
 						 * .isEmpty()) { System.out .println("PARE!: " +
-						 * this.getHistoryTable(rsvp .getFlowLabel())); }
+						 * this.getHistoryTable(rsvp .getFlowId())); }
 						 */
 
 						nextHop = ((AntNetCrankRoutingTable) routingTable)
 								.nextHop(rsvp, this.getHistoryTable(rsvp
-										.getFlowLabel()));
+										.getFlowId()));
 
 						// talvez ver se tem loop
 
@@ -712,14 +714,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							// probabilistico
 							int selected = AntNetCrankInterRoutingTable
 									.getNextRoute(id, target, this.historyTable
-											.get(rsvp.getFlowLabel()), rsvp
+											.get(rsvp.getFlowId()), rsvp
 											.getPath());
 
 							// obtem o nexthop
 							nextHop = AntNetCrankInterRoutingTable
 									.getInterNextHop(id, target, selected, this
 											.getHistoryTable(rsvp
-													.getFlowLabel()));
+													.getFlowId()));
 
 							// apos obter o nextHop, vou marcar qual rota eu
 							// utilizei
@@ -735,10 +737,8 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							// utiizadopor este dominio
 							rsvp.selectedDomain.put(
 									getDomain(id) + "-" + getDomain(target),
-									AntNetCrankInterRoutingTable.interRoutes
-											.get(getDomain(id))
-											.get(getDomain(target))
-											.get(selected));
+									AntNetCrankInterRoutingTable.getASPath(id,
+											target, selected));
 
 						} else {
 							// CASO ja tenha sido selecionado o link de egresso,
@@ -804,7 +804,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							// intra que deve ser utilizada.
 							nextHop = ((AntNetCrankRoutingTable) routingTable)
 									.nextHop(pac, this.getHistoryTable(rsvp
-											.getFlowLabel()));
+											.getFlowId()));
 							if (verbose)
 								System.out
 										.println(rsvp.getFlowLabel()
@@ -879,7 +879,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 						nextHop = ((AntNetCrankRoutingTable) routingTable)
 								.nextHop(rsvp, new Vector<String>());
 					}
-					// this.getHistoryTable(rsvp.getFlowLabel());
+					// this.getHistoryTable(rsvp.getFlowId());
 					if (inter) {
 						// PROCESSAMENTO DE REQUISICOES INTER QUANDO ROUTING
 						// NONE
@@ -997,7 +997,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 					// Store the label set, if applicable
 					if ((labelSet != null)
 							&& (this.rerouting.equals(ReRouting.SEGMENT)))
-						labelSetTable.put(rsvp.getFlowLabel(),
+						labelSetTable.put(rsvp.getFlowId(),
 								(rwa.crankback.LabelSet) labelSet.clone());
 					// Updates the mask
 					if (labelSet == null) {
@@ -1061,8 +1061,8 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 				// Clean the temporary label set and the history table, if
 				// applicable
 				if (this.rerouting.equals(ReRouting.SEGMENT)) {
-					labelSetTable.remove(rsvp.getFlowLabel());
-					historyTable.remove(rsvp.getFlowLabel());
+					labelSetTable.remove(rsvp.getFlowId());
+					historyTable.remove(rsvp.getFlowId());
 				}
 				// Gets the connection
 				Connection teared = (Connection) rsvp.getObject();
@@ -1073,7 +1073,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 					// Get the associated mask
 					WavelengthMask linkMaskTear = link.getMask();
 					// Clear the wavelength
-					linkMaskTear.clearWavelength(teared.getWavelength());
+					linkMaskTear.clearWavelengths(teared.getWavelength(), teared.getSlots());
 				} else {
 					System.out.print(event.toString());
 				}
@@ -1116,8 +1116,8 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 						// Get the associated mask
 						WavelengthMask linkMaskRem = link.getMask();
 						// Clear the wavelength
-						linkMaskRem.clearWavelength(removed_perr
-								.getWavelength());
+						linkMaskRem.clearWavelengths(removed_perr
+								.getWavelength(), removed_perr.getSlots());
 					}
 				}
 				// Gets the target node
@@ -1143,7 +1143,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 				case ADMISSION_CONTROL_FAILURE:
 					if (this.rerouting.equals(ReRouting.SEGMENT)) {
 						// Remove the connection from the history table
-						this.historyTable.remove(rsvp.getFlowLabel());
+						this.historyTable.remove(rsvp.getFlowId());
 					}
 					if (target.equals(id)) { // RSVP reached the target node
 						event.setType(Event.Type.LIGHTPATH_PROBLEM);
@@ -1164,14 +1164,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 						// Remove the last visited node from the record route
 						String last = rsvp.removeLastVisited();
 						// Put it in the history table
-						String label = rsvp.getFlowLabel();
-						this.putHistoryTable(label, last);
+						long flow = rsvp.getFlowId();
+						this.putHistoryTable(flow, last);
 						// System.out.println("ProcLA: "+id+" last: "+last);
 						// Gets the request and update the try counter
 						lRequest = (LightpathRequest) rsvp.getObject();
 						lRequest.addTry();
 						// Verify if we can make another re-routing attempt
-						int currentAttempt = this.sizeHistoryTable(label);
+						int currentAttempt = this.sizeHistoryTable(flow);
 						// Gets the number of available neighbors
 						int neighbors;
 						if (id.equals(lRequest.getSource()))
@@ -1192,7 +1192,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 							// Sets the previous label set
 							rsvp.setLabelSet(labelSetTable.get(rsvp
-									.getFlowLabel()));
+									.getFlowId()));
 							// Set the record route in the RSVP
 							rsvp.setRecordRoute();
 							// Reset the error
@@ -1219,7 +1219,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 								event.setTimeStamp(event.getTimeStamp()
 										+ links.get(nextHop).getDelay());
 								// Remove the entry in the history table
-								this.historyTable.remove(rsvp.getFlowLabel());
+								this.historyTable.remove(rsvp.getFlowId());
 							}
 						}
 					} else { // None or end-to-end routing
@@ -1250,14 +1250,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							rsvp.getPath().addNode(last);
 						}
 						// Put it in the history table
-						this.putHistoryTable(rsvp.getFlowLabel(), last);
+						this.putHistoryTable(rsvp.getFlowId(), last);
 						// System.out.println("ProcRT: "+id+" last: "+last);
 						// Gets the request and update the try counter
 						lRequest = (LightpathRequest) rsvp.getObject();
 						lRequest.addTry();
 						// Verify if we can make another re-routing attempt
 						int currentAttempt = this.sizeHistoryTable(rsvp
-								.getFlowLabel());
+								.getFlowId());
 						// System.out.println("Cur: "+currentAttempt+" max: "+this.reroutingAttempts);
 						// Gets the number of available neighbors
 						int neighbors;
@@ -1275,7 +1275,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 							// Sets the previous label set
 							rsvp.setLabelSet(labelSetTable.get(rsvp
-									.getFlowLabel()));
+									.getFlowId()));
 							// Set the record route in the RSVP
 							rsvp.setRecordRoute();
 							// Reset the error
@@ -1302,7 +1302,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 								event.setTimeStamp(event.getTimeStamp()
 										+ links.get(nextHop).getDelay());
 								// Remove the entry in the history table
-								this.historyTable.remove(rsvp.getFlowLabel());
+								this.historyTable.remove(rsvp.getFlowId());
 							}
 						}
 					} else { // None or end-to-end routing
@@ -1323,14 +1323,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 					// Remove the last visited node from the record route
 					String last = rsvp.removeLastVisited();
 					// Put it in the history table
-					this.putHistoryTable(rsvp.getFlowLabel(), last);
+					this.putHistoryTable(rsvp.getFlowId(), last);
 					// System.out.println("ProcRE: "+id+" last: "+last);
 					// Gets the request and update the try counter
 					lRequest = (LightpathRequest) rsvp.getObject();
 					lRequest.addTry();
 					// Verify if we can make another re-routing attempt
 					int currentAttempt = this.sizeHistoryTable(rsvp
-							.getFlowLabel());
+							.getFlowId());
 					// System.out.println("Cur: "+currentAttempt);
 					// Gets the number of available neighbors
 					int neighbors;
@@ -1347,7 +1347,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 						// Set as path message
 						rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 						// Sets the previous label set
-						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 						// Set the record route in the RSVP
 						rsvp.setRecordRoute();
 						// Reset the error
@@ -1371,7 +1371,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							event.setTimeStamp(event.getTimeStamp()
 									+ links.get(nextHop).getDelay());
 							// Remove the entry in the history table
-							this.historyTable.remove(rsvp.getFlowLabel());
+							this.historyTable.remove(rsvp.getFlowId());
 						}
 					}
 					break;
@@ -1400,8 +1400,8 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 						// Get the associated mask
 						WavelengthMask linkMaskRem = link.getMask();
 						// Clear the wavelength
-						linkMaskRem.clearWavelength(removed_perr
-								.getWavelength());
+						linkMaskRem.clearWavelengths(removed_perr
+								.getWavelength(), removed_perr.getSlots());
 					}
 				}
 
@@ -1431,14 +1431,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							rsvp.getPath().addNode(last);
 						}
 						// Put it in the history table
-						String label = rsvp.getFlowLabel();
-						this.putHistoryTable(label, last);
+						long flow = rsvp.getFlowId();
+						this.putHistoryTable(flow, last);
 						// System.out.println("ProcLA: "+id+" last: "+last);
 						// Gets the request and update the try counter
 						lRequest = (LightpathRequest) rsvp.getObject();
 						lRequest.addTry();
 						// Verify if we can make another re-routing attempt
-						int currentAttempt = this.sizeHistoryTable(label);
+						int currentAttempt = this.sizeHistoryTable(flow);
 						// Gets the number of available neighbors
 						int neighbors;
 						if (id.equals(lRequest.getSource()))
@@ -1464,7 +1464,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 							// Sets the previous label set
 							rsvp.setLabelSet(labelSetTable.get(rsvp
-									.getFlowLabel()));
+									.getFlowId()));
 							// Set the record route in the RSVP
 							rsvp.setRecordRoute();
 							// Reset the error
@@ -1500,7 +1500,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 								event.setTimeStamp(event.getTimeStamp()
 										+ links.get(nextHop).getDelay());
 								// Remove the entry in the history table
-								this.historyTable.remove(rsvp.getFlowLabel());
+								this.historyTable.remove(rsvp.getFlowId());
 							}
 						}
 					}
@@ -1526,7 +1526,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 				case ADMISSION_CONTROL_FAILURE:
 					if (this.rerouting.equals(ReRouting.SEGMENT)) {
 						// Remove the connection from the history table
-						this.historyTable.remove(rsvp.getFlowLabel());
+						this.historyTable.remove(rsvp.getFlowId());
 					}
 					if (target.equals(id)) { // RSVP reached the target node
 						event.setType(Event.Type.LIGHTPATH_PROBLEM);
@@ -1552,14 +1552,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							rsvp.getPath().addNode(last);
 						}
 						// Put it in the history table
-						this.putHistoryTable(rsvp.getFlowLabel(), last);
+						this.putHistoryTable(rsvp.getFlowId(), last);
 						// System.out.println("ProcRT: "+id+" last: "+last);
 						// Gets the request and update the try counter
 						lRequest = (LightpathRequest) rsvp.getObject();
 						lRequest.addTry();
 						// Verify if we can make another re-routing attempt
 						int currentAttempt = this.sizeHistoryTable(rsvp
-								.getFlowLabel());
+								.getFlowId());
 						// System.out.println("Cur: "+currentAttempt+" max: "+this.reroutingAttempts);
 						// Gets the number of available neighbors
 						int neighbors;
@@ -1577,7 +1577,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 							// Sets the previous label set
 							rsvp.setLabelSet(labelSetTable.get(rsvp
-									.getFlowLabel()));
+									.getFlowId()));
 							// Set the record route in the RSVP
 							rsvp.setRecordRoute();
 							// Reset the error
@@ -1604,7 +1604,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 								event.setTimeStamp(event.getTimeStamp()
 										+ links.get(nextHop).getDelay());
 								// Remove the entry in the history table
-								this.historyTable.remove(rsvp.getFlowLabel());
+								this.historyTable.remove(rsvp.getFlowId());
 							}
 						}
 					} else { // None or end-to-end routing
@@ -1625,14 +1625,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 					// Remove the last visited node from the record route
 					String last = rsvp.removeLastVisited();
 					// Put it in the history table
-					this.putHistoryTable(rsvp.getFlowLabel(), last);
+					this.putHistoryTable(rsvp.getFlowId(), last);
 					// System.out.println("ProcRE: "+id+" last: "+last);
 					// Gets the request and update the try counter
 					lRequest = (LightpathRequest) rsvp.getObject();
 					lRequest.addTry();
 					// Verify if we can make another re-routing attempt
 					int currentAttempt = this.sizeHistoryTable(rsvp
-							.getFlowLabel());
+							.getFlowId());
 					// System.out.println("Cur: "+currentAttempt);
 					// Gets the number of available neighbors
 					int neighbors;
@@ -1649,7 +1649,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 						// Set as path message
 						rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 						// Sets the previous label set
-						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 						// Set the record route in the RSVP
 						rsvp.setRecordRoute();
 						// Reset the error
@@ -1673,7 +1673,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 							event.setTimeStamp(event.getTimeStamp()
 									+ links.get(nextHop).getDelay());
 							// Remove the entry in the history table
-							this.historyTable.remove(rsvp.getFlowLabel());
+							this.historyTable.remove(rsvp.getFlowId());
 						}
 					}
 					break;
@@ -1722,14 +1722,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 				// Get the associated mask
 				WavelengthMask linkMask = links.get(fwdId).getMask();
 				// See the status of the wavelength
-				if (linkMask.testWavelength(connection.getWavelength())) {
+				if (linkMask.testWavelengths(connection.getWavelength(), connection.getSlots())) {
 					// System.out.println("Adding conn: "+rsvp.getFlowLabel()+" with: "+connection.toString()+" to intermediate node: "+id);
 					activeConnections.put(rsvp.getFlowLabel(), connection);
 					// Set the wavelength
-					linkMask.setWavelength(connection.getWavelength());
+					linkMask.setWavelengths(connection.getWavelength(), connection.getSlots());
 					if (this.rerouting.equals(ReRouting.SEGMENT)) {
 						// Remove the connection from the history table
-						this.historyTable.remove(rsvp.getFlowLabel());
+						this.historyTable.remove(rsvp.getFlowId());
 					}
 					// Verify if the resv message reached the source node.
 					target = rsvp.getTarget();
@@ -1792,14 +1792,14 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 				// Get the associated mask
 				WavelengthMask linkMask = links.get(fwdId).getMask();
 				// See the status of the wavelength
-				if (linkMask.testWavelength(connection.getWavelength())) {
+				if (linkMask.testWavelengths(connection.getWavelength(), connection.getSlots())) {
 					// System.out.println("Adding conn: "+rsvp.getFlowLabel()+" with: "+connection.toString()+" to intermediate node: "+id);
 					activeConnections.put(rsvp.getFlowLabel(), connection);
 					// Set the wavelength
-					linkMask.setWavelength(connection.getWavelength());
+					linkMask.setWavelengths(connection.getWavelength(), connection.getSlots());
 					if (this.rerouting.equals(ReRouting.SEGMENT)) {
 						// Remove the connection from the history table
-						this.historyTable.remove(rsvp.getFlowLabel());
+						this.historyTable.remove(rsvp.getFlowId());
 					}
 					
 					// Verify if the resv message reached the source node.
@@ -1860,8 +1860,8 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 			// Get the associated mask
 			WavelengthMask linkMaskTear = links.get(forwardId).getMask();
 			// Clear the wavelength
-			int clear = ((Connection) rsvp.getObject()).getWavelength();
-			linkMaskTear.clearWavelength(clear);
+			Connection cleared = (Connection) rsvp.getObject();
+			linkMaskTear.clearWavelengths(cleared.getWavelength(), cleared.getSlots());
 			// Verify if the RSVP reached the source node.
 			if (rsvp.getSource().equals(id)) {
 				event.setType(Event.Type.LIGHTPATH_REMOVED);
@@ -1890,7 +1890,7 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 				// Get the associated mask
 				WavelengthMask linkMaskErr = links.get(nextHop).getMask();
 				// Clear the wavelength
-				linkMaskErr.clearWavelength(removed_rerr.getWavelength());
+				linkMaskErr.clearWavelengths(removed_rerr.getWavelength(), removed_rerr.getSlots());
 				// Set the next hop in the packet
 				rsvp.setNode(nextHop);
 				// Set the new time of the event due to transmission time
@@ -1901,121 +1901,99 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 			break;
 		case LINK_FAILURE: // Packet associated with control plane (separated
 							// channel)
-			// Identify the failure
-			Failure failure = (Failure) packet.getPayload();
-			// Flooding of the failure
-			if (!failureID.contains(failure.getID())) { // First time
-				// Mock local update of the topology
-				routingTable.updateFromTopology(graph);
-				// Broadcast the failure to the neighbors
-				String previousHop = packet.getSource();
-				Vector<String> neighbors = graph.adjacentNodes(id);
-				Vector<Event> broadcast = new Vector<Event>();
-				// Adds the flooding information
-				for (String neighId : neighbors) {
-					if (!neighId.equals(previousHop)) { // not visited
-						// Retransmit the packet
-						Packet clonedFrom = (Packet) packet.clone();
-						clonedFrom.retransmit(id, neighId);
-						clonedFrom.setNode(neighId);
-						// Set new time stamp
-						double transmissionTime = this.links.get(neighId)
-								.getDelay();
-						double newTimeStamp = event.getTimeStamp()
-								+ transmissionTime;
-						// Add to the list of broadcast
-						broadcast.add(new Event(newTimeStamp,
-								Event.Type.PACKET_ARRIVAL, clonedFrom));
+			// Identify the failures notified in the same instant
+			FailureNotification notification = (FailureNotification) packet.getPayload();
+			// Forward the notification to the neighbors reached first through this node
+			Vector<Event> broadcast = notification.forward(this, event);
+			for (Failure failure : notification.getFailures()) {
+				// Treatment of the failure
+				if (!failureID.contains(failure.getID())) { // First time
+					// Mock local update of the topology
+					routingTable.updateFromTopology(graph);
+					// Add the failure to the list of processed ones.
+					failureID.add(failure.getID());
+					/* Remove the link states affected by the failure. */
+					if (((Edge) failure.getInformation()).getSource().equals(id)) {
+						links.remove(((Edge) failure.getInformation())
+								.getDestination());
 					}
-				}
-				// Add the failure to the list of processed ones.
-				failureID.add(failure.getID());
-				/* Remove the link states affected by the failure. */
-				if (((Edge) failure.getInformation()).getSource().equals(id)) {
-					links.remove(((Edge) failure.getInformation())
-							.getDestination());
-				}
-				/* Treatment the failure by the neighbor nodes */
-				// Now, if it is the closest node upstream to the failure
-				if (id.equals(((Edge) failure.getInformation()).getSource())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathErr = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_ERR, id,
-									active.getSource());
-							// Create the error with path remove flag
-							error = new Error(Error.Code.LSP_FAILURE, true);
-							pathErr.setError(error);
-							pathErr.setFlowLabel(activeID);
-							// System.out.println(pathErr.toString());
-							double transmissionTime = 0;
-							// Not the source node to treat the failure
-							if (!id.equals(active.getPath().firstNode())) {
-								nextHop = active.getPath().getPreviousNode(id);
-								pathErr.setNode(nextHop);
-								// Set new time stamp
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+					/* Treatment the failure by the neighbor nodes */
+					// Now, if it is the closest node upstream to the failure
+					if (id.equals(((Edge) failure.getInformation()).getSource())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathErr = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_ERR, id,
+										active.getSource());
+								// Create the error with path remove flag
+								error = new Error(Error.Code.LSP_FAILURE, true);
+								pathErr.setError(error);
+								pathErr.setFlowLabel(activeID);
+								// System.out.println(pathErr.toString());
+								double transmissionTime = 0;
+								// Not the source node to treat the failure
+								if (!id.equals(active.getPath().firstNode())) {
+									nextHop = active.getPath().getPreviousNode(id);
+									pathErr.setNode(nextHop);
+									// Set new time stamp
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathErr));
 							}
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathErr));
 						}
-					}
-					// Now, if it is the closest node downstream to the failure
-				} else if (id.equals(((Edge) failure.getInformation())
-						.getDestination())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathTear = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_TEAR, id,
-									active.getTarget());
-							// Create the error
-							error = new Error(Error.Code.LSP_FAILURE);
-							pathTear.setError(error);
-							pathTear.setFlowLabel(activeID);
-							// System.out.println(pathTear.toString());
-							// Not the target node to treat the failure
-							double transmissionTime = 0;
-							// Not the last node to tackle the failure
-							if (!id.equals(active.getPath().lastNode())) {
-								nextHop = active.getPath().getNextNode(id);
-								pathTear.setNode(nextHop);
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+						// Now, if it is the closest node downstream to the failure
+					} else if (id.equals(((Edge) failure.getInformation())
+							.getDestination())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathTear = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_TEAR, id,
+										active.getTarget());
+								// Create the error
+								error = new Error(Error.Code.LSP_FAILURE);
+								pathTear.setError(error);
+								pathTear.setFlowLabel(activeID);
+								// System.out.println(pathTear.toString());
+								// Not the target node to treat the failure
+								double transmissionTime = 0;
+								// Not the last node to tackle the failure
+								if (!id.equals(active.getPath().lastNode())) {
+									nextHop = active.getPath().getNextNode(id);
+									pathTear.setNode(nextHop);
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								// Set new time stamp
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								// Add to the list of broadcast
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathTear));
 							}
-							// Set new time stamp
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							// Add to the list of broadcast
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathTear));
 						}
 					}
 				}
-				// System.out.println(broadcast.toString());
-				// Return the multiple packets associated with the failure
-				response = new Event(event.getTimeStamp(), Event.Type.MULTIPLE,
-						broadcast);
-			} else { // Already processed the failure.
-				event.setType(Event.Type.IGNORE);
-				response = event;
 			}
+			// Return the multiple packets associated with the failures
+			response = Event.obtain(event.getTimeStamp(), Event.Type.MULTIPLE, broadcast);
 			break;
 		}
 		return response;
@@ -2029,50 +2007,21 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 	 * @return The most used label set for wavelength assignment.
 	 */
 	protected int[] getMostUsed(long[] usage) {
-		int[] order = new int[usage.length];
-		for (int i = 0; i < usage.length; i++) {
-			long max = Long.MIN_VALUE;
-			int pos = -1;
-			for (int j = 0; j < usage.length; j++) {
-				if (usage[j] > max) {
-					max = usage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			usage[pos] = Long.MIN_VALUE;
-		}
-		return order;
+		return WavelengthUsageTable.rank(usage, true);
 	}
 
+	/**
+	 * Returns the most used label set for wavelength assignment, considering the
+	 * usage of all destinations.
+	 * 
+	 * @param w
+	 *            The number of wavelengths of the link.
+	 * @return The most used label set for wavelength assignment.
+	 */
 	protected int[] getMostUsed(int w) {
-		// Gets the total usage for all destinations
-		WavelengthUsage[] table = lambdaTable.getArray();
-		long totalUsage[] = new long[w];
-		Arrays.fill(totalUsage, 0L);
-		for (int i = 0; i < table.length; i++) {
-			if (table[i] != null) {
-				long usage[] = table[i].getUsage();
-				for (int j = 0; j < w; j++) {
-					totalUsage[j] = totalUsage[j] + usage[j];
-				}
-			}
-		}
-		// Now order from the most used to the least used
-		int[] order = new int[w];
-		for (int i = 0; i < w; i++) {
-			long max = Long.MIN_VALUE;
-			int pos = -1;
-			for (int j = 0; j < w; j++) {
-				if (totalUsage[j] > max) {
-					max = totalUsage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			totalUsage[pos] = Long.MIN_VALUE;
-		}
-		return order;
+		if (w == lambdaTable.getWavelengths())
+			return lambdaTable.getMostUsed();
+		return getMostUsed(Arrays.copyOf(lambdaTable.getTotalUsage(), w));
 	}
 
 	/**
@@ -2083,50 +2032,21 @@ public class AntNetInterLSR extends LabelSwitchRouter {
 	 * @return The least used label set for wavelength assignment.
 	 */
 	protected int[] getLeastUsed(long[] usage) {
-		int[] order = new int[usage.length];
-		for (int i = 0; i < usage.length; i++) {
-			long min = Long.MAX_VALUE;
-			int pos = -1;
-			for (int j = 0; j < usage.length; j++) {
-				if (usage[j] < min) {
-					min = usage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			usage[pos] = Long.MAX_VALUE;
-		}
-		return order;
+		return WavelengthUsageTable.rank(usage, false);
 	}
 
+	/**
+	 * Returns the least used label set for wavelength assignment, considering the
+	 * usage of all destinations.
+	 * 
+	 * @param w
+	 *            The number of wavelengths of the link.
+	 * @return The least used label set for wavelength assignment.
+	 */
 	protected int[] getLeastUsed(int w) {
-		// Gets the total usage for all destinations
-		WavelengthUsage[] table = lambdaTable.getArray();
-		long totalUsage[] = new long[w];
-		Arrays.fill(totalUsage, 0L);
-		for (int i = 0; i < table.length; i++) {
-			if (table[i] != null) {
-				long usage[] = table[i].getUsage();
-				for (int j = 0; j < w; j++) {
-					totalUsage[j] = totalUsage[j] + usage[j];
-				}
-			}
-		}
-		// Now order from the least used to the most used
-		int[] order = new int[w];
-		for (int i = 0; i < w; i++) {
-			long min = Long.MAX_VALUE;
-			int pos = -1;
-			for (int j = 0; j < w; j++) {
-				if (totalUsage[j] < min) {
-					min = totalUsage[j];
-					pos = j;
-				}
-			}
-			order[i] = pos;
-			totalUsage[pos] = Long.MAX_VALUE;
-		}
-		return order;
+		if (w == lambdaTable.getWavelengths())
+			return lambdaTable.getLeastUsed();
+		return getLeastUsed(Arrays.copyOf(lambdaTable.getTotalUsage(), w));
 	}
 
 	/*
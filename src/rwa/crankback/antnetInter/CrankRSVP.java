@@ -62,7 +62,7 @@ public class CrankRSVP extends Packet {
 	 */
 	public CrankRSVP(LightpathRequest request, int limit, long label) {
 		super(Packet.Header.RSVP_PATH,request.getSource(),request.getTarget(),Packet.Priority.HIGH,0,limit);
-		this.setFlowLabel(Long.toString(label));
+		this.setFlowLabel(label);
 		object = request;
 	}
 	
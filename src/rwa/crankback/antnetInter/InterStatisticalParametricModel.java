@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Vector;
 
 import antnet.LocalParametricView;
+import antnet.StatisticalParametricModel;
 
 /**
  * Classe que implementa o modelo paramétrico estatístico do roteamento
@@ -24,13 +25,13 @@ public class InterStatisticalParametricModel implements Serializable {
 	// a chave do Mapa eh um dominio
 	// o retorno é um outro mapa contendo todos os dominios da rede, e o modelo
 	// parametrico entre o dominio chave e o dominio obtido.
-	protected static HashMap<String, HashMap<String, LocalParametricView>> interStatisticalParametricView;
+	protected static HashMap<String, StatisticalParametricModel> interStatisticalParametricView;
 	private double exponentialFactor;
 	private double reductor;
 
 	public InterStatisticalParametricModel(double exponentialFactor,
 			double reductor) {
-		interStatisticalParametricView = new HashMap<String, HashMap<String, LocalParametricView>>();
+		interStatisticalParametricView = new HashMap<String, StatisticalParametricModel>();
 		this.exponentialFactor = exponentialFactor;
 		this.reductor = reductor;
 	}
@@ -50,14 +51,11 @@ public class InterStatisticalParametricModel implements Serializable {
 		if (!interStatisticalParametricView.containsKey(AS)) {
 
 			// inicia com 1, pois a numeracao dos ASs eh iniciada em 1
-			HashMap<String, LocalParametricView> ASModel = new HashMap<String, LocalParametricView>();
-			for (int i = 1; i <= ASNumber; i++) {
-				if (!(Integer.parseInt(AS) == i)) {
-					LocalParametricView localView = new LocalParametricView(
-							exponentialFactor, reductor);
-					ASModel.put("" + i + "", localView);
-				}
-			}
+			Vector<String> domains = new Vector<String>();
+			for (int i = 1; i <= ASNumber; i++)
+				domains.add("" + i + "");
+			StatisticalParametricModel ASModel = new StatisticalParametricModel(
+					AS, domains, exponentialFactor, reductor);
 
 			interStatisticalParametricView.put(AS, ASModel);
 		}
@@ -75,7 +73,7 @@ public class InterStatisticalParametricModel implements Serializable {
 	 *         destination.
 	 */
 	public static LocalParametricView get(String source, String destination) {
-		HashMap<String, LocalParametricView> ASModel = interStatisticalParametricView
+		StatisticalParametricModel ASModel = interStatisticalParametricView
 				.get(source);
 		return ASModel.get(destination);
 	}
@@ -90,10 +88,9 @@ public class InterStatisticalParametricModel implements Serializable {
 	 */
 	public static void update(double metric, String sourceAS,
 			String destinationAS) {
-		HashMap<String, LocalParametricView> ASModel = interStatisticalParametricView
+		StatisticalParametricModel ASModel = interStatisticalParametricView
 				.get(sourceAS);
-		LocalParametricView view = ASModel.get(destinationAS);
-		view.update(metric);
+		ASModel.update(metric, destinationAS);
 	}
 
 	/**
@@ -106,12 +103,15 @@ public class InterStatisticalParametricModel implements Serializable {
 			builder.append(SourceAS);
 			builder.append("\n");
 
-			for (String destinationAS : interStatisticalParametricView.get(
-					SourceAS).keySet()) {
+			StatisticalParametricModel ASModel = interStatisticalParametricView
+					.get(SourceAS);
+			for (int i = 0; i < ASModel.size(); i++) {
+				String destinationAS = ASModel.getNode(i);
+				if (destinationAS.equals(SourceAS))
+					continue;
 				builder.append("Destination: " + destinationAS);
 				builder.append(" - ");
-				LocalParametricView view = interStatisticalParametricView.get(
-						SourceAS).get(destinationAS);
+				LocalParametricView view = ASModel.get(destinationAS);
 				builder.append(view.toString());
 				builder.append("\n");
 
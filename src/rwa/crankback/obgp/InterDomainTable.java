@@ -0,0 +1,195 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package rwa.crankback.obgp;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * Index of the inter-domain routing information, such as the AS-paths, keyed by the
+ * pair of source and destination domains. Each domain receives an integer id, in
+ * order of first appearance, and the entries are kept in a matrix indexed by the
+ * ids. The id of a node is the id of its domain, i.e., the prefix of its name
+ * before the separator (e.g., domain "1" for the node "1:a"), and it is cached on
+ * the first lookup. Therefore, a lookup is an array indexing, instead of splitting
+ * the names and concatenating a "source-destination" key for each call.
+ * <p>Only the insertion of an entry registers new domains: the lookups do not change
+ * the domains nor the matrix, and they return no entry for an unknown domain.
+ * <p>The entries are the same objects of the string-keyed tables. The tables must
+ * put the entries again whenever they are replaced, e.g., after a failure.
+ *
+ * @version 1.0
+ */
+public class InterDomainTable<V> implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The separator between the domain and the node in the name of a node. */
+	public static final String SEPARATOR = ":";
+	/** The id of each domain and node name already looked up. */
+	protected HashMap<String,Integer> ids;
+	/** The name of each domain, indexed by the domain id. */
+	protected Vector<String> domains;
+	/** The entries, indexed by the ids of the source and destination domains. */
+	protected Object[][] entries;
+
+	/**
+	 * Creates a new InterDomainTable object.
+	 */
+	public InterDomainTable() {
+		ids = new HashMap<String,Integer>();
+		domains = new Vector<String>();
+		entries = new Object[0][0];
+	}
+
+	/**
+	 * Returns the domain of the specified node or domain name.
+	 * @param name The name of a node or of a domain.
+	 * @return The domain of the node, or the name itself if it has no separator.
+	 */
+	public static String getDomain(String name) {
+		int index = name.indexOf(SEPARATOR);
+		if (index == -1)
+			return name;
+		return name.substring(0, index);
+	}
+
+	/**
+	 * Returns the id of the domain of the specified node or domain name.
+	 * @param name The name of a node or of a domain.
+	 * @return The id of the domain, or -1 if the domain is not known.
+	 */
+	public int getId(String name) {
+		Integer id = ids.get(name);
+		if (id != null)
+			return id;
+		id = ids.get(getDomain(name));
+		if (id == null)
+			return -1;
+		ids.put(name, id); //Caches the node name of a known domain
+		return id;
+	}
+
+	/**
+	 * Returns the id of the domain of the specified node or domain name,
+	 * registering the domain if it is not known yet.
+	 * @param name The name of a node or of a domain.
+	 * @return The id of the domain.
+	 */
+	protected int register(String name) {
+		int id = this.getId(name);
+		if (id != -1)
+			return id;
+		String domain = getDomain(name);
+		id = domains.size();
+		domains.add(domain);
+		ids.put(domain, id);
+		if (id >= entries.length)
+			this.grow(Math.max(2 * entries.length, id + 1));
+		ids.put(name, id);
+		return id;
+	}
+
+	/**
+	 * Enlarges the matrix of entries.
+	 * @param capacity The new number of domains supported.
+	 */
+	protected void grow(int capacity) {
+		Object[][] larger = new Object[capacity][capacity];
+		for (int i = 0; i < entries.length; i++)
+			System.arraycopy(entries[i], 0, larger[i], 0, entries.length);
+		entries = larger;
+	}
+
+	/**
+	 * Returns the entry of the specified pair of domains.
+	 * @param source The id of the source domain.
+	 * @param target The id of the destination domain.
+	 * @return The entry, or null if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int source, int target) {
+		return (V) entries[source][target];
+	}
+
+	/**
+	 * Returns the entry of the domains of the specified nodes or domain names.
+	 * @param source The source node or domain.
+	 * @param target The destination node or domain.
+	 * @return The entry, or null if there is none.
+	 */
+	public V get(String source, String target) {
+		int s = this.getId(source);
+		int t = this.getId(target);
+		if ((s == -1) || (t == -1))
+			return null;
+		return this.get(s, t);
+	}
+
+	/**
+	 * Sets the entry of the domains of the specified nodes or domain names.
+	 * @param source The source node or domain.
+	 * @param target The destination node or domain.
+	 * @param value The entry.
+	 * @return The previous entry, or null if there is none.
+	 */
+	public V put(String source, String target, V value) {
+		int s = this.register(source);
+		int t = this.register(target);
+		V previous = this.get(s, t);
+		entries[s][t] = value;
+		return previous;
+	}
+
+	/**
+	 * Removes the entry of the domains of the specified nodes or domain names.
+	 * @param source The source node or domain.
+	 * @param target The destination node or domain.
+	 * @return The removed entry, or null if there is none.
+	 */
+	public V remove(String source, String target) {
+		int s = this.getId(source);
+		int t = this.getId(target);
+		if ((s == -1) || (t == -1))
+			return null;
+		V previous = this.get(s, t);
+		entries[s][t] = null;
+		return previous;
+	}
+
+	/**
+	 * Returns the number of domains.
+	 * @return The number of domains.
+	 */
+	public int size() {
+		return domains.size();
+	}
+
+	/**
+	 * Returns the name of the domain with the specified id.
+	 * @param id The id of the domain.
+	 * @return The name of the domain.
+	 */
+	public String getDomainName(int id) {
+		return domains.get(id);
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		for (int s = 0; s < domains.size(); s++) {
+			for (int t = 0; t < domains.size(); t++) {
+				if (entries[s][t] != null) {
+					buffer.append(domains.get(s) + "-" + domains.get(t) + ":");
+					buffer.append("\n");
+					buffer.append(entries[s][t].toString() + "\n");
+				}
+			}
+		}
+		return buffer.toString();
+	}
+}
@@ -8,7 +8,6 @@ import graph.Dijkstra;
 import graph.Edge;
 import graph.Graph;
 import graph.Path;
-import graph.YEN;
 
 import java.io.FileInputStream;
 import java.io.ObjectInputStream;
@@ -29,8 +28,11 @@ import ops.Packet;
 import rwa.Connection;
 import rwa.Error;
 import rwa.ExplicitRoutingTable;
+import rwa.FailureFlooding;
 import rwa.LightpathRequest;
 import rwa.LinkState;
+import rwa.RestorationTracker;
+import rwa.SpectrumAssignment;
 import rwa.crankback.obgp.OBGPLabelSwitchRouter.ReRouting;
 import rwa.crankback.obgp.OBGPLabelSwitchRouter.WavelengthAssignment;
 
@@ -77,18 +79,20 @@ public class OBGPControlPlane extends ControlPlane {
 	protected int reroutingAttempts;
 	/** The chosen wavelength assignment algorithm. */
 	protected WavelengthAssignment wa;
+	/** The contiguous spectrum assignment of flex-grid links, or null for the wavelength assignment. */
+	protected SpectrumAssignment spectrum;
 	/** The length in bytes for the identification of a node. */
 	protected int identificationLength;
 	/** Maximum number of interdomain possible routes */
 	protected int maxInterRoutes;
 
 	/**
-	 * The collection of LSP disrupted by a failure, which are eligible for full
-	 * re-routing.
+	 * The LSP disrupted by a failure, which are eligible for full re-routing,
+	 * and the ones successfully restored after a failure.
 	 */
-	protected Hashtable<String, LightpathRequest> disruptedLSP;
-	/** The collection of LSP successfully restored after a failure. */
-	protected Hashtable<String, Connection> restoredLSP;
+	protected RestorationTracker restoration;
+	/** The flooding of the failures detected in the last instant. */
+	protected FailureFlooding flooding;
 	/** The actual collection of shortest paths of this network. */
 	public static LinkedHashMap<String, Vector<Path>> setPaths;
 	/** The collection of ASBRs in the full domain topology **/
@@ -106,7 +110,8 @@ public class OBGPControlPlane extends ControlPlane {
 	/** The interdomain routing for all topology - like BGP **/
 	protected static LinkedHashMap<String, Vector<Path>> interdomainRoutes;
 
-	protected static LinkedHashMap<String, Connection> reroutedLSP;
+	/** The number of LSP successfully established after a crankback re-routing. */
+	protected long rerouted;
 
 	/** A boolean flag for verbose printf debug mode **/
 	private boolean verbose = false;
@@ -130,8 +135,7 @@ public class OBGPControlPlane extends ControlPlane {
 		// Create the nodes of this network
 		nodes = new LinkedHashMap<String, OBGPLabelSwitchRouter>();
 		// Create the storage of disrupted connections by failure
-		disruptedLSP = new Hashtable<String, LightpathRequest>();
-		restoredLSP = new Hashtable<String, Connection>();
+		restoration = new RestorationTracker();
 		// Get the simulation parameters
 		Hashtable<String, Vector<String>> parameters = config
 				.getSimulationParameters();
@@ -163,6 +167,13 @@ public class OBGPControlPlane extends ControlPlane {
 		this.alternative = reroutingAttempts + 1; // Number of k-shortest paths
 		wa = WavelengthAssignment.valueOf(parameters.get("/RWA/WA/@type")
 				.firstElement());
+		// Flex-grid links: the wavelengths of the links are spectrum slots
+		Vector<String> spectrumPolicy = parameters.get("/RWA/Spectrum/@policy");
+		if (spectrumPolicy != null)
+			spectrum = new SpectrumAssignment(
+					SpectrumAssignment.Policy.valueOf(spectrumPolicy
+							.firstElement()), Integer.parseInt(parameters.get(
+							"/RWA/Spectrum/@slots").firstElement()));
 
 		maxInterRoutes = Integer.parseInt(parameters.get(
 				"/RWA/Routing/@interRoutes").firstElement());
@@ -184,7 +195,6 @@ public class OBGPControlPlane extends ControlPlane {
 
 		// create the collection of graphs
 		domainGraphs = new LinkedHashMap<String, Graph>();
-		reroutedLSP = new LinkedHashMap<String, Connection>();
 
 		/** GENERATION OF PER DOMAIN GRAPH */
 
@@ -275,6 +285,7 @@ public class OBGPControlPlane extends ControlPlane {
 						maxReroutingAttempts, reroutingAttempts,
 						asbrs.contains(node), getDomain(node),
 						maxInterReroutingAttempts);
+				obgpLSR.setSpectrumAssignment(spectrum);
 
 				nodes.put(node, obgpLSR);
 
@@ -424,7 +435,7 @@ public class OBGPControlPlane extends ControlPlane {
 					counterLightpath);
 			this.counterLightpath++; // Increment the counter
 			// Create a new event for setting up the lightpath
-			return new Event(event.getTimeStamp(), Event.Type.PACKET_ARRIVAL,
+			return Event.obtain(event.getTimeStamp(), Event.Type.PACKET_ARRIVAL,
 					rsvpPath);
 
 		case LIGHTPATH_ESTABLISHED: // Lightpath established
@@ -440,17 +451,18 @@ public class OBGPControlPlane extends ControlPlane {
 			accounting.addSuccesful(rsvpConfirm);
 			// See if it is a successful re-routing of a failed LSP
 			if (rsvpConfirm.isRerouting()) {
-				reroutedLSP.put(rsvpConfirm.getFlowLabel(), connectionEst);
+				rerouted++;
 			}
 
 			if (rsvpConfirm.inRestoration()) {
-				restoredLSP.put(rsvpConfirm.getFlowLabel(), connectionEst);
+				restoration.restore(rsvpConfirm.getFlowId(), connectionEst,
+						event.getTimeStamp(), event.getTimeStamp() + duration);
 			}
 			// System.out.println(event.toString());
 			// Return a new event for tearing down the lightpath when
 			// appropriate
 
-			return new Event((event.getTimeStamp() + duration),
+			return Event.obtain((event.getTimeStamp() + duration),
 					Event.Type.LIGHTPATH_TEARDOWN, connectionEst);
 
 		case LIGHTPATH_PROBLEM:
@@ -460,7 +472,7 @@ public class OBGPControlPlane extends ControlPlane {
 			// Get the error status
 			Error error = rsvpErr.getError();
 			// Get the label
-			int label = Integer.parseInt(rsvpErr.getFlowLabel());
+			long label = rsvpErr.getFlowId();
 			CrankRSVP rsvpRetry = null; // new Rsvp message
 			Error.Code errorCode = error.getErrorCode();
 			// Allocation of wavelength contention problem
@@ -471,7 +483,7 @@ public class OBGPControlPlane extends ControlPlane {
 						.getRequest();
 				rsvpRetry = new CrankRSVP(lRequest, hopLimit, label);
 				// System.out.println("Contention: "+lRequest.toString());
-				if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+				if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 					rsvpRetry.setRestoration(); // set the flag for restoration
 					// System.out.println(event.toString());
 				}
@@ -494,7 +506,9 @@ public class OBGPControlPlane extends ControlPlane {
 				// Set the label indicating to tackle the failure
 				rsvpRetry.setRestoration();
 				// Adds the connection to the list of disrupted LSP
-				disruptedLSP.put(rsvpErr.getFlowLabel(), lRequest);
+				restoration.disrupt(rsvpErr.getFlowId(), lRequest, event
+						.getTimeStamp(), event.getInitialTimeStamp()
+						+ residualDuration);
 				// System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				// Wavelength continuity constraint violated or no link
 				// available, use alternate path
@@ -513,7 +527,7 @@ public class OBGPControlPlane extends ControlPlane {
 					rsvpRetry = new CrankRSVP(lRequest, hopLimit, label);
 					// System.out.println("Vou tentar novamente");
 					rsvpRetry.setRerouting(true);
-					if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) {
+					if (restoration.isDisrupted(rsvpErr.getFlowId())) {
 
 						rsvpRetry.setRestoration(); // set the flag of
 													// restoration
@@ -528,7 +542,10 @@ public class OBGPControlPlane extends ControlPlane {
 								.println("Na na nina nao....ja tentou muito!!!");
 
 					accounting.addFailed(rsvpErr);
-					// if (disruptedLSP.containsKey(rsvpErr.getFlowLabel()))
+					if (rsvpErr.inRestoration())
+						restoration.fail(rsvpErr.getFlowId(), event
+								.getTimeStamp());
+					// if (restoration.isDisrupted(rsvpErr.getFlowId()))
 					// System.out.println("Failed:"+event.toString());
 				}
 			} else if (errorCode.equals(Error.Code.RP_REROUTING_LIMIT_EXCEEDED)) {
@@ -537,22 +554,20 @@ public class OBGPControlPlane extends ControlPlane {
 							.println("Vish maria, excedeu o limite de tentar novamente");
 				// Accounts the failed lightpath request
 				accounting.addFailed(rsvpErr);
+				if (rsvpErr.inRestoration())
+					restoration.fail(rsvpErr.getFlowId(), event.getTimeStamp());
 			}
 			// Now, return the result.
 			if (rsvpRetry != null) {
 				// System.out.println("Devolvendo como packet arrival");
-				return new Event(event.getTimeStamp(),
+				return Event.obtain(event.getTimeStamp(),
 						Event.Type.PACKET_ARRIVAL, rsvpRetry);
 			} else
 				return null;
 		case LIGHTPATH_TEARDOWN: // Remove connection
 
 			Connection connectionTear = (Connection) event.getContent();
-			String flowLabel = connectionTear.getID();
-			if ((disruptedLSP.get(flowLabel) == null)
-					|| ((restoredLSP.get(flowLabel) != null) && (restoredLSP
-							.get(flowLabel).getPath().equals(connectionTear
-							.getPath())))) {
+			if (restoration.teardown(connectionTear, event.getTimeStamp())) {
 				// Send RSVP PathTear message
 				CrankRSVP rsvpTear = new CrankRSVP(connectionTear,
 						Packet.Header.RSVP_PATH_TEAR,
@@ -560,7 +575,7 @@ public class OBGPControlPlane extends ControlPlane {
 				// System.out.println(rsvpTear.toString());
 				// System.out.println("Eh hora de finalizar a requisicao " +
 				// flowLabel);
-				return new Event(event.getTimeStamp(),
+				return Event.obtain(event.getTimeStamp(),
 						Event.Type.PACKET_ARRIVAL, rsvpTear);
 
 			} else { // Ignore the teardown associated to a failed LSP, since it
@@ -591,6 +606,9 @@ public class OBGPControlPlane extends ControlPlane {
 					return response;
 			} else { // Failed node
 				accounting.addFailed(packet);
+				if ((packet instanceof CrankRSVP)
+						&& ((CrankRSVP) packet).inRestoration())
+					restoration.fail(packet.getFlowId(), event.getTimeStamp());
 				return null;
 			}
 		case FAILURE_LINK: // For link failure
@@ -638,25 +656,10 @@ public class OBGPControlPlane extends ControlPlane {
 			// Notifies the end nodes of the failure after the localization time
 			double timeNotification = lastTime + this.faultLocalizationTime;
 			int lengthFailure = 2 * this.identificationLength;
-			// Creates the packets of notification
-			Packet failureTo = new Packet(Packet.Header.LINK_FAILURE,
-					edge.getDestination(), edge.getDestination(),
-					Packet.Priority.HIGH, lengthFailure, graph.size());
-			Packet failureFrom = new Packet(Packet.Header.LINK_FAILURE,
-					edge.getSource(), edge.getSource(), Packet.Priority.HIGH,
-					lengthFailure, graph.size());
-			// Adds the edge to the packets.
-			Failure failureLinkAdv = new Failure(edge);
-			failureTo.setPayload(failureLinkAdv);
-			failureFrom.setPayload(failureLinkAdv);
-			// Add to the vector of events
-			Vector<Event> failuresLink = new Vector<Event>();
-			failuresLink.add(new Event(timeNotification,
-					Event.Type.PACKET_ARRIVAL, failureFrom));
-			failuresLink.add(new Event(timeNotification,
-					Event.Type.PACKET_ARRIVAL, failureTo));
-			return new Event(timeNotification, Event.Type.MULTIPLE,
-					failuresLink);
+			// Coalesces the failures of the same instant in a single flooding
+			if ((flooding == null) || !flooding.accepts(timeNotification))
+				flooding = new FailureFlooding(nodes, timeNotification);
+			return flooding.add(new Failure(edge), lengthFailure, graph.size());
 		case FAILURE_NODE: // For node failure
 			// Get the node associated with the failure
 			id = (String) event.getContent();
@@ -665,10 +668,10 @@ public class OBGPControlPlane extends ControlPlane {
 			Vector<String> neighbors = graph.adjacentNodes(id);
 			for (String neighId : neighbors) {
 				// Add the edge "from" the removed node
-				failuresNode.add(new Event(lastTime, Event.Type.FAILURE_LINK,
+				failuresNode.add(Event.obtain(lastTime, Event.Type.FAILURE_LINK,
 						new String(id + "-" + neighId)));
 				// Add the edge "to" the removed node
-				failuresNode.add(new Event(lastTime, Event.Type.FAILURE_LINK,
+				failuresNode.add(Event.obtain(lastTime, Event.Type.FAILURE_LINK,
 						new String(neighId + "-" + id)));
 			}
 			// Remove the failure node from the graph
@@ -706,7 +709,7 @@ public class OBGPControlPlane extends ControlPlane {
 			// Remove the node from the list of nodes
 			nodes.remove(id);
 			// Return the response containing the failure of the multiple links
-			return new Event(lastTime, Event.Type.MULTIPLE, failuresNode);
+			return Event.obtain(lastTime, Event.Type.MULTIPLE, failuresNode);
 		default:
 			System.err.println("Unknown event: " + event.toString());
 			return null;
@@ -734,7 +737,8 @@ public class OBGPControlPlane extends ControlPlane {
 		// System.out.println("Crack rerouted success: " +
 		// reroutedLSP.toString());
 		System.out.println("Number of Crack rerouted success: "
-				+ reroutedLSP.size());
+				+ rerouted);
+		System.out.println("Restoration: " + restoration.toString());
 	}
 
 	/**
@@ -771,28 +775,7 @@ public class OBGPControlPlane extends ControlPlane {
 	 */
 	public LinkedHashMap<String, Vector<Path>> getPaths(Graph topology,
 			int alternative) {
-		LinkedHashMap<String, Vector<Path>> routes = new LinkedHashMap<String, Vector<Path>>();
-		YEN yen = new YEN();
-
-		for (String src : topology.nodes()) {
-			// System.out.println("Paths para no: " + src);
-			for (String tgt : topology.nodes()) {
-				if (!src.equals(tgt)) { // Assure different nodes in the pair
-					Vector<Path> paths = null;
-
-					try {
-						paths = yen.getShortestPaths(src, tgt, topology,
-								alternative);
-
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-					routes.put(src + "-" + tgt, paths);
-				}
-			}
-		}
-		// System.out.println(routes.toString());
-		return routes;
+		return allPairsPaths.getPaths(topology, alternative);
 	}
 
 	/**
@@ -8,7 +8,6 @@ import event.Event;
 import graph.Edge;
 import graph.Graph;
 
-import java.util.Hashtable;
 import java.util.LinkedHashMap;
 import java.util.Vector;
 
@@ -21,10 +20,13 @@ import main.Failure.Location;
 import rwa.Connection;
 import rwa.Error;
 import rwa.ExplicitRoutingTable;
+import rwa.FailureNotification;
 import rwa.LightpathRequest;
 import rwa.LinkState;
 import rwa.OpticalNode;
+import rwa.SpectrumAssignment;
 import rwa.WavelengthMask;
+import util.LongHashMap;
 
 /**
  * 
@@ -69,14 +71,16 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 	protected WavelengthAssignment wa;
 
 	/** The table for temporarily storing Label Set objects. */
-	protected Hashtable<String, LabelSet> labelSetTable;
+	protected LongHashMap<LabelSet> labelSetTable;
 	/** The history table serving as tabu in segment re-routing. */
-	protected Hashtable<String, Vector<String>> historyTable;
+	protected LongHashMap<Vector<String>> historyTable;
 	/** The flag indicating if this OBGP LSR is an ASBR **/
 	protected boolean isASBR;
 	/** The domain ID string **/
 	protected String domainID;
 	protected int maxInterReroutingAttempts;
+	/** The contiguous spectrum assignment of flex-grid links, or null for the wavelength assignment. */
+	protected SpectrumAssignment spectrum;
 	/** be verbose? **/
 	private boolean verbose = false;
 
@@ -116,44 +120,79 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 		this.maxReroutingAttempts = maxAttempts;
 		this.reroutingAttempts = attempts;
 		if (this.rerouting.equals(ReRouting.SEGMENT)) {
-			labelSetTable = new Hashtable<String, LabelSet>();
-			historyTable = new Hashtable<String, Vector<String>>();
+			labelSetTable = new LongHashMap<LabelSet>();
+			historyTable = new LongHashMap<Vector<String>>();
 		}
-		historyTable = new Hashtable<String, Vector<String>>();
+		historyTable = new LongHashMap<Vector<String>>();
 		this.isASBR = isASBR;
 		this.domainID = domainID;
 		this.maxInterReroutingAttempts = maxInterReroutingAttempts;
 	}
 
 	/**
-	 * Associates the neighbor id of a failed routed node to a flow label.
+	 * Sets the contiguous spectrum assignment of the flex-grid links. When it is set,
+	 * the positions of the label sets are spectrum slots and the connections occupy
+	 * blocks of contiguous slots chosen by its policy, instead of a single wavelength.
 	 * 
-	 * @param label
-	 *            The label of the RSVP message.
+	 * @param aSpectrum
+	 *            The spectrum assignment, or null for the wavelength assignment.
+	 */
+	public void setSpectrumAssignment(SpectrumAssignment aSpectrum) {
+		this.spectrum = aSpectrum;
+	}
+
+	/**
+	 * Chooses the label (first slot of the block, in flex-grid links) of a
+	 * connection from the label set accumulated along its path.
+	 * 
+	 * @param labelSet
+	 *            The non-empty label set.
+	 * @return The chosen label, or -1 if there is no free block of slots.
+	 */
+	protected int assignLabel(LabelSet labelSet) {
+		if (spectrum == null)
+			return labelSet.getFirstLabel();
+		return spectrum.select(labelSet.getWords());
+	}
+
+	/**
+	 * Returns the number of contiguous wavelengths (spectrum slots) of each connection.
+	 * 
+	 * @return The number of contiguous wavelengths of each connection.
+	 */
+	protected int getSlots() {
+		return (spectrum == null) ? 1 : spectrum.getSlots();
+	}
+
+	/**
+	 * Associates the neighbor id of a failed routed node to a flow.
+	 * 
+	 * @param flow
+	 *            The flow id of the RSVP message.
 	 * @param neigh
 	 *            The id of the visited neighbor.
 	 */
-	protected void putHistoryTable(String label, String neigh) {
-		Vector<String> history = historyTable.get(label);
+	protected void putHistoryTable(long flow, String neigh) {
+		Vector<String> history = historyTable.get(flow);
 		if (history == null) // no neighbor id in the list
 			history = new Vector<String>();
 		// Add the neighbor id to the list
 		if (!history.contains(neigh)) // no repeated elements
 			history.add(neigh);
-		this.historyTable.put(label, history);
+		this.historyTable.put(flow, history);
 	}
 
 	/**
 	 * Gets the number of already visited neighbor nodes by the RSVP Path
 	 * message.
 	 * 
-	 * @param label
-	 *            The label of the RSVP message.
+	 * @param flow
+	 *            The flow id of the RSVP message.
 	 * @return The number of already visited neighbor nodes by the RSVP Path
 	 *         message.
 	 */
-	protected int sizeHistoryTable(String label) {
-		Vector<String> history = historyTable.get(label);
+	protected int sizeHistoryTable(long flow) {
+		Vector<String> history = historyTable.get(flow);
 		if (history == null) // no neighbor id in the list
 			return 0;
 		else
@@ -164,15 +203,15 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 	/**
 	 * Gets the
 	 * 
-	 * @param label
+	 * @param flow
 	 * @return
 	 */
-	protected Vector<String> getHistoryTable(String label) {
-		Vector<String> history = historyTable.get(label);
+	protected Vector<String> getHistoryTable(long flow) {
+		Vector<String> history = historyTable.get(flow);
 		if (history == null) // no neighbor id in the list
 			return new Vector<String>();
 		else
-			return historyTable.get(label);
+			return historyTable.get(flow);
 	}
 
 	/**
@@ -249,10 +288,11 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 						+ request.getTry());
 			// Get the label set object
 			LabelSet labelSet = rsvp.getLabelSet();
-			if ((labelSet != null) && (labelSet.size() == 0)) { // There is no
+			if ((labelSet != null) && ((labelSet.size() == 0) // There is no
 																// free
 																// wavelengths
 																// to allocate
+					|| (target.equals(id) && (this.assignLabel(labelSet) == -1)))) {
 				if (verbose)
 					System.out.println(rsvp.getFlowLabel() + " - " + id
 							+ " - Out of Lambda!");
@@ -300,14 +340,15 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 				// Reset the SD pair to the new values
 				rsvp.setSDPair(target, request.getSource());
 				// Choose the first free wavelength
-				// do the first fit
-				int lambda = labelSet.getFirstLabel();
+				// do the first fit (or the spectrum policy, in flex-grid links)
+				int lambda = this.assignLabel(labelSet);
 				if (verbose)
 					System.out.println(rsvp.getFlowLabel() + " " + id
 							+ " - using the lambda " + lambda);
 				// Create a connection and add it as a object.
 				Connection connectionEst = new Connection(rsvp.getPath(),
 						lambda, rsvp.getFlowLabel(), request);
+				connectionEst.setSlots(this.getSlots());
 				// Set the start time of the connection, which starts after
 				// arriving at the source node.
 				// Because of that, it uses the round trip time as the time
@@ -339,7 +380,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 																	// node
 																	// re-routing
 						int routingTry = this.sizeHistoryTable(rsvp
-								.getFlowLabel());
+								.getFlowId());
 						nextHop = ((ExplicitRoutingTable) routingTable)
 								.nextHop(rsvp, routingTry);
 
@@ -353,7 +394,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 								Priority.NORMAL, 0, 0);
 
 						int routingTry = this.sizeHistoryTable(rsvp
-								.getFlowLabel());
+								.getFlowId());
 						nextHop = ((ExplicitRoutingTable) routingTable)
 								.nextHop(pacote, request.getTry());
 						request.resetTry();
@@ -371,7 +412,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 																	// node
 																	// re-routing
 						int routingTry = this.sizeHistoryTable(rsvp
-								.getFlowLabel());
+								.getFlowId());
 						// if(verbos)
 						// System.out.println("A routingTry eh " + routingTry);
 						// o nextHop nao deve vir dai, deve vir daqui <<VER
@@ -394,7 +435,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 							routingTry = 0;
 						} else {
 							routingTry = this.sizeHistoryTable(rsvp
-									.getFlowLabel());
+									.getFlowId());
 						}
 						if (verbose)
 							System.out.println(rsvp.getFlowLabel() + " " + id
@@ -516,7 +557,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 								Priority.NORMAL, 0, 0);
 						nextHop = ((ExplicitRoutingTable) routingTable)
 								.nextHop(pacote, this.sizeHistoryTable(rsvp
-										.getFlowLabel()));
+										.getFlowId()));
 						if (verbose)
 							System.out
 									.println(rsvp.getFlowLabel()
@@ -555,7 +596,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 					// Store the label set, if applicable
 					if ((labelSet != null)
 							&& (this.rerouting.equals(ReRouting.SEGMENT)))
-						labelSetTable.put(rsvp.getFlowLabel(),
+						labelSetTable.put(rsvp.getFlowId(),
 								(LabelSet) labelSet.clone());
 					// Updates the mask
 					if (labelSet == null)
@@ -608,8 +649,8 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 				// Clean the temporary label set and the history table, if
 				// applicable
 				if (this.rerouting.equals(ReRouting.SEGMENT)) {
-					labelSetTable.remove(rsvp.getFlowLabel());
-					historyTable.remove(rsvp.getFlowLabel());
+					labelSetTable.remove(rsvp.getFlowId());
+					historyTable.remove(rsvp.getFlowId());
 				}
 				// Gets the connection
 				Connection teared = (Connection) rsvp.getObject();
@@ -620,7 +661,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 					// Get the associated mask
 					WavelengthMask linkMaskTear = link.getMask();
 					// Clear the wavelength
-					linkMaskTear.clearWavelength(teared.getWavelength());
+					linkMaskTear.clearWavelengths(teared.getWavelength(), teared.getSlots());
 				} else {
 					System.out.print(event.toString());
 				}
@@ -653,7 +694,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 					// Get the associated mask
 					WavelengthMask linkMaskRem = link.getMask();
 					// Clear the wavelength
-					linkMaskRem.clearWavelength(removed_perr.getWavelength());
+					linkMaskRem.clearWavelengths(removed_perr.getWavelength(), removed_perr.getSlots());
 				}
 			}
 			// Gets the target node
@@ -678,7 +719,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 			case ADMISSION_CONTROL_FAILURE:
 				if (this.rerouting.equals(ReRouting.SEGMENT)) {
 					// Remove the connection from the history table
-					this.historyTable.remove(rsvp.getFlowLabel());
+					this.historyTable.remove(rsvp.getFlowId());
 				}
 				if (target.equals(id)) { // RSVP reached the target node
 					event.setType(Event.Type.LIGHTPATH_PROBLEM);
@@ -698,15 +739,15 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 					// Remove the last visited node from the record route
 					String last = rsvp.removeLastVisited();
 					// Put it in the history table
-					String label = rsvp.getFlowLabel();
-					this.putHistoryTable(label, last);
+					long flow = rsvp.getFlowId();
+					this.putHistoryTable(flow, last);
 					// System.out.println("ProcLA: "+id+" last: "+last);
 					// Gets the request and update the try counter
 					lRequest = (LightpathRequest) rsvp.getObject();
 					lRequest.addTry();
 					rsvp.setErrorDomain(id);
 					// Verify if we can make another re-routing attempt
-					int currentAttempt = this.sizeHistoryTable(label);
+					int currentAttempt = this.sizeHistoryTable(flow);
 					// Gets the number of available neighbors
 					int neighbors;
 					if (id.equals(lRequest.getSource()))
@@ -722,7 +763,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 						// Set as path message
 						rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 						// Sets the previous label set
-						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 						// Set the record route in the RSVP
 						rsvp.setRecordRoute();
 						// Reset the error
@@ -748,7 +789,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 							event.setTimeStamp(event.getTimeStamp()
 									+ links.get(nextHop).getDelay());
 							// Remove the entry in the history table
-							this.historyTable.remove(rsvp.getFlowLabel());
+							this.historyTable.remove(rsvp.getFlowId());
 						}
 					}
 				} else { // None or end-to-end routing
@@ -793,14 +834,14 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 					// Remove the last visited node from the record route
 					String last = rsvp.removeLastVisited();
 					// Put it in the history table
-					this.putHistoryTable(rsvp.getFlowLabel(), last);
+					this.putHistoryTable(rsvp.getFlowId(), last);
 					// System.out.println("ProcRT: "+id+" last: "+last);
 					// Gets the request and update the try counter
 					lRequest = (LightpathRequest) rsvp.getObject();
 					lRequest.addTry();
 					// Verify if we can make another re-routing attempt
 					int currentAttempt = this.sizeHistoryTable(rsvp
-							.getFlowLabel());
+							.getFlowId());
 					// System.out.println("Cur: "+currentAttempt+" max: "+this.reroutingAttempts);
 					// Gets the number of available neighbors
 					int neighbors;
@@ -817,7 +858,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 						// Set as path message
 						rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 						// Sets the previous label set
-						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+						rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 						// Set the record route in the RSVP
 						rsvp.setRecordRoute();
 						// Reset the error
@@ -843,7 +884,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 							event.setTimeStamp(event.getTimeStamp()
 									+ links.get(nextHop).getDelay());
 							// Remove the entry in the history table
-							this.historyTable.remove(rsvp.getFlowLabel());
+							this.historyTable.remove(rsvp.getFlowId());
 						}
 					}
 				} else { // None or end-to-end routing
@@ -869,13 +910,13 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 				// Remove the last visited node from the record route
 				String last = rsvp.removeLastVisited();
 				// Put it in the history table
-				this.putHistoryTable(rsvp.getFlowLabel(), last);
+				this.putHistoryTable(rsvp.getFlowId(), last);
 				// System.out.println("ProcRE: "+id+" last: "+last);
 				// Gets the request and update the try counter
 				lRequest = (LightpathRequest) rsvp.getObject();
 				lRequest.addTry();
 				// Verify if we can make another re-routing attempt
-				int currentAttempt = this.sizeHistoryTable(rsvp.getFlowLabel());
+				int currentAttempt = this.sizeHistoryTable(rsvp.getFlowId());
 				// System.out.println("Cur: "+currentAttempt);
 				// Gets the number of available neighbors
 				int neighbors;
@@ -892,7 +933,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 					// Set as path message
 					rsvp.setNextHeader(Packet.Header.RSVP_PATH);
 					// Sets the previous label set
-					rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowLabel()));
+					rsvp.setLabelSet(labelSetTable.get(rsvp.getFlowId()));
 					// Set the record route in the RSVP
 					rsvp.setRecordRoute();
 					// Reset the error
@@ -915,7 +956,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 						event.setTimeStamp(event.getTimeStamp()
 								+ links.get(nextHop).getDelay());
 						// Remove the entry in the history table
-						this.historyTable.remove(rsvp.getFlowLabel());
+						this.historyTable.remove(rsvp.getFlowId());
 					}
 				}
 				break;
@@ -937,14 +978,14 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 			// Get the associated mask
 			WavelengthMask linkMask = links.get(fwdId).getMask();
 			// See the status of the wavelength
-			if (linkMask.testWavelength(connection.getWavelength())) {
+			if (linkMask.testWavelengths(connection.getWavelength(), connection.getSlots())) {
 				// System.out.println("Adding conn: "+rsvp.getFlowLabel()+" with: "+connection.toString()+" to intermediate node: "+id);
 				activeConnections.put(rsvp.getFlowLabel(), connection);
 				// Set the wavelength
-				linkMask.setWavelength(connection.getWavelength());
+				linkMask.setWavelengths(connection.getWavelength(), connection.getSlots());
 				if (this.rerouting.equals(ReRouting.SEGMENT)) {
 					// Remove the connection from the history table
-					this.historyTable.remove(rsvp.getFlowLabel());
+					this.historyTable.remove(rsvp.getFlowId());
 				}
 				// Verify if the resv message reached the source node.
 				target = rsvp.getTarget();
@@ -1002,8 +1043,8 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 			// Get the associated mask
 			WavelengthMask linkMaskTear = links.get(forwardId).getMask();
 			// Clear the wavelength
-			int clear = ((Connection) rsvp.getObject()).getWavelength();
-			linkMaskTear.clearWavelength(clear);
+			Connection cleared = (Connection) rsvp.getObject();
+			linkMaskTear.clearWavelengths(cleared.getWavelength(), cleared.getSlots());
 			// Verify if the RSVP reached the source node.
 			if (rsvp.getSource().equals(id)) {
 				event.setType(Event.Type.LIGHTPATH_REMOVED);
@@ -1031,7 +1072,7 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 				// Get the associated mask
 				WavelengthMask linkMaskErr = links.get(nextHop).getMask();
 				// Clear the wavelength
-				linkMaskErr.clearWavelength(removed_rerr.getWavelength());
+				linkMaskErr.clearWavelengths(removed_rerr.getWavelength(), removed_rerr.getSlots());
 				// Set the next hop in the packet
 				rsvp.setNode(nextHop);
 				// Set the new time of the event due to transmission time
@@ -1043,130 +1084,101 @@ public class OBGPLabelSwitchRouter extends OpticalNode {
 		case LINK_FAILURE: // Packet associated with control plane (separated
 							// channel)
 		    //	Graph graph2 = OBGPControlPlane.getDomainGraphs().get(getDomain(id));
-			// Identify the failure
-			Failure failure = (Failure) packet.getPayload();
-			// Flooding of the failure
-			if (!failureID.contains(failure.getID())) { // First time
-				// Mock local update of the topology
+			// Identify the failures notified in the same instant
+			FailureNotification notification = (FailureNotification) packet.getPayload();
+			// Forward the notification to the neighbors reached first through this node
+			Vector<Event> broadcast = notification.forward(this, event);
+			for (Failure failure : notification.getFailures()) {
+				// Treatment of the failure
+				if (!failureID.contains(failure.getID())) { // First time
+					// Mock local update of the topology
 				
-				((ExplicitRoutingTable) routingTable).updateFromTopology(graph,
-						OBGPControlPlane.getPaths(getDomain(id)));
-				// Broadcast the failure to the neighbors
-				String previousHop = packet.getSource();
-				Vector<String> neighbors = graph.adjacentNodes(id);
-				Vector<Event> broadcast = new Vector<Event>();
-				// Adds the flooding information
-				for (String neighId : neighbors) {
-					if (!neighId.equals(previousHop)) { // not visited
-						// Retransmit the packet
-						Packet clonedFrom = (Packet) packet.clone();
-						clonedFrom.retransmit(id, neighId);
-						clonedFrom.setNode(neighId);
-						// Set new time stamp
-						try {
-						double transmissionTime = this.links.get(neighId)
-								.getDelay();
-						double newTimeStamp = event.getTimeStamp()
-								+ transmissionTime;
-						// Add to the list of broadcast
-						broadcast.add(new Event(newTimeStamp,
-								Event.Type.PACKET_ARRIVAL, clonedFrom));
-						}
-						catch(Exception e) {
-							System.out.println("ERRO");
-						}
-					
-						
+					((ExplicitRoutingTable) routingTable).updateFromTopology(graph,
+							OBGPControlPlane.getPaths(getDomain(id)));
+					// Add the failure to the list of processed ones.
+					failureID.add(failure.getID());
+					/* Remove the link states affected by the failure. */
+					if (((Edge) failure.getInformation()).getSource().equals(id)) {
+						links.remove(((Edge) failure.getInformation())
+								.getDestination());
 					}
-				}
-				// Add the failure to the list of processed ones.
-				failureID.add(failure.getID());
-				/* Remove the link states affected by the failure. */
-				if (((Edge) failure.getInformation()).getSource().equals(id)) {
-					links.remove(((Edge) failure.getInformation())
-							.getDestination());
-				}
-				/* Treatment the failure by the neighbor nodes */
-				// Now, if it is the closest node upstream to the failure
-				if (id.equals(((Edge) failure.getInformation()).getSource())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathErr = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_ERR, id,
-									active.getSource());
-							// Create the error with path remove flag
-							error = new Error(Error.Code.LSP_FAILURE, true);
-							pathErr.setError(error);
-							pathErr.setFlowLabel(activeID);
-							// System.out.println(pathErr.toString());
-							double transmissionTime = 0;
-							// Not the source node to treat the failure
-							if (!id.equals(active.getPath().firstNode())) {
-								nextHop = active.getPath().getPreviousNode(id);
-								pathErr.setNode(nextHop);
-								// Set new time stamp
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+					/* Treatment the failure by the neighbor nodes */
+					// Now, if it is the closest node upstream to the failure
+					if (id.equals(((Edge) failure.getInformation()).getSource())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathErr = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_ERR, id,
+										active.getSource());
+								// Create the error with path remove flag
+								error = new Error(Error.Code.LSP_FAILURE, true);
+								pathErr.setError(error);
+								pathErr.setFlowLabel(activeID);
+								// System.out.println(pathErr.toString());
+								double transmissionTime = 0;
+								// Not the source node to treat the failure
+								if (!id.equals(active.getPath().firstNode())) {
+									nextHop = active.getPath().getPreviousNode(id);
+									pathErr.setNode(nextHop);
+									// Set new time stamp
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathErr));
 							}
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathErr));
 						}
-					}
-					// Now, if it is the closest node downstream to the failure
-				} else if (id.equals(((Edge) failure.getInformation())
-						.getDestination())) {
-					// Adds the notification of broken LSP to the event
-					for (String activeID : activeConnections.keySet()) {
-						// Gets the connection
-						Connection active = activeConnections.get(activeID);
-						// Locate the failure
-						Location location = failure
-								.locate(id, active.getPath());
-						if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
-							// Create the PathErr packet
-							CrankRSVP pathTear = new CrankRSVP(active,
-									Packet.Header.RSVP_PATH_TEAR, id,
-									active.getTarget());
-							// Create the error
-							error = new Error(Error.Code.LSP_FAILURE);
-							pathTear.setError(error);
-							pathTear.setFlowLabel(activeID);
-							// System.out.println(pathTear.toString());
-							// Not the target node to treat the failure
-							double transmissionTime = 0;
-							// Not the last node to tackle the failure
-							if (!id.equals(active.getPath().lastNode())) {
-								nextHop = active.getPath().getNextNode(id);
-								pathTear.setNode(nextHop);
-								transmissionTime = this.links.get(nextHop)
-										.getDelay();
+						// Now, if it is the closest node downstream to the failure
+					} else if (id.equals(((Edge) failure.getInformation())
+							.getDestination())) {
+						// Adds the notification of broken LSP to the event
+						for (String activeID : activeConnections.affected(failure)) {
+							// Gets the connection
+							Connection active = activeConnections.get(activeID);
+							// Locate the failure
+							Location location = failure
+									.locate(id, active.getPath());
+							if (!location.equals(Failure.Location.NOT_APPLICABLE)) {
+								// Create the PathErr packet
+								CrankRSVP pathTear = new CrankRSVP(active,
+										Packet.Header.RSVP_PATH_TEAR, id,
+										active.getTarget());
+								// Create the error
+								error = new Error(Error.Code.LSP_FAILURE);
+								pathTear.setError(error);
+								pathTear.setFlowLabel(activeID);
+								// System.out.println(pathTear.toString());
+								// Not the target node to treat the failure
+								double transmissionTime = 0;
+								// Not the last node to tackle the failure
+								if (!id.equals(active.getPath().lastNode())) {
+									nextHop = active.getPath().getNextNode(id);
+									pathTear.setNode(nextHop);
+									transmissionTime = this.links.get(nextHop)
+											.getDelay();
+								}
+								// Set new time stamp
+								double newTimeStamp = event.getTimeStamp()
+										+ transmissionTime + DELTA_TIME;
+								// Add to the list of broadcast
+								broadcast.add(Event.obtain(newTimeStamp,
+										Event.Type.PACKET_ARRIVAL, pathTear));
 							}
-							// Set new time stamp
-							double newTimeStamp = event.getTimeStamp()
-									+ transmissionTime + DELTA_TIME;
-							// Add to the list of broadcast
-							broadcast.add(new Event(newTimeStamp,
-									Event.Type.PACKET_ARRIVAL, pathTear));
 						}
 					}
 				}
-				// System.out.println(broadcast.toString());
-				// Return the multiple packets associated with the failure
-				response = new Event(event.getTimeStamp(), Event.Type.MULTIPLE,
-						broadcast);
-			} else { // Already processed the failure.
-				event.setType(Event.Type.IGNORE);
-				response = event;
 			}
+			// Return the multiple packets associated with the failures
+			response = Event.obtain(event.getTimeStamp(), Event.Type.MULTIPLE, broadcast);
 			break;
 		}
 		return response;
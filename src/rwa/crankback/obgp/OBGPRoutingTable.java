@@ -46,9 +46,13 @@ public class OBGPRoutingTable {
 
 	protected static LinkedHashMap<String, Vector<String>> routes;
 
+	/** The routes of crankRoutes, indexed by the ids of the source and destination domains. */
+	protected static InterDomainTable<ArrayList<Vector<String>>> index;
+
 	public OBGPRoutingTable() {
 		//routes = new LinkedHashMap<String, Vector<String>>();
 		crankRoutes = new  LinkedHashMap<String, ArrayList<Vector<String>>>();
+		index = new InterDomainTable<ArrayList<Vector<String>>>();
 		
 		
 
@@ -56,12 +60,19 @@ public class OBGPRoutingTable {
 
 	public OBGPRoutingTable(LinkedHashMap<String, ArrayList<Vector<String>>> route) {
 		this.crankRoutes = route;
+		index = new InterDomainTable<ArrayList<Vector<String>>>();
+		for (String key : route.keySet()) {
+			String[] pair = key.split("-");
+			index.put(pair[0], pair[1], route.get(key));
+		}
 
 	}
 
 	public static void putEntry(String key, ArrayList<Vector<String>> paths) {
 		
 		crankRoutes.put(key, paths);
+		String[] pair = key.split("-");
+		index.put(pair[0], pair[1], paths);
 	//	System.out.println("Adicionando"  + key  +   paths.toString());
 	}
 
@@ -69,7 +80,8 @@ public class OBGPRoutingTable {
 
 	public void removeEntry(String source, String dest) {
 		String key = source + "-" + dest;
-		crankRoutes.remove(key);
+		if (crankRoutes.remove(key) != null)
+			index.remove(source, dest);
 	}
 
 	public String toString() {
@@ -84,27 +96,13 @@ public class OBGPRoutingTable {
 	}
 	
 	public static String getNextHop(String source, String target, int trying) {
-		if(source.contains(":")) {
-			source = source.split(":")[0];
-		}
-		if(target.contains(":")) {
-			target = target.split(":")[0];
-		}
-		String key = source+"-"+target;
-		//System.out.println("Me pediram o nexthop, estou devolvendo: " + crankRoutes.get(key).get(trying).firstElement());
-		return crankRoutes.get(key).get(trying).firstElement();
+		//System.out.println("Me pediram o nexthop, estou devolvendo: " + index.get(source, target).get(trying).firstElement());
+		return index.get(source, target).get(trying).firstElement();
 	}
 
 	
 	public static Vector<String> getASPath(String source, String target, int trying) {
-		if(source.contains(":")) {
-			source = source.split(":")[0];
-		}
-		if(target.contains(":")) {
-			target = target.split(":")[0];
-		}
-		String key = source+"-"+target;
-		return crankRoutes.get(key).get(trying);
+		return index.get(source, target).get(trying);
 	}
 	
 
@@ -0,0 +1,276 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed d-ary heap implementation of a min-priority queue of integer handles
+ * with primitive double keys. Each handle (for instance, the index of a node or
+ * of an event generator) can be stored at most once in the heap and its key can
+ * be updated in place in O(log n), without searching or reallocating any item.
+ * <p>The sift operations only move an item if its key is strictly less than the
+ * one it is compared to and, among children with the same key, prefer the leftmost
+ * one. Therefore, with arity 2, this heap serves the handles in the same order as
+ * the BinaryHeap with reversed priority does for the same sequence of operations.
+ *
+ * @version 1.0
+ */
+public class IndexedHeap implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The default number of children of each node of the heap. */
+	public static final int DEFAULT_ARITY = 4;
+	/** The number of children of each node of the heap. */
+	protected int arity;
+	/** The handles stored in the heap, in heap order. */
+	protected int[] heap;
+	/** The position of each handle in the heap, or -1 if it is not in the heap. */
+	protected int[] position;
+	/** The key of each handle. */
+	protected double[] key;
+	/** The number of handles in the heap. */
+	protected int size;
+
+	/**
+	 * Creates a new IndexedHeap object with the default arity.
+	 * @param capacity The initial number of handles (0 to capacity - 1) supported by the heap.
+	 */
+	public IndexedHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	/**
+	 * Creates a new IndexedHeap object.
+	 * @param capacity The initial number of handles (0 to capacity - 1) supported by the heap.
+	 * @param aArity The number of children of each node of the heap (at least 2).
+	 */
+	public IndexedHeap(int capacity, int aArity) {
+		if (aArity < 2)
+			throw new IllegalArgumentException("Invalid arity: "+aArity);
+		this.arity = aArity;
+		capacity = Math.max(capacity, 1);
+		heap = new int[capacity];
+		key = new double[capacity];
+		position = new int[capacity];
+		Arrays.fill(position, -1);
+		size = 0;
+	}
+
+	/**
+	 * Grows the heap, if necessary, for supporting the specified handle.
+	 * @param handle The handle.
+	 */
+	protected void ensureCapacity(int handle) {
+		if (handle < position.length)
+			return;
+		int capacity = Math.max(handle + 1, 2 * position.length);
+		heap = Arrays.copyOf(heap, capacity);
+		key = Arrays.copyOf(key, capacity);
+		int length = position.length;
+		position = Arrays.copyOf(position, capacity);
+		Arrays.fill(position, length, capacity, -1);
+	}
+
+	/**
+	 * Tests if the heap is empty.
+	 * @return true if empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the current size of the heap.
+	 * @return The current size of the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Verifies if the specified handle is stored in the heap.
+	 * @param handle The handle.
+	 * @return True, if the handle is in the heap; false, otherwise.
+	 */
+	public boolean contains(int handle) {
+		return (handle >= 0) && (handle < position.length) && (position[handle] >= 0);
+	}
+
+	/**
+	 * Returns the key of the specified handle.
+	 * @param handle The handle, which must be in the heap.
+	 * @return The key of the specified handle.
+	 */
+	public double getKey(int handle) {
+		if (!contains(handle))
+			throw new NoSuchElementException("Handle not in the heap: "+handle);
+		return key[handle];
+	}
+
+	/**
+	 * Adds a handle to the heap.
+	 * @param handle The handle to be added (non-negative).
+	 * @param value The key of the handle.
+	 */
+	public void add(int handle, double value) {
+		if (handle < 0)
+			throw new IllegalArgumentException("Invalid handle: "+handle);
+		ensureCapacity(handle);
+		if (position[handle] >= 0)
+			throw new IllegalArgumentException("Handle already in the heap: "+handle);
+		key[handle] = value;
+		heap[size] = handle;
+		position[handle] = size;
+		siftUp(size++);
+	}
+
+	/**
+	 * Returns the handle with the lowest key, without removing it.
+	 * @return The handle with the lowest key.
+	 * @exception NoSuchElementException if the heap is empty.
+	 */
+	public int peek() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return heap[0];
+	}
+
+	/**
+	 * Returns the lowest key of the heap.
+	 * @return The lowest key of the heap.
+	 * @exception NoSuchElementException if the heap is empty.
+	 */
+	public double peekKey() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return key[heap[0]];
+	}
+
+	/**
+	 * Removes the handle with the lowest key from the heap.
+	 * @return The handle with the lowest key.
+	 * @exception NoSuchElementException if the heap is empty.
+	 */
+	public int remove() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		int result = heap[0];
+		position[result] = -1;
+		int last = heap[--size];
+		if (size > 0) {
+			heap[0] = last;
+			position[last] = 0;
+			siftDown(0);
+		}
+		return result;
+	}
+
+	/**
+	 * Changes the key of the specified handle, restoring the heap order.
+	 * @param handle The handle, which must be in the heap.
+	 * @param value The new key of the handle.
+	 */
+	public void update(int handle, double value) {
+		if (!contains(handle))
+			throw new NoSuchElementException("Handle not in the heap: "+handle);
+		double old = key[handle];
+		key[handle] = value;
+		if (value < old)
+			siftUp(position[handle]);
+		else if (value > old)
+			siftDown(position[handle]);
+	}
+
+	/**
+	 * Decreases the key of the specified handle.
+	 * @param handle The handle, which must be in the heap.
+	 * @param value The new key of the handle. It must not be greater than the original one.
+	 */
+	public void decreaseKey(int handle, double value) {
+		if (!contains(handle))
+			throw new NoSuchElementException("Handle not in the heap: "+handle);
+		if (value > key[handle])
+			throw new IllegalArgumentException("The new key "+value+" is greater than the current key "+key[handle]);
+		key[handle] = value;
+		siftUp(position[handle]);
+	}
+
+	/**
+	 * Removes all handles of this heap, keeping the allocated arrays.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++)
+			position[heap[i]] = -1;
+		size = 0;
+	}
+
+	/**
+	 * Moves the handle at the specified position towards the root of the heap.
+	 * @param child The position of the handle.
+	 */
+	protected void siftUp(int child) {
+		int handle = heap[child];
+		double value = key[handle];
+		while (child > 0) {
+			int parent = (child - 1) / arity;
+			int parentHandle = heap[parent];
+			if (key[parentHandle] > value) {
+				heap[child] = parentHandle;
+				position[parentHandle] = child;
+				child = parent;
+			} else {
+				break;
+			}
+		}
+		heap[child] = handle;
+		position[handle] = child;
+	}
+
+	/**
+	 * Moves the handle at the specified position towards the leaves of the heap.
+	 * @param parent The position of the handle.
+	 */
+	protected void siftDown(int parent) {
+		int handle = heap[parent];
+		double value = key[handle];
+		int child;
+		while ((child = (arity * parent) + 1) < size) {
+			//Selects the leftmost child with the lowest key
+			int end = Math.min(child + arity, size);
+			for (int i = child + 1; i < end; i++) {
+				if (key[heap[child]] > key[heap[i]])
+					child = i;
+			}
+			int childHandle = heap[child];
+			if (value > key[childHandle]) {
+				heap[parent] = childHandle;
+				position[childHandle] = parent;
+				parent = child;
+			} else {
+				break;
+			}
+		}
+		heap[parent] = handle;
+		position[handle] = parent;
+	}
+
+	/**
+	 * Returns a String representation of this heap.
+	 * No assumption can be made over the ordering of the elements.
+	 */
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				buf.append(", ");
+			buf.append(heap[i]).append("=").append(key[heap[i]]);
+		}
+		buf.append("]");
+		return buf.toString();
+	}
+}
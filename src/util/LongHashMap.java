@@ -0,0 +1,223 @@
+/*
+ * Created on Oct 18, 2026.
+ */
+package util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Hash table of objects keyed by primitive long values, such as the flow ids of
+ * the lightpaths. The keys are stored in open addressing with linear probing,
+ * so that no key is boxed and no entry object is allocated by the operations.
+ * The removals shift back the following entries of the probe sequence, instead
+ * of leaving deleted markers, keeping the searches short.
+ * <p>Null values are not supported, since an empty slot is marked by a null value.
+ * This class is not synchronized.
+ *
+ * @version 1.0
+ */
+public class LongHashMap<V> implements Serializable {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The default initial capacity. */
+	public static final int DEFAULT_CAPACITY = 16;
+	/** The keys of the slots. */
+	protected long[] keys;
+	/** The values of the slots, or null for the empty slots. */
+	protected Object[] values;
+	/** The number of entries. */
+	protected int size;
+	/** The mask of the slot index, i.e., the number of slots minus one. */
+	protected int mask;
+
+	/**
+	 * Creates a new LongHashMap object with the default capacity.
+	 */
+	public LongHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new LongHashMap object.
+	 * @param capacity The expected number of entries.
+	 */
+	public LongHashMap(int capacity) {
+		int slots = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) * 2; //Load factor at most 0.5
+		keys = new long[slots];
+		values = new Object[slots];
+		mask = slots - 1;
+	}
+
+	/**
+	 * Returns the home slot of the specified key.
+	 * @param key The key.
+	 * @return The home slot of the key.
+	 */
+	protected int slot(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L; //Fibonacci hashing spreads the sequential ids
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * Returns the slot of the specified key.
+	 * @param key The key.
+	 * @return The slot of the key, or -1 if it is not in the table.
+	 */
+	protected int find(long key) {
+		for (int i = this.slot(key); values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the value associated to the specified key.
+	 * @param key The key.
+	 * @return The value, or null if the key is not in the table.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int i = this.find(key);
+		return (i == -1) ? null : (V) values[i];
+	}
+
+	/**
+	 * Verifies if the specified key is in the table.
+	 * @param key The key.
+	 * @return True, if the key is in the table. False, otherwise.
+	 */
+	public boolean containsKey(long key) {
+		return this.find(key) != -1;
+	}
+
+	/**
+	 * Associates a value to the specified key, replacing the previous one.
+	 * @param key The key.
+	 * @param value The value, which must not be null.
+	 * @return The previous value of the key, or null if the key was not in the table.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null)
+			throw new NullPointerException("Null value for the key: " + key);
+		int i = this.slot(key);
+		for (; values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				V previous = (V) values[i];
+				values[i] = value;
+				return previous;
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size * 2 > values.length)
+			this.rehash(values.length * 2);
+		return null;
+	}
+
+	/**
+	 * Removes the specified key from the table.
+	 * @param key The key.
+	 * @return The value of the key, or null if the key was not in the table.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int i = this.find(key);
+		if (i == -1)
+			return null;
+		V previous = (V) values[i];
+		//Shift back the entries of the probe sequence that cannot be reached from their home slots
+		int hole = i;
+		for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+			int home = this.slot(keys[j]);
+			if (((j - home) & mask) >= ((j - hole) & mask)) {
+				keys[hole] = keys[j];
+				values[hole] = values[j];
+				hole = j;
+			}
+		}
+		values[hole] = null;
+		size--;
+		return previous;
+	}
+
+	/**
+	 * Rebuilds the table with the specified number of slots.
+	 * @param slots The number of slots, a power of two.
+	 */
+	protected void rehash(int slots) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[slots];
+		values = new Object[slots];
+		mask = slots - 1;
+		for (int j = 0; j < oldValues.length; j++) {
+			if (oldValues[j] != null) {
+				int i = this.slot(oldKeys[j]);
+				while (values[i] != null)
+					i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of entries.
+	 * @return The number of entries.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Tests if the table is empty.
+	 * @return True, if the table has no entries. False, otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all entries of the table.
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns the keys of the table, in ascending order.
+	 * @return The keys of the table, in ascending order.
+	 */
+	public long[] keys() {
+		long[] result = new long[size];
+		int n = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null)
+				result[n++] = keys[i];
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Returns a String representation of this object, with the entries in ascending order of keys.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder buffer = new StringBuilder("{");
+		long[] sorted = this.keys();
+		for (int i = 0; i < sorted.length; i++) {
+			if (i > 0)
+				buffer.append(", ");
+			buffer.append(sorted[i]);
+			buffer.append("=");
+			buffer.append(this.get(sorted[i]));
+		}
+		buffer.append("}");
+		return buffer.toString();
+	}
+}
@@ -1,12 +1,14 @@
 package util;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
  * Binary heap implementation of a priority queue, in which items of
- * the same priority are removed in order of insertion.<p>
+ * the same priority are removed in order of insertion, or in the
+ * reverse order of insertion if so specified.<p>
  * Adapted to used the reversed priority binary heap.
  * 
  * @author Peter Williams and Gustavo Pavani. */
@@ -16,6 +18,7 @@ public class StrictBinaryHeap implements Serializable{
 	private static final long serialVersionUID = 1L;
     private BinaryHeap h;         // the heap
     private static long ticks = 0; // the number of insertions so far
+    private boolean lastInFirstOut; // items of same priority removed in reverse order of insertion
 
     @SuppressWarnings("unchecked")
 	private class Item implements Comparable, Serializable {
@@ -32,8 +35,11 @@ public class StrictBinaryHeap implements Serializable{
 		public int compareTo(Object other) {
             int result = item.compareTo(((Item) other).item);
             if (result == 0) { // items have same original priority
-                result = new Long(((Item) other).time - time).intValue();
-                // so earlier items now have higher priority
+                long otherTime = ((Item) other).time;
+                result = (time < otherTime) ? -1 : ((time > otherTime) ? +1 : 0);
+                // so earlier items are removed first from a reversed priority heap
+                if (h.reversedPriority == lastInFirstOut)
+                    result = -result;
             }
             return result;
         }
@@ -53,7 +59,20 @@ public class StrictBinaryHeap implements Serializable{
      * order property is such that the predecessor has a higher priority than its successors.
      */
     public StrictBinaryHeap(boolean reversedPriority) {
+        this(reversedPriority, false);
+    }
+
+    /**
+     * Constructs the binary heap.
+     * @param reversedPriority If it is true, then the heap order property is such that
+     * the predecessor has a lower priority than its successors. Otherwise, the heap
+     * order property is such that the predecessor has a higher priority than its successors.
+     * @param lastInFirstOut If it is true, then items of the same priority are removed
+     * in the reverse order of insertion. Otherwise, in order of insertion.
+     */
+    public StrictBinaryHeap(boolean reversedPriority, boolean lastInFirstOut) {
         h = new BinaryHeap(reversedPriority);
+        this.lastInFirstOut = lastInFirstOut;
     }
   
     /**
@@ -99,9 +118,9 @@ public class StrictBinaryHeap implements Serializable{
      * Removes an item of highest priority item from the heap.<p>
      * 
      * If several items are currently of highest priority, returns them
-     * in order of insertion.<p>
+     * in order of insertion, or in the reverse order if so specified.<p>
      *
-     * @return the first item of highest priority that was inserted into the heap.
+     * @return the first (or last) item of highest priority that was inserted into the heap.
      * @exception NoSuchElementException if the heap is empty.
      */
     @SuppressWarnings("unchecked")
@@ -115,9 +134,13 @@ public class StrictBinaryHeap implements Serializable{
      * elements of this list.
      * @return A list representation of this binary heap.00
      */
-    @SuppressWarnings("unchecked")
-	public List asList() {
-    	return h.asList();
+	public List<Comparable<?>> asList() {
+    	List<Comparable<?>> list = new ArrayList<Comparable<?>>(h.size());
+    	for (Object element : h.asList()) {
+    		if (element != null)
+    			list.add(((Item) element).item);
+    	}
+    	return list;
     }
 
 }